@@ -95,8 +95,16 @@ public enum RupsConfiguration {
     private static final String CLOSE_OPERATION_KEY = "ui.closeoperation";
     private static final String DUPLICATE_OPEN_FILES_KEY = "rups.duplicatefiles";
     private static final String HOME_FOLDER_KEY = "user.home";
+    private static final String LAZY_OPEN_KEY = "rups.lazyopen";
     private static final String LOCALE_KEY = "user.locale";
     private static final String LOOK_AND_FEEL_KEY = "ui.lookandfeel";
+    private static final String OBJECT_CACHE_MEMORY_LIMIT_KEY = "rups.cache.memorylimit";
+    private static final String SCAN_CACHE_KEY = "rups.scancache";
+    private static final String SCAN_CACHE_FOLDER = ".rups" + File.separator + "scancache";
+    private static final long DEFAULT_OBJECT_CACHE_MEMORY_LIMIT = 128;
+    private static final String WRITER_MEMORY_LIMIT_KEY = "rups.writer.memorylimit";
+    private static final long DEFAULT_WRITER_MEMORY_LIMIT = 64;
+    private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
 
     private final Preferences systemPreferences;
     private final Properties defaultProperties;
@@ -132,6 +140,37 @@ public enum RupsConfiguration {
         return Boolean.parseBoolean(value);
     }
 
+    /**
+     * Returns whether RUPS should skip the full object scan, when opening a
+     * file, and only index the objects from the cross-reference table.
+     *
+     * @return boolean indicating if files are opened lazily
+     */
+    public boolean isLazyOpen() {
+        final String value = getValueFromSystemPreferences(LAZY_OPEN_KEY);
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Returns whether RUPS should keep the results of the object scan in a cache on disk, so that the same file is
+     * opened faster next time.
+     *
+     * @return boolean indicating if the scan cache is used
+     */
+    public boolean isScanCacheEnabled() {
+        final String value = getValueFromSystemPreferences(SCAN_CACHE_KEY);
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Gets the folder, which contains the cached results of the object scan.
+     *
+     * @return the folder of the scan cache
+     */
+    public File getScanCacheFolder() {
+        return new File(System.getProperty(HOME_FOLDER_KEY), SCAN_CACHE_FOLDER);
+    }
+
     /**
      * Returns the closing operation for the RUPS instance. Default it is returning EXIT_ON_CLOSE, but
      * another value could be useful when embedding RUPS or calling it from a Java process.
@@ -210,6 +249,39 @@ public enum RupsConfiguration {
         return SUPPORTED_LOOK_AND_FEEL.get(0);
     }
 
+    /**
+     * Gets the amount of memory, which can be used to buffer a document opened as owner, before the buffer is
+     * spilled to a temporary file.
+     *
+     * @return memory limit in bytes
+     */
+    public long getWriterMemoryLimit() {
+        return getMemoryLimit(WRITER_MEMORY_LIMIT_KEY, DEFAULT_WRITER_MEMORY_LIMIT);
+    }
+
+    /**
+     * Gets the estimated amount of memory, which can be used to keep the objects loaded on demand, before the least
+     * recently used ones are released.
+     *
+     * @return memory limit in bytes
+     */
+    public long getObjectCacheMemoryLimit() {
+        return getMemoryLimit(OBJECT_CACHE_MEMORY_LIMIT_KEY, DEFAULT_OBJECT_CACHE_MEMORY_LIMIT);
+    }
+
+    private long getMemoryLimit(String key, long defaultMegabytes) {
+        final String value = getValueFromSystemPreferences(key);
+        long megabytes = defaultMegabytes;
+        if (value != null) {
+            try {
+                megabytes = Math.max(0, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                LoggerHelper.warn(Language.ERROR_PARSING_SETTING.getString(), e, RupsConfiguration.class);
+            }
+        }
+        return Math.min(megabytes, Long.MAX_VALUE / BYTES_IN_MEGABYTE) * BYTES_IN_MEGABYTE;
+    }
+
     public void setLookAndFeel(LookAndFeelId lookAndFeel) {
         this.temporaryProperties.setProperty(LOOK_AND_FEEL_KEY, lookAndFeel.getConfigurationKey());
     }
@@ -218,6 +290,14 @@ public enum RupsConfiguration {
         this.temporaryProperties.setProperty(DUPLICATE_OPEN_FILES_KEY, Boolean.toString(value));
     }
 
+    public void setLazyOpen(boolean value) {
+        this.temporaryProperties.setProperty(LAZY_OPEN_KEY, Boolean.toString(value));
+    }
+
+    public void setScanCacheEnabled(boolean value) {
+        this.temporaryProperties.setProperty(SCAN_CACHE_KEY, Boolean.toString(value));
+    }
+
     /**
      * Sets the default folder to use in JFileChoosers.
      *
@@ -227,6 +307,24 @@ public enum RupsConfiguration {
         this.temporaryProperties.setProperty(HOME_FOLDER_KEY, sanitizeHomeFolder(newDefaultFolder));
     }
 
+    /**
+     * Sets the amount of memory, which can be used to buffer a document opened as owner.
+     *
+     * @param megabytes memory limit in megabytes
+     */
+    public void setWriterMemoryLimit(long megabytes) {
+        this.temporaryProperties.setProperty(WRITER_MEMORY_LIMIT_KEY, Long.toString(Math.max(0, megabytes)));
+    }
+
+    /**
+     * Sets the estimated amount of memory, which can be used to keep the objects loaded on demand.
+     *
+     * @param megabytes memory limit in megabytes
+     */
+    public void setObjectCacheMemoryLimit(long megabytes) {
+        this.temporaryProperties.setProperty(OBJECT_CACHE_MEMORY_LIMIT_KEY, Long.toString(Math.max(0, megabytes)));
+    }
+
     public void setUserLocale(Locale locale) {
         this.temporaryProperties.setProperty(LOCALE_KEY, defaultIfNull(locale).toLanguageTag());
     }
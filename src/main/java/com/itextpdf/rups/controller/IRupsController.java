@@ -95,6 +95,15 @@ public interface IRupsController extends IRupsEventListener {
      */
     void saveCurrentFile(File newFile);
 
+    /**
+     * Saves the currently opened file at the specified location, appending
+     * only the modified objects to the original file as an incremental
+     * update.
+     *
+     * @param newFile Location to save the file to.
+     */
+    void saveCurrentFileIncrementally(File newFile);
+
     /**
      * Closes the current file and tries to open it as an owner again.
      */
@@ -55,6 +55,8 @@ import com.itextpdf.kernel.utils.objectpathitems.IndirectPathItem;
 import com.itextpdf.kernel.utils.objectpathitems.LocalPathItem;
 import com.itextpdf.kernel.utils.objectpathitems.ObjectPath;
 import com.itextpdf.rups.io.listeners.PdfTreeNavigationListener;
+import com.itextpdf.rups.model.LoggerHelper;
+import com.itextpdf.rups.model.ModificationTracker;
 import com.itextpdf.rups.model.ObjectLoader;
 import com.itextpdf.rups.model.PdfSyntaxParser;
 import com.itextpdf.rups.model.TreeNodeFactory;
@@ -62,9 +64,11 @@ import com.itextpdf.rups.view.DebugView;
 import com.itextpdf.rups.model.IRupsEventListener;
 import com.itextpdf.rups.view.Language;
 import com.itextpdf.rups.view.PageSelectionListener;
+import com.itextpdf.rups.view.RevisionSelectionListener;
 import com.itextpdf.rups.view.contextmenu.PdfTreeContextMenu;
 import com.itextpdf.rups.view.contextmenu.PdfTreeContextMenuMouseListener;
 import com.itextpdf.rups.view.icons.IconTreeNode;
+import com.itextpdf.rups.view.itext.ByteRangePanel;
 import com.itextpdf.rups.view.itext.FormTree;
 import com.itextpdf.rups.view.itext.IPdfObjectPanelEventListener;
 import com.itextpdf.rups.view.itext.OutlineTree;
@@ -72,29 +76,50 @@ import com.itextpdf.rups.view.itext.PagesTable;
 import com.itextpdf.rups.view.itext.PdfObjectPanel;
 import com.itextpdf.rups.view.itext.PdfTree;
 import com.itextpdf.rups.view.itext.PlainText;
+import com.itextpdf.rups.view.itext.RevisionTable;
 import com.itextpdf.rups.view.itext.StructureTree;
 import com.itextpdf.rups.view.itext.SyntaxHighlightedStreamPane;
+import com.itextpdf.rups.view.itext.XRefEntriesTable;
 import com.itextpdf.rups.view.itext.XRefTable;
+import com.itextpdf.rups.view.itext.treenodes.PdfObjectRangeTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
 
+import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.FlowLayout;
 import java.awt.event.KeyListener;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Stack;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
 import javax.swing.JTabbedPane;
+import javax.swing.JTextField;
+import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
 /**
  * Controls the components that get their content from iText's PdfReader.
  */
 public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsEventListener {
+    /**
+     * Delay after the last key stroke in the filter field of the xref table,
+     * before the table is filtered.
+     */
+    private static final int FILTER_DELAY_MS = 250;
 
     /**
      * Treeview of the PDF file.
@@ -124,6 +149,18 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
      * JTable corresponding with the CrossReference table.
      */
     protected XRefTable xref;
+    /**
+     * JTable with the raw entries of the cross-reference sections.
+     */
+    protected XRefEntriesTable xrefEntries;
+    /**
+     * JTable with the revisions of an incrementally updated file.
+     */
+    protected RevisionTable revisions;
+    /**
+     * Panel with the byte ranges of the file.
+     */
+    protected ByteRangePanel byteRanges;
     /**
      * A panel that will show PdfObjects.
      */
@@ -151,6 +188,22 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
 
     private final PdfSyntaxParser parser = new PdfSyntaxParser();
 
+    /**
+     * Indirect objects, which were edited in the current document.
+     */
+    private ModificationTracker modifications = new ModificationTracker();
+
+    /**
+     * The lock, which guards the document of the rendered objects.
+     */
+    private Lock documentLock = new ReentrantLock();
+
+    /**
+     * The number of the indirect object, which is pinned, while the object
+     * panel shows it, or -1.
+     */
+    private int shownRef = -1;
+
     /**
      * Constructs the PdfReaderController.
      * This is an Observable object to which all iText related GUI components
@@ -161,6 +214,19 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
      */
     public PdfReaderController(TreeSelectionListener treeSelectionListener,
             PageSelectionListener pageSelectionListener) {
+        this(treeSelectionListener, pageSelectionListener, null);
+    }
+
+    /**
+     * Constructs the PdfReaderController, which can show earlier revisions
+     * of the file.
+     *
+     * @param treeSelectionListener     when somebody selects a tree node, this listener listens to the event
+     * @param pageSelectionListener     when somebody changes a page, this listener changes accordingly
+     * @param revisionSelectionListener when somebody picks a revision, this listener opens it, can be null
+     */
+    public PdfReaderController(TreeSelectionListener treeSelectionListener,
+            PageSelectionListener pageSelectionListener, RevisionSelectionListener revisionSelectionListener) {
         pdfTree = new PdfTree();
 
         pdfTree.addTreeSelectionListener(treeSelectionListener);
@@ -173,6 +239,9 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
         structure = new StructureTree(this);
         form = new FormTree(this);
         xref = new XRefTable(this);
+        xrefEntries = new XRefEntriesTable(this);
+        revisions = new RevisionTable(revisionSelectionListener);
+        byteRanges = new ByteRangePanel(this);
         text = new PlainText();
 
         navigationTabs = new JTabbedPane();
@@ -186,8 +255,14 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
                 Language.FORM_INTERACTIVE.getString());
         navigationTabs.addTab(Language.FORM_XFA.getString(), null, new JScrollPane(form.getXfaTree()),
                 Language.FORM_XFA_DESCRIPTION.getString());
-        navigationTabs.addTab(Language.XREF.getString(), null, new JScrollPane(xref),
+        navigationTabs.addTab(Language.XREF.getString(), null, createXRefPanel(),
                 Language.XREF_DESCRIPTION.getString());
+        navigationTabs.addTab(Language.XREF_ENTRIES.getString(), null, createXRefEntriesPanel(),
+                Language.XREF_ENTRIES_DESCRIPTION.getString());
+        navigationTabs.addTab(Language.REVISIONS.getString(), null, createRevisionsPanel(),
+                Language.REVISIONS_DESCRIPTION.getString());
+        navigationTabs.addTab(Language.BYTE_RANGES.getString(), null, byteRanges,
+                Language.BYTE_RANGES_DESCRIPTION.getString());
         navigationTabs.addTab(Language.PLAINTEXT.getString(), null, new JScrollPane(text),
                 Language.PLAINTEXT_DESCRIPTION.getString());
         navigationTabs.addChangeListener((ChangeEvent e) -> {
@@ -198,6 +273,12 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
                     structure.openStructure();
                 } else if (Language.PLAINTEXT.getString().equals(title)) {
                     text.openPlainText();
+                } else if (Language.XREF_ENTRIES.getString().equals(title)) {
+                    xrefEntries.openEntries();
+                } else if (Language.REVISIONS.getString().equals(title)) {
+                    revisions.openTimeline();
+                } else if (Language.BYTE_RANGES.getString().equals(title)) {
+                    byteRanges.openRanges();
                 }
                 // No special handling for other tabs
             }
@@ -214,6 +295,81 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
         editorTabs.addTab(Language.DEBUG_INFO.getString(), null, debug, Language.DEBUG_INFO_DESCRIPTION.getString());
     }
 
+    /**
+     * Creates the panel with the xref table and a field, which filters the
+     * table by the type of the objects.
+     *
+     * @return a JPanel
+     */
+    private JPanel createXRefPanel() {
+        final JTextField filterField = new JTextField();
+        // Typing a word does not filter millions of rows for every letter
+        final Timer filterTimer = new Timer(FILTER_DELAY_MS, e -> xref.setFilter(filterField.getText()));
+        filterTimer.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
+        final JPanel filterPanel = new JPanel(new BorderLayout());
+        filterPanel.add(new JLabel(Language.XREF_FILTER.getString()), BorderLayout.WEST);
+        filterPanel.add(filterField, BorderLayout.CENTER);
+        final JPanel panel = new JPanel(new BorderLayout());
+        panel.add(filterPanel, BorderLayout.NORTH);
+        panel.add(new JScrollPane(xref), BorderLayout.CENTER);
+        return panel;
+    }
+
+    /**
+     * Creates the panel with the raw cross-reference entries and their
+     * summary.
+     *
+     * @return a JPanel
+     */
+    private JPanel createXRefEntriesPanel() {
+        final JPanel panel = new JPanel(new BorderLayout());
+        panel.add(xrefEntries.getSummary(), BorderLayout.NORTH);
+        panel.add(new JScrollPane(xrefEntries), BorderLayout.CENTER);
+        return panel;
+    }
+
+    /**
+     * Creates the panel with the revisions of the file, the objects of the
+     * selected revision and the buttons, which show a revision.
+     *
+     * @return a JPanel
+     */
+    private JPanel createRevisionsPanel() {
+        final JButton showButton = new JButton(Language.REVISIONS_SHOW.getString());
+        showButton.addActionListener(e -> revisions.showSelectedRevision());
+        final JButton latestButton = new JButton(Language.REVISIONS_SHOW_LATEST.getString());
+        latestButton.addActionListener(e -> revisions.showLatestRevision());
+        final JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        buttons.add(showButton);
+        buttons.add(latestButton);
+        final JPanel details = new JPanel(new BorderLayout());
+        details.add(buttons, BorderLayout.NORTH);
+        details.add(new JScrollPane(revisions.getDetails()), BorderLayout.CENTER);
+        final JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(revisions), details);
+        split.setResizeWeight(.5);
+        final JPanel panel = new JPanel(new BorderLayout());
+        panel.add(revisions.getSummary(), BorderLayout.NORTH);
+        panel.add(split, BorderLayout.CENTER);
+        return panel;
+    }
+
     /**
      * Getter for the PDF Tree.
      *
@@ -269,6 +425,48 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
         return parser;
     }
 
+    /**
+     * Getter for the indirect objects, which were edited in the current
+     * document.
+     *
+     * @return the tracker of the edited objects
+     */
+    public ModificationTracker getModifications() {
+        return modifications;
+    }
+
+    /**
+     * Marks the indirect object, which contains the node, as modified. The
+     * object itself is flagged too, so that it is never released and
+     * reloaded from the file, which would discard the edit.
+     *
+     * @param node the edited node
+     */
+    public void markModified(PdfObjectTreeNode node) {
+        final PdfObject container = getContainingIndirectObject(node);
+        if (container == null) {
+            LoggerHelper.warn(Language.ERROR_EDIT_NOT_TRACKED.getString(), getClass());
+            return;
+        }
+        container.setModified();
+        modifications.markModified(container.getIndirectReference().getObjNumber());
+    }
+
+    /**
+     * Marks the stream of the node as having its data replaced.
+     *
+     * @param node the node of the edited stream
+     */
+    public void markStreamDataModified(PdfObjectTreeNode node) {
+        final PdfObject stream = node.getPdfObject();
+        if (stream == null || stream.getIndirectReference() == null) {
+            LoggerHelper.warn(Language.ERROR_EDIT_NOT_TRACKED.getString(), getClass());
+            return;
+        }
+        stream.setModified();
+        modifications.markStreamDataModified(stream.getIndirectReference().getObjNumber());
+    }
+
     /**
      * Selects a node in the PdfTree.
      *
@@ -288,6 +486,27 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
         selectNode(nodes.getNode(objectNumber));
     }
 
+    /**
+     * Selects the node of a page in the PdfTree.
+     *
+     * @param objectNumber the object number of the page
+     */
+    public void selectPage(int objectNumber) {
+        pdfTree.clearSelection();
+        pdfTree.selectPage(objectNumber);
+    }
+
+    /**
+     * Captions the page nodes in the PdfTree with their page numbers.
+     *
+     * @param captions gets the caption of a page by its object number, which
+     *                 is {@code null} for objects, that are not a page of the
+     *                 document
+     */
+    public void setPageCaptions(IntFunction<String> captions) {
+        pdfTree.setPageCaptions(captions);
+    }
+
     /**
      * Renders the syntax of a PdfObject in the objectPanel.
      * If the object is a PDF Stream, then the stream is shown
@@ -302,10 +521,41 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
         } else {
             editorTabs.setSelectedIndex(editorTabs.getComponentCount() - 1);
         }
-        objectPanel.render(node, parser);
+        // The panel reads the object, while other threads may load and evict objects
+        documentLock.lock();
+        try {
+            pinShownObject(node);
+            objectPanel.render(node, parser);
+        } finally {
+            documentLock.unlock();
+        }
         streamPane.render(node);
     }
 
+    /**
+     * Pins the indirect object, which contains a rendered node, so that it
+     * stays in memory, while it is shown, and unpins the previous one.
+     *
+     * @param node the rendered node
+     */
+    private void pinShownObject(PdfObjectTreeNode node) {
+        if (nodes == null) {
+            return;
+        }
+        final PdfObject container = getContainingIndirectObject(node);
+        final int ref = container == null ? -1 : container.getIndirectReference().getObjNumber();
+        if (ref == shownRef) {
+            return;
+        }
+        if (shownRef >= 0) {
+            nodes.unpin(shownRef);
+        }
+        if (ref >= 0) {
+            nodes.pin(ref);
+        }
+        shownRef = ref;
+    }
+
     /**
      * Selects the row in the pageTable that corresponds with
      * a certain page number.
@@ -349,7 +599,7 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
                     currentNode = nodes.getChildNode(currentNode, ((DictPathItem) item).getKey());
                 } else if (item instanceof ArrayPathItem) {
                     int index = ((ArrayPathItem) item).getIndex();
-                    currentNode = (PdfObjectTreeNode) currentNode.getChildAt(index);
+                    currentNode = nodes.getArrayChildNode(currentNode, index);
                 }
             }
             if (currentNode != null) {
@@ -385,6 +635,9 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
     }
 
     public int deleteTreeChild(PdfObjectTreeNode parent, int index) {
+        if (reloadGroupedChildren(parent)) {
+            return index;
+        }
         parent.remove(index);
         ((DefaultTreeModel) pdfTree.getModel()).reload(parent);
         return index;
@@ -392,28 +645,61 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
 
     //Returns index of the added child
     public int addTreeNodeChild(PdfObjectTreeNode parent, PdfObjectTreeNode child, int index) {
+        if (reloadGroupedChildren(parent)) {
+            return index;
+        }
         parent.insert(child, index);
         nodes.expandNode(child);
         ((DefaultTreeModel) pdfTree.getModel()).reload(parent);
         return index;
     }
 
+    /**
+     * Recreates the children of a node, which entries are grouped in ranges,
+     * as the indices of the ranges shift after an entry is added or deleted.
+     *
+     * @param parent the array or dictionary node, which has been edited
+     *
+     * @return true, if the children were recreated
+     */
+    private boolean reloadGroupedChildren(PdfObjectTreeNode parent) {
+        if (parent.getChildCount() == 0 || !(parent.getChildAt(0) instanceof PdfObjectRangeTreeNode)) {
+            return false;
+        }
+        parent.removeAllChildren();
+        nodes.expandNode(parent);
+        ((DefaultTreeModel) pdfTree.getModel()).reload(parent);
+        return true;
+    }
+
     @Override
     public void handleCloseDocument() {
         nodes = null;
+        documentLock = new ReentrantLock();
+        shownRef = -1;
+        modifications = new ModificationTracker();
         forAllComponents(IRupsEventListener::handleCloseDocument);
     }
 
     @Override
     public void handleOpenDocument(ObjectLoader loader) {
         nodes = loader.getNodes();
+        documentLock = loader.getFile().getDocumentLock();
+        shownRef = -1;
+        modifications = new ModificationTracker();
         navigationTabs.setSelectedIndex(0);
         forAllComponents(c -> c.handleOpenDocument(loader));
     }
 
+    @Override
+    public void handleObjectsLoaded(ObjectLoader loader) {
+        forAllComponents(c -> c.handleObjectsLoaded(loader));
+    }
+
     @Override
     public void handleNewIndirectObject(PdfObject object) {
         nodes.addNewIndirectObject(object);
+        modifications.markCreated(object.getIndirectReference().getObjNumber());
         forAllComponents(c -> c.handleNewIndirectObject(object));
     }
 
@@ -449,21 +735,42 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
     @Override
     public void handleArrayChildAdded(PdfObject value, PdfObjectTreeNode parent, int index) {
         addTreeNodeArrayChild(parent, index);
+        markModified(parent);
     }
 
     @Override
     public void handleArrayChildDeleted(PdfObjectTreeNode parent, int index) {
         deleteTreeChild(parent, index);
+        markModified(parent);
     }
 
     @Override
     public void handleDictChildAdded(PdfObject value, PdfObjectTreeNode parent, PdfName key, int index) {
         addTreeNodeDictChild(parent, key, index);
+        markModified(parent);
     }
 
     @Override
     public void handleDictChildDeleted(PdfObjectTreeNode parent, PdfName key) {
         deleteTreeNodeDictChild(parent, key);
+        markModified(parent);
+    }
+
+    /**
+     * Finds the closest indirect object, which contains the node. Direct
+     * objects are stored within their indirect ancestor, so that is the
+     * object, which needs to be rewritten after an edit.
+     */
+    private static PdfObject getContainingIndirectObject(PdfObjectTreeNode node) {
+        TreeNode current = node;
+        while (current instanceof PdfObjectTreeNode) {
+            final PdfObject object = ((PdfObjectTreeNode) current).getPdfObject();
+            if (object != null && !object.isIndirectReference() && object.getIndirectReference() != null) {
+                return object;
+            }
+            current = current.getParent();
+        }
+        return null;
     }
 
     private void forAllComponents(Consumer<IRupsEventListener> func) {
@@ -473,6 +780,9 @@ public class PdfReaderController implements IPdfObjectPanelEventListener, IRupsE
         func.accept(structure);
         func.accept(form);
         func.accept(xref);
+        func.accept(xrefEntries);
+        func.accept(revisions);
+        func.accept(byteRanges);
         func.accept(text);
         func.accept(objectPanel);
         func.accept(streamPane);
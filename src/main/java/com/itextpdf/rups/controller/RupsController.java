@@ -107,6 +107,11 @@ public class RupsController implements IRupsController {
         fireRupsEvent(c -> c.handleOpenDocument(loader));
     }
 
+    @Override
+    public void handleObjectsLoaded(ObjectLoader loader) {
+        fireRupsEvent(c -> c.handleObjectsLoaded(loader));
+    }
+
     @Override
     public void handleAllFilesClosed() {
         fireRupsEvent(IRupsEventListener::handleAllFilesClosed);
@@ -135,6 +140,14 @@ public class RupsController implements IRupsController {
         this.rupsTabbedPane.saveCurrentFile(newFile);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveCurrentFileIncrementally(File newFile) {
+        this.rupsTabbedPane.saveCurrentFileIncrementally(newFile);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -53,10 +53,12 @@ import com.itextpdf.rups.model.LoggerHelper;
 import com.itextpdf.rups.model.ObjectLoader;
 import com.itextpdf.rups.model.PdfFile;
 import com.itextpdf.rups.model.ProgressDialog;
+import com.itextpdf.rups.model.SpillableOutputStream;
 import com.itextpdf.rups.view.Console;
 import com.itextpdf.rups.model.IRupsEventListener;
 import com.itextpdf.rups.view.Language;
 import com.itextpdf.rups.view.PageSelectionListener;
+import com.itextpdf.rups.view.RevisionSelectionListener;
 import com.itextpdf.rups.view.contextmenu.ConsoleContextMenu;
 import com.itextpdf.rups.view.contextmenu.ContextMenuMouseListener;
 import com.itextpdf.rups.view.contextmenu.IPdfContextMenuTarget;
@@ -66,12 +68,9 @@ import com.itextpdf.rups.view.itext.treenodes.PdfTrailerTreeNode;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.NoSuchFileException;
 import java.util.function.Consumer;
@@ -95,7 +94,8 @@ import javax.swing.event.TreeSelectionListener;
  * instance. Which in turn is controlled by a {@link com.itextpdf.rups.controller.RupsController RupsController}
  * instance.
  */
-public class RupsInstanceController implements TreeSelectionListener, PageSelectionListener, IRupsEventListener {
+public class RupsInstanceController
+        implements TreeSelectionListener, PageSelectionListener, RevisionSelectionListener, IRupsEventListener {
     private static final String PDF_FILE_SUFFIX = ".pdf";
 
     private final JPanel ownerPanel;
@@ -120,6 +120,12 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
 
     private ObjectLoader loader;
 
+    /**
+     * Whether the whole file was opened as owner, so it can be opened the
+     * same way again after an earlier revision was shown.
+     */
+    private boolean editable = false;
+
     // constructor
 
     /**
@@ -132,7 +138,7 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
         // creating components and controllers
         this.ownerPanel = owner;
         final Console console = Console.getInstance();
-        readerController = new PdfReaderController(this, this);
+        readerController = new PdfReaderController(this, this, this);
 
         // creating the master component
         masterComponent = new JSplitPane();
@@ -174,9 +180,21 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
 
     @Override
     public void handleOpenDocument(ObjectLoader loader) {
+        // A loader of a file, which was closed in the meantime, might still finish
+        if (loader != this.loader) {
+            return;
+        }
         forAllComponents(c -> c.handleOpenDocument(loader));
     }
 
+    @Override
+    public void handleObjectsLoaded(ObjectLoader loader) {
+        if (loader != this.loader) {
+            return;
+        }
+        forAllComponents(c -> c.handleObjectsLoaded(loader));
+    }
+
     /**
      * Load a file into memory and start processing it.
      *
@@ -188,6 +206,7 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
 
     public void loadFile(File file, boolean requireEditable) {
         closeRoutine();
+        editable = requireEditable;
         try {
             if (requireEditable) {
                 pdfFile = PdfFile.openAsOwner(file);
@@ -210,12 +229,57 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
         }
     }
 
+    /**
+     * Reopens the current file as it was after one of its revisions. Only the
+     * beginning of the file up to the end of the revision is mapped, so
+     * nothing is copied. The revision is always opened in a read-only mode.
+     *
+     * @param length the end of the revision in the file, or -1 to show the
+     *               whole file
+     */
+    @Override
+    public void showRevision(long length) {
+        if (pdfFile == null) {
+            return;
+        }
+        final File file = pdfFile.getOriginalFile();
+        if (length < 0) {
+            loadFile(file, editable);
+            return;
+        }
+        final boolean wasEditable = editable;
+        closeRoutine();
+        editable = wasEditable;
+        try {
+            pdfFile = PdfFile.openRevision(file, length);
+            startObjectLoader();
+            readerController.getParser().setDocument(pdfFile.getPdfDocument());
+        } catch (IOException | PdfException | com.itextpdf.io.exceptions.IOException ioe) {
+            LoggerHelper.warn(ioe.getMessage(), ioe, RupsInstanceController.class);
+            Rups.showBriefMessage(ioe.getMessage());
+        }
+    }
+
     /**
      * Saves the pdf to the disk.
      *
      * @param file java.io.File file to save
      */
     public void saveFile(File file) {
+        saveFile(file, false);
+    }
+
+    /**
+     * Saves the pdf to the disk, appending only the modified objects to the
+     * original content as an incremental update.
+     *
+     * @param file java.io.File file to save
+     */
+    public void saveFileIncrementally(File file) {
+        saveFile(file, true);
+    }
+
+    private void saveFile(File file, boolean incremental) {
         File localFile = file;
         try {
             if (!localFile.getName().endsWith(PDF_FILE_SUFFIX)) {
@@ -230,14 +294,20 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
                 }
             }
 
-            final ByteArrayOutputStream bos = pdfFile.getByteArrayOutputStream();
-            pdfFile.getPdfDocument().setFlushUnusedObjects(false);
-            closeRoutine();
-            if (bos != null) {
-                bos.close();
-                try (final OutputStream fos = Files.newOutputStream(localFile.toPath())) {
-                    bos.writeTo(fos);
-                }
+            if (pdfFile == null) {
+                return;
+            }
+            if (incremental) {
+                /*
+                 * The update is written before the file is detached, so that
+                 * the document stays open with all the edits, if it fails.
+                 */
+                final SpillableOutputStream update =
+                        pdfFile.writeIncrementalUpdate(readerController.getModifications());
+                detachFile().saveIncrementallyAndClose(localFile.toPath(), update);
+            } else {
+                pdfFile.getPdfDocument().setFlushUnusedObjects(false);
+                detachFile().saveAndClose(localFile.toPath());
             }
 
             JOptionPane.showMessageDialog(masterComponent, Language.SAVE_SUCCESS.getString(),
@@ -250,17 +320,27 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
     }
 
     public final void closeRoutine() {
-        loader = null;
-        PdfDocument docToClose = null;
-        if (pdfFile != null && pdfFile.getPdfDocument() != null) {
-            docToClose = pdfFile.getPdfDocument();
+        final IPdfFile fileToClose = detachFile();
+        if (fileToClose != null) {
+            fileToClose.close();
+        }
+    }
+
+    /**
+     * Detaches the current file from all the components, without closing it.
+     *
+     * @return the detached file or {@code null}, if there was none
+     */
+    private IPdfFile detachFile() {
+        if (loader != null) {
+            loader.stopScan();
         }
+        loader = null;
+        final IPdfFile fileToDetach = pdfFile;
         pdfFile = null;
         forAllComponents(IRupsEventListener::handleCloseDocument);
-        if (docToClose != null) {
-            docToClose.close();
-        }
         readerController.getParser().setDocument(null);
+        return fileToDetach;
     }
 
     public final CompareTool.CompareResult compareWithDocument(PdfDocument document) {
@@ -321,8 +401,10 @@ public class RupsInstanceController implements TreeSelectionListener, PageSelect
                 new ProgressDialog(this.ownerPanel, Language.PDF_READING.getString(), null);
         SwingUtilities.invokeLater(() -> dialog.setVisible(true));
         loader = new ObjectLoader(
-                this, pdfFile, pdfFile.getOriginalFile().getName(), dialog
+                this, pdfFile, pdfFile.getOriginalFile().getName(), dialog,
+                RupsConfiguration.INSTANCE.isLazyOpen()
         );
+        dialog.setCancelAction(loader::stopScan);
         loader.execute();
     }
 
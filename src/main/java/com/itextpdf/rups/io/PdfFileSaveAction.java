@@ -49,6 +49,8 @@ import com.itextpdf.rups.io.filters.PdfFilter;
 import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.util.function.BiConsumer;
 import javax.swing.JFileChooser;
 
 /**
@@ -68,6 +70,10 @@ public final class PdfFileSaveAction implements ActionListener {
      * A parent Component for the file chooser dialog.
      */
     private final Component parent;
+    /**
+     * The controller method, which performs the save.
+     */
+    private final BiConsumer<IRupsController, File> saveMethod;
 
     /**
      * Creates a new save PDF file chooser action.
@@ -76,8 +82,24 @@ public final class PdfFileSaveAction implements ActionListener {
      * @param parent     A parent Component for chooser dialog.
      */
     public PdfFileSaveAction(IRupsController controller, Component parent) {
+        this(controller, parent, IRupsController::saveCurrentFile);
+    }
+
+    /**
+     * Creates a new save PDF file chooser action with a custom save method.
+     *
+     * @param controller The controller waiting for you to select file.
+     * @param parent     A parent Component for chooser dialog.
+     * @param saveMethod The controller method, which performs the save.
+     */
+    public PdfFileSaveAction(
+            IRupsController controller,
+            Component parent,
+            BiConsumer<IRupsController, File> saveMethod
+    ) {
         this.controller = controller;
         this.parent = parent;
+        this.saveMethod = saveMethod;
     }
 
     @Override
@@ -93,7 +115,7 @@ public final class PdfFileSaveAction implements ActionListener {
         }
         fileChooser.setFileFilter(PdfFilter.INSTANCE);
         if (fileChooser.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
-            controller.saveCurrentFile(fileChooser.getSelectedFile());
+            saveMethod.accept(controller, fileChooser.getSelectedFile());
         }
     }
 }
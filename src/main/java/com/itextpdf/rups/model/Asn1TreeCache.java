@@ -0,0 +1,191 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.rups.view.itext.treenodes.asn1.AbstractAsn1TreeNode;
+import com.itextpdf.rups.view.itext.treenodes.asn1.Asn1TreeNodeFactory;
+import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.AbstractCorrector;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of corrected ASN.1 trees, keyed by the SHA-256
+ * hash of the DER-encoded data and the corrector, which was applied.
+ *
+ * <p>
+ * The same certificates, CRLs and OCSP responses are often embedded in
+ * several signatures and in the DSS, so they only need to be decoded once.
+ * The cached trees are never handed out directly, as a tree node can only be
+ * part of one tree, every caller gets its own copy instead. The cache is
+ * bounded by the total length of the decoded data.
+ * </p>
+ */
+final class Asn1TreeCache {
+    private final long budget;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * Creates a cache.
+     *
+     * @param budget the total length in bytes of the encoded data, which the
+     *               cached trees can be decoded from
+     */
+    Asn1TreeCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Decodes DER-encoded ASN.1 data and applies a corrector to the tree, or
+     * copies the tree from the cache, if the same data was decoded before.
+     * This method can be called from any thread.
+     *
+     * @param data      the DER-encoded data
+     * @param corrector the corrector to apply to the decoded tree
+     *
+     * @return a new copy of the corrected tree or {@code null}, if the data
+     *         is not an ASN.1 object
+     */
+    AbstractAsn1TreeNode get(byte[] data, AbstractCorrector corrector) {
+        final Key key = new Key(corrector, digest(data));
+        AbstractAsn1TreeNode tree = find(key);
+        if (tree == null) {
+            // Decoding happens outside the lock, so that it does not block other callers
+            tree = Asn1TreeNodeFactory.fromPrimitive(data);
+            if (tree == null) {
+                return null;
+            }
+            corrector.correct(tree);
+            put(key, tree, data.length);
+        }
+        return tree.copyTree();
+    }
+
+    /**
+     * Gets the total length of the encoded data of the cached trees.
+     *
+     * @return the length in bytes
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Gets the amount of the cached trees.
+     *
+     * @return the amount of the cached trees
+     */
+    synchronized int count() {
+        return entries.size();
+    }
+
+    private synchronized AbstractAsn1TreeNode find(Key key) {
+        final Entry entry = entries.get(key);
+        return entry == null ? null : entry.tree;
+    }
+
+    private synchronized void put(Key key, AbstractAsn1TreeNode tree, long length) {
+        final Entry previous = entries.put(key, new Entry(tree, length));
+        if (previous != null) {
+            size -= previous.length;
+        }
+        size += length;
+        // The newest entry is kept, even if it is larger than the budget on its own
+        final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (size > budget && entries.size() > 1) {
+            size -= iterator.next().getValue().length;
+            iterator.remove();
+        }
+    }
+
+    private static byte[] digest(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Key {
+        private final AbstractCorrector corrector;
+        private final byte[] hash;
+
+        Key(AbstractCorrector corrector, byte[] hash) {
+            this.corrector = corrector;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return corrector == other.corrector && Arrays.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(corrector) + Arrays.hashCode(hash);
+        }
+    }
+
+    private static final class Entry {
+        private final AbstractAsn1TreeNode tree;
+        private final long length;
+
+        Entry(AbstractAsn1TreeNode tree, long length) {
+            this.tree = tree;
+            this.length = length;
+        }
+    }
+}
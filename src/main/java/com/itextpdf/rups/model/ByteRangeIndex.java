@@ -0,0 +1,615 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Interval index of the byte ranges of a PDF file: the indirect objects, the
+ * cross-reference sections and their trailers, the header, and the bytes,
+ * which belong to none of them.
+ *
+ * <p>
+ * The ranges are sorted by their start and do not overlap, so the owner of a
+ * byte offset is found with a binary search. They are kept in parallel
+ * primitive arrays, about 20 bytes per range, so that files with millions of
+ * objects and offsets beyond 2 GB are supported. Whitespace and comments
+ * between the ranges belong to no range.
+ * </p>
+ *
+ * <p>
+ * The ranges start at the object offsets, which were recorded by the scan,
+ * and at the sections of the {@link XRefLayout}. An object ends after its
+ * {@code endobj} keyword, the data of a stream is skipped by its /Length, if
+ * it is known, or up to the {@code endstream} keyword. The bytes after it are
+ * classified: an object, which is not referenced by the effective
+ * cross-reference index, is {@link #UNREFERENCED}, anything else, what is
+ * not whitespace, a comment or a {@code startxref} line, is {@link #JUNK}.
+ * </p>
+ */
+public final class ByteRangeIndex {
+    /**
+     * The {@code %PDF-} header line.
+     */
+    public static final byte HEADER = 0;
+    /**
+     * An indirect object, which is referenced by the cross-reference index.
+     */
+    public static final byte OBJECT = 1;
+    /**
+     * The entries of a cross-reference section.
+     */
+    public static final byte XREF = 2;
+    /**
+     * A trailer dictionary and the {@code startxref} line after it.
+     */
+    public static final byte TRAILER = 3;
+    /**
+     * Objects, which are not referenced by the effective cross-reference
+     * index, for example, the old versions of updated objects.
+     */
+    public static final byte UNREFERENCED = 4;
+    /**
+     * Bytes, which are not valid PDF syntax at their position.
+     */
+    public static final byte JUNK = 5;
+
+    /**
+     * Amount of the buckets of {@link #getBucketKinds()}.
+     */
+    public static final int BUCKET_COUNT = 4096;
+
+    private static final int KIND_COUNT = 6;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * Amount of bytes after a cross-reference stream, in which its
+     * {@code endobj} keyword is searched.
+     */
+    private static final int ENDOBJ_SEARCH_LENGTH = 1024;
+    /**
+     * Amount of objects, after which the build checks, whether it was
+     * interrupted.
+     */
+    private static final int INTERRUPT_CHECK_INTERVAL = 4096;
+    private static final byte[] ENDOBJ = "endobj".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] ENDSTREAM = "endstream".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] HEADER_KEYWORD = "%PDF-".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] OBJ = "obj".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] STREAM = "stream".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] STARTXREF = "startxref".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final PdfFileContent content;
+    private final long length;
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    /**
+     * The object numbers of the objects, or the negated kind minus one of
+     * the other ranges.
+     */
+    private int[] owners = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    /**
+     * The problem, which stopped reading the cross-reference sections, or
+     * {@code null}.
+     */
+    private String error;
+    private final long[] totals = new long[KIND_COUNT];
+    private final byte[] buckets = new byte[BUCKET_COUNT];
+    /*
+     * Buffered window over the content, which is used for the classification
+     * of the bytes between the ranges.
+     */
+    private final byte[] window = new byte[BUFFER_SIZE];
+    private long windowStart = 0;
+    private int windowLength = 0;
+    /**
+     * Buffer of the keyword search, and whether the last search found the
+     * {@code stream} keyword.
+     */
+    private final byte[] searchBuffer = new byte[BUFFER_SIZE];
+    private boolean foundSecond = false;
+
+    private ByteRangeIndex(PdfFileContent content) {
+        this.content = content;
+        this.length = content.length();
+    }
+
+    /**
+     * Builds the index of a file.
+     *
+     * @param content  the content of the file
+     * @param metrics  the metrics with the offsets of the objects
+     * @param maxRef   the highest object number
+     * @param layout   the cross-reference sections of the file
+     *
+     * @return the index
+     *
+     * @throws IOException if the file could not be read or the thread was
+     *                     interrupted
+     */
+    public static ByteRangeIndex build(PdfFileContent content, ObjectMetrics metrics, int maxRef, XRefLayout layout)
+            throws IOException {
+        final ByteRangeIndex index = new ByteRangeIndex(content);
+        index.error = layout.getError();
+        index.read(metrics, maxRef, layout);
+        return index;
+    }
+
+    /**
+     * Builds the index of a file from the offsets of its cross-reference
+     * index. This is used, when the scan was stopped or failed halfway, as
+     * its metrics lack the offsets of the objects, which were not scanned.
+     *
+     * @param content the content of the file
+     * @param layout  the cross-reference sections of the file
+     *
+     * @return the index
+     *
+     * @throws IOException if the file could not be read or the thread was
+     *                     interrupted
+     */
+    public static ByteRangeIndex build(PdfFileContent content, XRefLayout layout) throws IOException {
+        final XRefIndex xref = layout.getIndex();
+        final ObjectMetrics metrics = new ObjectMetrics(xref.size());
+        metrics.setLocations(xref);
+        return build(content, metrics, xref.size() - 1, layout);
+    }
+
+    /**
+     * Gets the problem, which stopped reading the cross-reference sections.
+     * The sections after it are missing, and so are the objects, which only
+     * they refer to, if the offsets were taken from the cross-reference
+     * index.
+     *
+     * @return the message or {@code null}, if all the sections were read
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Gets the length of the file.
+     *
+     * @return the length of the file in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the amount of the ranges.
+     *
+     * @return the amount of the ranges
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the start of a range.
+     *
+     * @param i the index of the range
+     *
+     * @return the offset of the first byte of the range
+     */
+    public long getStart(int i) {
+        return starts[i];
+    }
+
+    /**
+     * Gets the end of a range.
+     *
+     * @param i the index of the range
+     *
+     * @return the offset after the last byte of the range
+     */
+    public long getEnd(int i) {
+        return ends[i];
+    }
+
+    /**
+     * Gets the kind of a range.
+     *
+     * @param i the index of the range
+     *
+     * @return one of {@link #HEADER}, {@link #OBJECT}, {@link #XREF},
+     *         {@link #TRAILER}, {@link #UNREFERENCED} or {@link #JUNK}
+     */
+    public byte getKind(int i) {
+        return owners[i] >= 0 ? OBJECT : (byte) (-owners[i] - 1);
+    }
+
+    /**
+     * Gets the object number of a range.
+     *
+     * @param i the index of the range
+     *
+     * @return the object number or -1, if the range is not an object
+     */
+    public int getObjectNumber(int i) {
+        return Math.max(-1, owners[i]);
+    }
+
+    /**
+     * Finds the range, which contains a byte.
+     *
+     * @param offset the offset of the byte
+     *
+     * @return the index of the range or -1, if the byte is whitespace or a
+     *         comment between the ranges or outside of the file
+     */
+    public int find(long offset) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (starts[middle] <= offset) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high >= 0 && offset < ends[high] ? high : -1;
+    }
+
+    /**
+     * Gets the amount of the bytes of a kind.
+     *
+     * @param kind the kind of the ranges
+     *
+     * @return the total length of the ranges of the kind
+     */
+    public long getTotalLength(byte kind) {
+        return totals[kind];
+    }
+
+    /**
+     * Gets the kinds of the ranges in {@link #BUCKET_COUNT} equally long
+     * parts of the file, as bit masks of {@code 1 << kind}. A part without
+     * any bits contains only whitespace and comments.
+     *
+     * @return a new array with the masks
+     */
+    public byte[] getBucketKinds() {
+        return buckets.clone();
+    }
+
+    private void read(ObjectMetrics metrics, int maxRef, XRefLayout layout) throws IOException {
+        // The anchors are the starts of the ranges with a known owner, objects first
+        final int sectionCount = layout.getSectionCount();
+        int count = 0;
+        long[] anchorStarts = new long[Math.max(INITIAL_CAPACITY, maxRef + 1 + 2 * sectionCount)];
+        int[] anchorOwners = new int[anchorStarts.length];
+        for (int ref = 0; ref <= maxRef; ++ref) {
+            final long offset = metrics.getOffset(ref);
+            if (offset != ObjectMetrics.UNKNOWN && offset < length) {
+                anchorStarts[count] = offset;
+                anchorOwners[count++] = ref;
+            }
+        }
+        // Sections are negative: -2 * s - 1 for the entries, -2 * s - 2 for the trailer
+        for (int s = 0; s < sectionCount; ++s) {
+            final XRefSection section = layout.getSection(s);
+            anchorStarts[count] = section.getOffset();
+            anchorOwners[count++] = -2 * s - 1;
+            if (section.getTrailerOffset() >= 0) {
+                anchorStarts[count] = section.getTrailerOffset();
+                anchorOwners[count++] = -2 * s - 2;
+            }
+        }
+        ObjectMetrics.sortByKeys(anchorOwners, anchorStarts, count);
+
+        final long headerOffset = layout.getHeaderOffset();
+        final long firstStart = count > 0 ? anchorStarts[0] : length;
+        long position = 0;
+        if (matches(HEADER_KEYWORD, headerOffset, firstStart)) {
+            classifyGap(0, headerOffset);
+            position = Math.min(findLineEnd(headerOffset), firstStart);
+            add(headerOffset, position, -HEADER - 1);
+        }
+        classifyGap(position, firstStart);
+        for (int i = 0; i < count; ++i) {
+            if (i % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException();
+            }
+            final long start = anchorStarts[i];
+            // Objects come first at the same start, so they win over the sections
+            final int owner = anchorOwners[i];
+            while (i + 1 < count && anchorStarts[i + 1] == start) {
+                ++i;
+            }
+            final long limit = i + 1 < count ? anchorStarts[i + 1] : length;
+            final long end;
+            if (owner >= 0) {
+                end = findObjectEnd(start, limit, metrics.getLength(owner));
+                add(start, end, owner);
+            } else {
+                final XRefSection section = layout.getSection((-owner - 1) / 2);
+                final boolean trailer = (-owner - 1) % 2 == 1;
+                long sectionEnd = trailer || section.isStream() || section.getTrailerOffset() < 0
+                        ? section.getEnd()
+                        : section.getTrailerOffset();
+                if (sectionEnd < 0) {
+                    sectionEnd = limit;
+                } else if (section.isStream()) {
+                    final long endObject = findFirst(ENDOBJ, null, sectionEnd,
+                            Math.min(limit, sectionEnd + ENDOBJ_SEARCH_LENGTH));
+                    if (endObject >= 0) {
+                        sectionEnd = endObject + ENDOBJ.length;
+                    }
+                }
+                end = Math.max(start, Math.min(sectionEnd, limit));
+                add(start, end, trailer ? -TRAILER - 1 : -XREF - 1);
+            }
+            classifyGap(end, limit);
+        }
+    }
+
+    /**
+     * Finds the end of an object, which starts at an offset.
+     *
+     * @param start     the offset of the object
+     * @param limit     the start of the next range
+     * @param rawLength the length of the stream data or
+     *                  {@link ObjectMetrics#UNKNOWN}
+     *
+     * @return the offset after the {@code endobj} keyword or the limit, if
+     *         the object is not terminated
+     */
+    private long findObjectEnd(long start, long limit, int rawLength) throws IOException {
+        final long found = findFirst(ENDOBJ, STREAM, start, limit);
+        if (found < 0) {
+            return limit;
+        }
+        if (!foundSecond) {
+            return found + ENDOBJ.length;
+        }
+        // The stream data might contain the keyword, so it is skipped
+        long dataStart = found + STREAM.length;
+        if (byteAt(dataStart) == '\r') {
+            ++dataStart;
+        }
+        if (byteAt(dataStart) == '\n') {
+            ++dataStart;
+        }
+        long dataEnd = rawLength == ObjectMetrics.UNKNOWN ? -1 : dataStart + rawLength;
+        if (dataEnd < 0 || dataEnd > limit || !matches(ENDSTREAM, skipWhitespace(dataEnd, limit), limit)) {
+            dataEnd = findFirst(ENDSTREAM, null, dataStart, limit);
+        }
+        final long endObject = dataEnd < 0 ? -1 : findFirst(ENDOBJ, null, dataEnd, limit);
+        return endObject < 0 ? limit : endObject + ENDOBJ.length;
+    }
+
+    /**
+     * Tells, whether the {@code stream} keyword at a position follows a
+     * dictionary and is followed by an end of line.
+     */
+    private boolean isStreamKeyword(long position) throws IOException {
+        final int before = byteAt(position - 1);
+        final int after = byteAt(position + STREAM.length);
+        return (before == '>' || isWhitespace(before)) && (after == '\r' || after == '\n');
+    }
+
+    /**
+     * Adds the bytes between two ranges as a range, unless they are only
+     * whitespace and comments.
+     */
+    private void classifyGap(long from, long to) throws IOException {
+        long p = from;
+        long contentStart = -1;
+        while (p < to) {
+            final int b = byteAt(p);
+            if (isWhitespace(b)) {
+                ++p;
+            } else if (b == '%') {
+                while (p < to && byteAt(p) != '\n' && byteAt(p) != '\r') {
+                    ++p;
+                }
+            } else if (matches(STARTXREF, p, to)) {
+                if (contentStart < 0) {
+                    contentStart = p;
+                }
+                p += STARTXREF.length;
+                while (p < to && (isWhitespace(byteAt(p)) || isDigit(byteAt(p)))) {
+                    ++p;
+                }
+            } else {
+                final int kind = isObjectHeader(p, to) ? UNREFERENCED : JUNK;
+                add(p, to, -kind - 1);
+                return;
+            }
+        }
+        if (contentStart >= 0) {
+            add(contentStart, to, -TRAILER - 1);
+        }
+    }
+
+    private boolean isObjectHeader(long from, long to) throws IOException {
+        long p = skipDigits(from, to);
+        if (p == from || p >= to || !isWhitespace(byteAt(p))) {
+            return false;
+        }
+        p = skipWhitespace(p, to);
+        final long generation = p;
+        p = skipDigits(p, to);
+        if (p == generation || p >= to || !isWhitespace(byteAt(p))) {
+            return false;
+        }
+        return matches(OBJ, skipWhitespace(p, to), to);
+    }
+
+    private long skipDigits(long from, long to) throws IOException {
+        long p = from;
+        while (p < to && isDigit(byteAt(p))) {
+            ++p;
+        }
+        return p;
+    }
+
+    private long skipWhitespace(long from, long to) throws IOException {
+        long p = from;
+        while (p < to && isWhitespace(byteAt(p))) {
+            ++p;
+        }
+        return p;
+    }
+
+    private boolean matches(byte[] pattern, long from, long to) throws IOException {
+        if (from + pattern.length > to) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; ++i) {
+            if (byteAt(from + i) != (pattern[i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long findLineEnd(long from) throws IOException {
+        long p = from;
+        while (p < length && byteAt(p) != '\n' && byteAt(p) != '\r') {
+            ++p;
+        }
+        return p;
+    }
+
+    /**
+     * Finds the first occurrence of a pattern or of the {@code stream}
+     * keyword in a range. {@link #foundSecond} tells, which one was found.
+     *
+     * @param pattern the pattern
+     * @param stream  {@link #STREAM}, if the keyword is searched as well, or
+     *                {@code null}
+     * @param from    the start of the range
+     * @param to      the end of the range
+     *
+     * @return the offset of the occurrence or -1, if there is none
+     */
+    private long findFirst(byte[] pattern, byte[] stream, long from, long to) throws IOException {
+        final int overlap = Math.max(pattern.length, stream == null ? 0 : stream.length) - 1;
+        long low = from;
+        while (to - low > 0) {
+            final int read = content.readFully(low, searchBuffer, 0, (int) Math.min(searchBuffer.length, to - low));
+            for (int i = 0; i < read; ++i) {
+                if (matchesAt(pattern, i, read)) {
+                    foundSecond = false;
+                    return low + i;
+                }
+                if (stream != null && matchesAt(stream, i, read) && isStreamKeyword(low + i)) {
+                    foundSecond = true;
+                    return low + i;
+                }
+            }
+            if (read < searchBuffer.length) {
+                break;
+            }
+            // Overlap the chunks, so that a pattern on the border is found
+            low += read - overlap;
+        }
+        return -1;
+    }
+
+    private boolean matchesAt(byte[] pattern, int i, int read) {
+        if (i + pattern.length > read) {
+            return false;
+        }
+        for (int j = 0; j < pattern.length; ++j) {
+            if (searchBuffer[i + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int byteAt(long position) throws IOException {
+        if (position < windowStart || position >= windowStart + windowLength) {
+            windowStart = position;
+            windowLength = Math.max(0, content.readFully(position, window, 0, window.length));
+            if (windowLength == 0) {
+                return -1;
+            }
+        }
+        return window[(int) (position - windowStart)] & 0xFF;
+    }
+
+    private void add(long start, long end, int owner) {
+        if (start >= end) {
+            return;
+        }
+        final byte kind = owner >= 0 ? OBJECT : (byte) (-owner - 1);
+        totals[kind] += end - start;
+        final int first = (int) (start * BUCKET_COUNT / length);
+        final int last = (int) ((end - 1) * BUCKET_COUNT / length);
+        for (int b = first; b <= last; ++b) {
+            buckets[b] |= (byte) (1 << kind);
+        }
+        if (owner < 0 && size > 0 && owners[size - 1] == owner && ends[size - 1] <= start) {
+            // Adjacent ranges of the same kind, for example, a trailer and its startxref line
+            ends[size - 1] = end;
+            return;
+        }
+        if (size == starts.length) {
+            final int newCapacity = size * 2;
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            owners = Arrays.copyOf(owners, newCapacity);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        owners[size] = owner;
+        ++size;
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\r' || b == '\n' || b == '\t' || b == '\f' || b == 0;
+    }
+}
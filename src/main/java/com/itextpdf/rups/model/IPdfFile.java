@@ -44,11 +44,38 @@ package com.itextpdf.rups.model;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
 
 /**
  * An interface for holding opened {@link PdfDocument} objects.
+ *
+ * <p>
+ * A {@link PdfDocument} is not thread-safe, not even for reading, as reading
+ * an object moves the file position of the reader and fills its caches. The
+ * views browse the document on the event dispatch thread, while background
+ * workers analyse it, so the access is arranged as follows:
+ * </p>
+ * <ul>
+ *     <li>The document of {@link #getPdfDocument()} and the structures built
+ *     from it, i.e. the {@link IndirectObjectFactory} and the
+ *     {@link TreeNodeFactory}, are guarded by the
+ *     {@link #getDocumentLock() document lock}. The factories acquire it
+ *     themselves, other code has to hold it, while it reads the document
+ *     directly. Background workers should hold it only for short steps, so
+ *     that browsing stays responsive.</li>
+ *     <li>Views on the event dispatch thread hold the lock as well, while
+ *     they read an object. An object, which a view keeps showing outside of
+ *     the tree, is {@link TreeNodeFactory#pin(int) pinned}, as loading an
+ *     object on another thread can evict it.</li>
+ *     <li>Workers, which read a lot, but do not need the shared objects,
+ *     should use their own {@link #openReadOnlyDocument() reader instance}
+ *     instead, so that they run in parallel with browsing.</li>
+ *     <li>The {@link #getContent() original content} can be read from any
+ *     thread.</li>
+ * </ul>
  */
 public interface IPdfFile {
     /**
@@ -66,6 +93,27 @@ public interface IPdfFile {
      */
     PdfDocument getPdfDocument();
 
+    /**
+     * Returns the lock, which guards the document returned by
+     * {@link #getPdfDocument()}. The lock is reentrant and it has to be
+     * acquired before the monitor of the {@link IndirectObjectFactory}.
+     *
+     * @return the document lock
+     */
+    Lock getDocumentLock();
+
+    /**
+     * Opens another read-only {@link PdfDocument} over the original raw data
+     * of the opened PDF document. It allows reading objects concurrently, as
+     * a single {@link PdfDocument} is not thread-safe. The caller is
+     * responsible for closing the returned document.
+     *
+     * @return a new read-only {@link PdfDocument} over the same data
+     *
+     * @throws IOException if the document could not be opened
+     */
+    PdfDocument openReadOnlyDocument() throws IOException;
+
     /**
      * Returns {@code true}, if the PDF document was opened as an "Owner" (i.e.
      * with full permissions on document manipulation). Returns {@code false}
@@ -75,26 +123,103 @@ public interface IPdfFile {
      *         {@code false} otherwise
      */
     default boolean isOpenedAsOwner() {
-        return getByteArrayOutputStream() != null;
+        return getWriterOutputStream() != null;
     }
 
     /**
-     * Returns a byte array, which contains the original raw data of the opened
-     * PDF document.
+     * Returns a random-access view over the original raw data of the opened
+     * PDF document. The view is valid until the file is closed.
      *
-     * @return a byte array, which contains the original raw data of the opened
-     *         PDF document
+     * @return a view over the original raw data of the opened PDF document
      */
-    byte[] getOriginalContent();
+    PdfFileContent getContent();
 
     /**
-     * Returns the output byte stream, which contains the modified PDF document.
+     * Returns the output stream, which contains the modified PDF document.
      * Can be {@code null}, if the document is not opened as "Owner".
      *
-     * @return the output byte stream, which contains the modified PDF document,
+     * @return the output stream, which contains the modified PDF document,
      *         or {@code null} if the document is not opened as "Owner"
      *
      * @see #isOpenedAsOwner()
      */
-    ByteArrayOutputStream getByteArrayOutputStream();
+    SpillableOutputStream getWriterOutputStream();
+
+    /**
+     * Closes the PDF document and releases all the resources, associated with
+     * it.
+     */
+    default void close() {
+        final PdfDocument document = getPdfDocument();
+        if (document != null && !document.isClosed()) {
+            document.close();
+        }
+    }
+
+    /**
+     * Closes the PDF document, moves the modified PDF document to the target
+     * file and releases all the resources, associated with it. If the
+     * document is not opened as "Owner", then it is just closed.
+     *
+     * @param target file to save the modified PDF document to
+     *
+     * @throws IOException if the modified PDF document could not be saved
+     */
+    default void saveAndClose(Path target) throws IOException {
+        try {
+            final PdfDocument document = getPdfDocument();
+            if (document != null && !document.isClosed()) {
+                document.close();
+            }
+            final SpillableOutputStream output = getWriterOutputStream();
+            if (output != null) {
+                output.moveTo(target);
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Appends the modified objects of a document opened as "Owner" to the
+     * original content as a single incremental update section, saves the
+     * result to the target file and releases all the resources, associated
+     * with the PDF document. If the update could not be written, the
+     * document stays open.
+     *
+     * @param target        file to save the updated PDF document to
+     * @param modifications objects, which were modified in the document
+     *
+     * @throws IOException if the updated PDF document could not be saved
+     */
+    default void saveIncrementallyAndClose(Path target, ModificationTracker modifications) throws IOException {
+        saveIncrementallyAndClose(target, writeIncrementalUpdate(modifications));
+    }
+
+    /**
+     * Writes the original content of a document opened as "Owner" with the
+     * modified objects appended as a single incremental update section. The
+     * document is neither changed nor closed, so it stays usable, if the
+     * update could not be written.
+     *
+     * @param modifications objects, which were modified in the document
+     *
+     * @return the updated PDF document, which can be saved with
+     *         {@link #saveIncrementallyAndClose(Path, SpillableOutputStream)}
+     *
+     * @throws IOException if the update could not be written
+     */
+    SpillableOutputStream writeIncrementalUpdate(ModificationTracker modifications) throws IOException;
+
+    /**
+     * Discards the document, moves an updated PDF document written by
+     * {@link #writeIncrementalUpdate(ModificationTracker)} to the target file
+     * and releases all the resources, associated with the PDF document.
+     *
+     * @param target file to save the updated PDF document to
+     * @param update the updated PDF document
+     *
+     * @throws IOException if the updated PDF document could not be saved
+     */
+    void saveIncrementallyAndClose(Path target, SpillableOutputStream update) throws IOException;
 }
@@ -75,6 +75,15 @@ public interface IProgressDialog {
      */
     void showErrorDialog(Exception ex);
 
+    /**
+     * Sets the action, which cancels the task in progress. If it is
+     * {@code null}, the task cannot be cancelled.
+     *
+     * @param action the action to run, when the user cancels the task
+     */
+    default void setCancelAction(Runnable action) {
+    }
+
     /**
      * Control the visibility of the progress dialog.
      *
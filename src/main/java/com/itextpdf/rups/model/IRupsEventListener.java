@@ -66,6 +66,17 @@ public interface IRupsEventListener {
     default void handleOpenDocument(ObjectLoader loader) {
     }
 
+    /**
+     * Handler for "Objects Loaded" event. This is fired <i>after</i> the
+     * "Open Document" event, whenever the loader has registered more objects,
+     * while it is still scanning the document, and once more, when it has
+     * finished.
+     *
+     * @param loader Object loader, which is loading the document.
+     */
+    default void handleObjectsLoaded(ObjectLoader loader) {
+    }
+
     /**
      * Handler for "New Indirect Object" event. This is fired <i>after</i> an
      * object was created.
@@ -0,0 +1,231 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNull;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.rups.view.Language;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mirrors the modified objects of an edited document into a document, which
+ * was opened in the append mode over the same original content. When the
+ * target document is closed, only the mirrored objects are written as a
+ * single incremental update section.
+ *
+ * <p>
+ * Objects of the two documents share object numbers, so indirect references
+ * are translated just by their number.
+ * </p>
+ */
+final class IncrementalUpdateWriter {
+    private final PdfDocument source;
+    private final PdfDocument target;
+
+    private IncrementalUpdateWriter(PdfDocument source, PdfDocument target) {
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Mirrors the modified objects from the source document to the target
+     * document. The target document is not closed.
+     *
+     * @param source        the edited document
+     * @param target        the document opened in the append mode over the
+     *                      original content of the source document
+     * @param modifications the objects modified in the source document
+     */
+    static void write(PdfDocument source, PdfDocument target, ModificationTracker modifications) {
+        final IncrementalUpdateWriter writer = new IncrementalUpdateWriter(source, target);
+        /*
+         * New objects should exist in the target document before anything
+         * else is mirrored, as the modified objects can refer to them.
+         */
+        for (final int number : modifications.getCreatedObjects()) {
+            writer.createObject(number);
+        }
+        for (final int number : modifications.getModifiedObjects()) {
+            writer.updateObject(number, modifications.isStreamDataModified(number));
+        }
+    }
+
+    private void createObject(int number) {
+        final PdfObject sourceObject = source.getPdfObject(number);
+        if (sourceObject == null) {
+            return;
+        }
+        final PdfObject placeholder;
+        switch (sourceObject.getType()) {
+            case PdfObject.STREAM:
+                placeholder = new PdfStream();
+                break;
+            case PdfObject.DICTIONARY:
+                placeholder = new PdfDictionary();
+                break;
+            case PdfObject.ARRAY:
+                placeholder = new PdfArray();
+                break;
+            default:
+                // Primitives cannot refer to anything, so they are final
+                placeholder = mirror(sourceObject);
+                break;
+        }
+        placeholder.makeIndirect(target);
+        final int targetNumber = placeholder.getIndirectReference().getObjNumber();
+        if (targetNumber != number) {
+            throw new PdfException(
+                    String.format(Language.ERROR_INCREMENTAL_OBJECT_NUMBER.getString(), number, targetNumber)
+            );
+        }
+    }
+
+    private void updateObject(int number, boolean streamDataModified) {
+        final PdfObject sourceObject = source.getPdfObject(number);
+        final PdfObject targetObject = target.getPdfObject(number);
+        if (sourceObject == null || targetObject == null) {
+            LoggerHelper.warnf(Language.ERROR_INCREMENTAL_OBJECT_MISSING, getClass(), number);
+            return;
+        }
+        if (sourceObject.getType() != targetObject.getType()) {
+            throw new PdfException(String.format(Language.ERROR_INCREMENTAL_OBJECT_TYPE.getString(), number));
+        }
+        switch (sourceObject.getType()) {
+            case PdfObject.STREAM:
+                updateStream((PdfStream) sourceObject, (PdfStream) targetObject, streamDataModified);
+                break;
+            case PdfObject.DICTIONARY:
+                updateDictionary((PdfDictionary) sourceObject, (PdfDictionary) targetObject, List.of());
+                break;
+            case PdfObject.ARRAY:
+                updateArray((PdfArray) sourceObject, (PdfArray) targetObject);
+                break;
+            default:
+                // Primitives are either created or cannot be edited
+                break;
+        }
+        targetObject.setModified();
+    }
+
+    private void updateStream(PdfStream sourceStream, PdfStream targetStream, boolean dataModified) {
+        final List<PdfName> preservedKeys = new ArrayList<>();
+        preservedKeys.add(PdfName.Length);
+        if (dataModified) {
+            // Sets the data as decoded, which also drops the filters
+            targetStream.setData(sourceStream.getBytes(true));
+            preservedKeys.add(PdfName.Filter);
+            preservedKeys.add(PdfName.DecodeParms);
+        }
+        updateDictionary(sourceStream, targetStream, preservedKeys);
+    }
+
+    private void updateDictionary(PdfDictionary sourceDict, PdfDictionary targetDict, List<PdfName> preservedKeys) {
+        for (final PdfName key : new ArrayList<>(targetDict.keySet())) {
+            if (!preservedKeys.contains(key)) {
+                targetDict.remove(key);
+            }
+        }
+        for (final PdfName key : sourceDict.keySet()) {
+            if (!preservedKeys.contains(key)) {
+                targetDict.put(key, mirror(sourceDict.get(key, false)));
+            }
+        }
+    }
+
+    private void updateArray(PdfArray sourceArray, PdfArray targetArray) {
+        targetArray.clear();
+        for (int i = 0; i < sourceArray.size(); ++i) {
+            targetArray.add(mirror(sourceArray.get(i, false)));
+        }
+    }
+
+    /**
+     * Creates a copy of a direct object, which belongs to the target
+     * document. Indirect references are translated by their number.
+     */
+    private PdfObject mirror(PdfObject object) {
+        if (object == null) {
+            return PdfNull.PDF_NULL;
+        }
+        switch (object.getType()) {
+            case PdfObject.INDIRECT_REFERENCE:
+                return mirrorReference((PdfIndirectReference) object);
+            case PdfObject.DICTIONARY: {
+                final PdfDictionary copy = new PdfDictionary();
+                updateDictionary((PdfDictionary) object, copy, List.of());
+                return copy;
+            }
+            case PdfObject.ARRAY: {
+                final PdfArray copy = new PdfArray();
+                updateArray((PdfArray) object, copy);
+                return copy;
+            }
+            case PdfObject.STREAM:
+                // Streams are always indirect, so they are mirrored by reference
+                return mirrorReference(object.getIndirectReference());
+            default:
+                return object.clone();
+        }
+    }
+
+    private PdfObject mirrorReference(PdfIndirectReference reference) {
+        if (reference == null) {
+            return PdfNull.PDF_NULL;
+        }
+        final PdfObject targetObject = target.getPdfObject(reference.getObjNumber());
+        if (targetObject == null || targetObject.getIndirectReference() == null) {
+            LoggerHelper.warnf(Language.ERROR_INCREMENTAL_OBJECT_MISSING, getClass(), reference.getObjNumber());
+            return PdfNull.PDF_NULL;
+        }
+        return targetObject.getIndirectReference();
+    }
+}
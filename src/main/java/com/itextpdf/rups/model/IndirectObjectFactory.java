@@ -42,22 +42,43 @@
  */
 package com.itextpdf.rups.model;
 
-import com.itextpdf.io.util.IntHashtable;
 import com.itextpdf.kernel.exceptions.PdfException;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNull;
 import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.rups.RupsConfiguration;
 import com.itextpdf.rups.view.Language;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
 
 /**
  * A factory that can produce all the indirect objects in a PDF file.
+ *
+ * <p>
+ * Documents can contain millions of objects, so the bookkeeping is kept
+ * compact: the reference numbers are stored in a single dense array, which
+ * is sorted, as objects are registered in the xref order, the flags are
+ * stored in bit sets and only the retained objects are kept in a sparse map.
+ * Objects loaded on demand are kept in a cache with a memory budget, so
+ * that browsing a large document does not eventually load all of it.
+ * </p>
+ *
+ * <p>
+ * The factory is filled by the {@link ObjectLoader} in the background, while
+ * the views might already read from it, so the access is synchronized. The
+ * methods, which read from the document, also hold the document lock, as the
+ * document might be read by other workers at the same time. The document lock
+ * is always acquired before the monitor of the factory, never while holding
+ * it, see {@link IPdfFile}.
+ * </p>
  */
 public class IndirectObjectFactory {
 
@@ -74,21 +95,55 @@ public class IndirectObjectFactory {
      */
     protected int n;
     /**
-     * A list of all the indirect objects in a PDF file.
+     * Reference numbers in the xref table, indexed by the index in the
+     * indirect object list. Only the first {@link #count} elements are used.
      */
-    protected ArrayList<PdfObject> objects = new ArrayList<>();
+    private int[] refByIndex;
     /**
-     * Mapping between the index in the objects list and the reference number in the xref table.
+     * Amount of the registered indirect objects.
      */
-    protected IntHashtable idxToRef = new IntHashtable();
+    private int count = 0;
     /**
-     * Mapping between the reference number in the xref table and the index in the objects list .
+     * Whether {@link #refByIndex} is sorted in the ascending order. This
+     * allows using a binary search for the reverse lookup.
      */
-    protected IntHashtable refToIdx = new IntHashtable();
+    private boolean sorted = true;
     /**
-     * Array to indicate if object is already loaded
+     * Reverse lookup table, which is only built, if an object was added out of
+     * order, so that a binary search is no longer possible.
      */
-    protected ArrayList<Boolean> isLoaded = new ArrayList<>();
+    private int[] indexByRef = null;
+    /**
+     * Indicates, which objects are already loaded, by index.
+     */
+    private final BitSet loaded = new BitSet();
+    /**
+     * Indicates, which objects are page dictionaries, by index.
+     */
+    private final BitSet pages = new BitSet();
+    /**
+     * The objects, which are kept in memory, by index. Everything else is
+     * released after the scan and reloaded on demand.
+     */
+    private final Map<Integer, PdfObject> retained = new HashMap<>();
+    /**
+     * The objects, which were loaded on demand, by index. They are released,
+     * when the memory budget of the cache is exceeded.
+     */
+    private final ObjectCache cache;
+    /**
+     * Decides, whether an object can be evicted from the cache, or
+     * {@code null}, if any object can be evicted.
+     */
+    private IntPredicate evictionGuard = null;
+    /**
+     * Guards the access to the document.
+     */
+    private final Lock documentLock;
+    /**
+     * The metrics of the objects, by object number.
+     */
+    private final ObjectMetrics metrics;
 
     /**
      * Creates a list that will contain all the indirect objects
@@ -97,9 +152,81 @@ public class IndirectObjectFactory {
      * @param document the PDF document
      */
     public IndirectObjectFactory(PdfDocument document) {
+        this(document, new ReentrantLock());
+    }
+
+    /**
+     * Creates a list that will contain all the indirect objects
+     * in a PDF document.
+     *
+     * @param document     the PDF document
+     * @param documentLock the lock, which guards the access to the document
+     */
+    public IndirectObjectFactory(PdfDocument document, Lock documentLock) {
+        this(document, RupsConfiguration.INSTANCE.getObjectCacheMemoryLimit(), documentLock);
+    }
+
+    /**
+     * Creates a list that will contain all the indirect objects
+     * in a PDF document.
+     *
+     * @param document    the PDF document
+     * @param cacheBudget the estimated amount of memory in bytes, which the
+     *                    objects loaded on demand can take
+     */
+    public IndirectObjectFactory(PdfDocument document, long cacheBudget) {
+        this(document, cacheBudget, new ReentrantLock());
+    }
+
+    /**
+     * Creates a list that will contain all the indirect objects
+     * in a PDF document.
+     *
+     * @param document     the PDF document
+     * @param cacheBudget  the estimated amount of memory in bytes, which the
+     *                     objects loaded on demand can take
+     * @param documentLock the lock, which guards the access to the document
+     */
+    public IndirectObjectFactory(PdfDocument document, long cacheBudget, Lock documentLock) {
         this.document = document;
+        this.documentLock = documentLock;
         current = -1;
         n = document.getNumberOfPdfObjects();
+        refByIndex = new int[Math.max(n + 1, 16)];
+        metrics = new ObjectMetrics(n + 1);
+        cache = new ObjectCache(cacheBudget, this::evict);
+    }
+
+    /**
+     * Returns the lock, which guards the access to the document. It has to be
+     * held, while the document or the objects of the factory are read
+     * directly.
+     *
+     * @return the document lock
+     */
+    public Lock getDocumentLock() {
+        return documentLock;
+    }
+
+    /**
+     * Returns the metrics of the objects, which are filled, while the objects
+     * are scanned or loaded.
+     *
+     * @return the object metrics
+     */
+    public ObjectMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the guard, which decides, whether an object loaded on demand can
+     * be evicted from the cache. The guard gets the index of the object and
+     * should return {@code false}, if the object is still in use.
+     *
+     * @param guard the eviction guard
+     */
+    synchronized void setEvictionGuard(IntPredicate guard) {
+        evictionGuard = guard;
     }
 
     /**
@@ -109,7 +236,7 @@ public class IndirectObjectFactory {
      *
      * @return the number of the last object that was stored
      */
-    public int getCurrent() {
+    public synchronized int getCurrent() {
         return current;
     }
 
@@ -118,7 +245,7 @@ public class IndirectObjectFactory {
      *
      * @return an object number
      */
-    public int getXRefMaximum() {
+    public synchronized int getXRefMaximum() {
         return n;
     }
 
@@ -130,27 +257,77 @@ public class IndirectObjectFactory {
      * @return false if there are no objects left to check.
      */
     public boolean storeNextObject() {
-        while (current < n) {
-            current++;
-
-            PdfObject object = null;
-            // attempt to read the object, if this fails keep object at 'null' (compatible with iText 5)
-            try {
-                object = document.getPdfObject(current);
-            } catch (PdfException ignored) {
-                LoggerHelper.info(String.format(Language.ERROR_READING_OBJECT_NUMBER.getString(), current), getClass());
+        documentLock.lock();
+        try {
+            synchronized (this) {
+                while (current < n) {
+                    current++;
+
+                    PdfObject object = null;
+                    // attempt to read the object, if this fails keep object at 'null' (compatible with iText 5)
+                    try {
+                        object = document.getPdfObject(current);
+                    } catch (PdfException ignored) {
+                        LoggerHelper.info(String.format(Language.ERROR_READING_OBJECT_NUMBER.getString(), current),
+                                getClass());
+                    }
+
+                    if (object != null) {
+                        metrics.record(current, object);
+                        store(register(current), object);
+                        return true;
+                    }
+                }
+                return false;
             }
+        } finally {
+            documentLock.unlock();
+        }
+    }
 
-            if (object != null) {
-                final int idx = size();
-                idxToRef.put(idx, current);
-                refToIdx.put(current, idx);
-                store(object);
-                return true;
+    /**
+     * Stores the objects of a segment, which was scanned in parallel. The
+     * segments must be stored in the object order. Nothing is read from the
+     * document of this factory, so that this can run, while the document is
+     * browsed. The objects, which were already registered on access, are
+     * skipped. Unlike with {@link #storeNextObject()}, the page dictionaries
+     * are only flagged as pages, they are neither marked as loaded nor
+     * retained, until they are loaded on first access.
+     *
+     * @param segment the scanned segment
+     */
+    synchronized void storeSegment(ParallelObjectScanner.Segment segment) {
+        final int length = segment.to - segment.from;
+        for (int bit = segment.present.nextSetBit(0); bit >= 0 && bit < length;
+                bit = segment.present.nextSetBit(bit + 1)) {
+            final int ref = segment.from + bit;
+            if (getIndexByRef(ref) >= 0) {
+                continue;
             }
+            final int idx = register(ref);
+            pages.set(idx, segment.pages.get(bit));
+            loaded.set(idx, segment.nulls.get(bit));
         }
-        return false;
+        metrics.merge(segment.metrics);
+        current = Math.max(current, segment.to - 1);
+    }
 
+    /**
+     * Registers all the objects, which are in use according to the
+     * cross-reference index, without reading them. The objects are loaded on
+     * first access with {@link #loadObjectByReference(int)}.
+     *
+     * @param xref the cross-reference index of the document
+     */
+    synchronized void storeFromXRef(XRefIndex xref) {
+        final int maximum = Math.min(n, xref.size() - 1);
+        for (int ref = 1; ref <= maximum; ++ref) {
+            if (xref.isInUse(ref)) {
+                register(ref);
+            }
+        }
+        metrics.setLocations(xref);
+        current = n;
     }
 
     /**
@@ -158,26 +335,55 @@ public class IndirectObjectFactory {
      * that's why we'll only store the objects that are necessary
      * to construct other objects (for instance the page table).
      *
+     * @param idx    the index of the object
      * @param object an object we might want to store
      */
-    private void store(PdfObject object) {
+    private void store(int idx, PdfObject object) {
         if (object.isDictionary()) {
             final PdfDictionary dict = (PdfDictionary) object;
             if (PdfName.Page.equals(dict.get(PdfName.Type, false))) {
-                objects.add(dict);
-                isLoaded.add(Boolean.TRUE);
+                retained.put(idx, dict);
+                loaded.set(idx);
+                pages.set(idx);
                 return;
             }
         }
-        isLoaded.add(object.isNull());
+        loaded.set(idx, object.isNull());
         if (object.isReleaseForbidden()) {
-            objects.add(object);
+            retained.put(idx, object);
         } else {
             object.release();
-            objects.add(PdfNull.PDF_NULL);
         }
     }
 
+    /**
+     * Registers a reference number as the next index in the indirect object
+     * list.
+     *
+     * @param ref a number in the xref table
+     *
+     * @return the index in the list of indirect objects
+     */
+    private int register(int ref) {
+        if (count == refByIndex.length) {
+            refByIndex = Arrays.copyOf(refByIndex, count + (count >> 1) + 1);
+        }
+        if (count > 0 && refByIndex[count - 1] >= ref) {
+            sorted = false;
+        }
+        final int idx = count++;
+        refByIndex[idx] = ref;
+        if (indexByRef != null) {
+            if (ref >= indexByRef.length) {
+                final int oldLength = indexByRef.length;
+                indexByRef = Arrays.copyOf(indexByRef, Math.max(ref + 1, oldLength + (oldLength >> 1)));
+                Arrays.fill(indexByRef, oldLength, indexByRef.length, -1);
+            }
+            indexByRef[ref] = idx;
+        }
+        return idx;
+    }
+
     /**
      * Gets the total number of indirect objects in the PDF file.
      * This isn't necessarily the same number as returned by getXRefMaximum().
@@ -185,18 +391,27 @@ public class IndirectObjectFactory {
      *
      * @return the total number of indirect objects in the PDF.
      */
-    public int size() {
-        return objects.size();
+    public synchronized int size() {
+        return count;
     }
 
     /**
      * Gets the index of an object based on its number in the xref table.
      *
      * @param ref a number in the xref table
-     * @return the index in the list of indirect objects
+     * @return the index in the list of indirect objects or -1, if there is
+     *         no such object
      */
-    public int getIndexByRef(int ref) {
-        return refToIdx.get(ref);
+    public synchronized int getIndexByRef(int ref) {
+        if (sorted) {
+            final int idx = Arrays.binarySearch(refByIndex, 0, count, ref);
+            return idx < 0 ? -1 : idx;
+        }
+        final int[] table = getIndexByRefTable();
+        if (ref < 0 || ref >= table.length) {
+            return -1;
+        }
+        return table[ref];
     }
 
     /**
@@ -206,8 +421,13 @@ public class IndirectObjectFactory {
      * @param i the index of an object in the indirect object list
      * @return the corresponding reference number in the xref table
      */
-    public int getRefByIndex(int i) {
-        return idxToRef.get(i);
+    public synchronized int getRefByIndex(int i) {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException(
+                    String.format(Language.ERROR_INDEX_OUT_OF_BOUNDS.getString(), i, count)
+            );
+        }
+        return refByIndex[i];
     }
 
     /**
@@ -216,8 +436,15 @@ public class IndirectObjectFactory {
      * @param i an index in the indirect object list
      * @return a PDF object
      */
-    public PdfObject getObjectByIndex(int i) {
-        return getObjectByReference(getRefByIndex(i));
+    public synchronized PdfObject getObjectByIndex(int i) {
+        PdfObject object = retained.get(i);
+        if (object == null) {
+            object = cache.get(i);
+        }
+        if (object == null) {
+            return PdfNull.PDF_NULL;
+        }
+        return object;
     }
 
     /**
@@ -226,16 +453,27 @@ public class IndirectObjectFactory {
      * @param ref a number in the xref table
      * @return a PDF object
      */
-    public PdfObject getObjectByReference(int ref) {
-        return objects.get(getIndexByRef(ref));
+    public synchronized PdfObject getObjectByReference(int ref) {
+        return getObjectByIndex(getIndexByRef(ref));
     }
 
-    public boolean isLoadedByIndex(int i) {
-        return isLoaded.get(i);
+    public synchronized boolean isLoadedByIndex(int i) {
+        return loaded.get(i);
     }
 
-    public boolean isLoadedByReference(int ref) {
-        return isLoaded.get(getIndexByRef(ref));
+    public synchronized boolean isLoadedByReference(int ref) {
+        final int idx = getIndexByRef(ref);
+        return idx >= 0 && loaded.get(idx);
+    }
+
+    /**
+     * Tells you, whether the object is a page dictionary.
+     *
+     * @param i an index in the indirect object list
+     * @return {@code true}, if the object is a page dictionary
+     */
+    public synchronized boolean isPageByIndex(int i) {
+        return pages.get(i);
     }
 
     /**
@@ -245,26 +483,120 @@ public class IndirectObjectFactory {
      * @return a PDF object
      */
     public PdfObject loadObjectByReference(int ref) {
-        PdfObject object = getObjectByReference(ref);
-        final int idx = getIndexByRef(ref);
-        if (object instanceof PdfNull && !Boolean.TRUE.equals(isLoaded.get(idx))) {
-            object = document.getPdfObject(ref);
-            objects.set(idx, object);
-            isLoaded.set(idx, Boolean.TRUE);
+        documentLock.lock();
+        try {
+            synchronized (this) {
+                if (getIndexByRef(ref) < 0 && ref > current && ref <= n) {
+                    return loadAhead(ref);
+                }
+                final int idx = getIndexByRef(ref);
+                PdfObject object = getObjectByIndex(idx);
+                if (object instanceof PdfNull && idx >= 0 && !loaded.get(idx)) {
+                    object = document.getPdfObject(ref);
+                    loaded.set(idx);
+                    if (object != null) {
+                        metrics.record(ref, object);
+                        cacheObject(idx, object);
+                    }
+                }
+                return object;
+            }
+        } finally {
+            documentLock.unlock();
         }
+    }
+
+    /**
+     * Loads an object, which the scan has not reached yet, and registers it
+     * right away, so that it can be browsed, while the document is loading.
+     *
+     * @param ref a reference number in the xref table.
+     * @return a PDF object
+     */
+    private PdfObject loadAhead(int ref) {
+        final PdfObject object = document.getPdfObject(ref);
+        if (object == null) {
+            return PdfNull.PDF_NULL;
+        }
+        final int idx = register(ref);
+        loaded.set(idx);
+        metrics.record(ref, object);
+        cacheObject(idx, object);
         return object;
     }
 
+    /**
+     * Keeps an object, which was loaded on demand. Objects, which cannot be
+     * released, are retained, the others are cached.
+     *
+     * @param idx    the index of the object
+     * @param object the loaded object
+     */
+    private void cacheObject(int idx, PdfObject object) {
+        if (object.isReleaseForbidden()) {
+            retained.put(idx, object);
+        } else {
+            cache.put(idx, object);
+        }
+    }
+
+    /**
+     * Evicts an object from the cache. Modified objects are retained instead,
+     * as releasing them would discard the changes. The edits are flagged on
+     * the objects with {@link PdfObject#setModified()}, when the controller
+     * records them.
+     *
+     * @param idx    the index of the object
+     * @param object the cached object
+     *
+     * @return {@code true}, if the object was removed from the cache
+     */
+    private boolean evict(int idx, PdfObject object) {
+        if (object.isReleaseForbidden() || object.isModified()) {
+            retained.put(idx, object);
+            return true;
+        }
+        if (evictionGuard != null && !evictionGuard.test(idx)) {
+            return false;
+        }
+        loaded.clear(idx);
+        object.release();
+        return true;
+    }
+
     void addNewIndirectObject(PdfObject object) {
-        object.makeIndirect(document);
-        ++n;
-        final int idx = size();
-        idxToRef.put(idx, object.getIndirectReference().getObjNumber());
-        refToIdx.put(object.getIndirectReference().getObjNumber(), idx);
-        objects.add(object);
+        documentLock.lock();
+        try {
+            synchronized (this) {
+                object.makeIndirect(document);
+                ++n;
+                final int idx = register(object.getIndirectReference().getObjNumber());
+                retained.put(idx, object);
+                loaded.set(idx);
+                metrics.record(object.getIndirectReference().getObjNumber(), object);
+            }
+        } finally {
+            documentLock.unlock();
+        }
         LoggerHelper.info(
                 String.format(Language.INDIRECT_OBJECT_CREATION_SUCCESS.getString(),
                         object.getIndirectReference().getObjNumber()),
                 getClass());
     }
+
+    private int[] getIndexByRefTable() {
+        if (indexByRef == null) {
+            int maxRef = -1;
+            for (int i = 0; i < count; ++i) {
+                maxRef = Math.max(maxRef, refByIndex[i]);
+            }
+            final int[] table = new int[maxRef + 1];
+            Arrays.fill(table, -1);
+            for (int i = 0; i < count; ++i) {
+                table[refByIndex[i]] = i;
+            }
+            indexByRef = table;
+        }
+        return indexByRef;
+    }
 }
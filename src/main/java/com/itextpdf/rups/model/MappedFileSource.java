@@ -0,0 +1,260 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.io.source.IRandomAccessSource;
+import com.itextpdf.rups.view.Language;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A read-only {@link IRandomAccessSource} over a memory-mapped file.
+ *
+ * <p>
+ * A single {@link MappedByteBuffer} cannot address more than 2 GB, so the
+ * file is mapped as a sequence of fixed-size chunks. The bytes are served by
+ * the OS page cache, so opening a file this way does not allocate heap
+ * proportional to the file size.
+ * </p>
+ *
+ * <p>
+ * Reading an unmapped buffer crashes the JVM, and the source is read by the
+ * workers with their own documents, while the file might be closed on the
+ * event dispatch thread. So the reads in flight are counted, and the chunks
+ * are unmapped by {@link #close()} only, if there are none. Otherwise, the
+ * last read unmaps them. Reads, which start after the source was closed,
+ * fail with an {@link IOException}.
+ * </p>
+ */
+final class MappedFileSource implements IRandomAccessSource {
+    /**
+     * Amount of bits used for the offset within a chunk. Chunks are 1 GB.
+     */
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+    /**
+     * The flag of {@link #state}, which is set, when the source is closed.
+     * The lower bits count the reads in flight.
+     */
+    private static final long CLOSED = 1L << 62;
+
+    private static final Method INVOKE_CLEANER_METHOD;
+    private static final Object UNSAFE;
+
+    static {
+        /*
+         * There is no public API to release a mapping before the buffer is
+         * garbage collected. But, while the mapping is alive, the file cannot
+         * be overwritten on some platforms, so we try to release it
+         * explicitly, when the source is closed.
+         */
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LoggerHelper.debug(Language.ERROR_UNMAPPING_FILE.getString(), e, MappedFileSource.class);
+        }
+        INVOKE_CLEANER_METHOD = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private final MappedByteBuffer[] chunks;
+    private final long length;
+    private final AtomicLong state = new AtomicLong();
+    private final AtomicBoolean unmapped = new AtomicBoolean();
+
+    private MappedFileSource(MappedByteBuffer[] chunks, long length) {
+        this.chunks = chunks;
+        this.length = length;
+    }
+
+    /**
+     * Maps the whole file at the specified path into memory.
+     *
+     * @param path path to the file to map
+     *
+     * @return a random access source over the mapped file
+     *
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static MappedFileSource map(Path path) throws IOException {
+        /*
+         * Mapping stays valid after the channel is closed, so there is no
+         * reason to keep the file handle open.
+         */
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final int chunkCount = (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+            final MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; ++i) {
+                final long offset = (long) i << CHUNK_BITS;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, size - offset));
+            }
+            return new MappedFileSource(chunks, size);
+        }
+    }
+
+    @Override
+    public int get(long position) throws IOException {
+        if (position < 0 || position >= length) {
+            ensureOpen();
+            return -1;
+        }
+        acquire();
+        try {
+            return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & CHUNK_MASK)) & 0xFF;
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public int get(long position, byte[] bytes, int off, int len) throws IOException {
+        if (position < 0 || position >= length) {
+            ensureOpen();
+            return -1;
+        }
+        acquire();
+        try {
+            return read(position, bytes, off, len);
+        } finally {
+            release();
+        }
+    }
+
+    private int read(long position, byte[] bytes, int off, int len) {
+        final int toRead = (int) Math.min(len, length - position);
+        long current = position;
+        int written = 0;
+        while (written < toRead) {
+            // Absolute bulk get is not available in Java 11, so a duplicate
+            // is used to keep the source safe for concurrent readers
+            final ByteBuffer chunk = chunks[(int) (current >>> CHUNK_BITS)].duplicate();
+            final int chunkOffset = (int) (current & CHUNK_MASK);
+            final int n = Math.min(toRead - written, chunk.limit() - chunkOffset);
+            chunk.position(chunkOffset);
+            chunk.get(bytes, off + written, n);
+            written += n;
+            current += n;
+        }
+        return written;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public void close() {
+        final long previous = state.getAndUpdate(value -> value | CLOSED);
+        if (previous == 0) {
+            unmapAll();
+        }
+    }
+
+    /**
+     * Tells, whether the chunks are unmapped. Used in tests.
+     *
+     * @return {@code true}, if the chunks are unmapped
+     */
+    boolean isUnmapped() {
+        return unmapped.get();
+    }
+
+    private void acquire() throws IOException {
+        if ((state.incrementAndGet() & CLOSED) != 0) {
+            release();
+            throw new IOException(Language.ERROR_SOURCE_CLOSED.getString());
+        }
+    }
+
+    private void release() {
+        if (state.decrementAndGet() == CLOSED) {
+            // The source was closed during the read, which was the last one
+            unmapAll();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if ((state.get() & CLOSED) != 0) {
+            throw new IOException(Language.ERROR_SOURCE_CLOSED.getString());
+        }
+    }
+
+    private void unmapAll() {
+        if (!unmapped.compareAndSet(false, true)) {
+            return;
+        }
+        for (int i = 0; i < chunks.length; ++i) {
+            unmap(chunks[i]);
+            chunks[i] = null;
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER_METHOD == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER_METHOD.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LoggerHelper.debug(Language.ERROR_UNMAPPING_FILE.getString(), e, MappedFileSource.class);
+        }
+    }
+}
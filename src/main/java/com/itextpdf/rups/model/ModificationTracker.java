@@ -0,0 +1,143 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.util.BitSet;
+
+/**
+ * Keeps track of the indirect objects, which were modified since the
+ * document was opened. This information is used to write an incremental
+ * update, which only contains the modified objects.
+ */
+public final class ModificationTracker {
+    /**
+     * Numbers of all the modified objects, including the created ones.
+     */
+    private final BitSet modified = new BitSet();
+    /**
+     * Numbers of the streams, which had their data replaced.
+     */
+    private final BitSet streamDataModified = new BitSet();
+    /**
+     * Numbers of the objects, which did not exist in the original document.
+     */
+    private final BitSet created = new BitSet();
+
+    /**
+     * Marks an existing indirect object as modified.
+     *
+     * @param objectNumber number of the indirect object
+     */
+    public void markModified(int objectNumber) {
+        modified.set(objectNumber);
+    }
+
+    /**
+     * Marks an existing stream as having its data replaced.
+     *
+     * @param objectNumber number of the stream object
+     */
+    public void markStreamDataModified(int objectNumber) {
+        modified.set(objectNumber);
+        streamDataModified.set(objectNumber);
+    }
+
+    /**
+     * Marks an indirect object as newly created.
+     *
+     * @param objectNumber number of the indirect object
+     */
+    public void markCreated(int objectNumber) {
+        modified.set(objectNumber);
+        streamDataModified.set(objectNumber);
+        created.set(objectNumber);
+    }
+
+    public boolean isModified(int objectNumber) {
+        return modified.get(objectNumber);
+    }
+
+    public boolean isStreamDataModified(int objectNumber) {
+        return streamDataModified.get(objectNumber);
+    }
+
+    public boolean isCreated(int objectNumber) {
+        return created.get(objectNumber);
+    }
+
+    /**
+     * Returns whether there are no modifications.
+     *
+     * @return {@code true}, if no objects were modified
+     */
+    public boolean isEmpty() {
+        return modified.isEmpty();
+    }
+
+    /**
+     * Returns the amount of the modified objects, including the created ones.
+     *
+     * @return the amount of the modified objects
+     */
+    public int size() {
+        return modified.cardinality();
+    }
+
+    /**
+     * Returns the numbers of all the modified objects in ascending order.
+     *
+     * @return the numbers of the modified objects
+     */
+    public int[] getModifiedObjects() {
+        return modified.stream().toArray();
+    }
+
+    /**
+     * Returns the numbers of all the created objects in ascending order.
+     *
+     * @return the numbers of the created objects
+     */
+    public int[] getCreatedObjects() {
+        return created.stream().toArray();
+    }
+}
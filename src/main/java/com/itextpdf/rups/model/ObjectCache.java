@@ -0,0 +1,236 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfString;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of the loaded indirect objects, bounded by an
+ * estimated memory budget.
+ *
+ * <p>
+ * When the budget is exceeded, the least recently used entries are offered
+ * to an {@link Evictor}, which releases them, so that they are reloaded from
+ * the document on the next access. The evictor can refuse, for example if the
+ * object is still shown somewhere, in which case the entry is kept and
+ * treated as recently used.
+ * </p>
+ */
+final class ObjectCache {
+    /**
+     * Estimated footprint of an object without its content, including the
+     * cache entry and the tree node, which represents it.
+     */
+    static final long ENTRY_OVERHEAD = 256;
+    private static final long OBJECT_OVERHEAD = 24;
+    private static final long CONTAINER_ENTRY_SIZE = 48;
+    private static final int MAX_ESTIMATE_DEPTH = 8;
+
+    /**
+     * Callback, which releases an evicted object.
+     */
+    interface Evictor {
+        /**
+         * Releases an object, which is evicted from the cache.
+         *
+         * @param idx    the index of the object in the indirect object list
+         * @param object the object
+         *
+         * @return {@code true}, if the object can be dropped from the cache,
+         *         or {@code false}, if it has to be kept
+         */
+        boolean evict(int idx, PdfObject object);
+    }
+
+    private final long budget;
+    private final Evictor evictor;
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * Creates a cache.
+     *
+     * @param budget  the estimated amount of memory in bytes, which the cached
+     *                objects can take
+     * @param evictor the callback, which releases the evicted objects
+     */
+    ObjectCache(long budget, Evictor evictor) {
+        this.budget = budget;
+        this.evictor = evictor;
+    }
+
+    /**
+     * Gets a cached object and marks it as recently used.
+     *
+     * @param idx the index of the object in the indirect object list
+     *
+     * @return the object or {@code null}, if it is not cached
+     */
+    PdfObject get(int idx) {
+        final Entry entry = entries.get(idx);
+        return entry == null ? null : entry.object;
+    }
+
+    /**
+     * Adds an object to the cache and evicts the least recently used objects,
+     * if the budget is exceeded.
+     *
+     * @param idx    the index of the object in the indirect object list
+     * @param object the object
+     */
+    void put(int idx, PdfObject object) {
+        final Entry entry = new Entry(object, ENTRY_OVERHEAD + estimateSize(object, 0));
+        final Entry previous = entries.put(idx, entry);
+        if (previous != null) {
+            size -= previous.size;
+        }
+        size += entry.size;
+        trim(idx);
+    }
+
+    /**
+     * Removes an object from the cache without evicting it.
+     *
+     * @param idx the index of the object in the indirect object list
+     *
+     * @return the removed object or {@code null}, if it was not cached
+     */
+    PdfObject remove(int idx) {
+        final Entry entry = entries.remove(idx);
+        if (entry == null) {
+            return null;
+        }
+        size -= entry.size;
+        return entry.object;
+    }
+
+    /**
+     * Gets the estimated amount of memory taken by the cached objects.
+     *
+     * @return the estimated size in bytes
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Gets the amount of the cached objects.
+     *
+     * @return the amount of the cached objects
+     */
+    int count() {
+        return entries.size();
+    }
+
+    private void trim(int newest) {
+        // Every entry is offered at most once, the refused ones are moved to the end
+        int attempts = entries.size();
+        while (size > budget && attempts-- > 0) {
+            final Iterator<Map.Entry<Integer, Entry>> iterator = entries.entrySet().iterator();
+            final Map.Entry<Integer, Entry> eldest = iterator.next();
+            final int idx = eldest.getKey();
+            final Entry entry = eldest.getValue();
+            if (idx != newest && evictor.evict(idx, entry.object)) {
+                iterator.remove();
+                size -= entry.size;
+            } else {
+                // Touching the entry moves it to the end of the access order
+                entries.get(idx);
+            }
+        }
+    }
+
+    /**
+     * Roughly estimates the memory taken by an object, including its direct
+     * children. Objects referenced indirectly are not counted.
+     *
+     * @param object the object
+     * @param depth  current nesting depth
+     *
+     * @return the estimated size in bytes
+     */
+    static long estimateSize(PdfObject object, int depth) {
+        if (object == null || depth > MAX_ESTIMATE_DEPTH) {
+            return OBJECT_OVERHEAD;
+        }
+        switch (object.getType()) {
+            case PdfObject.DICTIONARY:
+            case PdfObject.STREAM:
+                final PdfDictionary dict = (PdfDictionary) object;
+                long dictSize = OBJECT_OVERHEAD;
+                for (final PdfName key : dict.keySet()) {
+                    dictSize += CONTAINER_ENTRY_SIZE + estimateSize(dict.get(key, false), depth + 1);
+                }
+                return dictSize;
+            case PdfObject.ARRAY:
+                final PdfArray array = (PdfArray) object;
+                long arraySize = OBJECT_OVERHEAD;
+                for (int i = 0; i < array.size(); ++i) {
+                    arraySize += CONTAINER_ENTRY_SIZE + estimateSize(array.get(i, false), depth + 1);
+                }
+                return arraySize;
+            case PdfObject.STRING:
+                return OBJECT_OVERHEAD + ((PdfString) object).getValueBytes().length;
+            default:
+                return OBJECT_OVERHEAD;
+        }
+    }
+
+    private static final class Entry {
+        private final PdfObject object;
+        private final long size;
+
+        Entry(PdfObject object, long size) {
+            this.object = object;
+            this.size = size;
+        }
+    }
+}
@@ -42,15 +42,18 @@
  */
 package com.itextpdf.rups.model;
 
+import com.itextpdf.rups.RupsConfiguration;
 import com.itextpdf.rups.view.Language;
 
-import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.SwingWorker;
 
 /**
  * Loads the necessary iText PDF objects in Background.
  */
-public class ObjectLoader extends SwingWorker<Void, Void> {
+public class ObjectLoader extends SwingWorker<Void, Integer> {
     /**
      * This is the object that wait for task to complete.
      */
@@ -62,17 +65,45 @@ public class ObjectLoader extends SwingWorker<Void, Void> {
     /**
      * The factory that can provide PDF objects.
      */
-    protected IndirectObjectFactory objects;
+    protected volatile IndirectObjectFactory objects;
     /**
      * The factory that can provide tree nodes.
      */
-    protected TreeNodeFactory nodes;
+    protected volatile TreeNodeFactory nodes;
     /**
      * a human readable name for this loaded
      */
     private final String loaderName;
 
     private final IProgressDialog progress;
+    /**
+     * Passes the progress of the scan to the progress dialog.
+     */
+    private final ProgressReporter reporter;
+    /**
+     * Whether the objects should only be indexed from the cross-reference
+     * table instead of being scanned.
+     */
+    private final boolean lazy;
+    /**
+     * Whether the scan was stopped by the user.
+     */
+    private volatile boolean stopped = false;
+    /**
+     * Whether all the objects were stored, so that the recorded metrics are
+     * complete. This is not the case, if the scan was stopped or failed
+     * halfway.
+     */
+    private volatile boolean complete = false;
+    /**
+     * The scanner, while the scan is in progress.
+     */
+    private volatile ParallelObjectScanner scanner = null;
+    /**
+     * Whether the "Open Document" event was already fired. Only used on the
+     * event dispatch thread.
+     */
+    private boolean opened = false;
 
     /**
      * Creates a new ObjectLoader.
@@ -83,10 +114,27 @@ public class ObjectLoader extends SwingWorker<Void, Void> {
      * @param file       the PdfFile from which the objects will be read.
      */
     public ObjectLoader(IRupsEventListener eventListener, IPdfFile file, String loaderName, IProgressDialog progress) {
+        this(eventListener, file, loaderName, progress, false);
+    }
+
+    /**
+     * Creates a new ObjectLoader.
+     *
+     * @param loaderName    the loader name
+     * @param progress      the progress dialog
+     * @param eventListener the object that will forward the changes.
+     * @param file          the PdfFile from which the objects will be read.
+     * @param lazy          if true, the objects are only indexed from the
+     *                      cross-reference table and read on first access
+     */
+    public ObjectLoader(IRupsEventListener eventListener, IPdfFile file, String loaderName, IProgressDialog progress,
+            boolean lazy) {
         this.eventListener = eventListener;
         this.file = file;
         this.loaderName = loaderName;
         this.progress = progress;
+        this.reporter = new ProgressReporter(progress);
+        this.lazy = lazy;
     }
 
     /**
@@ -126,31 +174,238 @@ public class ObjectLoader extends SwingWorker<Void, Void> {
         return loaderName;
     }
 
+    /**
+     * Checks whether the loader is done and has stored all the objects. A
+     * loader, whose scan was stopped or failed halfway, is done as well, but
+     * its metrics lack the objects, which were not scanned.
+     *
+     * @return true, if the metrics of all the objects were recorded
+     */
+    public boolean isComplete() {
+        return isDone() && complete;
+    }
+
+    /**
+     * Stops scanning the document. The objects, which were loaded so far, are
+     * kept and the loader finishes as usual.
+     */
+    public void stopScan() {
+        stopped = true;
+        final ParallelObjectScanner activeScanner = scanner;
+        if (activeScanner != null) {
+            activeScanner.cancel();
+        }
+    }
+
     @Override
     protected Void doInBackground() {
-        objects = new IndirectObjectFactory(file.getPdfDocument());
-        final int n = objects.getXRefMaximum();
-        SwingUtilities.invokeLater(() -> {
-            progress.setMessage(Language.XREF_READING.getString());
-            progress.setTotal(n);
-        });
-        while (objects.storeNextObject()) {
-            SwingUtilities.invokeLater(() -> progress.setValue(objects.getCurrent()));
+        reporter.start();
+        try {
+            objects = new IndirectObjectFactory(file.getPdfDocument(), file.getDocumentLock());
+            final int n = objects.getXRefMaximum();
+            reporter.setMessage(Language.XREF_READING.getString());
+            reporter.setTotal(n);
+            if (lazy && indexFromXRef()) {
+                complete = true;
+            } else {
+                final ScanIndexCache cache = getScanCache();
+                if (loadFromCache(cache, n)) {
+                    complete = true;
+                } else if (!scanProgressively(n, cache)) {
+                    while (!stopped && objects.storeNextObject()) {
+                        reporter.setValue(objects.getCurrent());
+                    }
+                    complete = !stopped;
+                }
+            }
+            reporter.setTotal(0);
+            if (nodes == null) {
+                nodes = new TreeNodeFactory(objects);
+            }
+            reporter.setMessage(Language.GUI_UPDATING.getString());
+        } finally {
+            reporter.stop();
+        }
+        return null;
+    }
+
+    /**
+     * Registers the objects straight from the cross-reference table of the
+     * file, without reading them. This is not possible, if iText had to
+     * rebuild the cross-reference table, as it would not match the file.
+     *
+     * @return true, if the objects were registered successfully
+     */
+    private boolean indexFromXRef() {
+        if (file.getPdfDocument().getReader().hasRebuiltXref()) {
+            return false;
+        }
+        try {
+            objects.storeFromXRef(XRefParser.parse(file.getContent()));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LoggerHelper.warn(Language.ERROR_LAZY_OPEN_FAILED.getString(), e, getClass());
+        }
+        objects = new IndirectObjectFactory(file.getPdfDocument(), file.getDocumentLock());
+        return false;
+    }
+
+    /**
+     * Scans the xref table with separate read-only documents, so that the
+     * document of the file stays available for browsing. The scanned objects
+     * are merged into the object factory in the object order and every merged
+     * batch is published, so that the views can show the document, while the
+     * scan continues.
+     *
+     * <p>
+     * If the scan fails before anything was published, the factory is reset,
+     * so that the sequential scan can start over. Otherwise, the objects,
+     * which were loaded so far, are kept.
+     * </p>
+     *
+     * <p>
+     * If the scan is complete, its results are stored in the scan cache.
+     * </p>
+     *
+     * @param n     the highest object number
+     * @param cache the scan cache or {@code null}, if it is not used
+     *
+     * @return true, if the objects were stored successfully
+     */
+    private boolean scanProgressively(int n, ScanIndexCache cache) {
+        final int threads = ParallelObjectScanner.getRecommendedThreadCount(n + 1);
+        final ParallelObjectScanner activeScanner =
+                new ParallelObjectScanner(file, n, threads, readXRefIndex());
+        scanner = activeScanner;
+        if (stopped) {
+            activeScanner.cancel();
+        }
+        final List<ParallelObjectScanner.Segment> delivered = new ArrayList<>();
+        try {
+            complete = activeScanner.scan(
+                    segment -> {
+                        storeSegment(segment);
+                        delivered.add(segment);
+                    },
+                    () -> reporter.setValue(activeScanner.getScanned())
+            );
+            if (complete && cache != null) {
+                cache.save(file, n, delivered);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            LoggerHelper.warn(Language.ERROR_PARALLEL_SCAN_FAILED.getString(), e, getClass());
+        } finally {
+            scanner = null;
+        }
+        if (!delivered.isEmpty()) {
+            return true;
+        }
+        objects = new IndirectObjectFactory(file.getPdfDocument(), file.getDocumentLock());
+        return false;
+    }
+
+    /**
+     * Merges a scanned segment into the object factory and publishes it.
+     *
+     * @param segment the scanned segment
+     */
+    private void storeSegment(ParallelObjectScanner.Segment segment) {
+        objects.storeSegment(segment);
+        if (nodes == null) {
+            nodes = new TreeNodeFactory(objects);
+        }
+        publish(objects.size());
+    }
+
+    /**
+     * Gets the cache for the results of the scan. It is not used for
+     * encrypted documents, so that nothing about their structure is stored
+     * unencrypted on disk.
+     *
+     * @return the scan cache or {@code null}, if it should not be used
+     */
+    private ScanIndexCache getScanCache() {
+        if (!RupsConfiguration.INSTANCE.isScanCacheEnabled()
+                || file.getPdfDocument().getReader().isEncrypted()) {
+            return null;
+        }
+        return new ScanIndexCache(RupsConfiguration.INSTANCE.getScanCacheFolder().toPath());
+    }
+
+    /**
+     * Stores the objects from the results of a previous scan of the same file.
+     *
+     * @param cache the scan cache or {@code null}, if it is not used
+     * @param n     the highest object number
+     *
+     * @return true, if the objects were stored from the cache
+     */
+    private boolean loadFromCache(ScanIndexCache cache, int n) {
+        if (cache == null) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        final List<ParallelObjectScanner.Segment> segments = cache.load(file, n);
+        if (segments == null) {
+            return false;
+        }
+        for (final ParallelObjectScanner.Segment segment : segments) {
+            storeSegment(segment);
+        }
+        reporter.setValue(n);
+        LoggerHelper.info(String.format(Language.LOG_SCAN_CACHE_LOADED.getString(), objects.size(),
+                (System.nanoTime() - start) / 1_000_000), getClass());
+        return true;
+    }
+
+    /**
+     * Reads the cross-reference index, so that the scan can group the
+     * objects by their object streams.
+     *
+     * @return the cross-reference index or {@code null}, if it does not
+     *         match the file
+     */
+    private XRefIndex readXRefIndex() {
+        if (file.getPdfDocument().getReader().hasRebuiltXref()) {
+            return null;
+        }
+        try {
+            return XRefParser.parse(file.getContent());
+        } catch (IOException | RuntimeException e) {
+            LoggerHelper.debug(Language.LOG_OBJECT_STREAMS_NOT_GROUPED.getString(), e, getClass());
         }
-        SwingUtilities.invokeLater(() -> progress.setTotal(0));
-        nodes = new TreeNodeFactory(objects);
-        SwingUtilities.invokeLater(() -> progress.setMessage(Language.GUI_UPDATING.getString()));
         return null;
     }
 
+    @Override
+    protected void process(List<Integer> chunks) {
+        fireLoadingEvent();
+    }
+
     @Override
     protected void done() {
+        fireLoadingEvent();
+        progress.setVisible(false);
+    }
+
+    /**
+     * Fires the "Open Document" event for the first batch of objects and the
+     * "Objects Loaded" event for any of the following ones.
+     */
+    private void fireLoadingEvent() {
         try {
-            eventListener.handleOpenDocument(this);
+            if (opened) {
+                eventListener.handleObjectsLoaded(this);
+            } else {
+                opened = true;
+                eventListener.handleOpenDocument(this);
+            }
         } catch (RuntimeException ex) {
             progress.showErrorDialog(ex);
             LoggerHelper.error(ex.getLocalizedMessage(), ex, getClass());
         }
-        progress.setVisible(false);
     }
 }
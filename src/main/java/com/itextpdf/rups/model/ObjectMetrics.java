@@ -0,0 +1,713 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar store of the metrics of the indirect objects, which are shown in
+ * the cross-reference table.
+ *
+ * <p>
+ * The metrics are filled, while the objects are scanned, and kept in parallel
+ * primitive arrays, indexed by the object number, so that millions of objects
+ * can be shown, sorted and filtered without touching a single
+ * {@link PdfObject}. Names are stored as indexes into a table of the distinct
+ * names. Values, which are not known, are {@link #UNKNOWN}.
+ * </p>
+ *
+ * <p>
+ * The scan fills a separate store for every segment, which is merged in the
+ * object order, like the segment itself. The access is synchronized.
+ * </p>
+ */
+public final class ObjectMetrics {
+    /**
+     * Value of the metrics, which are not known.
+     */
+    public static final int UNKNOWN = -1;
+    /**
+     * Kind of the objects, which were not classified yet. The other kinds
+     * are the types of {@link PdfObject}.
+     */
+    public static final byte UNKNOWN_KIND = 0;
+
+    /**
+     * The metrics, by which the objects can be sorted.
+     */
+    public enum Column {
+        NUMBER,
+        GENERATION,
+        OFFSET,
+        OBJECT_STREAM,
+        TYPE,
+        LENGTH,
+        DECODED_LENGTH
+    }
+
+    /**
+     * Decides, which objects are kept by {@link #filter(int[], int, TypeFilter)}.
+     */
+    public interface TypeFilter {
+        /**
+         * Decides, whether the objects of a type are kept. It is called only
+         * once for every distinct type.
+         *
+         * @param kind    the kind of the objects
+         * @param type    the value of /Type or {@code null}
+         * @param subtype the value of /Subtype or {@code null}
+         *
+         * @return {@code true}, if the objects are kept
+         */
+        boolean accept(byte kind, PdfName type, PdfName subtype);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final PdfName DL = new PdfName("DL");
+    /**
+     * Maximal amount of distinct names. Further names are not recorded.
+     */
+    private static final int MAX_NAMES = 0xFFFF;
+
+    /**
+     * The first object number of the store.
+     */
+    private final int from;
+    /**
+     * Amount of object numbers, which are expected. The arrays do not grow
+     * beyond it, unless an object number exceeds it.
+     */
+    private final int expected;
+    /**
+     * Amount of object numbers, which fit in the arrays.
+     */
+    private int capacity = 0;
+    private byte[] kinds = new byte[0];
+    private int[] generations = new int[0];
+    private long[] offsets = new long[0];
+    private int[] objectStreams = new int[0];
+    private char[] types = new char[0];
+    private char[] subtypes = new char[0];
+    private int[] lengths = new int[0];
+    private int[] decodedLengths = new int[0];
+    /**
+     * The distinct names. The index 0 stands for no name.
+     */
+    private final List<PdfName> names = new ArrayList<>();
+    private final Map<PdfName, Character> nameIds = new HashMap<>();
+
+    /**
+     * Creates a store for the object numbers from 0 up. Nothing is allocated,
+     * until metrics are recorded, then the arrays grow with the highest
+     * object number.
+     *
+     * @param capacity the expected amount of object numbers
+     */
+    ObjectMetrics(int capacity) {
+        this.from = 0;
+        this.expected = capacity;
+        names.add(null);
+    }
+
+    /**
+     * Creates a store for a range of object numbers.
+     *
+     * @param from the first object number, inclusive
+     * @param to   the last object number, exclusive
+     */
+    ObjectMetrics(int from, int to) {
+        this.from = from;
+        this.expected = to - from;
+        names.add(null);
+        ensureCapacity(to);
+    }
+
+    /**
+     * Records the location of an object in the file.
+     *
+     * @param ref          the object number
+     * @param generation   the generation number
+     * @param offset       the byte offset or {@link #UNKNOWN}, if the object
+     *                     is not stored directly in the file
+     * @param objectStream the number of the containing object stream or
+     *                     {@link #UNKNOWN}, if the object is not compressed
+     */
+    synchronized void setLocation(int ref, int generation, long offset, int objectStream) {
+        final int i = slot(ref);
+        if (i < 0) {
+            return;
+        }
+        generations[i] = generation;
+        offsets[i] = offset;
+        objectStreams[i] = objectStream;
+    }
+
+    /**
+     * Records the location of an object from the cross-reference index.
+     *
+     * @param ref  the object number
+     * @param xref the cross-reference index
+     */
+    void setLocation(int ref, XRefIndex xref) {
+        if (xref.isInUse(ref)) {
+            setLocation(ref, xref.getGeneration(ref), xref.getOffset(ref), xref.getObjectStreamNumber(ref));
+        }
+    }
+
+    /**
+     * Records the locations of all the objects of the store, which are in use
+     * according to the cross-reference index.
+     *
+     * @param xref the cross-reference index
+     */
+    synchronized void setLocations(XRefIndex xref) {
+        final int to = Math.min(from + Math.max(capacity, expected), xref.size());
+        for (int ref = from; ref < to; ++ref) {
+            setLocation(ref, xref);
+        }
+    }
+
+    /**
+     * Records the classification of an object.
+     *
+     * @param ref           the object number
+     * @param kind          the type of the object as in {@link PdfObject#getType()}
+     * @param type          the value of /Type or {@code null}
+     * @param subtype       the value of /Subtype or {@code null}
+     * @param length        the raw length of a stream or {@link #UNKNOWN}
+     * @param decodedLength the decoded length of a stream or {@link #UNKNOWN}
+     */
+    synchronized void setObject(int ref, byte kind, PdfName type, PdfName subtype, int length,
+            int decodedLength) {
+        final int i = slot(ref);
+        if (i < 0) {
+            return;
+        }
+        kinds[i] = kind;
+        types[i] = getNameId(type);
+        subtypes[i] = getNameId(subtype);
+        lengths[i] = length;
+        decodedLengths[i] = decodedLength;
+    }
+
+    /**
+     * Records the metrics of a parsed object. This should be done, before
+     * the object is released.
+     *
+     * @param ref    the object number
+     * @param object the object
+     */
+    void record(int ref, PdfObject object) {
+        final PdfIndirectReference reference = object.getIndirectReference();
+        if (reference != null) {
+            final int objectStream = reference.getObjStreamNumber();
+            if (objectStream > 0) {
+                setLocation(ref, 0, UNKNOWN, objectStream);
+            } else {
+                setLocation(ref, reference.getGenNumber(), reference.getOffset() > 0 ? reference.getOffset() : UNKNOWN,
+                        UNKNOWN);
+            }
+        }
+        if (!(object instanceof PdfDictionary)) {
+            setObject(ref, object.getType(), null, null, UNKNOWN, UNKNOWN);
+            return;
+        }
+        final PdfDictionary dictionary = (PdfDictionary) object;
+        int length = UNKNOWN;
+        int decodedLength = UNKNOWN;
+        if (object.isStream()) {
+            final PdfNumber lengthNumber = dictionary.getAsNumber(PdfName.Length);
+            length = lengthNumber == null ? UNKNOWN : lengthNumber.intValue();
+            final PdfNumber decodedNumber = dictionary.getAsNumber(DL);
+            if (decodedNumber != null) {
+                decodedLength = decodedNumber.intValue();
+            } else if (dictionary.get(PdfName.Filter, false) == null) {
+                decodedLength = length;
+            }
+        }
+        setObject(ref, object.getType(), dictionary.getAsName(PdfName.Type), dictionary.getAsName(PdfName.Subtype),
+                length, decodedLength);
+    }
+
+    /**
+     * Records the decoded length of a stream, once it was decoded.
+     *
+     * @param ref    the object number
+     * @param length the decoded length
+     */
+    public synchronized void setDecodedLength(int ref, int length) {
+        if (contains(ref)) {
+            decodedLengths[ref - from] = length;
+        }
+    }
+
+    /**
+     * Merges the metrics of a range of object numbers into this store. The
+     * values, which this store knows already, are kept, as they might have
+     * been recorded from the parsed object or the decoded stream meanwhile.
+     *
+     * @param part the metrics of the range
+     */
+    synchronized void merge(ObjectMetrics part) {
+        synchronized (part) {
+            if (!ensureCapacity(part.from + part.capacity) || part.from < from) {
+                return;
+            }
+            final int offset = part.from - from;
+            final char[] ids = new char[part.names.size()];
+            for (int i = 1; i < ids.length; ++i) {
+                ids[i] = getNameId(part.names.get(i));
+            }
+            for (int i = 0; i < part.capacity; ++i) {
+                final int j = offset + i;
+                if (generations[j] == UNKNOWN) {
+                    generations[j] = part.generations[i];
+                    offsets[j] = part.offsets[i];
+                    objectStreams[j] = part.objectStreams[i];
+                }
+                if (kinds[j] == UNKNOWN_KIND) {
+                    kinds[j] = part.kinds[i];
+                    types[j] = ids[part.types[i]];
+                    subtypes[j] = ids[part.subtypes[i]];
+                }
+                if (lengths[j] == UNKNOWN) {
+                    lengths[j] = part.lengths[i];
+                }
+                if (decodedLengths[j] == UNKNOWN) {
+                    decodedLengths[j] = part.decodedLengths[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the kind of an object.
+     *
+     * @param ref the object number
+     *
+     * @return the type of the object as in {@link PdfObject#getType()} or
+     *         {@link #UNKNOWN_KIND}
+     */
+    public synchronized byte getKind(int ref) {
+        return contains(ref) ? kinds[ref - from] : UNKNOWN_KIND;
+    }
+
+    /**
+     * Gets the generation number of an object.
+     *
+     * @param ref the object number
+     *
+     * @return the generation number or {@link #UNKNOWN}
+     */
+    public synchronized int getGeneration(int ref) {
+        return contains(ref) ? generations[ref - from] : UNKNOWN;
+    }
+
+    /**
+     * Gets the byte offset of an object, which is stored directly in the file.
+     *
+     * @param ref the object number
+     *
+     * @return the byte offset or {@link #UNKNOWN}
+     */
+    public synchronized long getOffset(int ref) {
+        return contains(ref) ? offsets[ref - from] : UNKNOWN;
+    }
+
+    /**
+     * Gets the number of the object stream, which contains an object.
+     *
+     * @param ref the object number
+     *
+     * @return the number of the object stream or {@link #UNKNOWN}, if the
+     *         object is not compressed
+     */
+    public synchronized int getObjectStream(int ref) {
+        return contains(ref) ? objectStreams[ref - from] : UNKNOWN;
+    }
+
+    /**
+     * Gets the value of /Type of a dictionary or stream.
+     *
+     * @param ref the object number
+     *
+     * @return the type or {@code null}
+     */
+    public synchronized PdfName getType(int ref) {
+        return contains(ref) ? names.get(types[ref - from]) : null;
+    }
+
+    /**
+     * Gets the value of /Subtype of a dictionary or stream.
+     *
+     * @param ref the object number
+     *
+     * @return the subtype or {@code null}
+     */
+    public synchronized PdfName getSubtype(int ref) {
+        return contains(ref) ? names.get(subtypes[ref - from]) : null;
+    }
+
+    /**
+     * Gets the raw length of a stream.
+     *
+     * @param ref the object number
+     *
+     * @return the length or {@link #UNKNOWN}
+     */
+    public synchronized int getLength(int ref) {
+        return contains(ref) ? lengths[ref - from] : UNKNOWN;
+    }
+
+    /**
+     * Gets the decoded length of a stream.
+     *
+     * @param ref the object number
+     *
+     * @return the length or {@link #UNKNOWN}
+     */
+    public synchronized int getDecodedLength(int ref) {
+        return contains(ref) ? decodedLengths[ref - from] : UNKNOWN;
+    }
+
+    /**
+     * Sorts object numbers by a metric. The sort is stable, so the objects
+     * with the same value keep their order. Unknown values come first in the
+     * ascending order.
+     *
+     * @param refs      the object numbers to sort
+     * @param count     the amount of the object numbers in the array
+     * @param column    the metric
+     * @param ascending whether the order is ascending
+     */
+    public void sort(int[] refs, int count, Column column, boolean ascending) {
+        final long[] keys = new long[count];
+        synchronized (this) {
+            final char[] ranks = column == Column.TYPE ? getNameRanks() : null;
+            for (int i = 0; i < count; ++i) {
+                final long key = getKey(refs[i], column, ranks);
+                keys[i] = ascending ? key : -key;
+            }
+        }
+        sortByKeys(refs, keys, count);
+    }
+
+    /**
+     * Removes the object numbers, whose type is not accepted by a filter. The
+     * kept object numbers are moved to the beginning of the array in their
+     * original order.
+     *
+     * @param refs   the object numbers to filter
+     * @param count  the amount of the object numbers in the array
+     * @param filter the filter
+     *
+     * @return the amount of the kept object numbers
+     */
+    public synchronized int filter(int[] refs, int count, TypeFilter filter) {
+        final Map<Long, Boolean> decisions = new HashMap<>();
+        long lastKey = -1;
+        boolean lastDecision = false;
+        int kept = 0;
+        for (int i = 0; i < count; ++i) {
+            final int ref = refs[i];
+            final long key = contains(ref)
+                    ? ((long) kinds[ref - from] << 32) | ((long) types[ref - from] << 16) | subtypes[ref - from]
+                    : 0;
+            if (key != lastKey) {
+                lastKey = key;
+                lastDecision = decisions.computeIfAbsent(key, k -> filter.accept((byte) (k >>> 32),
+                        names.get((int) ((k >>> 16) & 0xFFFF)), names.get((int) (k & 0xFFFF))));
+            }
+            if (lastDecision) {
+                refs[kept++] = ref;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Writes the metrics, so that they can be read with
+     * {@link #read(DataInputStream)}.
+     *
+     * @param output the output
+     *
+     * @throws IOException if the metrics could not be written
+     */
+    synchronized void write(DataOutputStream output) throws IOException {
+        output.writeInt(names.size() - 1);
+        for (int i = 1; i < names.size(); ++i) {
+            output.writeUTF(names.get(i).getValue());
+        }
+        for (int i = 0; i < capacity; ++i) {
+            output.writeByte(kinds[i]);
+            output.writeInt(generations[i]);
+            output.writeLong(offsets[i]);
+            output.writeInt(objectStreams[i]);
+            output.writeChar(types[i]);
+            output.writeChar(subtypes[i]);
+            output.writeInt(lengths[i]);
+            output.writeInt(decodedLengths[i]);
+        }
+    }
+
+    /**
+     * Reads the metrics, which were written with
+     * {@link #write(DataOutputStream)}, into an empty store of the same
+     * range of object numbers.
+     *
+     * @param input the input
+     *
+     * @return {@code false}, if the data is not valid
+     *
+     * @throws IOException if the metrics could not be read
+     */
+    synchronized boolean read(DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0 || count >= MAX_NAMES || names.size() != 1) {
+            return false;
+        }
+        for (int i = 0; i < count; ++i) {
+            getNameId(new PdfName(input.readUTF()));
+        }
+        if (names.size() != count + 1) {
+            // The names were not distinct
+            return false;
+        }
+        for (int i = 0; i < capacity; ++i) {
+            kinds[i] = input.readByte();
+            generations[i] = input.readInt();
+            offsets[i] = input.readLong();
+            objectStreams[i] = input.readInt();
+            types[i] = input.readChar();
+            subtypes[i] = input.readChar();
+            lengths[i] = input.readInt();
+            decodedLengths[i] = input.readInt();
+            if (types[i] > count || subtypes[i] > count) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts values by their keys with a stable merge sort on primitive
+     * arrays, which is considerably faster than sorting boxed values.
+     *
+     * @param values the values to sort
+     * @param keys   the keys of the values, which are reordered as well
+     * @param count  the amount of the values
+     */
+    static void sortByKeys(int[] values, long[] keys, int count) {
+        int[] sourceValues = values;
+        long[] sourceKeys = keys;
+        int[] targetValues = new int[count];
+        long[] targetKeys = new long[count];
+        for (int width = 1; width < count; width <<= 1) {
+            for (int low = 0; low < count; low += width << 1) {
+                final int middle = Math.min(low + width, count);
+                final int high = Math.min(low + (width << 1), count);
+                int left = low;
+                int right = middle;
+                for (int k = low; k < high; ++k) {
+                    if (right >= high || (left < middle && sourceKeys[left] <= sourceKeys[right])) {
+                        targetValues[k] = sourceValues[left];
+                        targetKeys[k] = sourceKeys[left++];
+                    } else {
+                        targetValues[k] = sourceValues[right];
+                        targetKeys[k] = sourceKeys[right++];
+                    }
+                }
+            }
+            final int[] values2 = sourceValues;
+            sourceValues = targetValues;
+            targetValues = values2;
+            final long[] keys2 = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = keys2;
+        }
+        if (sourceValues != values) {
+            System.arraycopy(sourceValues, 0, values, 0, count);
+            System.arraycopy(sourceKeys, 0, keys, 0, count);
+        }
+    }
+
+    private long getKey(int ref, Column column, char[] ranks) {
+        if (column == Column.NUMBER) {
+            return ref;
+        }
+        if (!contains(ref)) {
+            return UNKNOWN;
+        }
+        final int i = ref - from;
+        switch (column) {
+            case GENERATION:
+                return generations[i];
+            case OFFSET:
+                return offsets[i];
+            case OBJECT_STREAM:
+                return objectStreams[i];
+            case TYPE:
+                return ((long) kinds[i] << 32) | ((long) ranks[types[i]] << 16) | ranks[subtypes[i]];
+            case LENGTH:
+                return lengths[i];
+            case DECODED_LENGTH:
+                return decodedLengths[i];
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    /**
+     * Gets the positions of the names in the alphabetical order by their ids.
+     * No name comes first.
+     *
+     * @return the ranks of the names
+     */
+    private char[] getNameRanks() {
+        final Integer[] ids = new Integer[names.size() - 1];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = i + 1;
+        }
+        Arrays.sort(ids, Comparator.comparing(id -> names.get(id).getValue()));
+        final char[] ranks = new char[names.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            ranks[ids[i]] = (char) (i + 1);
+        }
+        return ranks;
+    }
+
+    private char getNameId(PdfName name) {
+        if (name == null) {
+            return 0;
+        }
+        final Character id = nameIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (names.size() >= MAX_NAMES) {
+            return 0;
+        }
+        final char newId = (char) names.size();
+        names.add(name);
+        nameIds.put(name, newId);
+        return newId;
+    }
+
+    /**
+     * Gets the position of an object number in the arrays and grows them, if
+     * necessary.
+     *
+     * @param ref the object number
+     *
+     * @return the position or -1, if the object number is before the start
+     *         of the store
+     */
+    private int slot(int ref) {
+        return ref >= from && ensureCapacity(ref + 1) ? ref - from : -1;
+    }
+
+    /**
+     * Gets the amount of object numbers, which fit in the arrays.
+     *
+     * @return the allocated capacity
+     */
+    synchronized int getCapacity() {
+        return capacity;
+    }
+
+    private boolean contains(int ref) {
+        return ref >= from && ref < from + capacity;
+    }
+
+    /**
+     * Grows the arrays, so that they fit the object numbers up to a limit.
+     *
+     * @param to the last object number, exclusive
+     *
+     * @return {@code false}, if the limit is before the start of the store
+     */
+    private boolean ensureCapacity(int to) {
+        final int required = to - from;
+        if (required < 0) {
+            return false;
+        }
+        if (required <= capacity) {
+            return true;
+        }
+        int newCapacity = Math.max(required, capacity + Math.max(capacity >> 1, INITIAL_CAPACITY));
+        if (required <= expected) {
+            newCapacity = Math.min(newCapacity, expected);
+        }
+        kinds = Arrays.copyOf(kinds, newCapacity);
+        generations = grow(generations, newCapacity);
+        offsets = Arrays.copyOf(offsets, newCapacity);
+        Arrays.fill(offsets, capacity, newCapacity, UNKNOWN);
+        objectStreams = grow(objectStreams, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        subtypes = Arrays.copyOf(subtypes, newCapacity);
+        lengths = grow(lengths, newCapacity);
+        decodedLengths = grow(decodedLengths, newCapacity);
+        capacity = newCapacity;
+        return true;
+    }
+
+    private int[] grow(int[] array, int newCapacity) {
+        final int[] result = Arrays.copyOf(array, newCapacity);
+        Arrays.fill(result, capacity, newCapacity, UNKNOWN);
+        return result;
+    }
+}
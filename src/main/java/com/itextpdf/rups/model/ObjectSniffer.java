@@ -0,0 +1,483 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Classifies indirect objects by tokenizing only their beginning, without
+ * building any {@link PdfObject}.
+ *
+ * <p>
+ * Uncompressed objects are read at their offset from the cross-reference
+ * index, compressed objects are read from their object stream, which is
+ * decoded once and kept, until an object of another stream is requested.
+ * For a dictionary only the keys are tokenized, the values are skipped,
+ * except for the few ones, which are recorded in the {@link ObjectMetrics}.
+ * Whenever the sniffer is not sure, it answers {@link #UNKNOWN}, so that the
+ * object is parsed fully instead.
+ * </p>
+ *
+ * <p>
+ * Encrypted documents are not supported, as the object streams would have
+ * to be decrypted. Instances are not thread-safe.
+ * </p>
+ */
+final class ObjectSniffer implements Closeable {
+    /**
+     * The object could not be classified and has to be parsed.
+     */
+    static final int UNKNOWN = -1;
+    /**
+     * The object is the null object.
+     */
+    static final int NULL = 0;
+    /**
+     * The object is a page dictionary.
+     */
+    static final int PAGE = 1;
+    /**
+     * The object is anything else.
+     */
+    static final int OTHER = 2;
+
+    /**
+     * Maximal amount of tokens read for a single object.
+     */
+    private static final int MAX_TOKENS = 1024;
+    private static final byte[] NULL_KEYWORD = "null".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] PAGE_NAME = "Page".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] TYPE_NAME = "Type".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] SUBTYPE_NAME = "Subtype".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] LENGTH_NAME = "Length".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] DL_NAME = "DL".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] FILTER_NAME = "Filter".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final PdfFileContent content;
+    private final XRefIndex xref;
+    private final PdfTokenizer fileTokenizer;
+    /**
+     * Number of the decoded object stream or -1, if none was decoded.
+     */
+    private int streamNumber = -1;
+    private PdfTokenizer streamTokenizer;
+    private int[] streamRefs;
+    private long[] streamOffsets;
+    /*
+     * The metrics of the object, which is sniffed at the moment.
+     */
+    private byte kind;
+    private PdfName type;
+    private PdfName subtype;
+    private long length;
+    private int lengthRef;
+    private long decodedLength;
+    private boolean filtered;
+
+    /**
+     * Creates a sniffer for the objects of a file.
+     *
+     * @param content the content of the file
+     * @param xref    the cross-reference index of the file
+     */
+    ObjectSniffer(PdfFileContent content, XRefIndex xref) {
+        this.content = content;
+        this.xref = xref;
+        this.fileTokenizer = new PdfTokenizer(new RandomAccessFileOrArray(content.asRandomAccessSource()));
+    }
+
+    /**
+     * Classifies an object.
+     *
+     * @param ref the object number
+     *
+     * @return {@link #NULL}, {@link #PAGE}, {@link #OTHER} or
+     *         {@link #UNKNOWN}, if the object has to be parsed
+     */
+    int sniff(int ref) {
+        return sniff(ref, null);
+    }
+
+    /**
+     * Classifies an object and records its metrics, unless the object has to
+     * be parsed.
+     *
+     * @param ref     the object number
+     * @param metrics the metrics to fill or {@code null}
+     *
+     * @return {@link #NULL}, {@link #PAGE}, {@link #OTHER} or
+     *         {@link #UNKNOWN}, if the object has to be parsed
+     */
+    int sniff(int ref, ObjectMetrics metrics) {
+        kind = ObjectMetrics.UNKNOWN_KIND;
+        type = null;
+        subtype = null;
+        length = ObjectMetrics.UNKNOWN;
+        lengthRef = -1;
+        decodedLength = ObjectMetrics.UNKNOWN;
+        filtered = false;
+        try {
+            final int result;
+            switch (xref.getType(ref)) {
+                case XRefIndex.IN_USE:
+                    if (!seekObject(ref) || fileTokenizer.getObjNr() != ref) {
+                        return UNKNOWN;
+                    }
+                    result = sniffValue(fileTokenizer, true);
+                    break;
+                case XRefIndex.COMPRESSED:
+                    final PdfTokenizer tokenizer = seekInObjectStream(ref);
+                    result = tokenizer == null ? UNKNOWN : sniffValue(tokenizer, false);
+                    break;
+                default:
+                    // Free objects are left to iText
+                    return UNKNOWN;
+            }
+            if (result != UNKNOWN && metrics != null) {
+                record(ref, metrics);
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Gets the /Type of the dictionary or stream, which was sniffed last.
+     *
+     * @return the type or {@code null}, if the object has no direct type
+     */
+    PdfName getType() {
+        return type;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileTokenizer.close();
+        if (streamTokenizer != null) {
+            streamTokenizer.close();
+        }
+    }
+
+    /**
+     * Moves the file tokenizer past the header of an uncompressed object.
+     *
+     * @param ref the object number
+     *
+     * @return {@code true}, if the object header was found
+     */
+    private boolean seekObject(int ref) throws IOException {
+        fileTokenizer.seek(xref.getOffset(ref));
+        fileTokenizer.nextValidToken();
+        return fileTokenizer.getTokenType() == PdfTokenizer.TokenType.Obj;
+    }
+
+    /**
+     * Records the metrics of the object, which was sniffed last.
+     *
+     * @param ref     the object number
+     * @param metrics the metrics to fill
+     */
+    private void record(int ref, ObjectMetrics metrics) throws IOException {
+        if (lengthRef >= 0) {
+            length = readLength(lengthRef);
+        }
+        if (kind == PdfObject.STREAM && decodedLength == ObjectMetrics.UNKNOWN && !filtered) {
+            decodedLength = length;
+        }
+        metrics.setLocation(ref, xref);
+        metrics.setObject(ref, kind, type, subtype, toLength(length), toLength(decodedLength));
+    }
+
+    private int sniffValue(PdfTokenizer tokenizer, boolean canBeStream) throws IOException {
+        tokenizer.nextValidToken();
+        switch (tokenizer.getTokenType()) {
+            case StartDic:
+                return sniffDictionary(tokenizer, canBeStream);
+            case Other:
+                if (!tokenizer.tokenValueEqualsTo(NULL_KEYWORD)) {
+                    return UNKNOWN;
+                }
+                kind = PdfObject.NULL;
+                return NULL;
+            case Number:
+                kind = PdfObject.NUMBER;
+                return OTHER;
+            case String:
+                kind = PdfObject.STRING;
+                return OTHER;
+            case Name:
+                kind = PdfObject.NAME;
+                return OTHER;
+            case StartArray:
+                kind = PdfObject.ARRAY;
+                return OTHER;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    private int sniffDictionary(PdfTokenizer tokenizer, boolean canBeStream) throws IOException {
+        int tokens = 0;
+        while (++tokens < MAX_TOKENS) {
+            tokenizer.nextValidToken();
+            if (tokenizer.getTokenType() == PdfTokenizer.TokenType.EndDic) {
+                break;
+            }
+            if (tokenizer.getTokenType() != PdfTokenizer.TokenType.Name) {
+                return UNKNOWN;
+            }
+            if (tokenizer.tokenValueEqualsTo(TYPE_NAME) || tokenizer.tokenValueEqualsTo(SUBTYPE_NAME)) {
+                final boolean isType = tokenizer.tokenValueEqualsTo(TYPE_NAME);
+                tokenizer.nextValidToken();
+                ++tokens;
+                if (tokenizer.getTokenType() != PdfTokenizer.TokenType.Name) {
+                    // Indirect or malformed types are left to iText
+                    return UNKNOWN;
+                }
+                final PdfName name = new PdfName(tokenizer.getByteContent());
+                if (isType) {
+                    type = name;
+                } else {
+                    subtype = name;
+                }
+            } else if (tokenizer.tokenValueEqualsTo(LENGTH_NAME) || tokenizer.tokenValueEqualsTo(DL_NAME)) {
+                final boolean isLength = tokenizer.tokenValueEqualsTo(LENGTH_NAME);
+                tokenizer.nextValidToken();
+                ++tokens;
+                if (tokenizer.getTokenType() == PdfTokenizer.TokenType.Number) {
+                    if (isLength) {
+                        length = tokenizer.getLongValue();
+                    } else {
+                        decodedLength = tokenizer.getLongValue();
+                    }
+                } else if (tokenizer.getTokenType() == PdfTokenizer.TokenType.Ref) {
+                    // An indirect decoded length is simply not known
+                    if (isLength) {
+                        lengthRef = tokenizer.getObjNr();
+                    }
+                } else {
+                    return UNKNOWN;
+                }
+            } else {
+                filtered |= tokenizer.tokenValueEqualsTo(FILTER_NAME);
+                tokens += skipValue(tokenizer);
+            }
+        }
+        if (tokens >= MAX_TOKENS) {
+            return UNKNOWN;
+        }
+        boolean stream = false;
+        if (canBeStream) {
+            tokenizer.nextValidToken();
+            stream = tokenizer.tokenValueEqualsTo(PdfTokenizer.Stream);
+        }
+        kind = stream ? PdfObject.STREAM : PdfObject.DICTIONARY;
+        // A stream with the page type is not a page dictionary
+        return !stream && PdfName.Page.equals(type) ? PAGE : OTHER;
+    }
+
+    /**
+     * Skips a value in a dictionary.
+     *
+     * @param tokenizer the tokenizer positioned before the value
+     *
+     * @return the amount of the skipped tokens
+     */
+    private static int skipValue(PdfTokenizer tokenizer) throws IOException {
+        int depth = 0;
+        int tokens = 0;
+        do {
+            if (++tokens > MAX_TOKENS) {
+                return tokens;
+            }
+            tokenizer.nextValidToken();
+            switch (tokenizer.getTokenType()) {
+                case StartDic:
+                case StartArray:
+                    ++depth;
+                    break;
+                case EndDic:
+                case EndArray:
+                    --depth;
+                    break;
+                case EndOfFile:
+                    return MAX_TOKENS;
+                default:
+                    break;
+            }
+        } while (depth > 0);
+        // A missing value makes the dictionary unreadable
+        return depth < 0 ? MAX_TOKENS : tokens;
+    }
+
+    private PdfTokenizer seekInObjectStream(int ref) throws IOException {
+        final int stream = xref.getObjectStreamNumber(ref);
+        if (stream != streamNumber) {
+            decodeObjectStream(stream);
+        }
+        if (streamTokenizer == null) {
+            return null;
+        }
+        final int index = xref.getIndexInObjectStream(ref);
+        if (index < 0 || index >= streamRefs.length || streamRefs[index] != ref) {
+            return null;
+        }
+        streamTokenizer.seek(streamOffsets[index]);
+        return streamTokenizer;
+    }
+
+    /**
+     * Decodes an object stream and reads the offsets of its objects. If the
+     * object stream cannot be decoded, it is not tried again, until another
+     * object stream is requested.
+     *
+     * @param stream the number of the object stream
+     */
+    private void decodeObjectStream(int stream) throws IOException {
+        if (streamTokenizer != null) {
+            streamTokenizer.close();
+            streamTokenizer = null;
+        }
+        streamNumber = stream;
+        if (xref.getType(stream) != XRefIndex.IN_USE || !seekObject(stream)) {
+            return;
+        }
+        final PdfObject object = new XRefParser.DictionaryParser(fileTokenizer).readObject();
+        if (!(object instanceof PdfDictionary)
+                || !PdfName.ObjStm.equals(((PdfDictionary) object).getAsName(PdfName.Type))) {
+            return;
+        }
+        final PdfDictionary dictionary = (PdfDictionary) object;
+        final PdfNumber count = dictionary.getAsNumber(PdfName.N);
+        final PdfNumber first = dictionary.getAsNumber(PdfName.First);
+        fileTokenizer.nextValidToken();
+        if (count == null || first == null || !fileTokenizer.tokenValueEqualsTo(PdfTokenizer.Stream)) {
+            return;
+        }
+        long start = fileTokenizer.getPosition();
+        if (content.get(start) == '\r') {
+            ++start;
+        }
+        if (content.get(start) == '\n') {
+            ++start;
+        }
+        final long length = getStreamLength(dictionary);
+        if (length < 0 || length > Integer.MAX_VALUE || start + length > content.length()) {
+            return;
+        }
+        final byte[] raw = new byte[(int) length];
+        content.readFully(start, raw, 0, raw.length);
+        final PdfTokenizer tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(
+                PdfFileContent.wrap(PdfReader.decodeBytes(raw, dictionary)).asRandomAccessSource()));
+        final int[] refs = new int[count.intValue()];
+        final long[] offsets = new long[refs.length];
+        for (int i = 0; i < refs.length; ++i) {
+            refs[i] = readHeaderNumber(tokenizer);
+            offsets[i] = first.longValue() + readHeaderNumber(tokenizer);
+            if (refs[i] < 0 || offsets[i] < first.longValue()) {
+                tokenizer.close();
+                return;
+            }
+        }
+        streamTokenizer = tokenizer;
+        streamRefs = refs;
+        streamOffsets = offsets;
+    }
+
+    private static int readHeaderNumber(PdfTokenizer tokenizer) throws IOException {
+        if (!tokenizer.nextToken() || tokenizer.getTokenType() != PdfTokenizer.TokenType.Number) {
+            return -1;
+        }
+        return tokenizer.getIntValue();
+    }
+
+    /**
+     * Gets the length of a stream. An indirect length is sniffed as well.
+     *
+     * @param dictionary the stream dictionary
+     *
+     * @return the length or -1, if it is not known
+     */
+    private long getStreamLength(PdfDictionary dictionary) throws IOException {
+        final PdfObject length = dictionary.get(PdfName.Length);
+        if (length instanceof PdfNumber) {
+            return ((PdfNumber) length).longValue();
+        }
+        if (!(length instanceof PdfLiteral)) {
+            return -1;
+        }
+        // References are kept as "n g R" literals by the dictionary parser
+        return readLength(Integer.parseInt(length.toString().split(" ")[0]));
+    }
+
+    /**
+     * Reads an indirect stream length, which is stored directly in the file.
+     *
+     * @param lengthRef the object number of the length
+     *
+     * @return the length or -1, if it is not known
+     */
+    private long readLength(int lengthRef) throws IOException {
+        if (xref.getType(lengthRef) != XRefIndex.IN_USE || !seekObject(lengthRef)) {
+            return -1;
+        }
+        fileTokenizer.nextValidToken();
+        return fileTokenizer.getTokenType() == PdfTokenizer.TokenType.Number ? fileTokenizer.getLongValue() : -1;
+    }
+
+    private static int toLength(long value) {
+        return value < 0 ? ObjectMetrics.UNKNOWN : (int) Math.min(value, Integer.MAX_VALUE);
+    }
+}
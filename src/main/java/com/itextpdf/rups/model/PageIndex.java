@@ -0,0 +1,444 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.numbering.EnglishAlphabetNumbering;
+import com.itextpdf.kernel.numbering.RomanNumbering;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumTree;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfString;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Index of the pages of a PDF document: the object number of each page
+ * dictionary and the page labels.
+ *
+ * <p>
+ * The index is built once from the /Kids arrays of the page tree, in the
+ * document order, and it keeps only an {@code int} per page, so documents with
+ * hundreds of thousands of pages are cheap. The page labels are not expanded
+ * per page, only the ranges of the /PageLabels number tree are kept, and a
+ * label is created, when it is asked for. The labels are the same, as the
+ * ones of {@link PdfDocument#getPageLabels()}.
+ * </p>
+ *
+ * <p>
+ * If the content of the file is given, the kids are classified by an
+ * {@link ObjectSniffer}, so that only the intermediate /Pages nodes are
+ * parsed and the page dictionaries are neither parsed nor cached by the
+ * document.
+ * </p>
+ */
+public final class PageIndex {
+    /**
+     * The label style of a range without the /S entry: the labels consist of
+     * the prefix only.
+     */
+    private static final char NO_STYLE = 'e';
+    private static final char DECIMAL_STYLE = 'D';
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Upper bound of the capacity, which is taken from the /Count entry of
+     * the root node, as it might be wrong.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+    private int[] pages;
+    private int size = 0;
+    /**
+     * The page indices, at which the label ranges start, sorted, or
+     * {@code null}, if the document has no page labels.
+     */
+    private int[] labelStarts;
+    private String[] labelPrefixes;
+    private char[] labelStyles;
+    private int[] labelFirstNumbers;
+    /**
+     * The object numbers of the pages in the upper and the page indices in
+     * the lower half, sorted, or {@code null}, if no page was looked up yet.
+     */
+    private long[] byObjectNumber;
+
+    private PageIndex(int capacity) {
+        pages = new int[capacity];
+    }
+
+    /**
+     * Builds the index of the pages of a document, parsing every node of
+     * the page tree.
+     *
+     * @param document the document
+     * @param lock     the lock, which guards the document, or {@code null},
+     *                 if the document is not shared
+     *
+     * @return the index
+     *
+     * @throws IOException if the thread was interrupted
+     */
+    public static PageIndex build(PdfDocument document, Lock lock) throws IOException {
+        return build(document, lock, null);
+    }
+
+    /**
+     * Builds the index of the pages of a document. A shared document is
+     * locked only while one node of the page tree is expanded, so that it
+     * can be browsed meanwhile.
+     *
+     * @param document the document
+     * @param lock     the lock, which guards the document, or {@code null},
+     *                 if the document is not shared
+     * @param content  the content of the file of the document, or
+     *                 {@code null}, if the kids have to be parsed to tell
+     *                 the pages
+     *
+     * @return the index
+     *
+     * @throws IOException if the thread was interrupted
+     */
+    public static PageIndex build(PdfDocument document, Lock lock, PdfFileContent content) throws IOException {
+        final PdfDictionary root;
+        final PageIndex index;
+        lock(lock);
+        try {
+            final PdfDictionary catalog = document.getCatalog().getPdfObject();
+            root = catalog.getAsDictionary(PdfName.Pages);
+            final PdfNumber count = root == null ? null : root.getAsNumber(PdfName.Count);
+            index = new PageIndex(count == null
+                    ? INITIAL_CAPACITY
+                    : Math.max(INITIAL_CAPACITY, Math.min(MAX_INITIAL_CAPACITY, count.intValue())));
+            index.readLabels(document);
+        } finally {
+            unlock(lock);
+        }
+        if (root != null) {
+            final ObjectSniffer sniffer = createSniffer(document, content);
+            try {
+                index.readPageTree(root, lock, sniffer);
+            } finally {
+                if (sniffer != null) {
+                    sniffer.close();
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the amount of the pages.
+     *
+     * @return the amount of the pages
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the object number of a page dictionary.
+     *
+     * @param index the index of the page, starting at 0
+     *
+     * @return the object number
+     */
+    public int getObjectNumber(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return pages[index];
+    }
+
+    /**
+     * Gets the index of a page by the object number of its page dictionary.
+     * The lookup table is created on the first call, so the index should be
+     * used by a single thread, e.g. the event dispatch thread.
+     *
+     * @param objectNumber the object number
+     *
+     * @return the index of the page, starting at 0, or -1, if the object is
+     *         not a page of the document
+     */
+    public int indexOf(int objectNumber) {
+        if (byObjectNumber == null) {
+            final long[] sorted = new long[size];
+            for (int i = 0; i < size; ++i) {
+                sorted[i] = ((long) pages[i] << 32) | i;
+            }
+            Arrays.sort(sorted);
+            byObjectNumber = sorted;
+        }
+        // The first entry of the object number, as a broken page tree might list a page twice
+        final int position = -Arrays.binarySearch(byObjectNumber, ((long) objectNumber << 32) - 1) - 1;
+        if (position < byObjectNumber.length && (int) (byObjectNumber[position] >>> 32) == objectNumber) {
+            return (int) byObjectNumber[position];
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the label of a page.
+     *
+     * @param index the index of the page, starting at 0
+     *
+     * @return the page label or {@code null}, if the document has no page
+     *         labels
+     */
+    public String getLabel(int index) {
+        if (labelStarts == null) {
+            return null;
+        }
+        // The pages before the first range are numbered with decimals
+        int range = Arrays.binarySearch(labelStarts, index);
+        if (range < 0) {
+            range = -range - 2;
+        }
+        final String prefix = range < 0 ? "" : labelPrefixes[range];
+        final char style = range < 0 ? DECIMAL_STYLE : labelStyles[range];
+        final int number = range < 0 ? index + 1 : labelFirstNumbers[range] + index - labelStarts[range];
+        switch (style) {
+            case 'R':
+                return prefix + RomanNumbering.toRomanUpperCase(number);
+            case 'r':
+                return prefix + RomanNumbering.toRomanLowerCase(number);
+            case 'A':
+                return prefix + EnglishAlphabetNumbering.toLatinAlphabetNumberUpperCase(number);
+            case 'a':
+                return prefix + EnglishAlphabetNumbering.toLatinAlphabetNumberLowerCase(number);
+            case NO_STYLE:
+                return prefix;
+            default:
+                return prefix + number;
+        }
+    }
+
+    private void readLabels(PdfDocument document) {
+        final PdfNumTree tree = document.getCatalog().getPageLabelsTree(false);
+        if (tree == null) {
+            return;
+        }
+        final Map<Integer, PdfObject> numbers;
+        try {
+            numbers = tree.getNumbers();
+        } catch (RuntimeException e) {
+            LoggerHelper.debug(e.getMessage(), e, getClass());
+            return;
+        }
+        final int[] starts = new int[numbers.size()];
+        int count = 0;
+        for (final Integer start : numbers.keySet()) {
+            if (start != null && start >= 0) {
+                starts[count++] = start;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        Arrays.sort(starts, 0, count);
+        labelStarts = Arrays.copyOf(starts, count);
+        labelPrefixes = new String[count];
+        labelStyles = new char[count];
+        labelFirstNumbers = new int[count];
+        for (int i = 0; i < count; ++i) {
+            PdfObject label = numbers.get(labelStarts[i]);
+            if (label instanceof PdfIndirectReference) {
+                label = ((PdfIndirectReference) label).getRefersTo();
+            }
+            final PdfDictionary dict = label instanceof PdfDictionary ? (PdfDictionary) label : new PdfDictionary();
+            final PdfString prefix = dict.getAsString(PdfName.P);
+            labelPrefixes[i] = prefix == null ? "" : prefix.toUnicodeString();
+            final PdfName style = dict.getAsName(PdfName.S);
+            labelStyles[i] = style == null ? NO_STYLE : getStyle(style.getValue());
+            final PdfNumber first = dict.getAsNumber(PdfName.St);
+            labelFirstNumbers[i] = first == null ? 1 : first.intValue();
+        }
+    }
+
+    /**
+     * Creates a sniffer for the kids of the page tree.
+     *
+     * @return the sniffer or {@code null}, if the kids have to be parsed
+     */
+    private static ObjectSniffer createSniffer(PdfDocument document, PdfFileContent content) {
+        // Object streams of encrypted documents cannot be sniffed
+        if (content == null || document.getReader() == null || document.getReader().isEncrypted()
+                || document.getReader().hasRebuiltXref()) {
+            return null;
+        }
+        try {
+            return new ObjectSniffer(content, XRefParser.parse(content));
+        } catch (IOException | RuntimeException e) {
+            LoggerHelper.debug(e.getMessage(), e, PageIndex.class);
+            return null;
+        }
+    }
+
+    private static char getStyle(String name) {
+        return name.length() == 1 && "RrAa".indexOf(name.charAt(0)) >= 0 ? name.charAt(0) : DECIMAL_STYLE;
+    }
+
+    /**
+     * Walks the page tree depth first without recursion, as the trees of
+     * broken files might be very deep.
+     */
+    private void readPageTree(PdfDictionary root, Lock lock, ObjectSniffer sniffer) throws InterruptedIOException {
+        // Each node is expanded once, so that a cycle in the tree ends
+        final BitSet expanded = new BitSet();
+        PdfArray[] kidsStack = new PdfArray[INITIAL_CAPACITY];
+        int[] positionStack = new int[INITIAL_CAPACITY];
+        int depth = 0;
+        lock(lock);
+        try {
+            if (PdfName.Page.equals(root.getAsName(PdfName.Type))) {
+                addPage(root.getIndirectReference());
+                return;
+            }
+            final PdfArray kids = expand(root, expanded);
+            if (kids == null) {
+                return;
+            }
+            kidsStack[depth++] = kids;
+        } finally {
+            unlock(lock);
+        }
+        while (depth > 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException();
+            }
+            lock(lock);
+            try {
+                final PdfArray kids = kidsStack[depth - 1];
+                int i = positionStack[depth - 1];
+                PdfArray next = null;
+                while (i < kids.size() && next == null) {
+                    final PdfObject reference = kids.get(i, false);
+                    final int sniffed = sniff(sniffer, reference);
+                    if (sniffed == ObjectSniffer.PAGE) {
+                        addPage(reference);
+                    } else if (sniffed == ObjectSniffer.UNKNOWN || PdfName.Pages.equals(sniffer.getType())) {
+                        final PdfDictionary kid = kids.getAsDictionary(i);
+                        if (kid != null) {
+                            final PdfName type = kid.getAsName(PdfName.Type);
+                            if (PdfName.Page.equals(type)) {
+                                addPage(reference);
+                            } else if (PdfName.Pages.equals(type)) {
+                                next = expand(kid, expanded);
+                            }
+                        }
+                    }
+                    ++i;
+                }
+                positionStack[depth - 1] = i;
+                if (next != null) {
+                    if (depth == kidsStack.length) {
+                        kidsStack = Arrays.copyOf(kidsStack, depth * 2);
+                        positionStack = Arrays.copyOf(positionStack, depth * 2);
+                    }
+                    kidsStack[depth] = next;
+                    positionStack[depth] = 0;
+                    ++depth;
+                } else if (i >= kids.size()) {
+                    kidsStack[--depth] = null;
+                }
+            } finally {
+                unlock(lock);
+            }
+        }
+    }
+
+    /**
+     * Classifies a kid without parsing it.
+     *
+     * @return the class of the kid or {@link ObjectSniffer#UNKNOWN}, if the
+     *         kid has to be parsed
+     */
+    private static int sniff(ObjectSniffer sniffer, PdfObject kid) {
+        if (sniffer == null || !(kid instanceof PdfIndirectReference)) {
+            return ObjectSniffer.UNKNOWN;
+        }
+        return sniffer.sniff(((PdfIndirectReference) kid).getObjNumber());
+    }
+
+    private static PdfArray expand(PdfDictionary node, BitSet expanded) {
+        final PdfIndirectReference reference = node.getIndirectReference();
+        if (reference != null) {
+            if (expanded.get(reference.getObjNumber())) {
+                return null;
+            }
+            expanded.set(reference.getObjNumber());
+        }
+        return node.getAsArray(PdfName.Kids);
+    }
+
+    private void addPage(PdfObject reference) {
+        // Pages, which are not indirect objects, have no object number to show
+        if (!(reference instanceof PdfIndirectReference)) {
+            return;
+        }
+        if (size == pages.length) {
+            pages = Arrays.copyOf(pages, size * 2);
+        }
+        pages[size++] = ((PdfIndirectReference) reference).getObjNumber();
+    }
+
+    private static void lock(Lock lock) {
+        if (lock != null) {
+            lock.lock();
+        }
+    }
+
+    private static void unlock(Lock lock) {
+        if (lock != null) {
+            lock.unlock();
+        }
+    }
+}
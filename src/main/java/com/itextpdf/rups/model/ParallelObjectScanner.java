@@ -0,0 +1,504 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.rups.view.Language;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Scans the object number range of a document on multiple threads.
+ *
+ * <p>
+ * The range is split into fixed-size segments. Every worker thread opens its
+ * own read-only document over the shared content of the file and claims
+ * batches of objects one by one, so that the load is balanced, even if the
+ * objects are unevenly distributed. Workers only classify the objects, the results
+ * are then delivered in the object order, so that they can be merged into an
+ * {@link IndirectObjectFactory} with
+ * {@link IndirectObjectFactory#storeSegment(Segment)}, while the scan
+ * continues.
+ * </p>
+ *
+ * <p>
+ * If the cross-reference index is known, the objects compressed in object
+ * streams are scanned in separate batches, one per object stream, so that
+ * every object stream is decoded only once, no matter how its objects are
+ * spread across the segments. The remaining objects are scanned in batches
+ * per segment. Objects are classified by the {@link ObjectSniffer} without
+ * being parsed, unless the document is encrypted or the sniffer is not sure.
+ * The {@link ObjectMetrics} of the objects are collected on the way.
+ * </p>
+ */
+final class ParallelObjectScanner {
+    /**
+     * Default amount of object numbers in a single segment.
+     */
+    private static final int SEGMENT_SIZE = 4096;
+    /**
+     * Minimal amount of objects per thread, which justifies the cost of
+     * opening an additional document.
+     */
+    private static final int MIN_OBJECTS_PER_THREAD = 32 * 1024;
+    /**
+     * Interval between progress reports, while waiting for the workers.
+     */
+    private static final long PROGRESS_INTERVAL_MS = 100;
+
+    private final IPdfFile file;
+    private final XRefIndex xref;
+    private final Segment[] segments;
+    private final int segmentSize;
+    private final Batch[] batches;
+    private final int threads;
+    private final AtomicInteger nextBatch = new AtomicInteger();
+    private final AtomicInteger scanned = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    /**
+     * Amount of segments delivered so far. Only used by the scanning thread.
+     */
+    private int delivered = 0;
+
+    /**
+     * Creates a scanner for the object numbers from 0 up to the maximum,
+     * inclusive.
+     *
+     * @param file    the file to scan
+     * @param maximum the highest object number
+     * @param threads the amount of worker threads
+     */
+    ParallelObjectScanner(IPdfFile file, int maximum, int threads) {
+        this(file, maximum, threads, SEGMENT_SIZE, null);
+    }
+
+    /**
+     * Creates a scanner for the object numbers from 0 up to the maximum,
+     * inclusive, which decodes every object stream only once.
+     *
+     * @param file    the file to scan
+     * @param maximum the highest object number
+     * @param threads the amount of worker threads
+     * @param xref    the cross-reference index of the file or {@code null},
+     *                if it is not known
+     */
+    ParallelObjectScanner(IPdfFile file, int maximum, int threads, XRefIndex xref) {
+        this(file, maximum, threads, SEGMENT_SIZE, xref);
+    }
+
+    /**
+     * Creates a scanner for the object numbers from 0 up to the maximum,
+     * inclusive, with a custom segment size.
+     *
+     * @param file        the file to scan
+     * @param maximum     the highest object number
+     * @param threads     the amount of worker threads
+     * @param segmentSize the amount of object numbers in a single segment
+     */
+    ParallelObjectScanner(IPdfFile file, int maximum, int threads, int segmentSize) {
+        this(file, maximum, threads, segmentSize, null);
+    }
+
+    /**
+     * Creates a scanner for the object numbers from 0 up to the maximum,
+     * inclusive, with a custom segment size.
+     *
+     * @param file        the file to scan
+     * @param maximum     the highest object number
+     * @param threads     the amount of worker threads
+     * @param segmentSize the amount of object numbers in a single segment
+     * @param xref        the cross-reference index of the file or
+     *                    {@code null}, if it is not known
+     */
+    ParallelObjectScanner(IPdfFile file, int maximum, int threads, int segmentSize, XRefIndex xref) {
+        this.file = file;
+        this.xref = xref;
+        this.threads = Math.max(1, threads);
+        this.segmentSize = segmentSize;
+        final int total = maximum + 1;
+        this.segments = new Segment[(total + segmentSize - 1) / segmentSize];
+        for (int i = 0; i < segments.length; ++i) {
+            final int from = i * segmentSize;
+            segments[i] = new Segment(from, Math.min(from + segmentSize, total));
+        }
+        this.batches = createBatches(segments, xref);
+    }
+
+    /**
+     * Splits the object numbers into batches. Without the cross-reference
+     * index there is a batch per segment. Otherwise, the compressed objects
+     * are grouped by their object streams. The batches are ordered by their
+     * lowest object number, so that the segments are completed roughly in
+     * order.
+     *
+     * @param segments the segments of the scanned range
+     * @param xref     the cross-reference index or {@code null}
+     *
+     * @return the batches
+     */
+    private static Batch[] createBatches(Segment[] segments, XRefIndex xref) {
+        final List<Batch> result = new ArrayList<>(segments.length);
+        // Compressed objects as (object stream, object number) pairs
+        long[] compressed = new long[0];
+        int compressedCount = 0;
+        for (final Segment segment : segments) {
+            final int[] refs = new int[segment.to - segment.from];
+            int count = 0;
+            for (int ref = segment.from; ref < segment.to; ++ref) {
+                if (xref != null && xref.getType(ref) == XRefIndex.COMPRESSED) {
+                    if (compressedCount == compressed.length) {
+                        compressed = Arrays.copyOf(compressed, Math.max(16, compressedCount * 2));
+                    }
+                    compressed[compressedCount++] = ((long) xref.getObjectStreamNumber(ref) << 32) | ref;
+                } else {
+                    refs[count++] = ref;
+                }
+            }
+            if (count > 0) {
+                result.add(new Batch(-1, Arrays.copyOf(refs, count)));
+            }
+        }
+        Arrays.sort(compressed, 0, compressedCount);
+        int start = 0;
+        while (start < compressedCount) {
+            final int stream = (int) (compressed[start] >>> 32);
+            int end = start;
+            while (end < compressedCount && (int) (compressed[end] >>> 32) == stream) {
+                ++end;
+            }
+            final int[] refs = new int[end - start];
+            for (int i = start; i < end; ++i) {
+                refs[i - start] = (int) compressed[i];
+            }
+            result.add(new Batch(stream, refs));
+            start = end;
+        }
+        result.sort(Comparator.comparingInt(batch -> batch.refs[0]));
+        return result.toArray(new Batch[0]);
+    }
+
+    /**
+     * Returns the amount of worker threads, which is reasonable for a
+     * document with the specified amount of objects.
+     *
+     * @param objectCount amount of objects in the document
+     *
+     * @return the amount of worker threads
+     */
+    static int getRecommendedThreadCount(int objectCount) {
+        final int byObjects = Math.max(1, objectCount / MIN_OBJECTS_PER_THREAD);
+        return Math.min(Runtime.getRuntime().availableProcessors(), byObjects);
+    }
+
+    /**
+     * Returns the amount of object numbers processed so far by all workers.
+     *
+     * @return the amount of scanned object numbers
+     */
+    int getScanned() {
+        return scanned.get();
+    }
+
+    /**
+     * Requests the workers to stop. Segments, which were completed so far,
+     * are still delivered by {@link #scan(Consumer, Runnable)}.
+     */
+    void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * Scans all the segments. Blocks until done. Completed segments are
+     * delivered on the current thread in the object order, as soon as all the
+     * preceding segments are completed as well.
+     *
+     * @param onSegment  callback, which receives the completed segments
+     * @param onProgress callback, which is periodically called on the current
+     *                   thread, while waiting for the workers
+     *
+     * @return {@code true}, if all the segments were delivered, or
+     *         {@code false}, if the scan was cancelled
+     *
+     * @throws IOException          if any of the workers failed
+     * @throws InterruptedException if the current thread was interrupted
+     */
+    boolean scan(Consumer<Segment> onSegment, Runnable onProgress) throws IOException, InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "rups-object-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(this::work));
+            }
+            for (final Future<Void> future : futures) {
+                while (!await(future)) {
+                    deliver(onSegment);
+                    onProgress.run();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        deliver(onSegment);
+        onProgress.run();
+        return delivered == segments.length;
+    }
+
+    private void deliver(Consumer<Segment> onSegment) {
+        while (delivered < segments.length && segments[delivered].complete) {
+            onSegment.accept(segments[delivered]);
+            ++delivered;
+        }
+    }
+
+    private static boolean await(Future<Void> future) throws IOException, InterruptedException {
+        try {
+            future.get(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private Void work() throws IOException {
+        final PdfDocument document = file.openReadOnlyDocument();
+        // Object streams of encrypted documents cannot be sniffed
+        final ObjectSniffer sniffer = xref == null || document.getReader().isEncrypted()
+                ? null : new ObjectSniffer(file.getContent(), xref);
+        try {
+            int i;
+            while (!isStopped() && (i = nextBatch.getAndIncrement()) < batches.length) {
+                scanBatch(document, sniffer, batches[i]);
+            }
+        } finally {
+            if (sniffer != null) {
+                sniffer.close();
+            }
+            document.close();
+        }
+        return null;
+    }
+
+    private boolean isStopped() {
+        return cancelled.get() || Thread.currentThread().isInterrupted();
+    }
+
+    private void scanBatch(PdfDocument document, ObjectSniffer sniffer, Batch batch) {
+        // Handling the first object decodes the whole object stream
+        final long start = System.nanoTime();
+        for (int i = 0; i < batch.refs.length; ++i) {
+            if (isStopped()) {
+                return;
+            }
+            final int ref = batch.refs[i];
+            final Segment segment = segments[ref / segmentSize];
+            final int type = sniffer == null ? ObjectSniffer.UNKNOWN : sniffer.sniff(ref, segment.metrics);
+            if (type == ObjectSniffer.UNKNOWN) {
+                store(segment, ref, readObject(document, ref));
+            } else {
+                store(segment, ref, type);
+            }
+            if (segment.remaining.decrementAndGet() == 0) {
+                segment.complete = true;
+            }
+            if (i == 0 && batch.stream >= 0) {
+                LoggerHelper.debug(String.format(Language.LOG_OBJECT_STREAM_DECODED.getString(), batch.stream,
+                        batch.refs.length, (System.nanoTime() - start) / 1_000_000), getClass());
+            }
+            scanned.incrementAndGet();
+        }
+    }
+
+    private PdfObject readObject(PdfDocument document, int ref) {
+        // attempt to read the object, if this fails keep object at 'null' (compatible with iText 5)
+        try {
+            return document.getPdfObject(ref);
+        } catch (PdfException ignored) {
+            LoggerHelper.info(String.format(Language.ERROR_READING_OBJECT_NUMBER.getString(), ref), getClass());
+        }
+        return null;
+    }
+
+    /**
+     * Stores the classification and the metrics of a parsed object in its
+     * segment and releases the object.
+     *
+     * @param segment the segment of the object
+     * @param ref     the object number
+     * @param object  the object or {@code null}, if it could not be read
+     */
+    private static void store(Segment segment, int ref, PdfObject object) {
+        if (object == null) {
+            return;
+        }
+        segment.metrics.record(ref, object);
+        final int type;
+        if (object.isDictionary() && PdfName.Page.equals(((PdfDictionary) object).get(PdfName.Type, false))) {
+            type = ObjectSniffer.PAGE;
+        } else if (object.isNull()) {
+            type = ObjectSniffer.NULL;
+        } else {
+            type = ObjectSniffer.OTHER;
+        }
+        // The object belongs to the reader of the worker, the main document loads it again on access
+        if (!object.isReleaseForbidden()) {
+            object.release();
+        }
+        store(segment, ref, type);
+    }
+
+    /**
+     * Stores the classification of an object in its segment.
+     *
+     * @param segment the segment of the object
+     * @param ref     the object number
+     * @param type    the type of the object as classified by the
+     *                {@link ObjectSniffer}
+     */
+    private static void store(Segment segment, int ref, int type) {
+        final int bit = ref - segment.from;
+        // Objects of a segment can be scanned by different workers
+        synchronized (segment) {
+            segment.present.set(bit);
+            segment.pages.set(bit, type == ObjectSniffer.PAGE);
+            segment.nulls.set(bit, type == ObjectSniffer.NULL);
+        }
+    }
+
+    /**
+     * Result of scanning a range of object numbers. Bits are relative to the
+     * start of the range.
+     */
+    static final class Segment {
+        /**
+         * First object number of the segment, inclusive.
+         */
+        final int from;
+        /**
+         * Last object number of the segment, exclusive.
+         */
+        final int to;
+        /**
+         * Objects, which are present in the document.
+         */
+        final BitSet present = new BitSet();
+        /**
+         * Objects, which are page dictionaries.
+         */
+        final BitSet pages = new BitSet();
+        /**
+         * Objects, which are null objects.
+         */
+        final BitSet nulls = new BitSet();
+        /**
+         * The metrics of the objects.
+         */
+        final ObjectMetrics metrics;
+        /**
+         * Amount of object numbers, which are not scanned yet.
+         */
+        private final AtomicInteger remaining;
+        /**
+         * Whether the whole segment was scanned. The flag is volatile, so
+         * that the bit sets are visible to the thread delivering the segment.
+         */
+        volatile boolean complete = false;
+
+        Segment(int from, int to) {
+            this.from = from;
+            this.to = to;
+            this.remaining = new AtomicInteger(to - from);
+            this.metrics = new ObjectMetrics(from, to);
+        }
+    }
+
+    /**
+     * Object numbers, which are scanned by a single worker.
+     */
+    private static final class Batch {
+        /**
+         * Number of the object stream, which contains the objects, or -1,
+         * if the objects are not compressed.
+         */
+        private final int stream;
+        /**
+         * The object numbers in ascending order.
+         */
+        private final int[] refs;
+
+        Batch(int stream, int[] refs) {
+            this.stream = stream;
+            this.refs = refs;
+        }
+    }
+}
@@ -47,13 +47,15 @@ import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.rups.RupsConfiguration;
 import com.itextpdf.rups.view.Language;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Wrapper for both iText's PdfReader (referring to a PDF file to read)
@@ -66,28 +68,59 @@ public final class PdfFile implements IPdfFile {
     private final File originalFile;
 
     /**
-     * Raw content
+     * Raw content. Either a memory-mapped file or an in-memory array.
      */
-    private final byte[] originalContent;
+    private final PdfFileContent originalContent;
 
     /**
      * The PdfDocument object.
      */
     private PdfDocument document = null;
 
-    private ByteArrayOutputStream writerOutputStream = null;
+    /**
+     * Guards the access to the document.
+     */
+    private final Lock documentLock = new ReentrantLock();
+
+    /**
+     * Output of the writer, if the document is opened as owner.
+     */
+    private SpillableOutputStream writerOutputStream = null;
+
+    /**
+     * Password, which was used to open the document. It is required to open
+     * the original content once again, for example, for an incremental
+     * update.
+     */
+    private byte[] password = null;
+
+    /**
+     * Whether the document was dropped without being written.
+     */
+    private boolean documentDiscarded = false;
 
-    private PdfFile(File file, byte[] content) {
+    private PdfFile(File file, PdfFileContent content) {
         this.originalFile = file;
         this.originalContent = content;
     }
 
     public static PdfFile open(File file) throws IOException {
-        return open(file, Files.readAllBytes(file.toPath()), DialogPasswordProvider.anyPassword());
+        return open(file, DialogPasswordProvider.anyPassword());
     }
 
+    /**
+     * Opens the file in a read-only mode. The file is memory-mapped, so its
+     * bytes are not copied to the heap.
+     *
+     * @param file             the file to open
+     * @param passwordProvider provider of the password, if it is required
+     *
+     * @return the opened file
+     *
+     * @throws IOException if the file could not be mapped or parsed
+     */
     public static PdfFile open(File file, IPasswordProvider passwordProvider) throws IOException {
-        return open(file, Files.readAllBytes(file.toPath()), passwordProvider);
+        return open(file, PdfFileContent.map(file.toPath()), passwordProvider, false);
     }
 
     public static PdfFile open(File file, byte[] content) throws IOException {
@@ -95,17 +128,43 @@ public final class PdfFile implements IPdfFile {
     }
 
     public static PdfFile open(File file, byte[] content, IPasswordProvider passwordProvider) throws IOException {
-        final PdfFile pdfFile = new PdfFile(file, content);
-        pdfFile.openDocument(passwordProvider, false);
-        return pdfFile;
+        return open(file, PdfFileContent.wrap(content), passwordProvider, false);
+    }
+
+    /**
+     * Opens an earlier revision of an incrementally updated file in a
+     * read-only mode. Only the first {@code length} bytes of the file are
+     * mapped, so nothing is copied.
+     *
+     * @param file   the file to open
+     * @param length the end of the revision in the file
+     *
+     * @return the opened revision
+     *
+     * @throws IOException if the file could not be mapped or parsed
+     */
+    public static PdfFile openRevision(File file, long length) throws IOException {
+        return open(file, PdfFileContent.map(file.toPath(), length), DialogPasswordProvider.anyPassword(), false);
     }
 
     public static PdfFile openAsOwner(File file) throws IOException {
-        return openAsOwner(file, Files.readAllBytes(file.toPath()), DialogPasswordProvider.ownerPassword());
+        return openAsOwner(file, DialogPasswordProvider.ownerPassword());
     }
 
+    /**
+     * Opens the file in a read-write mode. The file is memory-mapped, so its
+     * bytes are not copied to the heap.
+     *
+     * @param file             the file to open
+     * @param passwordProvider provider of the owner password, if it is
+     *                         required
+     *
+     * @return the opened file
+     *
+     * @throws IOException if the file could not be mapped or parsed
+     */
     public static PdfFile openAsOwner(File file, IPasswordProvider passwordProvider) throws IOException {
-        return openAsOwner(file, Files.readAllBytes(file.toPath()), passwordProvider);
+        return open(file, PdfFileContent.map(file.toPath()), passwordProvider, true);
     }
 
     public static PdfFile openAsOwner(File file, byte[] content) throws IOException {
@@ -114,8 +173,22 @@ public final class PdfFile implements IPdfFile {
 
     public static PdfFile openAsOwner(File file, byte[] content, IPasswordProvider passwordProvider)
             throws IOException {
+        return open(file, PdfFileContent.wrap(content), passwordProvider, true);
+    }
+
+    private static PdfFile open(
+            File file,
+            PdfFileContent content,
+            IPasswordProvider passwordProvider,
+            boolean requireEditable
+    ) throws IOException {
         final PdfFile pdfFile = new PdfFile(file, content);
-        pdfFile.openDocument(passwordProvider, true);
+        try {
+            pdfFile.openDocument(passwordProvider, requireEditable);
+        } catch (IOException | RuntimeException e) {
+            content.close();
+            throw e;
+        }
         return pdfFile;
     }
 
@@ -130,15 +203,158 @@ public final class PdfFile implements IPdfFile {
     }
 
     @Override
-    public byte[] getOriginalContent() {
+    public Lock getDocumentLock() {
+        return documentLock;
+    }
+
+    @Override
+    public PdfFileContent getContent() {
         return originalContent;
     }
 
     @Override
-    public ByteArrayOutputStream getByteArrayOutputStream() {
+    public SpillableOutputStream getWriterOutputStream() {
         return writerOutputStream;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The new document shares the original content with this file, so it
+     * should be closed before this file is closed.
+     * </p>
+     */
+    @Override
+    public PdfDocument openReadOnlyDocument() throws IOException {
+        final ReaderProperties readerProperties = new ReaderProperties();
+        if (password != null) {
+            readerProperties.setPassword(password);
+        }
+        return new PdfDocument(new PdfReader(originalContent.asRandomAccessSource(), readerProperties));
+    }
+
+    /**
+     * Closes the document and releases the underlying content source, as
+     * well as any data written, which was not moved to its destination.
+     * Waits for the workers, which are reading the document at the moment.
+     * The workers with their own documents are not waited for, a mapped
+     * content is released, once their reads in flight end, and their
+     * further reads fail.
+     */
+    @Override
+    public void close() {
+        documentLock.lock();
+        try {
+            if (!documentDiscarded) {
+                IPdfFile.super.close();
+            }
+        } finally {
+            releaseContent();
+            if (writerOutputStream != null) {
+                writerOutputStream.dispose();
+            }
+            documentLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The original content is released before the data is moved, as the
+     * target could be the original file itself, which might still be mapped.
+     * </p>
+     */
+    @Override
+    public void saveAndClose(Path target) throws IOException {
+        documentLock.lock();
+        try {
+            IPdfFile.super.close();
+            releaseContent();
+            if (writerOutputStream != null) {
+                writerOutputStream.moveTo(target);
+            }
+        } finally {
+            close();
+            documentLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The modified objects are mirrored into a separate document, which is
+     * opened in the append mode over the original content. The edited
+     * document itself is discarded without being written, so the cost of the
+     * save depends on the amount of edits, and not on the file size.
+     * </p>
+     */
+    @Override
+    public SpillableOutputStream writeIncrementalUpdate(ModificationTracker modifications) throws IOException {
+        if (writerOutputStream == null) {
+            throw new IllegalStateException(Language.ERROR_NOT_OPENED_AS_OWNER.getString());
+        }
+        final SpillableOutputStream output = new SpillableOutputStream(
+                RupsConfiguration.INSTANCE.getWriterMemoryLimit()
+        );
+        boolean written = false;
+        documentLock.lock();
+        try {
+            final PdfReader reader = new PdfReader(
+                    originalContent.asRandomAccessSource(),
+                    new ReaderProperties().setPassword(password)
+            );
+            final PdfDocument update = new PdfDocument(
+                    reader, new PdfWriter(output), new StampingProperties().useAppendMode()
+            );
+            IncrementalUpdateWriter.write(document, update, modifications);
+            update.close();
+            written = true;
+            return output;
+        } finally {
+            if (!written) {
+                // The update document only reads a view of the content, so it is just dropped
+                output.dispose();
+            }
+            documentLock.unlock();
+        }
+    }
+
+    @Override
+    public void saveIncrementallyAndClose(Path target, SpillableOutputStream update) throws IOException {
+        documentLock.lock();
+        try {
+            discardDocument();
+            // Same as with a full save, target could be the original file
+            releaseContent();
+            update.moveTo(target);
+        } finally {
+            update.dispose();
+            close();
+            documentLock.unlock();
+        }
+    }
+
+    /**
+     * Releases the reader and the writer of the document, without writing
+     * the document.
+     */
+    private void discardDocument() throws IOException {
+        documentDiscarded = true;
+        document.getReader().close();
+        document.getWriter().close();
+    }
+
+    private void releaseContent() {
+        try {
+            originalContent.close();
+        } catch (IOException e) {
+            LoggerHelper.warn(Language.ERROR_CLOSING_STREAM.getString(), e, getClass());
+        }
+    }
+
     /**
      * Opens the document, using the file and content stored in the current
      * object. If password is required, then the password provider will be
@@ -247,12 +463,20 @@ public final class PdfFile implements IPdfFile {
         try {
             final ReaderProperties readerProperties = new ReaderProperties().setPassword(password);
             final PdfReader reader = new PdfReader(
-                    new ByteArrayInputStream(getOriginalContent()),
+                    originalContent.asRandomAccessSource(),
                     readerProperties
             );
-            final ByteArrayOutputStream tempWriterOutputStream = new ByteArrayOutputStream();
+            final SpillableOutputStream tempWriterOutputStream = new SpillableOutputStream(
+                    RupsConfiguration.INSTANCE.getWriterMemoryLimit()
+            );
             final PdfWriter writer = new PdfWriter(tempWriterOutputStream);
-            document = new PdfDocument(reader, writer);
+            try {
+                document = new PdfDocument(reader, writer);
+                this.password = password;
+            } catch (RuntimeException e) {
+                tempWriterOutputStream.dispose();
+                throw e;
+            }
             writerOutputStream = tempWriterOutputStream;
             return true;
         } catch (BadPasswordException e) {
@@ -283,11 +507,12 @@ public final class PdfFile implements IPdfFile {
             final ReaderProperties readerProperties = new ReaderProperties();
             readerProperties.setPassword(password);
             final PdfReader reader = new PdfReader(
-                    new ByteArrayInputStream(getOriginalContent()),
+                    originalContent.asRandomAccessSource(),
                     readerProperties
             );
             document = new PdfDocument(reader);
             writerOutputStream = null;
+            this.password = password;
             return true;
         } catch (BadPasswordException e) {
             return false;
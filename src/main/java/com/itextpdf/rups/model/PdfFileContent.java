@@ -0,0 +1,364 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.io.source.IRandomAccessSource;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.rups.view.Language;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Random-access view over the raw bytes of an opened PDF file.
+ *
+ * <p>
+ * The content is addressed with {@code long} offsets, so files larger than
+ * 2 GB are supported. Slices share the underlying source and do not copy any
+ * bytes, so it is cheap to create as many of them as needed. Only the root
+ * content, created by one of the factory methods, releases the underlying
+ * source on {@link #close()}.
+ * </p>
+ */
+public final class PdfFileContent implements Closeable {
+    /**
+     * Maximum length of a Java array, which is safe to allocate.
+     */
+    private static final long MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final IRandomAccessSource source;
+    private final long offset;
+    private final long length;
+    private final boolean ownsSource;
+
+    private PdfFileContent(IRandomAccessSource source, long offset, long length, boolean ownsSource) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        this.ownsSource = ownsSource;
+    }
+
+    /**
+     * Creates content, which is backed by a memory-mapped file.
+     *
+     * @param path path to the file
+     *
+     * @return content of the file
+     *
+     * @throws IOException if the file could not be mapped
+     */
+    public static PdfFileContent map(Path path) throws IOException {
+        return of(MappedFileSource.map(path));
+    }
+
+    /**
+     * Creates content, which is backed by the beginning of a memory-mapped
+     * file. Used to look at an earlier revision of an incrementally updated
+     * file without copying it.
+     *
+     * @param path   path to the file
+     * @param length amount of bytes from the start of the file to expose
+     *
+     * @return content of the first {@code length} bytes of the file
+     *
+     * @throws IOException if the file could not be mapped or is shorter
+     *                     than the requested length
+     */
+    public static PdfFileContent map(Path path, long length) throws IOException {
+        final IRandomAccessSource source = MappedFileSource.map(path);
+        if (length < 0 || length > source.length()) {
+            final long sourceLength = source.length();
+            source.close();
+            throw new IOException(
+                    String.format(Language.ERROR_INVALID_CONTENT_RANGE.getString(), 0L, length, sourceLength)
+            );
+        }
+        return new PdfFileContent(source, 0, length, true);
+    }
+
+    /**
+     * Creates content, which is backed by an in-memory array. The array is
+     * not copied.
+     *
+     * @param bytes raw bytes of the file
+     *
+     * @return content backed by the array
+     */
+    public static PdfFileContent wrap(byte[] bytes) {
+        return of(new RandomAccessSourceFactory().createSource(bytes));
+    }
+
+    /**
+     * Creates content over the whole source. Closing the content will close
+     * the source.
+     *
+     * @param source source of the bytes
+     *
+     * @return content over the source
+     */
+    public static PdfFileContent of(IRandomAccessSource source) {
+        return new PdfFileContent(source, 0, source.length(), true);
+    }
+
+    /**
+     * Returns the length of the content in bytes.
+     *
+     * @return the length of the content in bytes
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Returns a single byte at the specified position.
+     *
+     * @param position position within this content
+     *
+     * @return the byte value in the 0-255 range or -1, if the position is out
+     *         of range
+     *
+     * @throws IOException if the underlying source could not be read
+     */
+    public int get(long position) throws IOException {
+        if (position < 0 || position >= length) {
+            return -1;
+        }
+        return source.get(offset + position);
+    }
+
+    /**
+     * Reads a range of bytes starting at the specified position.
+     *
+     * @param position position within this content
+     * @param buffer   buffer to write the bytes to
+     * @param off      offset within the buffer
+     * @param len      maximum amount of bytes to read
+     *
+     * @return the number of bytes read or -1, if the position is out of range
+     *
+     * @throws IOException if the underlying source could not be read
+     */
+    public int read(long position, byte[] buffer, int off, int len) throws IOException {
+        if (position < 0 || position >= length) {
+            return -1;
+        }
+        final int toRead = (int) Math.min(len, length - position);
+        return source.get(offset + position, buffer, off, toRead);
+    }
+
+    /**
+     * Reads as many bytes, as possible, to fill the requested range.
+     *
+     * @param position position within this content
+     * @param buffer   buffer to write the bytes to
+     * @param off      offset within the buffer
+     * @param len      amount of bytes to read
+     *
+     * @return the number of bytes read, which is less than {@code len} only
+     *         if the end of the content was reached
+     *
+     * @throws IOException if the underlying source could not be read
+     */
+    public int readFully(long position, byte[] buffer, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            final int n = read(position + total, buffer, off + total, len - total);
+            if (n <= 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Returns a view over a range of this content. No bytes are copied.
+     *
+     * @param sliceOffset offset of the slice within this content
+     * @param sliceLength length of the slice
+     *
+     * @return a view over the range
+     */
+    public PdfFileContent slice(long sliceOffset, long sliceLength) {
+        if (sliceOffset < 0 || sliceLength < 0 || sliceOffset + sliceLength > length) {
+            throw new IndexOutOfBoundsException(
+                    String.format(Language.ERROR_INVALID_CONTENT_RANGE.getString(), sliceOffset, sliceLength, length)
+            );
+        }
+        return new PdfFileContent(source, offset + sliceOffset, sliceLength, false);
+    }
+
+    /**
+     * Opens a stream, which sequentially reads the whole content.
+     *
+     * @return a new input stream
+     */
+    public InputStream openStream() {
+        return new ContentInputStream();
+    }
+
+    /**
+     * Returns a source over this content, which can be handed to iText. The
+     * returned source does not close the content, so multiple readers can be
+     * created over it.
+     *
+     * @return a non-closing random access source over this content
+     */
+    public IRandomAccessSource asRandomAccessSource() {
+        return new View();
+    }
+
+    /**
+     * Copies the whole content into a new byte array. Should be used only
+     * when an array is strictly required, as it defeats the purpose of this
+     * class.
+     *
+     * @return a new byte array with the content
+     *
+     * @throws IOException if the underlying source could not be read
+     */
+    public byte[] toByteArray() throws IOException {
+        if (length > MAX_ARRAY_LENGTH) {
+            throw new IOException(String.format(Language.ERROR_CONTENT_TOO_LARGE.getString(), length));
+        }
+        final byte[] bytes = new byte[(int) length];
+        readFully(0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Releases the underlying source, if this is the root content. Closing a
+     * slice does nothing.
+     *
+     * @throws IOException if the source could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (ownsSource) {
+            source.close();
+        }
+    }
+
+    /**
+     * A non-closing random access source over the content.
+     */
+    private final class View implements IRandomAccessSource {
+        @Override
+        public int get(long position) throws IOException {
+            return PdfFileContent.this.get(position);
+        }
+
+        @Override
+        public int get(long position, byte[] bytes, int off, int len) throws IOException {
+            return PdfFileContent.this.read(position, bytes, off, len);
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public void close() {
+            // The content is released by its owner
+        }
+    }
+
+    /**
+     * Sequential stream over the content.
+     */
+    private final class ContentInputStream extends InputStream {
+        private long position = 0;
+        private long mark = 0;
+
+        @Override
+        public int read() throws IOException {
+            final int b = PdfFileContent.this.get(position);
+            if (b >= 0) {
+                ++position;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final int n = PdfFileContent.this.read(position, b, off, len);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            final long skipped = Math.max(0, Math.min(n, length - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length - position);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            mark = position;
+        }
+
+        @Override
+        public synchronized void reset() {
+            position = mark;
+        }
+    }
+}
@@ -45,6 +45,7 @@ package com.itextpdf.rups.model;
 import com.itextpdf.rups.view.Language;
 
 import java.awt.Dimension;
+import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JProgressBar;
@@ -75,6 +76,16 @@ public final class ProgressDialog extends JDialog implements IProgressDialog {
      */
     private final JProgressBar progress;
 
+    /**
+     * the button cancelling the task, only visible if it can be cancelled
+     */
+    private final JButton cancel;
+
+    /**
+     * the action cancelling the task
+     */
+    private Runnable cancelAction;
+
     /**
      * the icon used for this dialog box.
      */
@@ -110,6 +121,16 @@ public final class ProgressDialog extends JDialog implements IProgressDialog {
         progress = new JProgressBar();
         progress.setIndeterminate(true);
         getContentPane().add(progress, constraints);
+        constraints.gridy = 2;
+        cancel = new JButton(Language.DIALOG_CANCEL.getString());
+        cancel.setVisible(false);
+        cancel.addActionListener(e -> {
+            cancel.setEnabled(false);
+            if (cancelAction != null) {
+                cancelAction.run();
+            }
+        });
+        getContentPane().add(cancel, constraints);
     }
 
     @Override
@@ -157,6 +178,22 @@ public final class ProgressDialog extends JDialog implements IProgressDialog {
         }
     }
 
+    /**
+     * Sets the action, which cancels the task in progress, and shows the
+     * cancel button, if the action is not {@code null}.
+     *
+     * @param action the action to run, when the user cancels the task
+     */
+    @Override
+    public void setCancelAction(Runnable action) {
+        cancelAction = action;
+        cancel.setVisible(action != null);
+        cancel.setEnabled(action != null);
+        if (getHeight() < getPreferredSize().height) {
+            setSize(getWidth(), getPreferredSize().height);
+        }
+    }
+
     /**
      * Displays an error dialog for the given exception.
      *
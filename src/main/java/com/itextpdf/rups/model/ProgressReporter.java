@@ -0,0 +1,176 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Reports the progress of a background task to an {@link IProgressDialog}
+ * at a fixed frame rate.
+ *
+ * <p>
+ * Background tasks can update the progress as often as they like, even from
+ * multiple threads, as updates only change an atomic counter. A timer on the
+ * event dispatch thread periodically passes the latest state to the dialog,
+ * so the event queue is never flooded with per-item updates.
+ * </p>
+ */
+public final class ProgressReporter {
+    /**
+     * Interval between two updates of the dialog, which is about 20 frames
+     * per second.
+     */
+    static final int FRAME_INTERVAL_MS = 50;
+
+    private final IProgressDialog sink;
+    private final Timer timer;
+    private final AtomicInteger value = new AtomicInteger();
+    private volatile int total = 0;
+    private volatile String message = null;
+
+    /**
+     * Last state passed to the dialog. Only used on the event dispatch thread.
+     */
+    private int shownValue = -1;
+    private int shownTotal = -1;
+    private String shownMessage = null;
+
+    /**
+     * Creates a reporter for a progress dialog. The reporter has to be
+     * started with {@link #start()}.
+     *
+     * @param sink the dialog, which shows the progress
+     */
+    public ProgressReporter(IProgressDialog sink) {
+        this.sink = sink;
+        this.timer = new Timer(FRAME_INTERVAL_MS, e -> flush());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Starts passing the progress to the dialog.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Stops the periodic updates and passes the final state to the dialog.
+     */
+    public void stop() {
+        timer.stop();
+        if (SwingUtilities.isEventDispatchThread()) {
+            flush();
+        } else {
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+
+    /**
+     * Changes the message describing what's in progress.
+     *
+     * @param msg the message describing what's in progress
+     */
+    public void setMessage(String msg) {
+        message = msg;
+    }
+
+    /**
+     * Sets the maximum value of the progress. If 0 or less, the progress is
+     * indeterminate.
+     *
+     * @param n the maximum value
+     */
+    public void setTotal(int n) {
+        total = n;
+    }
+
+    /**
+     * Sets the current value of the progress.
+     *
+     * @param current the current value
+     */
+    public void setValue(int current) {
+        value.set(current);
+    }
+
+    /**
+     * Increases the current value of the progress by one.
+     */
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    /**
+     * Gets the current value of the progress, which might not be shown yet.
+     *
+     * @return the current value
+     */
+    public int getValue() {
+        return value.get();
+    }
+
+    /**
+     * Passes the changes since the last update to the dialog. Should only be
+     * called on the event dispatch thread.
+     */
+    void flush() {
+        final String currentMessage = message;
+        if (currentMessage != null && !currentMessage.equals(shownMessage)) {
+            sink.setMessage(currentMessage);
+            shownMessage = currentMessage;
+        }
+        final int currentTotal = total;
+        if (currentTotal != shownTotal) {
+            sink.setTotal(currentTotal);
+            shownTotal = currentTotal;
+        }
+        final int currentValue = value.get();
+        if (currentValue != shownValue) {
+            sink.setValue(currentValue);
+            shownValue = currentValue;
+        }
+    }
+}
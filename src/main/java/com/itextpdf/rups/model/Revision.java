@@ -0,0 +1,242 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.util.Arrays;
+
+/**
+ * A single revision of a PDF file: the original document or one of its
+ * incremental updates, together with the objects, which it added, changed or
+ * freed.
+ */
+public final class Revision {
+    private final int number;
+    private final long xrefOffset;
+    private final boolean stream;
+    private final boolean hybrid;
+    private boolean linearized = false;
+    private long start;
+    private long end;
+    private String date;
+    private int[] added = new int[16];
+    private int addedCount = 0;
+    private int[] changed = new int[16];
+    private int changedCount = 0;
+    private int[] freed = new int[16];
+    private int freedCount = 0;
+
+    Revision(int number, long xrefOffset, boolean stream, boolean hybrid) {
+        this.number = number;
+        this.xrefOffset = xrefOffset;
+        this.stream = stream;
+        this.hybrid = hybrid;
+    }
+
+    /**
+     * Gets the number of the revision. The original document has the number 1.
+     *
+     * @return the number of the revision
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Gets the byte offset, at which the revision starts in the file.
+     *
+     * @return the end of the previous revision or 0 for the first one
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the byte offset, at which the revision ends in the file. The first
+     * {@code getEnd()} bytes of the file are the document as of this revision.
+     *
+     * @return the offset after the {@code %%EOF} marker of the revision
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the byte offset of the cross-reference section of the revision.
+     *
+     * @return the offset of the table or of the stream
+     */
+    public long getXRefOffset() {
+        return xrefOffset;
+    }
+
+    /**
+     * Tells, whether the revision uses a cross-reference stream.
+     *
+     * @return {@code true} for a stream, {@code false} for a classic table
+     */
+    public boolean isStream() {
+        return stream;
+    }
+
+    /**
+     * Tells, whether the table of the revision is supplemented by a stream
+     * through the /XRefStm entry.
+     *
+     * @return {@code true} for a hybrid revision
+     */
+    public boolean isHybrid() {
+        return hybrid;
+    }
+
+    /**
+     * Tells, whether the revision consists of the two sections of a
+     * linearized file.
+     *
+     * @return {@code true}, if the first-page section was merged in
+     */
+    public boolean isLinearized() {
+        return linearized;
+    }
+
+    /**
+     * Gets the modification date of the document information dictionary of
+     * the revision, or its creation date, if there is no modification date.
+     *
+     * @return the date as it is stored in the file, or {@code null}, if it
+     *         is not known
+     */
+    public String getDate() {
+        return date;
+    }
+
+    /**
+     * Gets the numbers of the objects, which were added in the revision,
+     * including the ones, which reuse a freed number.
+     *
+     * @return a new array with the object numbers in the file order
+     */
+    public int[] getAdded() {
+        return Arrays.copyOf(added, addedCount);
+    }
+
+    /**
+     * Gets the amount of the objects, which were added in the revision.
+     *
+     * @return the amount of the added objects
+     */
+    public int getAddedCount() {
+        return addedCount;
+    }
+
+    /**
+     * Gets the numbers of the objects, which were rewritten in the revision.
+     * Entries, which repeat the previous location, are not counted.
+     *
+     * @return a new array with the object numbers in the file order
+     */
+    public int[] getChanged() {
+        return Arrays.copyOf(changed, changedCount);
+    }
+
+    /**
+     * Gets the amount of the objects, which were rewritten in the revision.
+     *
+     * @return the amount of the changed objects
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Gets the numbers of the objects, which were in use before the revision
+     * and are free since it.
+     *
+     * @return a new array with the object numbers in the file order
+     */
+    public int[] getFreed() {
+        return Arrays.copyOf(freed, freedCount);
+    }
+
+    /**
+     * Gets the amount of the objects, which were freed in the revision.
+     *
+     * @return the amount of the freed objects
+     */
+    public int getFreedCount() {
+        return freedCount;
+    }
+
+    void setRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    void setLinearized(boolean linearized) {
+        this.linearized = linearized;
+    }
+
+    void setDate(String date) {
+        this.date = date;
+    }
+
+    void addAdded(int ref) {
+        if (addedCount == added.length) {
+            added = Arrays.copyOf(added, addedCount * 2);
+        }
+        added[addedCount++] = ref;
+    }
+
+    void addChanged(int ref) {
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, changedCount * 2);
+        }
+        changed[changedCount++] = ref;
+    }
+
+    void addFreed(int ref) {
+        if (freedCount == freed.length) {
+            freed = Arrays.copyOf(freed, freedCount * 2);
+        }
+        freed[freedCount++] = ref;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfString;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The revisions of an incrementally updated PDF file, from the original
+ * document to the newest update, as they are found by walking the
+ * {@code startxref} and /Prev chain.
+ *
+ * <p>
+ * Every revision ends with its {@code %%EOF} marker, so the document as of a
+ * revision is the first {@link Revision#getEnd()} bytes of the file. The
+ * objects, which a revision added, changed or freed, are found by comparing
+ * its cross-reference entries with the effective entries of the revisions
+ * before it.
+ * </p>
+ */
+public final class RevisionTimeline {
+    /**
+     * Amount of bytes after a cross-reference section, in which the
+     * {@code %%EOF} marker of the revision is searched.
+     */
+    private static final int EOF_SEARCH_LENGTH = 1024;
+    private static final byte[] EOF = "%%EOF".getBytes(StandardCharsets.US_ASCII);
+
+    private final long length;
+    private final List<Revision> revisions = new ArrayList<>();
+    private String error;
+
+    /**
+     * Effective entries of the revisions processed so far, indexed by the
+     * object number. Locations and generations are folded into one value, as
+     * they are only compared.
+     */
+    private byte[] types = new byte[0];
+    private long[] positions = new long[0];
+
+    private RevisionTimeline(long length) {
+        this.length = length;
+    }
+
+    /**
+     * Reads the revisions of a PDF file. Reading stops at the first broken
+     * cross-reference section, see {@link #getError()}.
+     *
+     * @param content the content of the file
+     *
+     * @return the revisions of the file
+     */
+    public static RevisionTimeline read(PdfFileContent content) {
+        final XRefLayout layout = XRefLayout.read(content);
+        final RevisionTimeline timeline = new RevisionTimeline(content.length());
+        timeline.error = layout.getError();
+        try {
+            timeline.build(content, layout);
+        } catch (IOException e) {
+            timeline.error = e.getMessage() == null ? e.toString() : e.getMessage();
+        }
+        // Only needed while the revisions are compared
+        timeline.types = null;
+        timeline.positions = null;
+        return timeline;
+    }
+
+    /**
+     * Gets the revisions, from the original document to the newest update.
+     *
+     * @return an unmodifiable list of the revisions
+     */
+    public List<Revision> getRevisions() {
+        return Collections.unmodifiableList(revisions);
+    }
+
+    /**
+     * Gets the length of the file, which the revisions were read from.
+     *
+     * @return the length of the file in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the amount of the bytes after the end of the newest revision,
+     * which belong to no revision.
+     *
+     * @return the amount of the trailing bytes
+     */
+    public long getTrailingLength() {
+        if (revisions.isEmpty()) {
+            return 0;
+        }
+        return Math.max(0, length - revisions.get(revisions.size() - 1).getEnd());
+    }
+
+    /**
+     * Gets the problem, which stopped reading the revisions.
+     *
+     * @return the message or {@code null}, if all the revisions were read
+     */
+    public String getError() {
+        return error;
+    }
+
+    private void build(PdfFileContent content, XRefLayout layout) throws IOException {
+        final PdfTokenizer tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(content.asRandomAccessSource()));
+        final XRefParser.DictionaryParser parser = new XRefParser.DictionaryParser(tokenizer);
+        final XRefEntry entry = new XRefEntry();
+        // Object numbers, which were already defined by a newer section of the same revision
+        final BitSet seen = new BitSet();
+        try {
+            ensureCapacity(layout.getIndex().size());
+            Revision current = null;
+            // The sections are stored from the newest one, a stream, which supplements a table, follows it
+            int last = layout.getSectionCount() - 1;
+            while (last >= 0) {
+                int first = last;
+                while (first > 0 && layout.getSection(first).isSupplement()) {
+                    --first;
+                }
+                long sectionsEnd = 0;
+                for (int i = first; i <= last; ++i) {
+                    final XRefSection section = layout.getSection(i);
+                    sectionsEnd = Math.max(sectionsEnd, Math.max(section.getOffset(), section.getEnd()));
+                }
+                final long end = findEnd(content, sectionsEnd);
+                if (current != null && end <= current.getEnd()) {
+                    // The first-page section of a linearized file precedes the main one
+                    current.setLinearized(true);
+                } else {
+                    final XRefSection section = layout.getSection(first);
+                    final long start = current == null ? 0 : current.getEnd();
+                    current = new Revision(revisions.size() + 1, section.getOffset(), section.isStream(),
+                            last > first);
+                    current.setRange(start, end);
+                    revisions.add(current);
+                    seen.clear();
+                }
+                if (current.getDate() == null) {
+                    current.setDate(readDate(layout, first, tokenizer, parser, entry));
+                }
+                /*
+                 * The table of a hybrid file lists the objects in object
+                 * streams as free, the stream, which supplements it, takes
+                 * precedence over such entries
+                 */
+                compareSection(layout, first, current, seen, entry, true, first == last);
+                for (int i = first + 1; i <= last; ++i) {
+                    compareSection(layout, i, current, seen, entry, true, true);
+                }
+                if (last > first) {
+                    compareSection(layout, first, current, seen, entry, false, true);
+                }
+                last = first - 1;
+            }
+        } finally {
+            tokenizer.close();
+        }
+    }
+
+    /**
+     * Compares the entries of a section to the previous revisions.
+     *
+     * @param used whether the in-use and the compressed entries are compared
+     * @param free whether the free entries are compared
+     */
+    private void compareSection(XRefLayout layout, int sectionIndex, Revision revision, BitSet seen,
+            XRefEntry entry, boolean used, boolean free) throws IOException {
+        final int firstRow = layout.getFirstRow(sectionIndex);
+        final int endRow = sectionIndex + 1 < layout.getSectionCount()
+                ? layout.getFirstRow(sectionIndex + 1)
+                : layout.getEntryCount();
+        for (int row = firstRow; row < endRow; ++row) {
+            layout.readEntry(row, entry);
+            final int ref = entry.getObjectNumber();
+            if (entry.hasFlag(XRefEntry.MALFORMED | XRefEntry.DUPLICATE) || seen.get(ref)
+                    || !(entry.getType() == XRefIndex.FREE ? free : used)) {
+                continue;
+            }
+            seen.set(ref);
+            ensureCapacity(ref + 1);
+            final int type = entry.getType();
+            if (type == XRefIndex.IN_USE || type == XRefIndex.COMPRESSED) {
+                final long position = entry.getLocation() ^ ((long) entry.getGeneration() << 40);
+                if (types[ref] == XRefIndex.IN_USE || types[ref] == XRefIndex.COMPRESSED) {
+                    // Some writers repeat the unchanged entries in every update
+                    if (types[ref] != type || positions[ref] != position) {
+                        revision.addChanged(ref);
+                    }
+                } else {
+                    revision.addAdded(ref);
+                }
+                types[ref] = (byte) type;
+                positions[ref] = position;
+            } else if (type == XRefIndex.FREE) {
+                if (types[ref] == XRefIndex.IN_USE || types[ref] == XRefIndex.COMPRESSED) {
+                    revision.addFreed(ref);
+                }
+                types[ref] = XRefIndex.FREE;
+            }
+        }
+    }
+
+    /**
+     * Finds the end of a revision: the end of line after the first
+     * {@code %%EOF} marker after its cross-reference sections.
+     */
+    private long findEnd(PdfFileContent content, long sectionsEnd) throws IOException {
+        final byte[] buffer = new byte[EOF_SEARCH_LENGTH + EOF.length];
+        final int read = content.readFully(sectionsEnd, buffer, 0, buffer.length);
+        for (int i = 0; i + EOF.length <= read; ++i) {
+            int j = 0;
+            while (j < EOF.length && buffer[i + j] == EOF[j]) {
+                ++j;
+            }
+            if (j == EOF.length) {
+                long end = sectionsEnd + i + EOF.length;
+                if (content.get(end) == '\r') {
+                    ++end;
+                }
+                if (content.get(end) == '\n') {
+                    ++end;
+                }
+                return end;
+            }
+        }
+        return Math.min(sectionsEnd, length);
+    }
+
+    /**
+     * Reads the modification date of the document information dictionary,
+     * which is referenced by the trailer of a section. Only uncompressed
+     * dictionaries of unencrypted files are read, as there is no document to
+     * decode them with.
+     */
+    private static String readDate(XRefLayout layout, int sectionIndex, PdfTokenizer tokenizer,
+            XRefParser.DictionaryParser parser, XRefEntry entry) {
+        final PdfDictionary trailer = layout.getSection(sectionIndex).getTrailer();
+        if (trailer == null || trailer.containsKey(PdfName.Encrypt)) {
+            return null;
+        }
+        final PdfObject info = trailer.get(PdfName.Info);
+        if (!(info instanceof PdfLiteral)) {
+            return null;
+        }
+        try {
+            final int ref = Integer.parseInt(info.toString().split(" ")[0]);
+            if (!layout.findEntry(sectionIndex, ref, entry) || entry.getType() != XRefIndex.IN_USE
+                    || entry.hasFlag(XRefEntry.MALFORMED)) {
+                return null;
+            }
+            tokenizer.seek(layout.getHeaderOffset() + entry.getLocation());
+            tokenizer.nextValidToken();
+            if (tokenizer.getTokenType() != PdfTokenizer.TokenType.Obj || tokenizer.getObjNr() != ref) {
+                return null;
+            }
+            final PdfObject object = parser.readObject();
+            if (!(object instanceof PdfDictionary)) {
+                return null;
+            }
+            PdfString date = ((PdfDictionary) object).getAsString(PdfName.ModDate);
+            if (date == null) {
+                date = ((PdfDictionary) object).getAsString(PdfName.CreationDate);
+            }
+            return date == null ? null : date.toUnicodeString();
+        } catch (IOException | RuntimeException e) {
+            LoggerHelper.debug(e.getMessage(), e, RevisionTimeline.class);
+            return null;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        final int oldCapacity = types.length;
+        final int newCapacity = Math.max(capacity, oldCapacity * 2);
+        types = Arrays.copyOf(types, newCapacity);
+        Arrays.fill(types, oldCapacity, newCapacity, XRefIndex.UNDEFINED);
+        positions = Arrays.copyOf(positions, newCapacity);
+    }
+}
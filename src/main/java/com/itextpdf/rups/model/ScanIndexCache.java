@@ -0,0 +1,350 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.rups.view.Language;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Keeps the results of the object scan of files in a folder on disk, so that
+ * reopening the same file does not need another scan.
+ *
+ * <p>
+ * There is one cache file per path. It is only used, if the size and the
+ * modification time of the file, as well as the hash of its tail, which
+ * contains the last cross-reference section and the trailer, still match.
+ * Otherwise, or if the cache file is damaged, it is removed. Only the
+ * least recently used cache files are kept.
+ * </p>
+ */
+final class ScanIndexCache {
+    private static final int MAGIC = 0x52555053;
+    private static final int VERSION = 2;
+    private static final String SUFFIX = ".scan";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /**
+     * Amount of bytes at the end of the file, which are hashed.
+     */
+    private static final int TAIL_LENGTH = 4096;
+    /**
+     * Maximal amount of cache files in the folder.
+     */
+    private static final int MAX_FILES = 64;
+
+    private final Path folder;
+
+    /**
+     * Creates a cache backed by a folder. The folder is created, when the
+     * first file is stored.
+     *
+     * @param folder the folder of the cache files
+     */
+    ScanIndexCache(Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Reads the cached scan of a file.
+     *
+     * @param file    the scanned file
+     * @param maximum the highest object number of the file
+     *
+     * @return the scanned segments in the object order or {@code null}, if
+     *         there is no valid cache for the file
+     */
+    List<ParallelObjectScanner.Segment> load(IPdfFile file, int maximum) {
+        final Path cacheFile;
+        final byte[] key;
+        try {
+            key = createKey(file);
+            if (key == null) {
+                return null;
+            }
+            cacheFile = getCacheFile(file);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try {
+            final List<ParallelObjectScanner.Segment> segments = read(cacheFile, key, maximum);
+            if (segments != null) {
+                // Used entries are the last to be pruned
+                Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+                return segments;
+            }
+        } catch (IOException | RuntimeException e) {
+            LoggerHelper.debug(e.getMessage(), e, getClass());
+        }
+        LoggerHelper.info(String.format(Language.LOG_SCAN_CACHE_INVALIDATED.getString(), cacheFile), getClass());
+        delete(cacheFile);
+        return null;
+    }
+
+    /**
+     * Stores the scan of a file.
+     *
+     * @param file     the scanned file
+     * @param maximum  the highest object number of the file
+     * @param segments all the scanned segments in the object order
+     */
+    void save(IPdfFile file, int maximum, List<ParallelObjectScanner.Segment> segments) {
+        Path cacheFile = null;
+        try {
+            final byte[] key = createKey(file);
+            if (key == null) {
+                return;
+            }
+            cacheFile = getCacheFile(file);
+            Files.createDirectories(folder);
+            final Path tempFile = Files.createTempFile(folder, cacheFile.getFileName().toString(), TEMP_SUFFIX);
+            try {
+                write(tempFile, key, maximum, segments);
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                delete(tempFile);
+            }
+            prune();
+        } catch (IOException | RuntimeException e) {
+            LoggerHelper.warn(String.format(Language.ERROR_SCAN_CACHE_WRITE_FAILED.getString(), cacheFile), e,
+                    getClass());
+        }
+    }
+
+    /**
+     * Creates the key, which identifies the current state of a file: its
+     * path, size, modification time and the hash of its tail.
+     *
+     * @param file the file
+     *
+     * @return the key or {@code null}, if the file cannot be cached, because
+     *         its content is not the content of a file on disk
+     *
+     * @throws IOException if the content could not be read
+     */
+    private static byte[] createKey(IPdfFile file) throws IOException {
+        final File originalFile = file.getOriginalFile();
+        final PdfFileContent content = file.getContent();
+        if (originalFile == null || content == null || !originalFile.isFile()
+                || originalFile.length() != content.length()) {
+            return null;
+        }
+        final MessageDigest digest = createDigest();
+        digest.update(originalFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+        digest.update(longToBytes(content.length()));
+        digest.update(longToBytes(originalFile.lastModified()));
+        final long tailStart = Math.max(0, content.length() - TAIL_LENGTH);
+        final byte[] tail = new byte[(int) (content.length() - tailStart)];
+        content.readFully(tailStart, tail, 0, tail.length);
+        digest.update(tail);
+        return digest.digest();
+    }
+
+    private Path getCacheFile(IPdfFile file) throws IOException {
+        final byte[] hash = createDigest().digest(
+                file.getOriginalFile().getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+        final StringBuilder name = new StringBuilder(hash.length * 2 + SUFFIX.length());
+        for (final byte b : hash) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return folder.resolve(name.append(SUFFIX).toString());
+    }
+
+    private static void write(Path target, byte[] key, int maximum, List<ParallelObjectScanner.Segment> segments)
+            throws IOException {
+        try (final OutputStream fileStream = Files.newOutputStream(target)) {
+            final CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileStream),
+                    new CRC32());
+            final DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.write(key);
+            output.writeInt(maximum);
+            output.writeInt(segments.size());
+            for (final ParallelObjectScanner.Segment segment : segments) {
+                output.writeInt(segment.from);
+                output.writeInt(segment.to);
+                writeBitSet(output, segment.present);
+                writeBitSet(output, segment.pages);
+                writeBitSet(output, segment.nulls);
+                segment.metrics.write(output);
+            }
+            output.writeLong(checked.getChecksum().getValue());
+            output.flush();
+        }
+    }
+
+    private static List<ParallelObjectScanner.Segment> read(Path source, byte[] key, int maximum)
+            throws IOException {
+        try (final InputStream fileStream = Files.newInputStream(source)) {
+            final CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(fileStream),
+                    new CRC32());
+            final DataInputStream input = new DataInputStream(checked);
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null;
+            }
+            final byte[] storedKey = new byte[key.length];
+            input.readFully(storedKey);
+            if (!Arrays.equals(key, storedKey) || input.readInt() != maximum) {
+                return null;
+            }
+            final int count = input.readInt();
+            if (count < 0 || count > maximum + 1) {
+                return null;
+            }
+            final List<ParallelObjectScanner.Segment> segments = new ArrayList<>(count);
+            int expectedFrom = 0;
+            for (int i = 0; i < count; ++i) {
+                final int from = input.readInt();
+                final int to = input.readInt();
+                if (from != expectedFrom || to <= from || to > maximum + 1) {
+                    return null;
+                }
+                final ParallelObjectScanner.Segment segment = new ParallelObjectScanner.Segment(from, to);
+                if (!readBitSet(input, segment.present, to - from)
+                        || !readBitSet(input, segment.pages, to - from)
+                        || !readBitSet(input, segment.nulls, to - from)
+                        || !segment.metrics.read(input)) {
+                    return null;
+                }
+                segments.add(segment);
+                expectedFrom = to;
+            }
+            final long checksum = checked.getChecksum().getValue();
+            if (expectedFrom != maximum + 1 || input.readLong() != checksum) {
+                return null;
+            }
+            return segments;
+        }
+    }
+
+    private static void writeBitSet(DataOutputStream output, BitSet bits) throws IOException {
+        final long[] words = bits.toLongArray();
+        output.writeInt(words.length);
+        for (final long word : words) {
+            output.writeLong(word);
+        }
+    }
+
+    private static boolean readBitSet(DataInputStream input, BitSet target, int length) throws IOException {
+        final int count = input.readInt();
+        if (count < 0 || count > (length + Long.SIZE - 1) / Long.SIZE) {
+            return false;
+        }
+        final long[] words = new long[count];
+        for (int i = 0; i < count; ++i) {
+            words[i] = input.readLong();
+        }
+        target.or(BitSet.valueOf(words));
+        return target.length() <= length;
+    }
+
+    /**
+     * Removes the least recently used cache files, if there are too many.
+     */
+    private void prune() throws IOException {
+        final List<Path> files;
+        try (final Stream<Path> list = Files.list(folder)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .collect(Collectors.toList());
+        }
+        if (files.size() <= MAX_FILES) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+        for (final Path path : files.subList(0, files.size() - MAX_FILES)) {
+            delete(path);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LoggerHelper.debug(e.getMessage(), e, ScanIndexCache.class);
+        }
+    }
+
+    private static MessageDigest createDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static byte[] longToBytes(long value) {
+        final byte[] bytes = new byte[Long.BYTES];
+        for (int i = bytes.length - 1; i >= 0; --i) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+}
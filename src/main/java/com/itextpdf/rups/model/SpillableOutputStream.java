@@ -0,0 +1,250 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.rups.view.Language;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Output stream, which keeps the written data in memory, until it exceeds the
+ * memory limit. After that the data is spilled to a temporary file, so that
+ * the heap usage stays bounded, no matter how large the written document is.
+ *
+ * <p>
+ * Once the stream is closed, the data can be transferred to its destination
+ * with {@link #moveTo(Path)}. The data is copied into the target, so that an
+ * existing file keeps its permissions. The temporary file is removed on
+ * {@link #dispose()}, or at the latest, when the application exits.
+ * </p>
+ */
+public final class SpillableOutputStream extends OutputStream {
+    private static final String TEMP_FILE_PREFIX = "rups-";
+    private static final String TEMP_FILE_SUFFIX = ".pdf.tmp";
+    /**
+     * The temporary files, which were not disposed yet. They are removed by
+     * a shutdown hook, in case the application is terminated without
+     * disposing them.
+     */
+    private static final Set<Path> SPILL_FILES = createSpillFileSet();
+
+    private final long memoryLimit;
+
+    private ByteArrayOutputStream memoryStream = new ByteArrayOutputStream();
+    private Path spillFile = null;
+    private OutputStream fileStream = null;
+    private long size = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates a new stream.
+     *
+     * @param memoryLimit maximum amount of bytes to keep in memory, before
+     *                    spilling to a temporary file
+     */
+    public SpillableOutputStream(long memoryLimit) {
+        this.memoryLimit = Math.max(0, memoryLimit);
+    }
+
+    /**
+     * Returns the amount of bytes written to the stream.
+     *
+     * @return the amount of bytes written to the stream
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the data was spilled to a temporary file.
+     *
+     * @return {@code true}, if the data is stored in a temporary file;
+     *         {@code false}, if it is kept in memory
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        prepareWrite(1).write(b);
+        ++size;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        prepareWrite(len).write(b, off, len);
+        size += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileStream != null) {
+            fileStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (fileStream != null) {
+            fileStream.close();
+        }
+    }
+
+    /**
+     * Transfers the written data to the target file. The stream should be
+     * closed before that. Afterwards the data is no longer available in this
+     * stream.
+     *
+     * @param target file to write the data to; it is overwritten, if it
+     *               exists, but keeps its permissions
+     *
+     * @throws IOException if the data could not be transferred
+     */
+    public void moveTo(Path target) throws IOException {
+        if (!closed) {
+            throw new IllegalStateException(Language.ERROR_WRITER_NOT_CLOSED.getString());
+        }
+        if (spillFile != null) {
+            try (OutputStream output = Files.newOutputStream(target)) {
+                Files.copy(spillFile, output);
+            }
+            deleteSpillFile();
+        } else if (memoryStream != null) {
+            try (OutputStream output = Files.newOutputStream(target)) {
+                memoryStream.writeTo(output);
+            }
+            memoryStream = null;
+        } else {
+            throw new IllegalStateException(Language.ERROR_WRITER_DATA_MOVED.getString());
+        }
+    }
+
+    /**
+     * Releases the written data. If it was spilled, the temporary file is
+     * removed.
+     */
+    public void dispose() {
+        try {
+            close();
+        } catch (IOException e) {
+            LoggerHelper.warn(Language.ERROR_CLOSING_STREAM.getString(), e, SpillableOutputStream.class);
+        }
+        memoryStream = null;
+        if (spillFile != null) {
+            try {
+                deleteSpillFile();
+            } catch (IOException e) {
+                LoggerHelper.warn(Language.ERROR_DELETING_TEMP_FILE.getString(), e, SpillableOutputStream.class);
+                spillFile = null;
+            }
+        }
+    }
+
+    private void deleteSpillFile() throws IOException {
+        final Path file = spillFile;
+        spillFile = null;
+        SPILL_FILES.remove(file);
+        Files.deleteIfExists(file);
+    }
+
+    private OutputStream prepareWrite(int len) throws IOException {
+        if (closed || (memoryStream == null && fileStream == null)) {
+            throw new IOException(Language.ERROR_WRITER_CLOSED.getString());
+        }
+        if (fileStream == null && size + len > memoryLimit) {
+            spill();
+        }
+        if (fileStream != null) {
+            return fileStream;
+        }
+        return memoryStream;
+    }
+
+    private void spill() throws IOException {
+        final Path file = Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        SPILL_FILES.add(file);
+        final OutputStream stream;
+        try {
+            stream = new BufferedOutputStream(Files.newOutputStream(file));
+            try {
+                memoryStream.writeTo(stream);
+            } catch (IOException e) {
+                stream.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            SPILL_FILES.remove(file);
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        spillFile = file;
+        fileStream = stream;
+        memoryStream = null;
+    }
+
+    private static Set<Path> createSpillFileSet() {
+        final Set<Path> files = ConcurrentHashMap.newKeySet();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (final Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // The application exits, the file is left to the system
+                }
+            }
+        }, "rups-spill-file-cleanup"));
+        return files;
+    }
+}
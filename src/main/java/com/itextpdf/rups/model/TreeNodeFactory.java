@@ -46,15 +46,15 @@ import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
-import com.itextpdf.kernel.pdf.PdfNull;
 import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
 import com.itextpdf.rups.view.Language;
+import com.itextpdf.rups.view.icons.IconTreeNode;
+import com.itextpdf.rups.view.itext.treenodes.PdfObjectRangeTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
-import com.itextpdf.rups.view.itext.treenodes.PdfPagesTreeNode;
+import com.itextpdf.rups.view.itext.treenodes.PdfPageTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.asn1.AbstractAsn1TreeNode;
-import com.itextpdf.rups.view.itext.treenodes.asn1.Asn1TreeNodeFactory;
 import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.x509.CertificateCorrector;
 import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.ContentInfoCorrector;
 import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.AbstractCorrector;
@@ -62,17 +62,58 @@ import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.x509.CrlCorrector;
 import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.x509.OcspResponseCorrector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import javax.swing.tree.MutableTreeNode;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import javax.swing.SwingUtilities;
+import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
 
 /**
  * A factory that creates TreeNode objects corresponding with PDF objects.
+ *
+ * <p>
+ * The public methods hold the document lock of the {@link IndirectObjectFactory},
+ * as expanding a node reads from the document and the nodes can be released
+ * by any thread, which loads an object. The nodes are still part of a Swing
+ * tree, so they should only be expanded on the event dispatch thread or
+ * before the tree is shown.
+ * </p>
  */
 public class TreeNodeFactory {
     // These should be available in later versions of iText, remove later
     private static final PdfName PdfNameIssuer = new PdfName("Issuer");
+
+    /**
+     * The maximum amount of children of an array or dictionary node. Larger
+     * arrays and dictionaries get their entries grouped in ranges.
+     */
+    static final int MAX_CHILDREN = 1000;
+
+    /**
+     * The total length of the DER-encoded data, which the cached ASN.1 trees
+     * can be decoded from.
+     */
+    private static final long ASN1_CACHE_BUDGET = 32L * 1024 * 1024;
+
+    /**
+     * The thread, which decodes ASN.1 data in the background. The data is
+     * decoded in the order, in which the nodes were expanded.
+     */
+    private static final ExecutorService ASN1_DECODER = Executors.newSingleThreadExecutor(r -> {
+        final Thread thread = new Thread(r, "rups-asn1-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final int[] NO_NUMBERS = new int[0];
     private static final PdfName PdfNameSV = new PdfName("SV");
     private static final PdfName PdfNameSVCert = new PdfName("SVCert");
     private static final PdfName PdfNameTS = new PdfName("TS");
@@ -82,9 +123,30 @@ public class TreeNodeFactory {
      */
     protected IndirectObjectFactory objects;
     /**
-     * An list containing the nodes of every indirect object.
+     * The nodes of the indirect objects by their index. A node is only
+     * created, when the object is visited.
      */
-    private final List<PdfObjectTreeNode> nodes;
+    private final Map<Integer, PdfObjectTreeNode> nodes = new HashMap<>();
+    /**
+     * The amount of pins of the indirect objects by their index. Pinned
+     * objects are shown by a view outside of the tree, so they are never
+     * evicted.
+     */
+    private final Map<Integer, Integer> pins = new HashMap<>();
+    /**
+     * The corrected ASN.1 trees of signature data, which was already decoded.
+     */
+    private final Asn1TreeCache asn1Trees = new Asn1TreeCache(ASN1_CACHE_BUDGET);
+    /**
+     * The listener, which is notified, when ASN.1 data was decoded in the
+     * background, or {@code null}, if the data is decoded right away.
+     */
+    private Consumer<PdfObjectTreeNode> asn1Listener;
+    /**
+     * Gets the caption of a page by its object number, or {@code null}, if
+     * the pages were not indexed yet.
+     */
+    private IntFunction<String> pageCaptions;
 
     /**
      * Creates a factory that can produce TreeNode objects
@@ -94,10 +156,42 @@ public class TreeNodeFactory {
      */
     public TreeNodeFactory(IndirectObjectFactory objects) {
         this.objects = objects;
-        this.nodes = new ArrayList<>(objects.size());
-        for (int i = 0; i < objects.size(); i++) {
-            final int ref = objects.getRefByIndex(i);
-            this.nodes.add(PdfObjectTreeNode.getInstance(PdfNull.PDF_NULL, ref));
+        objects.setEvictionGuard(this::releaseNode);
+    }
+
+    /**
+     * Makes the factory decode the ASN.1 data of signatures and the DSS in
+     * the background. When such a node is expanded, a placeholder node is
+     * added at first. It is replaced with the decoded tree on the event
+     * dispatch thread, after which the listener is notified, so that the
+     * tree model can be updated.
+     *
+     * @param listener the listener, which gets the node with the new
+     *                 children, or {@code null} to decode the data right away
+     */
+    public void setAsn1Listener(Consumer<PdfObjectTreeNode> listener) {
+        this.asn1Listener = listener;
+    }
+
+    /**
+     * Sets the captions of the page nodes. The captions are kept by the
+     * factory, so that a page node, which is created again after its object
+     * was evicted, gets its caption as well.
+     *
+     * @param captions gets the caption of a page by its object number, which
+     *                 is {@code null} for objects, that are not a page of the
+     *                 document
+     */
+    public void setPageCaptions(IntFunction<String> captions) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            pageCaptions = captions;
+            for (final PdfObjectTreeNode node : nodes.values()) {
+                setPageCaptions(node);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -106,16 +200,106 @@ public class TreeNodeFactory {
      *
      * @param ref the reference number of the indirect object.
      *
-     * @return the TreeNode representing the PDF object
+     * @return the TreeNode representing the PDF object or {@code null}, if
+     *         there is no such object
      */
     public PdfObjectTreeNode getNode(int ref) {
-        int idx = objects.getIndexByRef(ref);
-        PdfObjectTreeNode node = nodes.get(idx);
-        if (node.getPdfObject().isNull()) {
-            node = PdfObjectTreeNode.getInstance(objects.loadObjectByReference(ref), ref);
-            nodes.set(idx, node);
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            int idx = objects.getIndexByRef(ref);
+            if (idx < 0) {
+                // The object might not be scanned yet, while the document is loading
+                objects.loadObjectByReference(ref);
+                idx = objects.getIndexByRef(ref);
+                if (idx < 0) {
+                    return null;
+                }
+            }
+            PdfObjectTreeNode node = nodes.get(idx);
+            if (node == null || node.getPdfObject().isNull()) {
+                node = PdfObjectTreeNode.getInstance(objects.loadObjectByReference(ref), ref);
+                setPageCaptions(node);
+                nodes.put(idx, node);
+            }
+            return node;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps an indirect object in memory, while a view shows it outside of
+     * the tree, e.g. in the object panel. The views read the object on the
+     * event dispatch thread, while other threads load objects and evict the
+     * ones, which are not in use. Every pin has to be removed with
+     * {@link #unpin(int)}.
+     *
+     * @param ref the object number
+     */
+    public void pin(int ref) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            final int idx = objects.getIndexByRef(ref);
+            if (idx >= 0) {
+                pins.merge(idx, 1, Integer::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a pin of an indirect object, so that it can be evicted again.
+     *
+     * @param ref the object number
+     */
+    public void unpin(int ref) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            final int idx = objects.getIndexByRef(ref);
+            if (idx >= 0) {
+                pins.computeIfPresent(idx, (key, count) -> count == 1 ? null : count - 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the amount of the nodes of indirect objects, which were created.
+     *
+     * @return the amount of the created nodes
+     */
+    int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Drops the node of an indirect object, so that the object can be evicted
+     * from the cache. Nodes, which are part of the tree or have been
+     * expanded, are kept, as they still refer to the object, and so are the
+     * pinned objects.
+     *
+     * @param idx the index in the list of indirect objects
+     *
+     * @return {@code true}, if the object is no longer referenced by a node
+     */
+    private boolean releaseNode(int idx) {
+        if (pins.containsKey(idx)) {
+            return false;
+        }
+        final PdfObjectTreeNode node = nodes.get(idx);
+        if (node == null) {
+            return true;
         }
-        return node;
+        if (!node.getPdfObject().isNull() && (node.getParent() != null || node.getChildCount() > 0)) {
+            return false;
+        }
+        nodes.remove(idx);
+        return true;
     }
 
     protected void associateIfIndirect(PdfObjectTreeNode node) {
@@ -125,56 +309,399 @@ public class TreeNodeFactory {
         }
         if (ref != null) {
             final int idx = objects.getIndexByRef(ref.getObjNumber());
-            nodes.set(idx, node);
+            if (idx >= 0) {
+                setPageCaptions(node);
+                nodes.put(idx, node);
+            }
+        }
+    }
+
+    private void setPageCaptions(PdfObjectTreeNode node) {
+        if (pageCaptions != null && node instanceof PdfPageTreeNode) {
+            ((PdfPageTreeNode) node).setPageCaptions(pageCaptions);
         }
     }
 
     /**
-     * Creates the Child TreeNode objects for a PDF object TreeNode.
+     * Creates the Child TreeNode objects for a PDF object TreeNode. Only a
+     * single level is created, the children are expanded on demand, e.g.
+     * when the user expands them in the tree.
      *
      * @param node the parent node
      */
     public void expandNode(PdfObjectTreeNode node) {
-        if (node.getChildCount() > 0) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            if (node.getChildCount() > 0) {
+                return;
+            }
+
+            final PdfObject object = node.getPdfObject();
+            switch (object.getType()) {
+                case PdfObject.INDIRECT_REFERENCE:
+                    final PdfIndirectReference ref = (PdfIndirectReference) object;
+                    final PdfObjectTreeNode leaf = getNode(ref.getObjNumber());
+                    if (leaf == null) {
+                        // Dangling reference, there is nothing to expand
+                        break;
+                    }
+                    addTarget(node, leaf);
+                    break;
+                case PdfObject.ARRAY:
+                    addEntries(node, object, null, 0, ((PdfArray) object).size());
+                    break;
+                case PdfObject.DICTIONARY:
+                case PdfObject.STREAM:
+                    final List<PdfName> keys = new ArrayList<>(((PdfDictionary) object).keySet());
+                    addEntries(node, object, keys, 0, keys.size());
+                    break;
+                default:
+                    // Other types would be leaves
+            }
+
+            // Additional handling for ASN.1 stuff
+            expandAsn1Nodes(node);
+            node.setExpandable(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates the entry nodes of a range of a large array or dictionary.
+     *
+     * @param range the range node
+     */
+    public void expandRange(PdfObjectRangeTreeNode range) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            if (range.getChildCount() == 0) {
+                addEntries(range, range.getPdfObject(), range.getKeys(), range.getFrom(), range.getTo());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the node of an element of an array node. If the elements are
+     * grouped in ranges, the range, which contains the element, is expanded.
+     *
+     * @param node  the array node
+     * @param index the index of the element
+     *
+     * @return the node of the element or {@code null}, if there is no such element
+     */
+    public PdfObjectTreeNode getArrayChildNode(PdfObjectTreeNode node, int index) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            expandNode(node);
+            return getEntryNode(node, index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the node of a page and adds it to the tree, if it is not part of
+     * it yet. As the page tree is expanded one level at a time, the nodes on
+     * the path from the root of the page tree to the page are created.
+     *
+     * @param trailer the root node of the tree
+     * @param ref     the object number of the page
+     *
+     * @return the node of the page or {@code null}, if there is no such object
+     */
+    public PdfObjectTreeNode getPageNode(PdfObjectTreeNode trailer, int ref) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            final PdfObjectTreeNode page = getNode(ref);
+            if (page == null || !page.isDictionary()) {
+                return page;
+            }
+            // The object numbers of the page and its ancestors, from the page up
+            final List<Integer> path = new ArrayList<>();
+            PdfDictionary current = (PdfDictionary) page.getPdfObject();
+            while (current != null && current.getIndirectReference() != null
+                    && !path.contains(current.getIndirectReference().getObjNumber())) {
+                path.add(current.getIndirectReference().getObjNumber());
+                current = current.getAsDictionary(PdfName.Parent);
+            }
+            final PdfObjectTreeNode catalog = getChildNode(trailer, PdfName.Root);
+            PdfObjectTreeNode node = catalog == null ? null : getChildNode(catalog, PdfName.Pages);
+            if (node == null || path.isEmpty() || node.getNumber() != path.get(path.size() - 1)) {
+                return page;
+            }
+            for (int level = path.size() - 2; level >= 0 && node != null; --level) {
+                node = getKidNode(node, path.get(level));
+            }
+            return node == null ? page : node;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the node of a kid of a Pages node, expanding the Pages node and
+     * the reference to the kid.
+     *
+     * @param node the Pages node
+     * @param ref  the object number of the kid
+     *
+     * @return the node of the kid or {@code null}, if the Kids do not refer to it
+     */
+    private PdfObjectTreeNode getKidNode(PdfObjectTreeNode node, int ref) {
+        // The Pages node may be the target of a reference that wasn't expanded yet
+        expandNode(node);
+        final PdfObjectTreeNode kids = getChildNode(node, PdfName.Kids);
+        if (kids == null || !kids.isArray()) {
+            return null;
+        }
+        final int size = ((PdfArray) kids.getPdfObject()).size();
+        for (int i = 0; i < size; ++i) {
+            final PdfObjectTreeNode kid = getEntryNode(kids, i);
+            if (kid != null && kid.isIndirectReference() && kid.getNumber() == ref) {
+                expandNode(kid);
+                final TreeNode target = kid.getChildCount() > 0 ? kid.getChildAt(0) : null;
+                return target instanceof PdfObjectTreeNode ? (PdfObjectTreeNode) target : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the nodes of the entries of an array or a dictionary. If there are
+     * too many entries, they are grouped in ranges instead, which are
+     * expanded on demand.
+     *
+     * @param parent    the node to add the entries to
+     * @param container the array or dictionary
+     * @param keys      the keys of the dictionary or {@code null} for an array
+     * @param from      the index of the first entry
+     * @param to        the index after the last entry
+     */
+    private void addEntries(DefaultMutableTreeNode parent, PdfObject container, List<PdfName> keys,
+            int from, int to) {
+        final int rangeSize = getRangeSize(to - from);
+        if (rangeSize > 1) {
+            for (int start = from; start < to; start += rangeSize) {
+                final int end = (int) Math.min((long) start + rangeSize, to);
+                parent.add(keys == null
+                        ? new PdfObjectRangeTreeNode((PdfArray) container, start, end)
+                        : new PdfObjectRangeTreeNode((PdfDictionary) container, keys, start, end));
+            }
             return;
         }
+        for (int i = from; i < to; ++i) {
+            final PdfObjectTreeNode leaf = keys == null
+                    ? PdfObjectTreeNode.getInstance(((PdfArray) container).get(i, false))
+                    : PdfObjectTreeNode.getInstance((PdfDictionary) container, keys.get(i));
+            associateIfIndirect(leaf);
+            addChild(parent, leaf);
+        }
+    }
+
+    /**
+     * Calculates how many entries are grouped in a single range. The size is
+     * a power of {@link #MAX_CHILDREN}, so that no node gets more than
+     * {@link #MAX_CHILDREN} children, while the ranges are nested as little
+     * as possible.
+     *
+     * @param count the amount of entries
+     *
+     * @return the amount of entries in a range, or 1 if no ranges are needed
+     */
+    static int getRangeSize(int count) {
+        long size = 1;
+        while ((count + size - 1) / size > MAX_CHILDREN) {
+            size *= MAX_CHILDREN;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the node of an entry of an expanded array or dictionary node,
+     * expanding the ranges on the way to it.
+     *
+     * @param node  the expanded array or dictionary node
+     * @param index the index of the entry
+     *
+     * @return the node of the entry or {@code null}, if there is no such entry
+     */
+    private PdfObjectTreeNode getEntryNode(PdfObjectTreeNode node, int index) {
+        DefaultMutableTreeNode parent = node;
+        int first = 0;
+        while (parent.getChildCount() > 0 && parent.getChildAt(0) instanceof PdfObjectRangeTreeNode) {
+            final PdfObjectRangeTreeNode firstRange = (PdfObjectRangeTreeNode) parent.getChildAt(0);
+            final int rangeSize = firstRange.getTo() - firstRange.getFrom();
+            final int position = (index - firstRange.getFrom()) / rangeSize;
+            if (index < firstRange.getFrom() || position >= parent.getChildCount()) {
+                return null;
+            }
+            final PdfObjectRangeTreeNode range = (PdfObjectRangeTreeNode) parent.getChildAt(position);
+            expandRange(range);
+            parent = range;
+            first = range.getFrom();
+        }
+        final int position = index - first;
+        if (position < 0 || position >= parent.getChildCount()) {
+            return null;
+        }
+        final TreeNode child = parent.getChildAt(position);
+        return child instanceof PdfObjectTreeNode ? (PdfObjectTreeNode) child : null;
+    }
+
+    /**
+     * Finds the node of a dictionary entry among the children of an expanded
+     * dictionary node, expanding the range, which contains it, if needed.
+     *
+     * @param node the expanded dictionary node
+     * @param key  the key of the entry
+     *
+     * @return the node of the entry or {@code null}, if there is no such entry
+     */
+    private PdfObjectTreeNode findDictionaryChildNode(PdfObjectTreeNode node, PdfName key) {
+        if (node.getChildCount() > 0 && node.getChildAt(0) instanceof PdfObjectRangeTreeNode) {
+            final List<PdfName> keys = ((PdfObjectRangeTreeNode) node.getChildAt(0)).getKeys();
+            final int index = keys == null ? -1 : keys.indexOf(key);
+            return index < 0 ? null : getEntryNode(node, index);
+        }
+        return node.getDictionaryChildNode(key);
+    }
+
+    /**
+     * Adds a child node, which is expanded later, when it is needed. The child
+     * is marked as expandable, if expanding it would add any children.
+     *
+     * @param parent the parent node
+     * @param child  a child node
+     */
+    private static void addChild(DefaultMutableTreeNode parent, PdfObjectTreeNode child) {
+        parent.add(child);
+        if (child.getChildCount() == 0) {
+            child.setExpandable(canExpand(child));
+        }
+    }
+
+    /**
+     * Adds the node of an indirect object to the node of a reference to it.
+     * Loops like this are allowed in PDF, not in a JTree, so if the object
+     * is already on the path to the reference, the reference is marked as
+     * recursive instead.
+     *
+     * @param reference the node of the indirect reference
+     * @param target    the node of the referenced object
+     *
+     * @return true if the target was added, false if the reference is recursive
+     */
+    private static boolean addTarget(PdfObjectTreeNode reference, PdfObjectTreeNode target) {
+        final int[] path = getPathNumbers(reference);
+        final int number = reference.getNumber();
+        if (Arrays.binarySearch(path, number) >= 0) {
+            reference.setRecursive(true);
+            return false;
+        }
+        if (target.getParent() != null || target.getChildCount() > 0) {
+            // The node is moved, so the paths in its subtree change
+            clearPathNumbers(target);
+        }
+        target.setPathNumbers(withNumber(path, number));
+        addChild(reference, target);
+        return true;
+    }
+
+    /**
+     * Gets the sorted object numbers of the indirect objects on the path from
+     * the root of the tree to a node. The numbers are stored in the nodes, so
+     * that they only need to be calculated once.
+     *
+     * @param node the node to get the path for
+     *
+     * @return the sorted object numbers
+     */
+    private static int[] getPathNumbers(PdfObjectTreeNode node) {
+        int[] numbers = node.getPathNumbers();
+        if (numbers != null) {
+            return numbers;
+        }
+        final TreeNode parent = getParentOutsideRanges(node);
+        if (parent instanceof PdfObjectTreeNode) {
+            numbers = getPathNumbers((PdfObjectTreeNode) parent);
+            if (((PdfObjectTreeNode) parent).isIndirectReference()) {
+                // The target of a reference, which was added by other means
+                numbers = withNumber(numbers, node.getNumber());
+            }
+        } else if (node.getNumber() >= 0 && !node.isIndirectReference()) {
+            numbers = new int[] {node.getNumber()};
+        } else {
+            numbers = NO_NUMBERS;
+        }
+        node.setPathNumbers(numbers);
+        return numbers;
+    }
+
+    /**
+     * Adds an object number to sorted object numbers.
+     *
+     * @param numbers the sorted object numbers
+     * @param number  the object number to add
+     *
+     * @return the sorted object numbers including the new one
+     */
+    private static int[] withNumber(int[] numbers, int number) {
+        final int position = Arrays.binarySearch(numbers, number);
+        if (position >= 0) {
+            return numbers;
+        }
+        final int insertion = -position - 1;
+        final int[] result = new int[numbers.length + 1];
+        System.arraycopy(numbers, 0, result, 0, insertion);
+        result[insertion] = number;
+        System.arraycopy(numbers, insertion, result, insertion + 1, numbers.length - insertion);
+        return result;
+    }
+
+    /**
+     * Forgets the stored paths in a subtree, so that they are calculated
+     * again, when they are needed.
+     *
+     * @param node the root of the subtree
+     */
+    private static void clearPathNumbers(TreeNode node) {
+        if (node instanceof PdfObjectTreeNode) {
+            ((PdfObjectTreeNode) node).setPathNumbers(null);
+        }
+        for (int i = 0; i < node.getChildCount(); ++i) {
+            clearPathNumbers(node.getChildAt(i));
+        }
+    }
 
+    /**
+     * Checks, whether expanding a node would add any children to it.
+     *
+     * @param node the node to check
+     *
+     * @return true if the node would get children
+     */
+    private static boolean canExpand(PdfObjectTreeNode node) {
         final PdfObject object = node.getPdfObject();
-        PdfObjectTreeNode leaf;
         switch (object.getType()) {
             case PdfObject.INDIRECT_REFERENCE:
-                final PdfIndirectReference ref = (PdfIndirectReference) object;
-                leaf = getNode(ref.getObjNumber());
-                addNodes(node, leaf);
-                if (leaf instanceof PdfPagesTreeNode) {
-                    expandNode(leaf);
-                }
-                break;
+            case PdfObject.STREAM:
+                return true;
             case PdfObject.ARRAY:
-                final PdfArray array = (PdfArray) object;
-                for (int i = 0; i < array.size(); ++i) {
-                    leaf = PdfObjectTreeNode.getInstance(array.get(i, false));
-                    associateIfIndirect(leaf);
-                    addNodes(node, leaf);
-                    expandNode(leaf);
-                }
-                break;
+                return !((PdfArray) object).isEmpty();
             case PdfObject.DICTIONARY:
-            case PdfObject.STREAM:
-                final PdfDictionary dict = (PdfDictionary) object;
-                for (PdfName key : dict.keySet()) {
-                    leaf = PdfObjectTreeNode.getInstance(dict, key);
-                    associateIfIndirect(leaf);
-                    addNodes(node, leaf);
-                    expandNode(leaf);
-                }
-                break;
+                return !((PdfDictionary) object).isEmpty();
+            case PdfObject.STRING:
+                return isSigContentsNode(node) || isSvCertArrayValueNode(node);
             default:
-                // Other types would be leaves
+                return false;
         }
-
-        // Additional handling for ASN.1 stuff
-        expandAsn1Nodes(node);
     }
 
     /**
@@ -187,39 +714,35 @@ public class TreeNodeFactory {
      * @return a specific child of dictionary node
      */
     public PdfObjectTreeNode getChildNode(PdfObjectTreeNode node, PdfName key) {
-        PdfObjectTreeNode child = node.getDictionaryChildNode(key);
-        if (child != null && child.isDictionaryNode(key)) {
-            if (child.isIndirectReference()) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
+        try {
+            PdfObjectTreeNode child = findDictionaryChildNode(node, key);
+            if (child != null && child.isDictionaryNode(key)) {
+                if (child.isIndirectReference()) {
+                    expandNode(child);
+                    child = (PdfObjectTreeNode) child.getFirstChild();
+                }
                 expandNode(child);
-                child = (PdfObjectTreeNode) child.getFirstChild();
+                return child;
             }
-            expandNode(child);
-            return child;
+            return null;
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
     public void addNewIndirectObject(PdfObject object) {
-        objects.addNewIndirectObject(object);
-        nodes.add(PdfObjectTreeNode.getInstance(object, object.getIndirectReference().getObjNumber()));
-        LoggerHelper.info(Language.LOG_TREE_NODE_CREATED.getString(), getClass());
-    }
-
-    /**
-     * Tries adding a child node to a parent node without
-     * throwing an exception. Normally, if the child node is already
-     * added as one of the ancestors, an IllegalArgumentException is
-     * thrown (to avoid an endless loop). Loops like this are allowed
-     * in PDF, not in a JTree.
-     *
-     * @param parent the parent node
-     * @param child  a child node
-     */
-    private static void addNodes(PdfObjectTreeNode parent, MutableTreeNode child) {
+        final Lock lock = objects.getDocumentLock();
+        lock.lock();
         try {
-            parent.add(child);
-        } catch (IllegalArgumentException iae) {
-            parent.setRecursive(true);
+            objects.addNewIndirectObject(object);
+            final int ref = object.getIndirectReference().getObjNumber();
+            final int idx = objects.getIndexByRef(ref);
+            nodes.put(idx, PdfObjectTreeNode.getInstance(object, ref));
+            LoggerHelper.info(Language.LOG_TREE_NODE_CREATED.getString(), getClass());
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -232,7 +755,7 @@ public class TreeNodeFactory {
      * @return true if this is the correct node, regardless of whether a child
      * was added.
      */
-    private static boolean expandAsn1Nodes(PdfObjectTreeNode node) {
+    private boolean expandAsn1Nodes(PdfObjectTreeNode node) {
         return expandSigContentsNode(node)
                 || expandSvCertArrayValueNode(node)
                 || expandDssDataNode(node);
@@ -247,7 +770,37 @@ public class TreeNodeFactory {
      * @return true if this is the correct node, regardless of whether a child
      * was added.
      */
-    private static boolean expandSigContentsNode(PdfObjectTreeNode node) {
+    private boolean expandSigContentsNode(PdfObjectTreeNode node) {
+        if (!isSigContentsNode(node)) {
+            return false;
+        }
+
+        /*
+         * At this point we assume, that the PDF string contains an encoded
+         * ASN.1 object inside. This might not be true for custom signature
+         * themes, but it seems like a reasonable default to use.
+         */
+        final PdfString nodeObject = (PdfString) node.getPdfObject();
+        /*
+         * While this corrector only covers the CMS case, we can reasonably
+         * assume, that it is correct to use it. The only case in the
+         * standard, when this is not correct, is adbe.x509.rsa_sha1. But
+         * in that case the corrector will just do nothing, as it is just
+         * an octet string.
+         */
+        addAsn1Tree(node, nodeObject.getValueBytes(), ContentInfoCorrector.INSTANCE, PdfName.Sig, PdfName.Contents);
+        return true;
+    }
+
+    /**
+     * Checks, whether this is a /Contents entry in a /Sig or /DocTimeStamp
+     * dictionary.
+     *
+     * @param node the node to check.
+     *
+     * @return true if this is the correct node.
+     */
+    private static boolean isSigContentsNode(PdfObjectTreeNode node) {
         // This should be a string under the /Contents key
         if (!node.isDictionaryNode(PdfName.Contents) || !node.getPdfObject().isString()) {
             return false;
@@ -259,36 +812,7 @@ public class TreeNodeFactory {
         }
 
         // Parent should be a /Sig or a /DocTimeStamp dictionary
-        if (!isSigDict(parent)) {
-            return false;
-        }
-
-        /*
-         * At this point we assume, that the PDF string contains an encoded
-         * ASN.1 object inside. This might not be true for custom signature
-         * themes, but it seems like a reasonable default to use.
-         */
-        final PdfString nodeObject = (PdfString) node.getPdfObject();
-        final AbstractAsn1TreeNode asn1 = Asn1TreeNodeFactory.fromPrimitive(nodeObject.getValueBytes());
-        if (asn1 != null) {
-            /*
-             * While this corrector only covers the CMS case, we can reasonably
-             * assume, that it is correct to use it. The only case in the
-             * standard, when this is not correct, is adbe.x509.rsa_sha1. But
-             * in that case the corrector will just do nothing, as it is just
-             * an octet string.
-             */
-            ContentInfoCorrector.INSTANCE.correct(asn1);
-            node.add(asn1);
-        } else {
-            LoggerHelper.warnf(
-                    Language.WARNING_FAILED_TO_PARSE_AS_ASN1_OBJECT,
-                    TreeNodeFactory.class,
-                    PdfName.Sig,
-                    PdfName.Contents
-            );
-        }
-        return true;
+        return isSigDict(parent);
     }
 
     /**
@@ -334,7 +858,33 @@ public class TreeNodeFactory {
      * @return true if this is the correct node, regardless of whether a child
      * was added.
      */
-    private static boolean expandSvCertArrayValueNode(PdfObjectTreeNode node) {
+    private boolean expandSvCertArrayValueNode(PdfObjectTreeNode node) {
+        if (!isSvCertArrayValueNode(node)) {
+            return false;
+        }
+        final PdfObjectTreeNode parent = getDirectParentNode(node);
+
+        // By standard, it should be a DER-encoded certificate
+        final PdfString nodeObject = (PdfString) node.getPdfObject();
+        addAsn1Tree(
+                node,
+                nodeObject.getValueBytes(),
+                CertificateCorrector.INSTANCE,
+                "/SVCert",
+                parent.isDictionaryNode(PdfName.Subject) ? PdfName.Subject : "/Issuer"
+        );
+        return true;
+    }
+
+    /**
+     * Checks, whether this is a string inside /Subject or /Issuer arrays in
+     * a /SVCert dictionary.
+     *
+     * @param node the node to check.
+     *
+     * @return true if this is the correct node.
+     */
+    private static boolean isSvCertArrayValueNode(PdfObjectTreeNode node) {
         // This should be a string
         if (!node.getPdfObject().isString()) {
             return false;
@@ -356,25 +906,7 @@ public class TreeNodeFactory {
         }
 
         // Grandparent should be a /SVCert dictionary
-        if (!isCertificateSeedValueNode(grandparent)) {
-            return false;
-        }
-
-        // By standard, it should be a DER-encoded certificate
-        final PdfString nodeObject = (PdfString) node.getPdfObject();
-        final AbstractAsn1TreeNode asn1 = Asn1TreeNodeFactory.fromPrimitive(nodeObject.getValueBytes());
-        if (asn1 != null) {
-            CertificateCorrector.INSTANCE.correct(asn1);
-            node.add(asn1);
-        } else {
-            LoggerHelper.warnf(
-                    Language.WARNING_FAILED_TO_PARSE_AS_ASN1_OBJECT,
-                    TreeNodeFactory.class,
-                    "/SVCert",
-                    parent.isDictionaryNode(PdfName.Subject) ? PdfName.Subject : "/Issuer"
-            );
-        }
-        return true;
+        return isCertificateSeedValueNode(grandparent);
     }
 
     /**
@@ -450,7 +982,7 @@ public class TreeNodeFactory {
      * @return true if this is the correct node, regardless of whether a child
      * was added.
      */
-    private static boolean expandDssDataNode(PdfObjectTreeNode node) {
+    private boolean expandDssDataNode(PdfObjectTreeNode node) {
         return expandDssArrayNode(node, List.of(PdfName.Cert, PdfName.Certs), CertificateCorrector.INSTANCE)
                 || expandDssArrayNode(node, List.of(PdfName.CRL, PdfName.CRLs), CrlCorrector.INSTANCE)
                 || expandDssArrayNode(node, List.of(PdfName.OCSP, PdfName.OCSPs), OcspResponseCorrector.INSTANCE)
@@ -468,7 +1000,7 @@ public class TreeNodeFactory {
      * @return true if this is the correct node, regardless of whether a child
      * was added.
      */
-    private static boolean expandDssArrayNode(
+    private boolean expandDssArrayNode(
             PdfObjectTreeNode node,
             Iterable<PdfName> keys,
             AbstractCorrector corrector
@@ -494,18 +1026,7 @@ public class TreeNodeFactory {
         }
 
         final PdfStream nodeObject = (PdfStream) node.getPdfObject();
-        final AbstractAsn1TreeNode asn1 = Asn1TreeNodeFactory.fromPrimitive(nodeObject.getBytes());
-        if (asn1 != null) {
-            corrector.correct(asn1);
-            node.add(asn1);
-        } else {
-            LoggerHelper.warnf(
-                    Language.WARNING_FAILED_TO_PARSE_AS_ASN1_OBJECT,
-                    TreeNodeFactory.class,
-                    PdfName.DSS,
-                    keys.iterator().next()
-            );
-        }
+        addAsn1Tree(node, nodeObject.getBytes(), corrector, PdfName.DSS, keys.iterator().next());
         return true;
     }
 
@@ -518,7 +1039,7 @@ public class TreeNodeFactory {
      * @return true if this is the correct node, regardless of whether a child
      * was added.
      */
-    private static boolean expandDssTsNode(PdfObjectTreeNode node) {
+    private boolean expandDssTsNode(PdfObjectTreeNode node) {
         // This should be a stream
         if (!node.isStream()) {
             return false;
@@ -535,19 +1056,102 @@ public class TreeNodeFactory {
         }
 
         final PdfStream nodeObject = (PdfStream) node.getPdfObject();
-        final AbstractAsn1TreeNode asn1 = Asn1TreeNodeFactory.fromPrimitive(nodeObject.getBytes());
+        addAsn1Tree(node, nodeObject.getBytes(), ContentInfoCorrector.INSTANCE, PdfName.DSS, PdfNameTS);
+        return true;
+    }
+
+    /**
+     * Adds the corrected ASN.1 tree of DER-encoded data to a node. If a
+     * listener is set, the data is decoded in the background and a
+     * placeholder is shown until then, otherwise it is decoded right away.
+     * The PDF data itself is read on the calling thread, as the document
+     * should not be read concurrently.
+     *
+     * @param node      the node to add the tree to
+     * @param data      the DER-encoded data
+     * @param corrector the corrector to apply to the decoded tree
+     * @param dictName  the dictionary, where the data is located, for the warning
+     * @param key       the key, under which the data is located, for the warning
+     */
+    private void addAsn1Tree(
+            PdfObjectTreeNode node,
+            byte[] data,
+            AbstractCorrector corrector,
+            Object dictName,
+            Object key
+    ) {
+        final Consumer<PdfObjectTreeNode> listener = asn1Listener;
+        if (listener == null) {
+            attachAsn1Tree(node, decodeAsn1(data, corrector), dictName, key);
+            return;
+        }
+        final IconTreeNode placeholder = new IconTreeNode(null, Language.ASN1_DECODING.getString());
+        node.add(placeholder);
+        ASN1_DECODER.execute(() -> {
+            final AbstractAsn1TreeNode asn1 = decodeAsn1(data, corrector);
+            SwingUtilities.invokeLater(() -> {
+                final Lock lock = objects.getDocumentLock();
+                lock.lock();
+                try {
+                    // The node could have been replaced, e.g. when the document was closed
+                    if (placeholder.getParent() != node) {
+                        return;
+                    }
+                    node.remove(placeholder);
+                    attachAsn1Tree(node, asn1, dictName, key);
+                } finally {
+                    lock.unlock();
+                }
+                listener.accept(node);
+            });
+        });
+    }
+
+    /**
+     * Decodes DER-encoded data and corrects the tree, unless an equal tree is
+     * in the cache already.
+     *
+     * @param data      the DER-encoded data
+     * @param corrector the corrector to apply to the decoded tree
+     *
+     * @return the corrected tree or {@code null}, if the data could not be
+     *         decoded
+     */
+    private AbstractAsn1TreeNode decodeAsn1(byte[] data, AbstractCorrector corrector) {
+        try {
+            return asn1Trees.get(data, corrector);
+        } catch (RuntimeException e) {
+            // Otherwise the placeholder of a background task would never be replaced
+            LoggerHelper.debug(e.getMessage(), e, TreeNodeFactory.class);
+            return null;
+        }
+    }
+
+    /**
+     * Adds a decoded ASN.1 tree to a node or logs a warning, if the data
+     * could not be decoded.
+     *
+     * @param node     the node to add the tree to
+     * @param asn1     the decoded tree or {@code null}
+     * @param dictName the dictionary, where the data is located, for the warning
+     * @param key      the key, under which the data is located, for the warning
+     */
+    private static void attachAsn1Tree(
+            PdfObjectTreeNode node,
+            AbstractAsn1TreeNode asn1,
+            Object dictName,
+            Object key
+    ) {
         if (asn1 != null) {
-            ContentInfoCorrector.INSTANCE.correct(asn1);
             node.add(asn1);
         } else {
             LoggerHelper.warnf(
                     Language.WARNING_FAILED_TO_PARSE_AS_ASN1_OBJECT,
                     TreeNodeFactory.class,
-                    PdfName.DSS,
-                    PdfNameTS
+                    dictName,
+                    key
             );
         }
-        return true;
     }
 
     /**
@@ -560,7 +1164,7 @@ public class TreeNodeFactory {
     private static PdfObjectTreeNode getDirectParentNode(PdfObjectTreeNode node) {
         PdfObjectTreeNode child = node;
         while (true) {
-            final TreeNode parent = child.getParent();
+            final TreeNode parent = getParentOutsideRanges(child);
             if (!(parent instanceof PdfObjectTreeNode)) {
                 return null;
             }
@@ -604,7 +1208,7 @@ public class TreeNodeFactory {
     ) {
         PdfObjectTreeNode child = node;
         while (true) {
-            final TreeNode parent = child.getParent();
+            final TreeNode parent = getParentOutsideRanges(child);
             if (!(parent instanceof PdfObjectTreeNode)) {
                 return null;
             }
@@ -618,4 +1222,20 @@ public class TreeNodeFactory {
             child = pdfParent;
         }
     }
+
+    /**
+     * Returns the parent of a node, skipping the range nodes, which group the
+     * entries of large arrays and dictionaries.
+     *
+     * @param node Node to get the parent for.
+     *
+     * @return The first parent, which is not a range node.
+     */
+    private static TreeNode getParentOutsideRanges(TreeNode node) {
+        TreeNode parent = node.getParent();
+        while (parent instanceof PdfObjectRangeTreeNode) {
+            parent = parent.getParent();
+        }
+        return parent;
+    }
 }
@@ -0,0 +1,163 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+/**
+ * A single cross-reference entry, as it is stored in the file. The instances
+ * are reused by {@link XRefLayout#readEntry(int, XRefEntry)}, so that reading
+ * many entries does not create any objects.
+ */
+public final class XRefEntry {
+    /**
+     * The object number is already defined by an earlier subsection of the
+     * same section.
+     */
+    public static final int DUPLICATE = 1;
+    /**
+     * The object number is defined by a newer section, so the entry is not
+     * effective.
+     */
+    public static final int SHADOWED = 1 << 1;
+    /**
+     * The free entry does not point to another free entry or it cannot be
+     * reached from the head of the free list.
+     */
+    public static final int FREE_LIST_BREAK = 1 << 2;
+    /**
+     * The object number before the entry is not defined in any section.
+     */
+    public static final int GAP_BEFORE = 1 << 3;
+    /**
+     * The entry could not be read.
+     */
+    public static final int MALFORMED = 1 << 4;
+
+    private int section;
+    private int objectNumber;
+    private int type;
+    private long location;
+    private int generation;
+    private int flags;
+
+    /**
+     * Gets the index of the section of the entry in the layout.
+     *
+     * @return the index of the section
+     */
+    public int getSection() {
+        return section;
+    }
+
+    /**
+     * Gets the object number, which the entry defines.
+     *
+     * @return the object number
+     */
+    public int getObjectNumber() {
+        return objectNumber;
+    }
+
+    /**
+     * Gets the type of the entry. The {@code n} and {@code f} entries of
+     * tables have the types {@link XRefIndex#IN_USE} and
+     * {@link XRefIndex#FREE}, the types of the stream entries are given as
+     * they are stored.
+     *
+     * @return the type of the entry
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Gets the second field of the entry: the byte offset of an in-use
+     * object, the next free object number of a free one or the object stream
+     * number of a compressed one.
+     *
+     * @return the value of the second field
+     */
+    public long getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the third field of the entry: the generation number or the index
+     * of a compressed object in its object stream.
+     *
+     * @return the value of the third field
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the problems found with the entry.
+     *
+     * @return a combination of {@link #DUPLICATE}, {@link #SHADOWED},
+     *         {@link #FREE_LIST_BREAK}, {@link #GAP_BEFORE} and
+     *         {@link #MALFORMED}
+     */
+    public int getFlags() {
+        return flags;
+    }
+
+    /**
+     * Tells, whether the entry has a flag.
+     *
+     * @param flag the flag
+     *
+     * @return {@code true}, if the flag is set
+     */
+    public boolean hasFlag(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    void set(int section, int objectNumber, int type, long location, int generation, int flags) {
+        this.section = section;
+        this.objectNumber = objectNumber;
+        this.type = type;
+        this.location = location;
+        this.generation = generation;
+        this.flags = flags;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.util.Arrays;
+
+/**
+ * Compact index of the cross-reference entries of a PDF file.
+ *
+ * <p>
+ * Only the effective entry of every object number is kept, i.e. the one from
+ * the newest revision, which defines it. Entries are stored in parallel
+ * primitive arrays, indexed by the object number, so that even tables with
+ * millions of entries take only a few bytes per object.
+ * </p>
+ */
+public final class XRefIndex {
+    /**
+     * Type of the entries, which are not defined in any section.
+     */
+    public static final byte UNDEFINED = -1;
+    /**
+     * Type of the free entries.
+     */
+    public static final byte FREE = 0;
+    /**
+     * Type of the entries of objects stored directly in the file.
+     */
+    public static final byte IN_USE = 1;
+    /**
+     * Type of the entries of objects stored in an object stream.
+     */
+    public static final byte COMPRESSED = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Entry types, indexed by the object number.
+     */
+    private byte[] types = new byte[0];
+    /**
+     * Byte offsets of the in-use objects or the object numbers of the
+     * containing object streams of the compressed ones.
+     */
+    private long[] locations = new long[0];
+    /**
+     * Generation numbers of the in-use and free objects or the indexes
+     * within the containing object streams of the compressed ones.
+     */
+    private int[] generations = new int[0];
+    /**
+     * Highest object number with a defined entry plus one.
+     */
+    private int size = 0;
+
+    XRefIndex() {
+        // Filled by XRefParser
+    }
+
+    /**
+     * Gets the highest object number with a defined entry plus one.
+     *
+     * @return the size of the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the type of the entry of an object.
+     *
+     * @param ref the object number
+     *
+     * @return one of {@link #UNDEFINED}, {@link #FREE}, {@link #IN_USE} or
+     *         {@link #COMPRESSED}
+     */
+    public byte getType(int ref) {
+        if (ref < 0 || ref >= size) {
+            return UNDEFINED;
+        }
+        return types[ref];
+    }
+
+    /**
+     * Tells you, whether an object is present in the file, either directly
+     * or in an object stream.
+     *
+     * @param ref the object number
+     *
+     * @return {@code true}, if the object is in use
+     */
+    public boolean isInUse(int ref) {
+        final byte type = getType(ref);
+        return type == IN_USE || type == COMPRESSED;
+    }
+
+    /**
+     * Gets the byte offset of an object, which is stored directly in the file.
+     *
+     * @param ref the object number
+     *
+     * @return the byte offset or -1, if the object is not stored directly
+     */
+    public long getOffset(int ref) {
+        return getType(ref) == IN_USE ? locations[ref] : -1;
+    }
+
+    /**
+     * Gets the object number of the object stream, which contains an object.
+     *
+     * @param ref the object number
+     *
+     * @return the object number of the object stream or -1, if the object is
+     *         not compressed
+     */
+    public int getObjectStreamNumber(int ref) {
+        return getType(ref) == COMPRESSED ? (int) locations[ref] : -1;
+    }
+
+    /**
+     * Gets the generation number of an object. Compressed objects always have
+     * the generation 0.
+     *
+     * @param ref the object number
+     *
+     * @return the generation number or -1, if the entry is not defined
+     */
+    public int getGeneration(int ref) {
+        switch (getType(ref)) {
+            case IN_USE:
+            case FREE:
+                return generations[ref];
+            case COMPRESSED:
+                return 0;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Gets the index of an object within its object stream.
+     *
+     * @param ref the object number
+     *
+     * @return the index or -1, if the object is not compressed
+     */
+    public int getIndexInObjectStream(int ref) {
+        return getType(ref) == COMPRESSED ? generations[ref] : -1;
+    }
+
+    /**
+     * Gets the object number of the next free object, to which a free entry
+     * points.
+     *
+     * @param ref the object number of the free object
+     *
+     * @return the next free object number or -1, if the object is not free
+     */
+    long getNextFree(int ref) {
+        return getType(ref) == FREE ? locations[ref] : -1;
+    }
+
+    /**
+     * Defines the entry of an object, unless it is already defined. As the
+     * sections are read from the newest to the oldest, the first definition
+     * is the effective one.
+     *
+     * @param ref        the object number
+     * @param type       the type of the entry
+     * @param location   the offset or the object stream number
+     * @param generation the generation or the index in the object stream
+     *
+     * @return {@code true}, if the entry was defined
+     */
+    boolean define(int ref, byte type, long location, int generation) {
+        if (ref < 0) {
+            return false;
+        }
+        ensureCapacity(ref + 1);
+        if (ref < size && types[ref] != UNDEFINED) {
+            return false;
+        }
+        types[ref] = type;
+        locations[ref] = location;
+        generations[ref] = generation;
+        size = Math.max(size, ref + 1);
+        return true;
+    }
+
+    /**
+     * Replaces the entry of an object, which is already defined. Used for
+     * the entries of the cross-reference stream of a hybrid file, which
+     * override the free entries of the table of the same revision.
+     *
+     * @param ref        the object number
+     * @param type       the type of the entry
+     * @param location   the offset or the object stream number
+     * @param generation the generation or the index in the object stream
+     */
+    void redefine(int ref, byte type, long location, int generation) {
+        types[ref] = type;
+        locations[ref] = location;
+        generations[ref] = generation;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        final int newCapacity = Math.max(capacity, Math.max(INITIAL_CAPACITY, types.length + (types.length >> 1)));
+        final int oldCapacity = types.length;
+        types = Arrays.copyOf(types, newCapacity);
+        Arrays.fill(types, oldCapacity, newCapacity, UNDEFINED);
+        locations = Arrays.copyOf(locations, newCapacity);
+        generations = Arrays.copyOf(generations, newCapacity);
+    }
+}
@@ -0,0 +1,468 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The cross-reference sections of a PDF file, from the newest to the oldest,
+ * as they are stored in the file.
+ *
+ * <p>
+ * Only the positions of the subsections are kept, so the layout takes little
+ * memory even for tables with millions of entries. The entries are read
+ * straight from the file one by one with {@link #readEntry(int, XRefEntry)},
+ * the rows of all the sections are numbered consecutively. The decoded data
+ * of the cross-reference streams is kept softly, as it is needed to read
+ * their entries.
+ * </p>
+ */
+public final class XRefLayout {
+    /**
+     * Maximal length of a table entry, which is read. Entries must be 20
+     * bytes long, but some writers add extra whitespace.
+     */
+    private static final int MAX_TABLE_ENTRY_LENGTH = 2 * XRefSection.TABLE_ENTRY_LENGTH;
+
+    private final PdfFileContent content;
+    private final XRefIndex index;
+    private final List<XRefSection> sections = new ArrayList<>();
+    /**
+     * The first row of every section.
+     */
+    private int[] sectionRows = new int[0];
+    private int entryCount = 0;
+    private int undefinedCount = 0;
+    private String error;
+    private long headerOffset = 0;
+    /**
+     * The object numbers, which can be reached from the head of the free
+     * list. Computed, when a free entry is read first.
+     */
+    private BitSet freeList;
+    private final byte[] buffer = new byte[MAX_TABLE_ENTRY_LENGTH];
+    /**
+     * The entry of another section, which is compared to the one being read.
+     */
+    private final XRefEntry other = new XRefEntry();
+
+    XRefLayout(PdfFileContent content, XRefIndex index) {
+        this.content = content;
+        this.index = index;
+    }
+
+    /**
+     * Reads the cross-reference sections of a PDF file. Reading stops at the
+     * first broken section, see {@link #getError()}.
+     *
+     * @param content the content of the file
+     *
+     * @return the layout of the sections
+     */
+    public static XRefLayout read(PdfFileContent content) {
+        return XRefParser.readLayout(content);
+    }
+
+    /**
+     * Gets the effective entries of the sections, which were read.
+     *
+     * @return the cross-reference index
+     */
+    public XRefIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the amount of the sections.
+     *
+     * @return the amount of the sections
+     */
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * Gets a section. The newest section has the index 0.
+     *
+     * @param i the index of the section
+     *
+     * @return the section
+     */
+    public XRefSection getSection(int i) {
+        return sections.get(i);
+    }
+
+    /**
+     * Gets the amount of the entries in all the sections.
+     *
+     * @return the amount of the rows
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Gets the amount of the object numbers below the /Size of the newest
+     * trailer, which are not defined in any section.
+     *
+     * @return the amount of the undefined object numbers
+     */
+    public int getUndefinedCount() {
+        return undefinedCount;
+    }
+
+    /**
+     * Gets the problem, which stopped reading the sections.
+     *
+     * @return the message or {@code null}, if all the sections were read
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Reads an entry from the file.
+     *
+     * @param row   the row of the entry, counted over all the sections
+     * @param entry the entry to fill
+     *
+     * @throws IOException if the file could not be read
+     */
+    public synchronized void readEntry(int row, XRefEntry entry) throws IOException {
+        if (row < 0 || row >= entryCount) {
+            throw new IndexOutOfBoundsException(String.valueOf(row));
+        }
+        final int sectionIndex = findSection(row);
+        final XRefSection section = sections.get(sectionIndex);
+        final int entryIndex = row - sectionRows[sectionIndex];
+        final int subsection = section.findSubsection(entryIndex);
+        final int k = entryIndex - section.getSubsectionFirstIndex(subsection);
+        final int ref = section.getSubsectionStart(subsection) + k;
+        final boolean read = section.isStream()
+                ? readStreamEntry(section, subsection, k, entry)
+                : readTableEntry(section, subsection, k, entry);
+        if (!read) {
+            entry.set(sectionIndex, ref, XRefIndex.UNDEFINED, -1, -1, XRefEntry.MALFORMED);
+            return;
+        }
+        int flags = 0;
+        if (section.definesBefore(ref, subsection)) {
+            flags |= XRefEntry.DUPLICATE;
+        } else if (isShadowed(sectionIndex, ref, entry.getType())) {
+            flags |= XRefEntry.SHADOWED;
+        }
+        if (entry.getType() == XRefIndex.FREE && flags == 0
+                && isFreeListBroken(sectionIndex, ref, entry.getLocation())) {
+            flags |= XRefEntry.FREE_LIST_BREAK;
+        }
+        if (ref > 0 && index.getType(ref - 1) == XRefIndex.UNDEFINED) {
+            flags |= XRefEntry.GAP_BEFORE;
+        }
+        entry.set(sectionIndex, ref, entry.getType(), entry.getLocation(), entry.getGeneration(), flags);
+    }
+
+    /**
+     * Reads the effective entry of an object as of a section, i.e. the first
+     * definition in the section or in any older one.
+     *
+     * @param fromSection the index of the newest section to search
+     * @param ref         the object number
+     * @param entry       the entry to fill
+     *
+     * @return {@code false}, if no section defines the object
+     *
+     * @throws IOException if the file could not be read
+     */
+    boolean findEntry(int fromSection, int ref, XRefEntry entry) throws IOException {
+        for (int s = fromSection; s < sections.size(); ++s) {
+            final XRefSection section = sections.get(s);
+            final int subsection = section.findSubsectionOf(ref);
+            if (subsection >= 0) {
+                readEntry(sectionRows[s] + section.getSubsectionFirstIndex(subsection)
+                        + ref - section.getSubsectionStart(subsection), entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the first row of a section.
+     *
+     * @param section the index of the section
+     *
+     * @return the row of the first entry of the section
+     */
+    int getFirstRow(int section) {
+        return sectionRows[section];
+    }
+
+    /**
+     * Gets the offset of the PDF header. The byte offsets in the entries are
+     * relative to it.
+     *
+     * @return the offset of the header
+     */
+    long getHeaderOffset() {
+        return headerOffset;
+    }
+
+    void setHeaderOffset(long headerOffset) {
+        this.headerOffset = headerOffset;
+    }
+
+    XRefSection addSection(long offset, boolean stream) {
+        final XRefSection section = new XRefSection(offset, stream);
+        sections.add(section);
+        return section;
+    }
+
+    /**
+     * Numbers the rows of the sections, once all of them were read.
+     *
+     * @param error the problem, which stopped reading, or {@code null}
+     */
+    void finish(Exception error) {
+        if (error != null) {
+            this.error = error.getMessage() == null ? error.toString() : error.getMessage();
+        }
+        sectionRows = new int[sections.size()];
+        entryCount = 0;
+        for (int i = 0; i < sections.size(); ++i) {
+            sectionRows[i] = entryCount;
+            entryCount += Math.min(sections.get(i).getEntryCount(), Integer.MAX_VALUE - entryCount);
+        }
+        int size = index.size();
+        if (!sections.isEmpty() && sections.get(0).getTrailer() != null) {
+            final PdfNumber trailerSize = sections.get(0).getTrailer().getAsNumber(PdfName.Size);
+            if (trailerSize != null) {
+                size = Math.max(size, trailerSize.intValue());
+            }
+        }
+        undefinedCount = 0;
+        for (int ref = 0; ref < size; ++ref) {
+            if (index.getType(ref) == XRefIndex.UNDEFINED) {
+                ++undefinedCount;
+            }
+        }
+    }
+
+    private int findSection(int row) {
+        int low = 0;
+        int high = sectionRows.length - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (sectionRows[middle] <= row) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private boolean readTableEntry(XRefSection section, int subsection, int k, XRefEntry entry)
+            throws IOException {
+        final long position = section.getEntryPosition(subsection, k);
+        if (position < 0 || position >= content.length()) {
+            return false;
+        }
+        final int length = content.readFully(position, buffer, 0,
+                (int) Math.min(buffer.length, content.length() - position));
+        int i = skipWhitespace(length, 0);
+        final int locationStart = i;
+        long location = 0;
+        while (i < length && isDigit(buffer[i])) {
+            location = location * 10 + (buffer[i++] - '0');
+        }
+        if (i == locationStart || i >= length || !isWhitespace(buffer[i])) {
+            return false;
+        }
+        i = skipWhitespace(length, i);
+        final int generationStart = i;
+        long generation = 0;
+        while (i < length && isDigit(buffer[i])) {
+            generation = generation * 10 + (buffer[i++] - '0');
+        }
+        if (i == generationStart || i >= length || !isWhitespace(buffer[i])) {
+            return false;
+        }
+        i = skipWhitespace(length, i);
+        if (i >= length || (buffer[i] != 'n' && buffer[i] != 'f')) {
+            return false;
+        }
+        final int type = buffer[i] == 'n' ? XRefIndex.IN_USE : XRefIndex.FREE;
+        entry.set(0, 0, type, location, (int) Math.min(generation, Integer.MAX_VALUE), 0);
+        return true;
+    }
+
+    private boolean readStreamEntry(XRefSection section, int subsection, int k, XRefEntry entry)
+            throws IOException {
+        final int[] widths = section.getWidths();
+        final byte[] data = section.getData(content);
+        final long position = section.getEntryPosition(subsection, k);
+        if (widths == null || position < 0 || position + section.getEntryLength() > data.length) {
+            return false;
+        }
+        int p = (int) position;
+        final int type = widths[0] == 0 ? XRefIndex.IN_USE : (int) XRefParser.readField(data, p, widths[0]);
+        p += widths[0];
+        final long location = XRefParser.readField(data, p, widths[1]);
+        p += widths[1];
+        final long generation = XRefParser.readField(data, p, widths[2]);
+        entry.set(0, 0, type, location, (int) generation, 0);
+        return true;
+    }
+
+    /**
+     * Checks, whether a newer definition overrides an entry. The table of a
+     * hybrid file and the cross-reference stream, which supplements it, are
+     * one revision: the in-use and compressed entries of the stream override
+     * the free entries of the table, which older readers are meant to skip.
+     */
+    private boolean isShadowed(int sectionIndex, int ref, int type) throws IOException {
+        final boolean supplement = sections.get(sectionIndex).isSupplement();
+        for (int i = 0; i < sectionIndex; ++i) {
+            final XRefSection newer = sections.get(i);
+            if (!newer.definesBefore(ref, newer.getSubsectionCount())) {
+                continue;
+            }
+            if (supplement && i == sectionIndex - 1 && isUsed(type)
+                    && readRawEntry(i, ref) && other.getType() == XRefIndex.FREE) {
+                continue;
+            }
+            return true;
+        }
+        return type == XRefIndex.FREE && hasSupplement(sectionIndex)
+                && readRawEntry(sectionIndex + 1, ref) && isUsed(other.getType());
+    }
+
+    private boolean isFreeListBroken(int sectionIndex, int ref, long next) throws IOException {
+        if (next != 0 && (next >= index.size() || !isFree(sectionIndex, (int) next))) {
+            return true;
+        }
+        if (freeList == null) {
+            freeList = new BitSet();
+            long current = 0;
+            while (current < index.size() && !freeList.get((int) current)) {
+                if (index.getType((int) current) == XRefIndex.FREE) {
+                    freeList.set((int) current);
+                    current = index.getNextFree((int) current);
+                } else if (isFreeInHybridTable(0, (int) current)) {
+                    freeList.set((int) current);
+                    current = other.getLocation();
+                } else {
+                    break;
+                }
+                if (current == 0) {
+                    break;
+                }
+            }
+        }
+        return !freeList.get(ref);
+    }
+
+    /**
+     * Checks, whether an object is free, either effectively or in the table
+     * of a hybrid file, whose free list still links it.
+     */
+    private boolean isFree(int sectionIndex, int ref) throws IOException {
+        return index.getType(ref) == XRefIndex.FREE || isFreeInHybridTable(sectionIndex, ref);
+    }
+
+    /**
+     * Checks, whether the table of a hybrid file defines an object as free.
+     * The entry is left in {@link #other}.
+     */
+    private boolean isFreeInHybridTable(int sectionIndex, int ref) throws IOException {
+        return hasSupplement(sectionIndex) && readRawEntry(sectionIndex, ref)
+                && other.getType() == XRefIndex.FREE;
+    }
+
+    private boolean hasSupplement(int sectionIndex) {
+        return sectionIndex + 1 < sections.size() && !sections.get(sectionIndex).isStream()
+                && sections.get(sectionIndex + 1).isSupplement();
+    }
+
+    /**
+     * Reads the first definition of an object in a section into
+     * {@link #other}, without computing any flags.
+     */
+    private boolean readRawEntry(int sectionIndex, int ref) throws IOException {
+        final XRefSection section = sections.get(sectionIndex);
+        final int subsection = section.findSubsectionOf(ref);
+        if (subsection < 0) {
+            return false;
+        }
+        final int k = ref - section.getSubsectionStart(subsection);
+        return section.isStream()
+                ? readStreamEntry(section, subsection, k, other)
+                : readTableEntry(section, subsection, k, other);
+    }
+
+    private static boolean isUsed(int type) {
+        return type == XRefIndex.IN_USE || type == XRefIndex.COMPRESSED;
+    }
+
+    private int skipWhitespace(int length, int from) {
+        int i = from;
+        while (i < length && isWhitespace(buffer[i])) {
+            ++i;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\r' || b == '\n' || b == '\t' || b == '\f' || b == 0;
+    }
+}
@@ -0,0 +1,485 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
+import com.itextpdf.rups.view.Language;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the cross-reference sections of a PDF file straight from its content,
+ * without parsing any objects.
+ *
+ * <p>
+ * The sections are read from the one referenced by {@code startxref},
+ * following the {@code /Prev} chain, so both classic tables and
+ * cross-reference streams, as well as hybrid files, are supported. Broken
+ * files are not reconstructed, in that case an {@link IOException} is thrown
+ * and the caller should fall back to what iText has read.
+ * </p>
+ */
+final class XRefParser {
+    private static final byte[] STARTXREF = "startxref".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] ENDSTREAM = "endstream".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] HEADER = "%PDF-".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int TAIL_SEARCH_LENGTH = 1024;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final PdfFileContent content;
+    private final PdfTokenizer tokenizer;
+    private final DictionaryParser parser;
+    private final XRefIndex index = new XRefIndex();
+    /**
+     * The layout, which records the positions of the sections, or
+     * {@code null}, if only the index is read.
+     */
+    private final XRefLayout layout;
+    /**
+     * The section, which is being read, if the layout is recorded.
+     */
+    private XRefSection section;
+    /**
+     * Offset of the PDF header. Some files have junk before the header and
+     * all the offsets in such files are relative to the header.
+     */
+    private long headerOffset;
+    /**
+     * The objects, which the table of a hybrid file defined as free, while
+     * its cross-reference stream is read, otherwise {@code null}.
+     */
+    private BitSet freeInTable;
+
+    private XRefParser(PdfFileContent content, boolean recordLayout) {
+        this.content = content;
+        this.tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(content.asRandomAccessSource()));
+        this.parser = new DictionaryParser(tokenizer);
+        this.layout = recordLayout ? new XRefLayout(content, index) : null;
+    }
+
+    /**
+     * Reads the cross-reference index of a PDF file.
+     *
+     * @param content the content of the file
+     *
+     * @return the index of the effective entries
+     *
+     * @throws IOException if the content could not be read or the
+     *                     cross-reference sections are broken
+     */
+    static XRefIndex parse(PdfFileContent content) throws IOException {
+        final XRefParser xrefParser = new XRefParser(content, false);
+        try {
+            xrefParser.readAll();
+        } finally {
+            xrefParser.tokenizer.close();
+        }
+        return xrefParser.index;
+    }
+
+    /**
+     * Reads the positions of the cross-reference sections of a PDF file.
+     * Reading stops at the first broken section, the sections read so far
+     * are kept and the problem is reported by {@link XRefLayout#getError()}.
+     *
+     * @param content the content of the file
+     *
+     * @return the layout of the sections
+     */
+    static XRefLayout readLayout(PdfFileContent content) {
+        final XRefParser xrefParser = new XRefParser(content, true);
+        Exception error = null;
+        try {
+            xrefParser.readAll();
+        } catch (IOException | RuntimeException e) {
+            error = e;
+        } finally {
+            try {
+                xrefParser.tokenizer.close();
+            } catch (IOException e) {
+                // The content is closed with the file
+            }
+        }
+        xrefParser.layout.finish(error);
+        return xrefParser.layout;
+    }
+
+    private void readAll() throws IOException {
+        headerOffset = Math.max(0, indexOf(HEADER, 0, Math.min(content.length(), TAIL_SEARCH_LENGTH)));
+        if (layout != null) {
+            layout.setHeaderOffset(headerOffset);
+        }
+        long offset = findStartXref();
+        final Set<Long> visited = new HashSet<>();
+        while (offset >= 0 && visited.add(offset)) {
+            final PdfDictionary trailer = readSection(offset);
+            final PdfNumber prev = trailer.getAsNumber(PdfName.Prev);
+            offset = prev == null ? -1 : prev.longValue();
+        }
+    }
+
+    /**
+     * Reads a single cross-reference section, either a table or a stream.
+     *
+     * @param offset offset of the section relative to the header
+     *
+     * @return the trailer dictionary or the dictionary of the stream
+     *
+     * @throws IOException if the section could not be read
+     */
+    private PdfDictionary readSection(long offset) throws IOException {
+        tokenizer.seek(headerOffset + offset);
+        tokenizer.nextValidToken();
+        final boolean table = tokenizer.tokenValueEqualsTo(PdfTokenizer.Xref);
+        if (!table && tokenizer.getTokenType() != PdfTokenizer.TokenType.Obj) {
+            throw malformed(offset);
+        }
+        if (layout != null) {
+            section = layout.addSection(headerOffset + offset, !table);
+        }
+        return table ? readTable() : readStream();
+    }
+
+    private PdfDictionary readTable() throws IOException {
+        while (true) {
+            tokenizer.nextValidToken();
+            if (tokenizer.tokenValueEqualsTo(PdfTokenizer.Trailer)) {
+                if (section != null) {
+                    section.setTrailerOffset(tokenizer.getPosition() - PdfTokenizer.Trailer.length);
+                }
+                break;
+            }
+            final int start = (int) readLong(false);
+            final int count = readInt();
+            if (section != null) {
+                section.addSubsection(start, count, -1);
+            }
+            if (freeInTable == null) {
+                freeInTable = new BitSet();
+            }
+            for (int ref = start; ref < start + count; ++ref) {
+                tokenizer.nextValidToken();
+                if (section != null) {
+                    section.setEntryPosition(ref - start,
+                            tokenizer.getPosition() - tokenizer.getByteContent().length);
+                }
+                final long location = readLong(false);
+                final int generation = readInt();
+                tokenizer.nextValidToken();
+                if (tokenizer.tokenValueEqualsTo(PdfTokenizer.N)) {
+                    index.define(ref, XRefIndex.IN_USE, headerOffset + location, generation);
+                } else if (tokenizer.tokenValueEqualsTo(PdfTokenizer.F)) {
+                    if (index.define(ref, XRefIndex.FREE, location, generation)) {
+                        freeInTable.set(ref);
+                    }
+                } else {
+                    throw malformed(tokenizer.getPosition());
+                }
+            }
+        }
+        final BitSet free = freeInTable;
+        freeInTable = null;
+        final PdfDictionary trailer = readDictionary();
+        if (section != null) {
+            section.setTrailer(trailer);
+            section.setEnd(tokenizer.getPosition());
+        }
+        final PdfNumber xrefStream = trailer.getAsNumber(PdfName.XRefStm);
+        if (xrefStream != null) {
+            /*
+             * Hybrid file, the stream supplements the table of the same
+             * revision. The table lists the objects in object streams as
+             * free, so that older readers ignore them, so the stream
+             * overrides the free entries of the table.
+             */
+            freeInTable = free;
+            try {
+                readSection(xrefStream.longValue());
+            } finally {
+                freeInTable = null;
+            }
+            if (section != null) {
+                section.setSupplement(true);
+            }
+        }
+        return trailer;
+    }
+
+    private PdfDictionary readStream() throws IOException {
+        final long objectOffset = tokenizer.getPosition();
+        final PdfDictionary dictionary = readDictionary();
+        if (!PdfName.XRef.equals(dictionary.getAsName(PdfName.Type))) {
+            throw malformed(objectOffset);
+        }
+        tokenizer.nextValidToken();
+        if (!tokenizer.tokenValueEqualsTo(PdfTokenizer.Stream)) {
+            throw malformed(tokenizer.getPosition());
+        }
+        long start = tokenizer.getPosition();
+        if (content.get(start) == '\r') {
+            ++start;
+        }
+        if (content.get(start) == '\n') {
+            ++start;
+        }
+        final PdfNumber lengthNumber = dictionary.getAsNumber(PdfName.Length);
+        final long length = lengthNumber != null ? lengthNumber.longValue() : findEndStream(start) - start;
+        if (length < 0 || length > Integer.MAX_VALUE || start + length > content.length()) {
+            throw malformed(start);
+        }
+        final byte[] raw = new byte[(int) length];
+        content.readFully(start, raw, 0, raw.length);
+        final byte[] data = PdfReader.decodeBytes(raw, dictionary);
+        if (section != null) {
+            section.setTrailer(dictionary);
+            section.setEnd(start + length);
+            section.setStreamData(start, raw.length, data);
+        }
+        readStreamEntries(dictionary, data);
+        return dictionary;
+    }
+
+    private void readStreamEntries(PdfDictionary dictionary, byte[] data) throws IOException {
+        final PdfArray widthArray = dictionary.getAsArray(PdfName.W);
+        if (widthArray == null || widthArray.size() < 3) {
+            throw malformed(tokenizer.getPosition());
+        }
+        final int[] widths = new int[3];
+        int entryLength = 0;
+        for (int i = 0; i < widths.length; ++i) {
+            widths[i] = widthArray.getAsNumber(i).intValue();
+            entryLength += widths[i];
+        }
+        if (section != null) {
+            section.setWidths(widths);
+        }
+        PdfArray subsections = dictionary.getAsArray(PdfName.Index);
+        if (subsections == null) {
+            subsections = new PdfArray();
+            subsections.add(new PdfNumber(0));
+            subsections.add(dictionary.getAsNumber(PdfName.Size));
+        }
+        int position = 0;
+        for (int i = 0; i + 1 < subsections.size(); i += 2) {
+            final int start = subsections.getAsNumber(i).intValue();
+            final int count = subsections.getAsNumber(i + 1).intValue();
+            if (section != null) {
+                section.addSubsection(start, count, position);
+            }
+            for (int ref = start; ref < start + count; ++ref) {
+                if (position + entryLength > data.length) {
+                    throw malformed(tokenizer.getPosition());
+                }
+                final int type = widths[0] == 0 ? XRefIndex.IN_USE : (int) readField(data, position, widths[0]);
+                position += widths[0];
+                final long location = readField(data, position, widths[1]);
+                position += widths[1];
+                final int generation = (int) readField(data, position, widths[2]);
+                position += widths[2];
+                switch (type) {
+                    case XRefIndex.FREE:
+                        index.define(ref, XRefIndex.FREE, location, generation);
+                        break;
+                    case XRefIndex.IN_USE:
+                        defineInStream(ref, XRefIndex.IN_USE, headerOffset + location, generation);
+                        break;
+                    case XRefIndex.COMPRESSED:
+                        defineInStream(ref, XRefIndex.COMPRESSED, location, generation);
+                        break;
+                    default:
+                        // Unknown entry types are treated as references to the null object
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Defines an object, which is in use according to a cross-reference
+     * stream. The free entries of the table, which the stream supplements,
+     * are overridden.
+     */
+    private void defineInStream(int ref, byte type, long location, int generation) {
+        if (!index.define(ref, type, location, generation) && freeInTable != null && ref >= 0
+                && freeInTable.get(ref)) {
+            index.redefine(ref, type, location, generation);
+            freeInTable.clear(ref);
+        }
+    }
+
+    /**
+     * Reads a big-endian field of a cross-reference stream entry.
+     *
+     * @param data     the decoded data of the stream
+     * @param position the position of the field
+     * @param width    the width of the field in bytes
+     *
+     * @return the value of the field
+     */
+    static long readField(byte[] data, int position, int width) {
+        long value = 0;
+        for (int i = 0; i < width; ++i) {
+            value = (value << 8) | (data[position + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private PdfDictionary readDictionary() throws IOException {
+        final PdfObject object = parser.readObject();
+        if (!(object instanceof PdfDictionary)) {
+            throw malformed(tokenizer.getPosition());
+        }
+        return (PdfDictionary) object;
+    }
+
+    private int readInt() throws IOException {
+        return (int) readLong(true);
+    }
+
+    private long readLong(boolean advance) throws IOException {
+        if (advance) {
+            tokenizer.nextValidToken();
+        }
+        if (tokenizer.getTokenType() != PdfTokenizer.TokenType.Number) {
+            throw malformed(tokenizer.getPosition());
+        }
+        return tokenizer.getLongValue();
+    }
+
+    private long findStartXref() throws IOException {
+        final long from = Math.max(0, content.length() - TAIL_SEARCH_LENGTH);
+        final long keyword = lastIndexOf(STARTXREF, from, content.length());
+        if (keyword < 0) {
+            throw new IOException(Language.ERROR_STARTXREF_NOT_FOUND.getString());
+        }
+        tokenizer.seek(keyword + STARTXREF.length);
+        return readLong(true);
+    }
+
+    private long findEndStream(long from) throws IOException {
+        final long position = indexOf(ENDSTREAM, from, content.length());
+        if (position < 0) {
+            throw malformed(from);
+        }
+        return position;
+    }
+
+    private long indexOf(byte[] pattern, long from, long to) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE + pattern.length];
+        for (long position = from; position < to; position += BUFFER_SIZE) {
+            final int read = content.readFully(position, buffer, 0, (int) Math.min(buffer.length, to - position));
+            final int found = find(buffer, read, pattern, false);
+            if (found >= 0) {
+                return position + found;
+            }
+        }
+        return -1;
+    }
+
+    private long lastIndexOf(byte[] pattern, long from, long to) throws IOException {
+        final byte[] buffer = new byte[(int) (to - from)];
+        final int read = content.readFully(from, buffer, 0, buffer.length);
+        final int found = find(buffer, read, pattern, true);
+        return found < 0 ? -1 : from + found;
+    }
+
+    private static int find(byte[] buffer, int length, byte[] pattern, boolean last) {
+        int result = -1;
+        for (int i = 0; i + pattern.length <= length; ++i) {
+            int j = 0;
+            while (j < pattern.length && buffer[i + j] == pattern[j]) {
+                ++j;
+            }
+            if (j == pattern.length) {
+                if (!last) {
+                    return i;
+                }
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    private static IOException malformed(long position) {
+        return new IOException(String.format(Language.ERROR_MALFORMED_XREF.getString(), position));
+    }
+
+    /**
+     * Parser of the trailer and stream dictionaries. References are kept as
+     * literals, as there is no document to resolve them against.
+     */
+    static final class DictionaryParser extends PdfCanvasParser {
+        DictionaryParser(PdfTokenizer tokenizer) {
+            super(tokenizer);
+        }
+
+        @Override
+        public PdfObject readObject() throws IOException {
+            final PdfObject object = super.readObject();
+            if (object != null && object.getType() == PdfObject.LITERAL
+                    && getTokeniser().getTokenType() == PdfTokenizer.TokenType.Ref) {
+                return new PdfLiteral(getTokeniser().getObjNr() + " " + getTokeniser().getGenNr() + " R");
+            }
+            return object;
+        }
+
+        @Override
+        public boolean nextValidToken() throws IOException {
+            getTokeniser().nextValidToken();
+            return getTokeniser().getTokenType() != PdfTokenizer.TokenType.EndOfFile;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfReader;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Location of a single cross-reference section in a PDF file, either a
+ * classic table or a cross-reference stream.
+ *
+ * <p>
+ * Only the positions of the subsections are kept, the entries themselves are
+ * read from the file, when they are needed, see
+ * {@link XRefLayout#readEntry(int, XRefEntry)}.
+ * </p>
+ */
+public final class XRefSection {
+    /**
+     * Length of an entry of a classic table, including the end of line.
+     */
+    static final int TABLE_ENTRY_LENGTH = 20;
+
+    private final long offset;
+    private final boolean stream;
+    /**
+     * Whether the section is a stream, which supplements a table through
+     * the /XRefStm entry of its trailer.
+     */
+    private boolean supplement = false;
+    private final List<Subsection> subsections = new ArrayList<>();
+    private int entryCount = 0;
+    private PdfDictionary trailer;
+    private long trailerOffset = -1;
+    private long end = -1;
+    /**
+     * Widths of the fields of the stream entries.
+     */
+    private int[] widths;
+    /**
+     * Decoded data of the stream, which is decoded again, if it was
+     * collected.
+     */
+    private SoftReference<byte[]> data = new SoftReference<>(null);
+    private long dataOffset = -1;
+    private int dataLength = 0;
+
+    XRefSection(long offset, boolean stream) {
+        this.offset = offset;
+        this.stream = stream;
+    }
+
+    /**
+     * Gets the byte offset of the section in the file.
+     *
+     * @return the offset of the {@code xref} keyword or of the stream object
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the byte offset, at which the section ends in the file.
+     *
+     * @return the offset after the trailer or the stream data or -1, if the
+     *         section was not read completely
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the byte offset of the {@code trailer} keyword of a table.
+     *
+     * @return the offset of the trailer or -1 for a stream or a section,
+     *         which was not read completely
+     */
+    public long getTrailerOffset() {
+        return trailerOffset;
+    }
+
+    /**
+     * Tells, whether the section is a cross-reference stream.
+     *
+     * @return {@code true} for a stream, {@code false} for a classic table
+     */
+    public boolean isStream() {
+        return stream;
+    }
+
+    /**
+     * Tells, whether the section is a cross-reference stream of a hybrid
+     * file, which supplements the table of the same revision.
+     *
+     * @return {@code true}, if the section is referenced by /XRefStm
+     */
+    public boolean isSupplement() {
+        return supplement;
+    }
+
+    /**
+     * Gets the trailer dictionary of a table or the dictionary of a stream.
+     *
+     * @return the dictionary or {@code null}, if the section was not read
+     *         completely
+     */
+    public PdfDictionary getTrailer() {
+        return trailer;
+    }
+
+    /**
+     * Gets the amount of the entries in the section.
+     *
+     * @return the amount of the entries
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Gets the amount of the subsections.
+     *
+     * @return the amount of the subsections
+     */
+    public int getSubsectionCount() {
+        return subsections.size();
+    }
+
+    /**
+     * Gets the first object number of a subsection.
+     *
+     * @param subsection the index of the subsection
+     *
+     * @return the first object number
+     */
+    public int getSubsectionStart(int subsection) {
+        return subsections.get(subsection).start;
+    }
+
+    /**
+     * Gets the amount of the entries of a subsection.
+     *
+     * @param subsection the index of the subsection
+     *
+     * @return the amount of the entries
+     */
+    public int getSubsectionLength(int subsection) {
+        return subsections.get(subsection).count;
+    }
+
+    /**
+     * Tells, whether an object number is defined by the subsections before
+     * a subsection.
+     *
+     * @param ref        the object number
+     * @param subsection the index of the subsection or the amount of the
+     *                   subsections to check the whole section
+     *
+     * @return {@code true}, if an earlier subsection defines the object
+     */
+    boolean definesBefore(int ref, int subsection) {
+        final int found = findSubsectionOf(ref);
+        return found >= 0 && found < subsection;
+    }
+
+    /**
+     * Finds the first subsection, which defines an object number.
+     *
+     * @param ref the object number
+     *
+     * @return the index of the subsection or -1, if the section does not
+     *         define the object
+     */
+    int findSubsectionOf(int ref) {
+        for (int i = 0; i < subsections.size(); ++i) {
+            final Subsection s = subsections.get(i);
+            if (ref >= s.start && ref - s.start < s.count) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the subsection of an entry.
+     *
+     * @param index the index of the entry in the section
+     *
+     * @return the index of the subsection
+     */
+    int findSubsection(int index) {
+        int low = 0;
+        int high = subsections.size() - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (subsections.get(middle).firstIndex <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the index of the first entry of a subsection in the section.
+     *
+     * @param subsection the index of the subsection
+     *
+     * @return the index of the first entry
+     */
+    int getSubsectionFirstIndex(int subsection) {
+        return subsections.get(subsection).firstIndex;
+    }
+
+    /**
+     * Gets the position of an entry, in the file for a table or in the
+     * decoded data for a stream.
+     *
+     * @param subsection the index of the subsection
+     * @param k          the index of the entry in the subsection
+     *
+     * @return the position of the entry
+     */
+    long getEntryPosition(int subsection, int k) {
+        final Subsection s = subsections.get(subsection);
+        if (s.entries != null) {
+            return s.entries[k];
+        }
+        return s.first + (long) k * getEntryLength();
+    }
+
+    /**
+     * Tells, whether the entries of a table subsection are not exactly
+     * {@link #TABLE_ENTRY_LENGTH} bytes long.
+     *
+     * @param subsection the index of the subsection
+     *
+     * @return {@code true}, if the entries are not regular
+     */
+    boolean isIrregular(int subsection) {
+        return subsections.get(subsection).entries != null;
+    }
+
+    /**
+     * Gets the length of an entry in bytes.
+     *
+     * @return the length of an entry
+     */
+    int getEntryLength() {
+        if (!stream) {
+            return TABLE_ENTRY_LENGTH;
+        }
+        return widths == null ? 0 : widths[0] + widths[1] + widths[2];
+    }
+
+    int[] getWidths() {
+        return widths;
+    }
+
+    /**
+     * Gets the decoded data of a stream, decoding it again, if it was
+     * collected in the meantime.
+     *
+     * @param content the content of the file
+     *
+     * @return the decoded data
+     *
+     * @throws IOException if the data could not be read
+     */
+    synchronized byte[] getData(PdfFileContent content) throws IOException {
+        byte[] decoded = data.get();
+        if (decoded == null) {
+            final byte[] raw = new byte[dataLength];
+            content.readFully(dataOffset, raw, 0, raw.length);
+            decoded = PdfReader.decodeBytes(raw, trailer);
+            data = new SoftReference<>(decoded);
+        }
+        return decoded;
+    }
+
+    void setTrailer(PdfDictionary trailer) {
+        this.trailer = trailer;
+    }
+
+    void setSupplement(boolean supplement) {
+        this.supplement = supplement;
+    }
+
+    void setTrailerOffset(long trailerOffset) {
+        this.trailerOffset = trailerOffset;
+    }
+
+    void setEnd(long end) {
+        this.end = end;
+    }
+
+    void setWidths(int[] widths) {
+        this.widths = widths;
+    }
+
+    void setStreamData(long dataOffset, int dataLength, byte[] decoded) {
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+        this.data = new SoftReference<>(decoded);
+    }
+
+    /**
+     * Adds a subsection.
+     *
+     * @param start the first object number
+     * @param count the amount of the entries
+     * @param first the position of the first entry in the decoded data for
+     *              a stream, the positions of the table entries are set with
+     *              {@link #setEntryPosition(int, long)}
+     */
+    void addSubsection(int start, int count, long first) {
+        // A broken count must not overflow the amount of the rows
+        final int length = Math.max(0, Math.min(count, Integer.MAX_VALUE - entryCount));
+        subsections.add(new Subsection(start, length, first, entryCount));
+        entryCount += length;
+    }
+
+    /**
+     * Records the position of an entry of the last table subsection. The
+     * positions are only kept, if the entries are not regular.
+     *
+     * @param k        the index of the entry in the subsection
+     * @param position the position of the entry in the file
+     */
+    void setEntryPosition(int k, long position) {
+        final Subsection s = subsections.get(subsections.size() - 1);
+        if (k == 0) {
+            s.first = position;
+            return;
+        }
+        if (s.entries == null) {
+            if (position == s.first + (long) k * TABLE_ENTRY_LENGTH) {
+                return;
+            }
+            s.entries = new long[s.count];
+            for (int i = 0; i < k; ++i) {
+                s.entries[i] = s.first + (long) i * TABLE_ENTRY_LENGTH;
+            }
+        }
+        s.entries[k] = position;
+    }
+
+    private static final class Subsection {
+        final int start;
+        final int count;
+        final int firstIndex;
+        long first;
+        /**
+         * Positions of the entries of an irregular table subsection.
+         */
+        long[] entries;
+
+        Subsection(int start, int count, long first, int firstIndex) {
+            this.start = start;
+            this.count = count;
+            this.first = first;
+            this.firstIndex = firstIndex;
+        }
+    }
+}
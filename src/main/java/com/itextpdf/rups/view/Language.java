@@ -57,8 +57,25 @@ import java.util.ResourceBundle;
 public enum Language {
     ARRAY,
     ARRAY_CHOOSE_INDEX,
+    ASN1_DECODING,
 
     BOOKMARKS,
+    BYTE_RANGES,
+    BYTE_RANGES_DESCRIPTION,
+    BYTE_RANGES_GO,
+    BYTE_RANGES_HEADER,
+    BYTE_RANGES_INVALID_OFFSET,
+    BYTE_RANGES_JUNK,
+    BYTE_RANGES_NONE,
+    BYTE_RANGES_OBJECT,
+    BYTE_RANGES_OFFSET,
+    BYTE_RANGES_OUTSIDE,
+    BYTE_RANGES_RANGE,
+    BYTE_RANGES_SUMMARY,
+    BYTE_RANGES_TRAILER,
+    BYTE_RANGES_UNREFERENCED,
+    BYTE_RANGES_WAITING,
+    BYTE_RANGES_XREF,
 
     CLEAR,
     COMPARE_EQUAL,
@@ -99,44 +116,64 @@ public enum Language {
     ERROR_COMPARE_DOCUMENT_CREATION,
     ERROR_COMPARED_DOCUMENT_CLOSED,
     ERROR_COMPARED_DOCUMENT_NULL,
+    ERROR_CONTENT_TOO_LARGE,
+    ERROR_DELETING_TEMP_FILE,
     ERROR_DRAG_AND_DROP,
     ERROR_DUPLICATE_KEY,
     ERROR_EMPTY_FIELD,
     ERROR_EDITING_UNSPECIFIED_DOCUMENT,
+    ERROR_EDIT_NOT_TRACKED,
     ERROR_FILE_COULD_NOT_BE_VIEWED,
     ERROR_ILLEGAL_CHUNK,
     ERROR_INCORRECT_ARRAY_BRACKETS,
     ERROR_INCORRECT_DICTIONARY_BRACKETS,
+    ERROR_INCREMENTAL_OBJECT_MISSING,
+    ERROR_INCREMENTAL_OBJECT_NUMBER,
+    ERROR_INCREMENTAL_OBJECT_TYPE,
     ERROR_INDEX_NOT_INTEGER,
     ERROR_INDEX_NOT_IN_RANGE,
+    ERROR_INDEX_OUT_OF_BOUNDS,
     ERROR_INITIALIZING_SETTINGS,
+    ERROR_INVALID_CONTENT_RANGE,
     ERROR_KEY_IS_NOT_NAME,
+    ERROR_LAZY_OPEN_FAILED,
     ERROR_LOADING_DEFAULT_SETTINGS,
     ERROR_LOADING_IMAGE,
     ERROR_LOADING_MAVEN_SETTINGS,
     ERROR_LOADING_XFA,
     ERROR_LOOK_AND_FEEL,
+    ERROR_MALFORMED_XREF,
     ERROR_MISSING_PASSWORD,
+    ERROR_NOT_OPENED_AS_OWNER,
     ERROR_NO_OPEN_DOCUMENT,
     ERROR_NO_OPEN_DOCUMENT_COMPARE,
     ERROR_ONLY_OPEN_ONE_FILE,
     ERROR_OPENING_FILE,
+    ERROR_PARALLEL_SCAN_FAILED,
     ERROR_PARENT_NULL,
     ERROR_PARSING_IMAGE,
     ERROR_PARSING_PDF_OBJECT,
     ERROR_PARSING_PDF_STREAM,
+    ERROR_PARSING_SETTING,
     ERROR_PARSING_XML,
     ERROR_PASSWORD,
     ERROR_PROCESSING_IMAGE,
     ERROR_QUERY_CONTENT_STREAM,
     ERROR_READING_OBJECT_NUMBER,
     ERROR_REFLECTION_PDF_STREAM,
+    ERROR_SCAN_CACHE_WRITE_FAILED,
     ERROR_SETTING_OPEN_FILE_HANDLER,
+    ERROR_SOURCE_CLOSED,
+    ERROR_STARTXREF_NOT_FOUND,
     ERROR_TOO_MANY_OUTPUT,
     ERROR_TRUNCATED_INPUT,
     ERROR_UNEXPECTED_EXCEPTION,
     ERROR_UNEXPECTED_SYNTAX,
+    ERROR_UNMAPPING_FILE,
     ERROR_WHILE_LOADING_TEXT,
+    ERROR_WRITER_CLOSED,
+    ERROR_WRITER_DATA_MOVED,
+    ERROR_WRITER_NOT_CLOSED,
     ERROR_WRITING_FILE,
     ERROR_WRONG_ENCODING,
     ERROR_WRONG_PASSWORD,
@@ -164,6 +201,10 @@ public enum Language {
 
     LOADING,
     LOCALE,
+    LOG_OBJECT_STREAMS_NOT_GROUPED,
+    LOG_OBJECT_STREAM_DECODED,
+    LOG_SCAN_CACHE_INVALIDATED,
+    LOG_SCAN_CACHE_LOADED,
     LOG_TREE_NODE_CREATED,
     LOOK_AND_FEEL,
 
@@ -180,6 +221,7 @@ public enum Language {
     MENU_BAR_OPEN_RECENT,
     MENU_BAR_REOPEN_AS_OWNER,
     MENU_BAR_SAVE_AS,
+    MENU_BAR_SAVE_INCREMENTALLY,
     MENU_BAR_VERSION,
     MESSAGE_ABOUT,
 
@@ -202,15 +244,39 @@ public enum Language {
     PLAINTEXT_DESCRIPTION,
     PREFERENCES,
     PREFERENCES_ALLOW_DUPLICATE_FILES,
+    PREFERENCES_LAZY_OPEN,
     PREFERENCES_NEED_RESTART,
     PREFERENCES_OPEN_FOLDER,
     PREFERENCES_RESET_TO_DEFAULTS,
     PREFERENCES_RESET_TO_DEFAULTS_CONFIRM,
     PREFERENCES_RUPS_SETTINGS,
+    PREFERENCES_SCAN_CACHE,
     PREFERENCES_SELECT_NEW_DEFAULT_FOLDER,
     PREFERENCES_VISUAL_SETTINGS,
+    PROGRESS_COUNT,
+    PROGRESS_PERCENT,
 
     RAW_BYTES,
+    REVISIONS,
+    REVISIONS_ADDED,
+    REVISIONS_BYTES,
+    REVISIONS_BYTES_RANGE,
+    REVISIONS_CHANGED,
+    REVISIONS_DATE,
+    REVISIONS_DESCRIPTION,
+    REVISIONS_FREED,
+    REVISIONS_LINEARIZED,
+    REVISIONS_MORE,
+    REVISIONS_OBJECTS,
+    REVISIONS_REVISION,
+    REVISIONS_SHOW,
+    REVISIONS_SHOWN,
+    REVISIONS_SHOW_LATEST,
+    REVISIONS_SUMMARY,
+    REVISIONS_XREF,
+    REVISIONS_XREF_HYBRID,
+    REVISIONS_XREF_STREAM,
+    REVISIONS_XREF_TABLE,
 
     SAVE,
     SAVE_IMAGE,
@@ -240,10 +306,35 @@ public enum Language {
     WARNING_OID_NAME_NOT_FOUND,
 
     XREF,
+    XREF_DECODED_LENGTH,
     XREF_DESCRIPTION,
+    XREF_ENTRIES,
+    XREF_ENTRIES_COMPRESSED,
+    XREF_ENTRIES_DESCRIPTION,
+    XREF_ENTRIES_DUPLICATE,
+    XREF_ENTRIES_FLAGS,
+    XREF_ENTRIES_FREE,
+    XREF_ENTRIES_FREE_LIST_BREAK,
+    XREF_ENTRIES_GAP_BEFORE,
+    XREF_ENTRIES_GENERATION,
+    XREF_ENTRIES_INCOMPLETE,
+    XREF_ENTRIES_IN_USE,
+    XREF_ENTRIES_LOCATION,
+    XREF_ENTRIES_MALFORMED,
+    XREF_ENTRIES_SECTION,
+    XREF_ENTRIES_SHADOWED,
+    XREF_ENTRIES_STREAM_SECTION,
+    XREF_ENTRIES_SUMMARY,
+    XREF_ENTRIES_TABLE_SECTION,
+    XREF_FILTER,
+    XREF_GENERATION,
+    XREF_LENGTH,
     XREF_NUMBER,
     XREF_OBJECT,
-    XREF_READING;
+    XREF_OBJECT_STREAM,
+    XREF_OFFSET,
+    XREF_READING,
+    XREF_TYPE;
 
     /**
      * The location of the resource bundles.
@@ -85,6 +85,8 @@ public final class PreferencesWindow {
 
     // Fields to reset
     private JCheckBox openDuplicateFiles;
+    private JCheckBox lazyOpen;
+    private JCheckBox scanCache;
     private JTextField pathField;
     private JLabel restartLabel;
     private JComboBox<String> localeBox;
@@ -167,6 +169,20 @@ public final class PreferencesWindow {
         JLabel openDuplicateFilesLabel = new JLabel(Language.PREFERENCES_ALLOW_DUPLICATE_FILES.getString());
         openDuplicateFilesLabel.setLabelFor(this.openDuplicateFiles);
 
+        this.lazyOpen = new JCheckBox("", RupsConfiguration.INSTANCE.isLazyOpen());
+        this.lazyOpen.addActionListener((ActionEvent e) ->
+            RupsConfiguration.INSTANCE.setLazyOpen(((JCheckBox) e.getSource()).isSelected())
+        );
+        JLabel lazyOpenLabel = new JLabel(Language.PREFERENCES_LAZY_OPEN.getString());
+        lazyOpenLabel.setLabelFor(this.lazyOpen);
+
+        this.scanCache = new JCheckBox("", RupsConfiguration.INSTANCE.isScanCacheEnabled());
+        this.scanCache.addActionListener((ActionEvent e) ->
+            RupsConfiguration.INSTANCE.setScanCacheEnabled(((JCheckBox) e.getSource()).isSelected())
+        );
+        JLabel scanCacheLabel = new JLabel(Language.PREFERENCES_SCAN_CACHE.getString());
+        scanCacheLabel.setLabelFor(this.scanCache);
+
         JPanel generalSettingsPanel = new JPanel();
         generalSettingsPanel.setLayout(this.gridBagLayout);
 
@@ -176,6 +192,12 @@ public final class PreferencesWindow {
         generalSettingsPanel.add(openDuplicateFilesLabel, this.left);
         generalSettingsPanel.add(this.openDuplicateFiles, this.right);
 
+        generalSettingsPanel.add(lazyOpenLabel, this.left);
+        generalSettingsPanel.add(this.lazyOpen, this.right);
+
+        generalSettingsPanel.add(scanCacheLabel, this.left);
+        generalSettingsPanel.add(this.scanCache, this.right);
+
         this.generalSettingsScrollPane = new JScrollPane(generalSettingsPanel);
     }
 
@@ -270,6 +292,8 @@ public final class PreferencesWindow {
     private void resetView() {
         this.pathField.setText(RupsConfiguration.INSTANCE.getHomeFolder().getPath());
         this.openDuplicateFiles.setSelected(RupsConfiguration.INSTANCE.canOpenDuplicateFiles());
+        this.lazyOpen.setSelected(RupsConfiguration.INSTANCE.isLazyOpen());
+        this.scanCache.setSelected(RupsConfiguration.INSTANCE.isScanCacheEnabled());
         this.lookAndFeelBox.setSelectedItem(RupsConfiguration.INSTANCE.getLookAndFeel());
         this.localeBox.setSelectedItem(RupsConfiguration.INSTANCE.getUserLocale().toLanguageTag());
         this.restartLabel.setText(" ");
@@ -73,6 +73,7 @@ public final class RupsMenuBar extends JMenuBar implements IRupsEventListener {
     private final JMenuItem reopenAsOwnerMenuItem;
     private final JMenuItem closeMenuItem;
     private final JMenuItem saveAsMenuItem;
+    private final JMenuItem saveIncrementallyMenuItem;
     private final JMenuItem openInPdfViewerMenuItem;
 
     /**
@@ -108,6 +109,16 @@ public final class RupsMenuBar extends JMenuBar implements IRupsEventListener {
                 new PdfFileSaveAction(controller, controller.getMasterComponent()),
                 KeyStroke.getKeyStroke('S', InputEvent.CTRL_DOWN_MASK)
         );
+        saveIncrementallyMenuItem = addItem(
+                file,
+                Language.MENU_BAR_SAVE_INCREMENTALLY,
+                new PdfFileSaveAction(
+                        controller,
+                        controller.getMasterComponent(),
+                        IRupsController::saveCurrentFileIncrementally
+                ),
+                KeyStroke.getKeyStroke('S', InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK)
+        );
         file.addSeparator();
         openInPdfViewerMenuItem = addItem(
                 file,
@@ -170,6 +181,9 @@ public final class RupsMenuBar extends JMenuBar implements IRupsEventListener {
         // "Save As" should be enabled only if there is an "editable" file
         // currently selected
         saveAsMenuItem.setEnabled(currentFile != null && currentFile.isOpenedAsOwner());
+        // "Save Incrementally" appends the edits to the original file, which
+        // also requires an "editable" file
+        saveIncrementallyMenuItem.setEnabled(currentFile != null && currentFile.isOpenedAsOwner());
         // "Open In PDF Viewer" should be enabled for any opened file
         openInPdfViewerMenuItem.setEnabled(currentFile != null);
     }
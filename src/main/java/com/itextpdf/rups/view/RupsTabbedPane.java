@@ -107,9 +107,11 @@ public class RupsTabbedPane {
     public boolean closeCurrentFile() {
         final Component comp = this.jTabbedPane.getSelectedComponent();
         if (comp instanceof RupsPanel) {
+            final IPdfFile file = ((RupsPanel) comp).getPdfFile();
             this.jTabbedPane.removeTabAt(this.jTabbedPane.getSelectedIndex());
             ensureDefaultTab();
-            fireTabClosed(((RupsPanel) comp).getPdfFile());
+            fireTabClosed(file);
+            releaseFile(file);
         }
         return isDefaultTabShown();
     }
@@ -121,6 +123,7 @@ public class RupsTabbedPane {
                 this.jTabbedPane.removeTabAt(i);
                 ensureDefaultTab();
                 fireTabClosed(file);
+                releaseFile(file);
                 return;
             }
         }
@@ -147,6 +150,11 @@ public class RupsTabbedPane {
         currentRupsPanel.getRupsInstanceController().saveFile(file);
     }
 
+    public void saveCurrentFileIncrementally(File file) {
+        final RupsPanel currentRupsPanel = (RupsPanel) this.jTabbedPane.getSelectedComponent();
+        currentRupsPanel.getRupsInstanceController().saveFileIncrementally(file);
+    }
+
     public Component getJTabbedPane() {
         return this.jTabbedPane;
     }
@@ -203,6 +211,7 @@ public class RupsTabbedPane {
         ensureDefaultTab();
         if (file != null) {
             fireTabClosed(file);
+            releaseFile(file);
         }
     }
 
@@ -214,6 +223,19 @@ public class RupsTabbedPane {
         }
     }
 
+    /**
+     * Closes the document of a closed tab. Content of opened files can be
+     * memory-mapped, so it should be released as soon as the tab is gone,
+     * instead of waiting for the garbage collector.
+     *
+     * @param file file to release
+     */
+    private static void releaseFile(IPdfFile file) {
+        if (file != null) {
+            file.close();
+        }
+    }
+
     private void fireTabClosed(IPdfFile file) {
         for (final ITabClosedListener listener: tabClosedListeners) {
             listener.onTabClosed(file, isDefaultTabShown());
@@ -77,6 +77,9 @@ public class PdfTreeContextMenuMouseListener extends ContextMenuMouseListener {
             return false;
         }
 
+        if (!(paths[0].getLastPathComponent() instanceof PdfObjectTreeNode)) {
+            return false;
+        }
         PdfObjectTreeNode lastPath = ((PdfObjectTreeNode) paths[0].getLastPathComponent());
 
         if (!lastPath.isStream()) {
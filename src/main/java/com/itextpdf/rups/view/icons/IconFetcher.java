@@ -47,7 +47,8 @@ import com.itextpdf.rups.view.Language;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class that fetches the icons in com.itextpdf.rups.view.icons.
@@ -55,9 +56,9 @@ import java.util.HashMap;
 public final class IconFetcher {
 
     /**
-     * Cache with icons.
+     * Cache with icons. Tree nodes are also created by background threads.
      */
-    private static final HashMap<String, Icon> cache = new HashMap<>();
+    private static final Map<String, Icon> cache = new ConcurrentHashMap<>();
 
     private IconFetcher() {
         // static class
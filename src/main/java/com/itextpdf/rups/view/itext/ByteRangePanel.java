@@ -0,0 +1,376 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.view.itext;
+
+import com.itextpdf.rups.controller.PdfReaderController;
+import com.itextpdf.rups.model.ByteRangeIndex;
+import com.itextpdf.rups.model.IRupsEventListener;
+import com.itextpdf.rups.model.IndirectObjectFactory;
+import com.itextpdf.rups.model.LoggerHelper;
+import com.itextpdf.rups.model.ObjectLoader;
+import com.itextpdf.rups.model.PdfFileContent;
+import com.itextpdf.rups.model.XRefLayout;
+import com.itextpdf.rups.view.Language;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingWorker;
+
+/**
+ * A panel, which shows the byte ranges of a PDF file in a coverage bar and
+ * finds the object, which owns a byte offset.
+ *
+ * <p>
+ * The bar shows the whole file, the ranges, which are not the referenced
+ * objects or the cross-reference sections, stand out: old versions of
+ * updated objects and junk bytes. Clicking the bar or entering an offset
+ * selects the owning object in the PdfTree. The index of the ranges is
+ * built in the background from the offsets, which the object scan recorded,
+ * so it waits for the scan to finish. If the scan was stopped or failed
+ * halfway, the offsets are taken from the cross-reference index instead.
+ * </p>
+ */
+public final class ByteRangePanel extends JPanel implements IRupsEventListener {
+    /**
+     * Colors of the kinds of the ranges, from the least to the most
+     * important one, which wins, if several kinds share a pixel.
+     */
+    private static final Color[] KIND_COLORS = {
+            new Color(0x4CAF50),
+            new Color(0xB0BEC5),
+            new Color(0x1E88E5),
+            new Color(0x00ACC1),
+            new Color(0xFB8C00),
+            new Color(0xE53935),
+    };
+    private static final Color EMPTY_COLOR = Color.WHITE;
+    private static final Color MARKER_COLOR = Color.BLACK;
+    private static final int BAR_HEIGHT = 24;
+
+    private final PdfReaderController controller;
+    private final JTextField offsetField = new JTextField();
+    private final JLabel status = new JLabel(" ");
+    private final JLabel summary = new JLabel(" ");
+    private final CoverageBar bar = new CoverageBar();
+    private ObjectLoader loader;
+    private ByteRangeIndex index;
+    private byte[] bucketKinds;
+    private SwingWorker<ByteRangeIndex, Object> worker;
+    /**
+     * Whether the index should be built, once the scan is finished.
+     */
+    private boolean pending = false;
+    /**
+     * The offset, which was looked up last, or -1.
+     */
+    private long marker = -1;
+
+    /**
+     * Creates the panel.
+     *
+     * @param controller the pdf reader controller
+     */
+    public ByteRangePanel(PdfReaderController controller) {
+        super(new BorderLayout());
+        this.controller = controller;
+        final JButton goButton = new JButton(Language.BYTE_RANGES_GO.getString());
+        goButton.addActionListener(e -> goToOffset(offsetField.getText()));
+        offsetField.addActionListener(e -> goToOffset(offsetField.getText()));
+        final JPanel lookup = new JPanel(new BorderLayout());
+        lookup.add(new JLabel(Language.BYTE_RANGES_OFFSET.getString()), BorderLayout.WEST);
+        lookup.add(offsetField, BorderLayout.CENTER);
+        lookup.add(goButton, BorderLayout.EAST);
+        final JPanel north = new JPanel(new BorderLayout());
+        north.add(lookup, BorderLayout.NORTH);
+        north.add(status, BorderLayout.CENTER);
+        north.add(bar, BorderLayout.SOUTH);
+        add(north, BorderLayout.NORTH);
+        add(summary, BorderLayout.CENTER);
+    }
+
+    /**
+     * Builds the index of the byte ranges in the background, unless it is
+     * already built. If the scan is not finished yet, the index is built,
+     * once it is.
+     */
+    public void openRanges() {
+        if (loader == null || index != null || worker != null) {
+            return;
+        }
+        if (!loader.isDone()) {
+            pending = true;
+            summary.setText(Language.BYTE_RANGES_WAITING.getString());
+            return;
+        }
+        pending = false;
+        summary.setText(Language.LOADING.getString());
+        final PdfFileContent content = loader.getFile().getContent();
+        final IndirectObjectFactory objects = loader.getObjects();
+        final boolean complete = loader.isComplete();
+        worker = new SwingWorker<>() {
+            @Override
+            protected ByteRangeIndex doInBackground() throws IOException {
+                final XRefLayout layout = XRefLayout.read(content);
+                if (!complete) {
+                    // The metrics lack the objects, which were not scanned
+                    return ByteRangeIndex.build(content, layout);
+                }
+                return ByteRangeIndex.build(content, objects.getMetrics(), objects.getXRefMaximum(), layout);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                worker = null;
+                try {
+                    showIndex(get());
+                } catch (InterruptedException any) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException any) {
+                    LoggerHelper.error(Language.ERROR_UNEXPECTED_EXCEPTION.getString(), any, getClass());
+                    summary.setText(Language.ERROR_UNEXPECTED_EXCEPTION.getString());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * Finds the range, which contains an offset, and selects its object in
+     * the PdfTree.
+     *
+     * @param text the offset, either decimal, optionally with digit group
+     *             separators, or hexadecimal with the {@code 0x} prefix
+     */
+    public void goToOffset(String text) {
+        final long offset = parseOffset(text);
+        if (offset < 0) {
+            status.setText(String.format(Language.BYTE_RANGES_INVALID_OFFSET.getString(), text));
+            return;
+        }
+        goToOffset(offset);
+    }
+
+    private void goToOffset(long offset) {
+        if (index == null) {
+            openRanges();
+            return;
+        }
+        if (offset >= index.getLength()) {
+            status.setText(String.format(Language.BYTE_RANGES_OUTSIDE.getString(), offset, index.getLength()));
+            return;
+        }
+        marker = offset;
+        bar.repaint();
+        final int i = index.find(offset);
+        if (i < 0) {
+            status.setText(String.format(Language.BYTE_RANGES_NONE.getString(), offset));
+            return;
+        }
+        status.setText(String.format(Language.BYTE_RANGES_RANGE.getString(), offset, getDescription(i),
+                index.getStart(i), index.getEnd(i)));
+        if (index.getKind(i) == ByteRangeIndex.OBJECT) {
+            controller.selectNode(index.getObjectNumber(i));
+        }
+    }
+
+    private void showIndex(ByteRangeIndex newIndex) {
+        index = newIndex;
+        bucketKinds = index.getBucketKinds();
+        String text = String.format(Language.BYTE_RANGES_SUMMARY.getString(), index.size(),
+                index.getTotalLength(ByteRangeIndex.UNREFERENCED), index.getTotalLength(ByteRangeIndex.JUNK));
+        if (index.getError() != null) {
+            text += " " + String.format(Language.XREF_ENTRIES_INCOMPLETE.getString(), index.getError());
+        }
+        summary.setText(text);
+        bar.repaint();
+    }
+
+    @Override
+    public void handleCloseDocument() {
+        reset(null);
+    }
+
+    @Override
+    public void handleOpenDocument(ObjectLoader newLoader) {
+        reset(newLoader);
+    }
+
+    @Override
+    public void handleObjectsLoaded(ObjectLoader newLoader) {
+        if (pending && newLoader == loader && loader.isDone()) {
+            openRanges();
+        }
+    }
+
+    private void reset(ObjectLoader newLoader) {
+        if (worker != null) {
+            worker.cancel(true);
+            worker = null;
+        }
+        loader = newLoader;
+        index = null;
+        bucketKinds = null;
+        pending = false;
+        marker = -1;
+        status.setText(" ");
+        summary.setText(" ");
+        bar.repaint();
+    }
+
+    private String getDescription(int i) {
+        switch (index.getKind(i)) {
+            case ByteRangeIndex.HEADER:
+                return Language.BYTE_RANGES_HEADER.getString();
+            case ByteRangeIndex.OBJECT:
+                return String.format(Language.BYTE_RANGES_OBJECT.getString(), index.getObjectNumber(i));
+            case ByteRangeIndex.XREF:
+                return Language.BYTE_RANGES_XREF.getString();
+            case ByteRangeIndex.TRAILER:
+                return Language.BYTE_RANGES_TRAILER.getString();
+            case ByteRangeIndex.UNREFERENCED:
+                return Language.BYTE_RANGES_UNREFERENCED.getString();
+            default:
+                return Language.BYTE_RANGES_JUNK.getString();
+        }
+    }
+
+    private static long parseOffset(String text) {
+        final String trimmed = text.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (trimmed.startsWith("0x")) {
+                return Long.parseLong(trimmed.substring(2), 16);
+            }
+            // Downstream tools often print offsets with digit group separators
+            return Long.parseLong(trimmed.replaceAll("[\\s,._']", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The bar, which shows the kinds of the ranges over the whole file.
+     */
+    private final class CoverageBar extends JComponent {
+        CoverageBar() {
+            setPreferredSize(new Dimension(0, BAR_HEIGHT));
+            // Enables the tool tips
+            setToolTipText("");
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    final long offset = getOffset(e.getX());
+                    if (offset >= 0) {
+                        offsetField.setText(String.valueOf(offset));
+                        goToOffset(offset);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent event) {
+            final long offset = getOffset(event.getX());
+            if (offset < 0) {
+                return null;
+            }
+            final int i = index.find(offset);
+            return i < 0
+                    ? String.format(Language.BYTE_RANGES_NONE.getString(), offset)
+                    : String.format(Language.BYTE_RANGES_RANGE.getString(), offset, getDescription(i),
+                    index.getStart(i), index.getEnd(i));
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            final int width = getWidth();
+            final int height = getHeight();
+            g.setColor(EMPTY_COLOR);
+            g.fillRect(0, 0, width, height);
+            if (bucketKinds == null || width <= 0) {
+                return;
+            }
+            for (int x = 0; x < width; ++x) {
+                final int first = (int) ((long) x * bucketKinds.length / width);
+                final int last = Math.max(first, (int) ((long) (x + 1) * bucketKinds.length / width) - 1);
+                int mask = 0;
+                for (int b = first; b <= last; ++b) {
+                    mask |= bucketKinds[b];
+                }
+                if (mask != 0) {
+                    // The highest kind is the most important one
+                    g.setColor(KIND_COLORS[31 - Integer.numberOfLeadingZeros(mask)]);
+                    g.drawLine(x, 0, x, height - 1);
+                }
+            }
+            if (marker >= 0) {
+                final int x = (int) (marker * width / index.getLength());
+                g.setColor(MARKER_COLOR);
+                g.drawLine(x, 0, x, height - 1);
+            }
+        }
+
+        private long getOffset(int x) {
+            if (index == null || index.getLength() == 0 || getWidth() <= 0) {
+                return -1;
+            }
+            final long offset = (long) ((double) x * index.getLength() / getWidth());
+            return Math.max(0, Math.min(index.getLength() - 1, offset));
+        }
+    }
+}
@@ -42,6 +42,7 @@
  */
 package com.itextpdf.rups.view.itext;
 
+import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.rups.controller.PdfReaderController;
 import com.itextpdf.rups.model.LoggerHelper;
@@ -61,9 +62,7 @@ import javax.swing.JTree;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.tree.DefaultTreeModel;
-import javax.swing.tree.TreeNode;
 import java.io.IOException;
-import java.util.Enumeration;
 
 /**
  * A JTree visualizing information about the Interactive Form of the
@@ -117,9 +116,9 @@ public final class FormTree extends JTree implements TreeSelectionListener, IRup
         if (objectNode.isIndirectReference()) {
             loadFields(factory, formNode, (PdfObjectTreeNode) objectNode.getFirstChild());
         } else if (objectNode.isArray()) {
-            Enumeration<TreeNode> children = objectNode.children();
-            while (children.hasMoreElements()) {
-                loadFields(factory, formNode, (PdfObjectTreeNode) children.nextElement());
+            final int size = ((PdfArray) objectNode.getPdfObject()).size();
+            for (int i = 0; i < size; ++i) {
+                loadFields(factory, formNode, factory.getArrayChildNode(objectNode, i));
             }
         } else if (objectNode.isDictionary()) {
             FormTreeNode leaf = new FormTreeNode(objectNode);
@@ -168,12 +167,12 @@ public final class FormTree extends JTree implements TreeSelectionListener, IRup
         if (objectNode.isIndirectReference()) {
             loadXfa(factory, formNode, (PdfObjectTreeNode) objectNode.getFirstChild());
         } else if (objectNode.isArray()) {
-            Enumeration<TreeNode> children = objectNode.children();
+            final int size = ((PdfArray) objectNode.getPdfObject()).size();
             PdfObjectTreeNode key;
             PdfObjectTreeNode value;
-            while (children.hasMoreElements()) {
-                key = (PdfObjectTreeNode) children.nextElement();
-                value = (PdfObjectTreeNode) children.nextElement();
+            for (int i = 0; i + 1 < size; i += 2) {
+                key = factory.getArrayChildNode(objectNode, i);
+                value = factory.getArrayChildNode(objectNode, i + 1);
                 if (value.isIndirectReference()) {
                     factory.expandNode(value);
                     value = (PdfObjectTreeNode) value.getFirstChild();
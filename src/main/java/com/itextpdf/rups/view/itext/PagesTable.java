@@ -42,23 +42,22 @@
  */
 package com.itextpdf.rups.view.itext;
 
-import com.itextpdf.kernel.pdf.PdfDictionary;
-import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.rups.controller.PdfReaderController;
-import com.itextpdf.rups.model.ObjectLoader;
-import com.itextpdf.rups.model.TreeNodeFactory;
+import com.itextpdf.rups.model.IPdfFile;
 import com.itextpdf.rups.model.IRupsEventListener;
+import com.itextpdf.rups.model.LoggerHelper;
+import com.itextpdf.rups.model.ObjectLoader;
+import com.itextpdf.rups.model.PageIndex;
 import com.itextpdf.rups.view.Language;
 import com.itextpdf.rups.view.PageSelectionListener;
-import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
-import com.itextpdf.rups.view.itext.treenodes.PdfPageTreeNode;
-import com.itextpdf.rups.view.itext.treenodes.PdfTrailerTreeNode;
 import com.itextpdf.rups.view.models.JTableAutoModel;
 import com.itextpdf.rups.view.models.JTableAutoModelInterface;
 
-import java.util.ArrayList;
-import java.util.Enumeration;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JTable;
+import javax.swing.SwingWorker;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableModel;
@@ -66,15 +65,22 @@ import javax.swing.table.TableModel;
 /**
  * A JTable listing all the pages in a PDF file: the object number of each
  * page dictionary and the page numbers (with label information if present).
+ *
+ * <p>
+ * The pages are indexed in the background, when the document is opened. The
+ * table only keeps the {@link PageIndex}, the cells are created, when they
+ * are painted, so only the visible rows cost anything.
+ * </p>
  */
 public final class PagesTable extends JTable implements JTableAutoModelInterface, IRupsEventListener {
     private static final int OBJECT_COLUMN_INDEX = 0;
     private static final int PAGE_COLUMN_INDEX = 1;
 
     /**
-     * A list with page nodes.
+     * The index of the pages or {@code null}, if it is not built yet.
      */
-    private ArrayList<PdfPageTreeNode> list = new ArrayList<>();
+    private PageIndex index;
+    private SwingWorker<PageIndex, Object> worker;
 
     /**
      * Nodes in the FormTree correspond with nodes in the main PdfTree.
@@ -107,7 +113,7 @@ public final class PagesTable extends JTable implements JTableAutoModelInterface
      */
     @Override
     public int getRowCount() {
-        return list.size();
+        return index == null ? 0 : index.size();
     }
 
     /**
@@ -120,9 +126,9 @@ public final class PagesTable extends JTable implements JTableAutoModelInterface
         }
         switch (columnIndex) {
             case OBJECT_COLUMN_INDEX:
-                return String.format(Language.PAGES_TABLE_OBJECT.getString(), list.get(rowIndex).getNumber());
+                return String.format(Language.PAGES_TABLE_OBJECT.getString(), index.getObjectNumber(rowIndex));
             case PAGE_COLUMN_INDEX:
-                return list.get(rowIndex);
+                return getPageCaption(index, rowIndex);
             default:
                 return null;
         }
@@ -157,7 +163,7 @@ public final class PagesTable extends JTable implements JTableAutoModelInterface
         if (getRowCount() > 0) {
             int selectedRow = getSelectedRow();
             if (selectedRow >= 0) {
-                controller.selectNode(list.get(selectedRow));
+                controller.selectPage(index.getObjectNumber(selectedRow));
                 if (listener != null) {
                     listener.gotoPage(getSelectedRow() + 1);
                 }
@@ -167,33 +173,92 @@ public final class PagesTable extends JTable implements JTableAutoModelInterface
 
     @Override
     public void handleCloseDocument() {
-        list = new ArrayList<>();
+        cancelWorker();
+        index = null;
         fireTableDataChanged();
     }
 
     @Override
     public void handleOpenDocument(ObjectLoader loader) {
-        String[] pageLabels = loader.getFile().getPdfDocument().getPageLabels();
-        int i = 0;
-        TreeNodeFactory factory = loader.getNodes();
-        PdfTrailerTreeNode trailer = controller.getPdfTree().getRoot();
-        PdfObjectTreeNode catalog = factory.getChildNode(trailer, PdfName.Root);
-        final Enumeration<PdfPageTreeNode> p =
-                new PageEnumerator((PdfDictionary) catalog.getPdfObject(), factory);
-        PdfPageTreeNode child;
-        final StringBuilder stringBuilder = new StringBuilder();
-        while (p.hasMoreElements()) {
-            child = p.nextElement();
-            stringBuilder.setLength(0);
-            i++;
-            stringBuilder.append(String.format(Language.PAGE_NUMBER.getString(), i));
-            if (pageLabels != null) {
-                stringBuilder.append(" ( ").append(pageLabels[i - 1]).append(" )");
+        cancelWorker();
+        index = null;
+        fireTableDataChanged();
+        final IPdfFile file = loader.getFile();
+        worker = new SwingWorker<>() {
+            @Override
+            protected PageIndex doInBackground() throws IOException {
+                final PdfDocument reader = openPageReader(file);
+                if (reader == null) {
+                    return PageIndex.build(file.getPdfDocument(), file.getDocumentLock(), file.getContent());
+                }
+                try {
+                    // The object numbers are the same, so the index applies to the shared document as well
+                    return PageIndex.build(reader, null, file.getContent());
+                } finally {
+                    reader.close();
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                worker = null;
+                try {
+                    index = get();
+                    fireTableDataChanged();
+                    if (controller != null) {
+                        // The page nodes are shown with their page numbers in the PdfTree as well
+                        final PageIndex pages = index;
+                        controller.setPageCaptions(ref -> {
+                            final int row = pages.indexOf(ref);
+                            return row < 0 ? null : getPageCaption(pages, row);
+                        });
+                    }
+                } catch (InterruptedException any) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException any) {
+                    LoggerHelper.error(Language.ERROR_UNEXPECTED_EXCEPTION.getString(), any, getClass());
+                }
             }
-            child.setUserObject(stringBuilder.toString());
-            list.add(child);
+        };
+        worker.execute();
+    }
+
+    /**
+     * Opens a separate reader for indexing the pages, so that the document
+     * can be browsed meanwhile. A document opened as owner might have been
+     * changed, so its own page tree is indexed instead.
+     *
+     * @param file the opened file
+     *
+     * @return the reader or {@code null}, if the shared document should be
+     *         used
+     */
+    private static PdfDocument openPageReader(IPdfFile file) {
+        if (file.isOpenedAsOwner()) {
+            return null;
+        }
+        try {
+            return file.openReadOnlyDocument();
+        } catch (IOException e) {
+            LoggerHelper.debug(e.getMessage(), e, PagesTable.class);
+            return null;
+        }
+    }
+
+    private static String getPageCaption(PageIndex index, int rowIndex) {
+        final String pageNumber = String.format(Language.PAGE_NUMBER.getString(), rowIndex + 1);
+        final String label = index.getLabel(rowIndex);
+        return label == null ? pageNumber : pageNumber + " ( " + label + " )";
+    }
+
+    private void cancelWorker() {
+        if (worker != null) {
+            worker.cancel(true);
+            worker = null;
         }
-        fireTableDataChanged();
     }
 
     private void fireTableDataChanged() {
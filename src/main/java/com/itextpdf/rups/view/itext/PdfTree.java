@@ -44,15 +44,22 @@ package com.itextpdf.rups.view.itext;
 
 import com.itextpdf.rups.io.listeners.PdfTreeExpansionListener;
 import com.itextpdf.rups.io.listeners.PdfTreeNavigationListener;
+import com.itextpdf.rups.io.listeners.PdfTreeWillExpandListener;
 import com.itextpdf.rups.model.ObjectLoader;
 import com.itextpdf.rups.model.IRupsEventListener;
+import com.itextpdf.rups.model.TreeNodeFactory;
 import com.itextpdf.rups.view.Language;
 import com.itextpdf.rups.view.icons.IconTreeCellRenderer;
+import com.itextpdf.rups.view.itext.treenodes.PdfObjectRangeTreeNode;
+import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
+import com.itextpdf.rups.view.itext.treenodes.PdfPageTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.PdfTrailerTreeNode;
 
+import java.util.function.IntFunction;
 import javax.swing.JTree;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
 /**
@@ -65,6 +72,11 @@ public final class PdfTree extends JTree implements IRupsEventListener {
      */
     private PdfTrailerTreeNode root;
 
+    /**
+     * The factory, which creates the children of a node, when it is expanded.
+     */
+    private TreeNodeFactory nodes;
+
     /**
      * Constructs a PDF tree.
      */
@@ -74,6 +86,7 @@ public final class PdfTree extends JTree implements IRupsEventListener {
         addKeyListener(listener);
         addMouseListener(listener);
         setCellRenderer(new IconTreeCellRenderer());
+        addTreeWillExpandListener(new PdfTreeWillExpandListener());
         addTreeExpansionListener(new PdfTreeExpansionListener());
         reset();
     }
@@ -97,11 +110,118 @@ public final class PdfTree extends JTree implements IRupsEventListener {
     public void selectNode(DefaultMutableTreeNode node) {
         if (node != null) {
             final TreePath path = new TreePath(node.getPath());
+            notifyCollapsedAncestor(path);
             setSelectionPath(path);
             scrollPathToVisible(path);
         }
     }
 
+    /**
+     * Notifies the model about the topmost collapsed node on a path. The nodes
+     * below it may have been created after it was shown, e.g. when the path
+     * to a page was expanded.
+     *
+     * @param path the path to a node, which is selected
+     */
+    private void notifyCollapsedAncestor(TreePath path) {
+        final Object[] components = path.getPath();
+        if (components[0] != getModel().getRoot()) {
+            return;
+        }
+        TreePath ancestor = new TreePath(components[0]);
+        for (int i = 0; i + 1 < components.length; ++i) {
+            if (i > 0) {
+                ancestor = ancestor.pathByAddingChild(components[i]);
+            }
+            if (!isExpanded(ancestor)) {
+                ((DefaultTreeModel) getModel()).nodeStructureChanged((TreeNode) components[i]);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Selects the node of a page. The page tree is expanded one level at a
+     * time, so the nodes on the path to the page are created, if needed.
+     *
+     * @param ref the object number of the page
+     */
+    public void selectPage(int ref) {
+        if (nodes != null) {
+            selectNode(nodes.getPageNode(root, ref));
+        }
+    }
+
+    /**
+     * Captions the page nodes with their page numbers and labels. The shown
+     * page nodes are updated, the others get their caption, when they are
+     * shown.
+     *
+     * @param captions gets the caption of a page by its object number, which
+     *                 is {@code null} for objects, that are not a page of the
+     *                 document
+     */
+    public void setPageCaptions(IntFunction<String> captions) {
+        if (nodes == null) {
+            return;
+        }
+        nodes.setPageCaptions(captions);
+        for (int row = 0; row < getRowCount(); ++row) {
+            final Object node = getPathForRow(row).getLastPathComponent();
+            if (node instanceof PdfPageTreeNode) {
+                ((DefaultTreeModel) getModel()).nodeChanged((TreeNode) node);
+            }
+        }
+    }
+
+    /**
+     * Creates the children of a node, if this has not been done yet.
+     * Typically this method will be called right before the node is
+     * expanded.
+     *
+     * @param node the node that is about to be expanded
+     */
+    public void loadChildren(PdfObjectTreeNode node) {
+        if (nodes != null && node.isExpandable()) {
+            nodes.expandNode(node);
+            ((DefaultTreeModel) getModel()).nodeStructureChanged(node);
+        }
+    }
+
+    /**
+     * Creates the entry nodes of a range of a large array or dictionary, if
+     * this has not been done yet.
+     *
+     * @param range the range node that is about to be expanded
+     */
+    public void loadChildren(PdfObjectRangeTreeNode range) {
+        if (nodes != null && range.getChildCount() == 0) {
+            nodes.expandRange(range);
+            ((DefaultTreeModel) getModel()).nodeStructureChanged(range);
+        }
+    }
+
+    /**
+     * Shows the ASN.1 tree, which was decoded in the background, in place of
+     * the placeholder node. If the placeholder was selected, the decoded tree
+     * is selected instead.
+     *
+     * @param node the node, which got the decoded tree
+     */
+    private void asn1Decoded(PdfObjectTreeNode node) {
+        if (node.getRoot() != root) {
+            // The document was closed in the meantime
+            return;
+        }
+        final TreePath path = new TreePath(node.getPath());
+        final TreePath selection = getSelectionPath();
+        final boolean placeholderSelected = selection != null && path.equals(selection.getParentPath());
+        ((DefaultTreeModel) getModel()).nodeStructureChanged(node);
+        if (placeholderSelected && node.getChildCount() > 0) {
+            setSelectionPath(path.pathByAddingChild(node.getChildAt(0)));
+        }
+    }
+
     @Override
     public void handleCloseDocument() {
         reset();
@@ -111,12 +231,15 @@ public final class PdfTree extends JTree implements IRupsEventListener {
     public void handleOpenDocument(ObjectLoader loader) {
         root.setTrailer(loader.getFile().getPdfDocument().getTrailer());
         root.setUserObject(String.format(Language.PDF_OBJECT_TREE.getString(), loader.getLoaderName()));
-        loader.getNodes().expandNode(root);
+        nodes = loader.getNodes();
+        nodes.setAsn1Listener(this::asn1Decoded);
+        nodes.expandNode(root);
         setModel(new DefaultTreeModel(root));
     }
 
     private void reset() {
         root = new PdfTrailerTreeNode();
+        nodes = null;
         setModel(new DefaultTreeModel(root));
     }
 }
@@ -0,0 +1,110 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.view.itext;
+
+import com.itextpdf.rups.model.IProgressDialog;
+import com.itextpdf.rups.model.LoggerHelper;
+import com.itextpdf.rups.view.Language;
+
+import java.util.function.Consumer;
+
+/**
+ * Shows the progress of a background task in the placeholder text of a
+ * view, which is still loading, instead of a separate dialog.
+ */
+final class PlaceholderProgress implements IProgressDialog {
+    private static final int PERCENT = 100;
+
+    private final Consumer<String> display;
+    private String message = Language.LOADING.getString();
+    private int total = 0;
+    private int value = 0;
+
+    /**
+     * Creates a progress sink, which passes the placeholder text to a view.
+     *
+     * @param display consumer of the placeholder text
+     */
+    PlaceholderProgress(Consumer<String> display) {
+        this.display = display;
+    }
+
+    @Override
+    public void setMessage(String msg) {
+        message = msg;
+        update();
+    }
+
+    @Override
+    public void setValue(int value) {
+        this.value = value;
+        update();
+    }
+
+    @Override
+    public void setTotal(int n) {
+        total = n;
+        update();
+    }
+
+    @Override
+    public void showErrorDialog(Exception ex) {
+        LoggerHelper.error(ex.getLocalizedMessage(), ex, getClass());
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        // The placeholder is replaced by the view, when the task is done
+    }
+
+    private void update() {
+        if (total > 0) {
+            final long percent = (long) value * PERCENT / total;
+            display.accept(String.format(Language.PROGRESS_PERCENT.getString(), message, percent));
+        } else if (value > 0) {
+            display.accept(String.format(Language.PROGRESS_COUNT.getString(), message, value));
+        } else {
+            display.accept(message);
+        }
+    }
+}
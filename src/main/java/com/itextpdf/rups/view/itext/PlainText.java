@@ -44,14 +44,28 @@ package com.itextpdf.rups.view.itext;
 
 import com.itextpdf.rups.model.IPdfFile;
 import com.itextpdf.rups.model.ObjectLoader;
+import com.itextpdf.rups.model.ProgressReporter;
 import com.itextpdf.rups.model.IRupsEventListener;
 import com.itextpdf.rups.view.Language;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
 import javax.swing.SwingWorker;
 import java.util.concurrent.ExecutionException;
 
 public final class PlainText extends ReadOnlyTextArea implements IRupsEventListener {
+    /**
+     * Maximum amount of characters, which can be shown in the text area.
+     */
+    private static final int MAX_TEXT_LENGTH = Integer.MAX_VALUE - 8;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int PERCENT = 100;
 
     private boolean loaded = false;
 
@@ -69,14 +83,19 @@ public final class PlainText extends ReadOnlyTextArea implements IRupsEventListe
         }
         loaded = true;
         setText(Language.LOADING.getString());
+        final ProgressReporter reporter = new ProgressReporter(new PlaceholderProgress(this::setText));
+        reporter.setTotal(PERCENT);
         worker = new SwingWorker<>() {
             @Override
             protected String doInBackground() {
-                return getFileContentAsString(file);
+                reporter.start();
+                return getFileContentAsString(file, reporter);
             }
 
             @Override
             protected void done() {
+                // Stopping on the event dispatch thread, so the text is not overwritten by a late update
+                reporter.stop();
                 if (!isCancelled()) {
                     String text;
                     try {
@@ -94,12 +113,40 @@ public final class PlainText extends ReadOnlyTextArea implements IRupsEventListe
         worker.execute();
     }
 
-    private static String getFileContentAsString(IPdfFile file) {
+    /**
+     * Decodes the file content as text. The content is streamed from the
+     * file, so only the resulting string is held in memory. If the file is
+     * too large to fit into a single string, the text gets truncated.
+     */
+    private static String getFileContentAsString(IPdfFile file, ProgressReporter reporter) {
+        final Charset charset;
         try {
-            return new String(file.getOriginalContent(), "cp1252");
-        } catch (UnsupportedEncodingException e) {
+            charset = Charset.forName("cp1252");
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
             return Language.ERROR_WRONG_ENCODING.getString();
         }
+        final long length = file.getContent().length();
+        // The builder grows on demand, large files should not reserve their whole size up front
+        final StringBuilder text = new StringBuilder((int) Math.min(length, BUFFER_SIZE));
+        try (Reader reader = new InputStreamReader(file.getContent().openStream(), charset)) {
+            final char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return "";
+                }
+                if (text.length() > MAX_TEXT_LENGTH - read) {
+                    text.append(buffer, 0, MAX_TEXT_LENGTH - text.length());
+                    break;
+                }
+                text.append(buffer, 0, read);
+                // cp1252 is a single-byte encoding, so characters match bytes
+                reporter.setValue((int) (text.length() * (long) PERCENT / Math.max(1, length)));
+            }
+        } catch (IOException e) {
+            return Language.ERROR_WHILE_LOADING_TEXT.getString();
+        }
+        return text.toString();
     }
 
     @Override
@@ -0,0 +1,443 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.view.itext;
+
+import com.itextpdf.kernel.pdf.PdfDate;
+import com.itextpdf.rups.model.IPdfFile;
+import com.itextpdf.rups.model.IRupsEventListener;
+import com.itextpdf.rups.model.LoggerHelper;
+import com.itextpdf.rups.model.ObjectLoader;
+import com.itextpdf.rups.model.Revision;
+import com.itextpdf.rups.model.RevisionTimeline;
+import com.itextpdf.rups.view.Language;
+import com.itextpdf.rups.view.RevisionSelectionListener;
+import com.itextpdf.rups.view.models.JTableAutoModel;
+import com.itextpdf.rups.view.models.JTableAutoModelInterface;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.text.DateFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+
+/**
+ * A JTable that shows the revisions of an incrementally updated PDF file:
+ * their byte ranges, cross-reference sections and dates, and the amount of
+ * the objects, which every revision added, changed or freed.
+ *
+ * <p>
+ * The document can be shown as of any revision. The revisions are read from
+ * the whole file, so they are kept, while an earlier revision of the same
+ * file is shown.
+ * </p>
+ */
+public final class RevisionTable extends JTable implements JTableAutoModelInterface, IRupsEventListener {
+    private static final int REVISION_COLUMN_INDEX = 0;
+    private static final int BYTES_COLUMN_INDEX = 1;
+    private static final int XREF_COLUMN_INDEX = 2;
+    private static final int DATE_COLUMN_INDEX = 3;
+    private static final int ADDED_COLUMN_INDEX = 4;
+    private static final int CHANGED_COLUMN_INDEX = 5;
+    private static final int FREED_COLUMN_INDEX = 6;
+    private static final int COLUMN_COUNT = 7;
+
+    /**
+     * Maximal amount of object numbers, which are listed in the details of a
+     * revision per kind of change.
+     */
+    private static final int MAX_LISTED_OBJECTS = 1000;
+
+    private final RevisionSelectionListener listener;
+    /**
+     * The label, which summarizes the revisions.
+     */
+    private final JLabel summary = new JLabel();
+    /**
+     * The area, which lists the objects of the selected revision.
+     */
+    private final JTextArea details = new JTextArea();
+    private IPdfFile file;
+    private RevisionTimeline timeline;
+    /**
+     * The file and its modification time, which the revisions were read from.
+     */
+    private File timelineFile;
+    private long timelineModified;
+    /**
+     * The length of the content, which is shown at the moment.
+     */
+    private long shownLength = -1;
+    private SwingWorker<RevisionTimeline, Object> worker;
+
+    /**
+     * Creates a JTable visualizing the revisions of a file.
+     *
+     * @param listener the listener, which shows a revision, can be null
+     */
+    public RevisionTable(RevisionSelectionListener listener) {
+        super();
+        this.listener = listener;
+        setModel(new JTableAutoModel(this));
+        setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        details.setEditable(false);
+        details.setLineWrap(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    showSelectedRevision();
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the label, which summarizes the revisions of the file.
+     *
+     * @return the summary label
+     */
+    public JLabel getSummary() {
+        return summary;
+    }
+
+    /**
+     * Gets the text area, which lists the objects of the selected revision.
+     *
+     * @return the details text area
+     */
+    public JTextArea getDetails() {
+        return details;
+    }
+
+    /**
+     * Reads the revisions in the background, unless they are already read.
+     */
+    public void openTimeline() {
+        if (file == null || timeline != null || worker != null) {
+            return;
+        }
+        summary.setText(Language.LOADING.getString());
+        final IPdfFile source = file;
+        worker = new SwingWorker<>() {
+            @Override
+            protected RevisionTimeline doInBackground() {
+                return RevisionTimeline.read(source.getContent());
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                worker = null;
+                try {
+                    timelineFile = source.getOriginalFile();
+                    timelineModified = timelineFile.lastModified();
+                    showTimeline(get());
+                } catch (InterruptedException any) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException any) {
+                    LoggerHelper.error(Language.ERROR_UNEXPECTED_EXCEPTION.getString(), any, getClass());
+                    summary.setText(Language.ERROR_UNEXPECTED_EXCEPTION.getString());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * Shows the document as of the selected revision.
+     */
+    public void showSelectedRevision() {
+        final int row = getSelectedRow();
+        if (listener == null || timeline == null || row < 0) {
+            return;
+        }
+        final List<Revision> revisions = timeline.getRevisions();
+        if (row == revisions.size() - 1 && timeline.getTrailingLength() == 0) {
+            listener.showRevision(-1);
+        } else {
+            listener.showRevision(revisions.get(row).getEnd());
+        }
+    }
+
+    /**
+     * Shows the document as of the newest revision, i.e. the whole file.
+     */
+    public void showLatestRevision() {
+        if (listener != null && file != null) {
+            listener.showRevision(-1);
+        }
+    }
+
+    private void showTimeline(RevisionTimeline newTimeline) {
+        timeline = newTimeline;
+        updateSummary();
+        fireTableDataChanged();
+    }
+
+    private void updateSummary() {
+        if (timeline == null) {
+            summary.setText("");
+            return;
+        }
+        String text = String.format(Language.REVISIONS_SUMMARY.getString(), timeline.getRevisions().size(),
+                timeline.getTrailingLength());
+        if (timeline.getError() != null) {
+            text += " " + String.format(Language.XREF_ENTRIES_INCOMPLETE.getString(), timeline.getError());
+        }
+        summary.setText(text);
+    }
+
+    /**
+     * @see javax.swing.JTable#getColumnCount()
+     */
+    @Override
+    public int getColumnCount() {
+        return COLUMN_COUNT;
+    }
+
+    /**
+     * @see javax.swing.JTable#getRowCount()
+     */
+    @Override
+    public int getRowCount() {
+        if (timeline == null) {
+            return 0;
+        }
+        return timeline.getRevisions().size();
+    }
+
+    /**
+     * @see javax.swing.JTable#getValueAt(int, int)
+     */
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (timeline == null || rowIndex >= timeline.getRevisions().size()) {
+            return null;
+        }
+        final Revision revision = timeline.getRevisions().get(rowIndex);
+        switch (columnIndex) {
+            case REVISION_COLUMN_INDEX:
+                return rowIndex == getShownRow()
+                        ? String.format(Language.REVISIONS_SHOWN.getString(), revision.getNumber())
+                        : String.valueOf(revision.getNumber());
+            case BYTES_COLUMN_INDEX:
+                return String.format(Language.REVISIONS_BYTES_RANGE.getString(), revision.getStart(),
+                        revision.getEnd());
+            case XREF_COLUMN_INDEX:
+                return getXRefDescription(revision);
+            case DATE_COLUMN_INDEX:
+                return getDateDescription(revision.getDate());
+            case ADDED_COLUMN_INDEX:
+                return revision.getAddedCount();
+            case CHANGED_COLUMN_INDEX:
+                return revision.getChangedCount();
+            case FREED_COLUMN_INDEX:
+                return revision.getFreedCount();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @see javax.swing.JTable#getColumnName(int)
+     */
+    @Override
+    public String getColumnName(int columnIndex) {
+        switch (columnIndex) {
+            case REVISION_COLUMN_INDEX:
+                return Language.REVISIONS_REVISION.getString();
+            case BYTES_COLUMN_INDEX:
+                return Language.REVISIONS_BYTES.getString();
+            case XREF_COLUMN_INDEX:
+                return Language.REVISIONS_XREF.getString();
+            case DATE_COLUMN_INDEX:
+                return Language.REVISIONS_DATE.getString();
+            case ADDED_COLUMN_INDEX:
+                return Language.REVISIONS_ADDED.getString();
+            case CHANGED_COLUMN_INDEX:
+                return Language.REVISIONS_CHANGED.getString();
+            case FREED_COLUMN_INDEX:
+                return Language.REVISIONS_FREED.getString();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @see javax.swing.JTable#valueChanged(javax.swing.event.ListSelectionEvent)
+     */
+    @Override
+    public void valueChanged(ListSelectionEvent evt) {
+        if (evt != null) {
+            super.valueChanged(evt);
+        }
+        final int row = getSelectedRow();
+        if (timeline == null || row < 0 || row >= timeline.getRevisions().size()) {
+            details.setText("");
+            return;
+        }
+        final Revision revision = timeline.getRevisions().get(row);
+        final StringBuilder text = new StringBuilder();
+        appendObjects(text, Language.REVISIONS_ADDED, revision.getAdded());
+        text.append('\n');
+        appendObjects(text, Language.REVISIONS_CHANGED, revision.getChanged());
+        text.append('\n');
+        appendObjects(text, Language.REVISIONS_FREED, revision.getFreed());
+        details.setText(text.toString());
+        details.setCaretPosition(0);
+    }
+
+    @Override
+    public void handleCloseDocument() {
+        if (worker != null) {
+            worker.cancel(true);
+            worker = null;
+            summary.setText("");
+        }
+        // The revisions are kept, as an earlier revision of the file might be opened next
+        file = null;
+        shownLength = -1;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public void handleOpenDocument(ObjectLoader loader) {
+        file = loader.getFile();
+        shownLength = file.getContent().length();
+        if (timeline != null && !isSameFile(file.getOriginalFile())) {
+            timeline = null;
+            details.setText("");
+        }
+        updateSummary();
+        fireTableDataChanged();
+        final int shownRow = getShownRow();
+        if (shownRow >= 0) {
+            setRowSelectionInterval(shownRow, shownRow);
+        }
+    }
+
+    private boolean isSameFile(File newFile) {
+        return newFile != null && newFile.equals(timelineFile) && newFile.lastModified() == timelineModified
+                && shownLength <= timeline.getLength();
+    }
+
+    /**
+     * Finds the revision, which is shown at the moment.
+     */
+    private int getShownRow() {
+        if (timeline == null || shownLength < 0) {
+            return -1;
+        }
+        final List<Revision> revisions = timeline.getRevisions();
+        if (shownLength >= timeline.getLength()) {
+            return revisions.size() - 1;
+        }
+        for (int i = 0; i < revisions.size(); ++i) {
+            if (revisions.get(i).getEnd() == shownLength) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String getXRefDescription(Revision revision) {
+        final Language format;
+        if (revision.isHybrid()) {
+            format = Language.REVISIONS_XREF_HYBRID;
+        } else if (revision.isStream()) {
+            format = Language.REVISIONS_XREF_STREAM;
+        } else {
+            format = Language.REVISIONS_XREF_TABLE;
+        }
+        final String description = String.format(format.getString(), revision.getXRefOffset());
+        if (revision.isLinearized()) {
+            return description + Language.REVISIONS_LINEARIZED.getString();
+        }
+        return description;
+    }
+
+    private static String getDateDescription(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return DateFormat.getDateTimeInstance().format(PdfDate.decode(date).getTime());
+        } catch (RuntimeException e) {
+            // Not a valid PDF date, show it as it is
+            return date;
+        }
+    }
+
+    private static void appendObjects(StringBuilder text, Language kind, int[] refs) {
+        final StringBuilder list = new StringBuilder();
+        final int listed = Math.min(refs.length, MAX_LISTED_OBJECTS);
+        for (int i = 0; i < listed; ++i) {
+            if (i > 0) {
+                list.append(", ");
+            }
+            list.append(refs[i]);
+        }
+        if (listed < refs.length) {
+            list.append(String.format(Language.REVISIONS_MORE.getString(), refs.length - listed));
+        }
+        text.append(String.format(Language.REVISIONS_OBJECTS.getString(), kind.getString(), refs.length, list));
+    }
+
+    private void fireTableDataChanged() {
+        final TableModel model = getModel();
+        if (model instanceof AbstractTableModel) {
+            ((AbstractTableModel) model).fireTableDataChanged();
+        }
+    }
+}
@@ -42,13 +42,19 @@
  */
 package com.itextpdf.rups.view.itext;
 
+import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.rups.controller.PdfReaderController;
+import com.itextpdf.rups.model.IPdfFile;
+import com.itextpdf.rups.model.LoggerHelper;
 import com.itextpdf.rups.model.ObjectLoader;
+import com.itextpdf.rups.model.ProgressReporter;
 import com.itextpdf.rups.model.TreeNodeFactory;
 import com.itextpdf.rups.model.IRupsEventListener;
 import com.itextpdf.rups.view.Language;
@@ -59,7 +65,9 @@ import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.PdfTrailerTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.StructureTreeNode;
 
+import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 import javax.swing.JTree;
 import javax.swing.SwingWorker;
 import javax.swing.event.TreeSelectionEvent;
@@ -67,8 +75,6 @@ import javax.swing.event.TreeSelectionListener;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreeModel;
-import javax.swing.tree.TreeNode;
-import java.util.Enumeration;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
@@ -93,6 +99,11 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
 
     private transient SwingWorker<TreeModel, Integer> worker;
 
+    /**
+     * Counts the loaded structure elements, while the worker is running.
+     */
+    private transient volatile ProgressReporter progress;
+
     private final Map<PdfIndirectReference, Map<Integer, MarkedContentInfo>> mciByPage
             = new ConcurrentHashMap<>();
 
@@ -109,8 +120,14 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
             return;
         }
         loaded = true;
-        setModel(new DefaultTreeModel(new DefaultMutableTreeNode(Language.LOADING.getString())));
-        worker = new TreeUpdateWorker();
+        final DefaultMutableTreeNode placeholder = new DefaultMutableTreeNode(Language.LOADING.getString());
+        final DefaultTreeModel placeholderModel = new DefaultTreeModel(placeholder);
+        setModel(placeholderModel);
+        progress = new ProgressReporter(new PlaceholderProgress(text -> {
+            placeholder.setUserObject(text);
+            placeholderModel.nodeChanged(placeholder);
+        }));
+        worker = new TreeUpdateWorker(progress, loader.getFile());
         worker.execute();
     }
 
@@ -120,6 +137,21 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
      * @return the new tree model
      */
     TreeModel recalculateTreeModel() {
+        return recalculateTreeModel(null);
+    }
+
+    /**
+     * Recalculates the tree model backing the structure tree view. The
+     * content streams of the pages are parsed with the given reader, so that
+     * the shared document is only locked for the short steps of expanding
+     * the object nodes.
+     *
+     * @param contentReader a separate reader of the same file, or {@code null}
+     *                      to parse the content of the shared document
+     *
+     * @return the new tree model
+     */
+    TreeModel recalculateTreeModel(PdfDocument contentReader) {
         final TreeNodeFactory factory = loader.getNodes();
         final PdfTrailerTreeNode trailer = controller.getPdfTree().getRoot();
         final PdfObjectTreeNode catalog = factory.getChildNode(trailer, PdfName.Root);
@@ -130,23 +162,56 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
         }
         final StructureTreeNode root = new StructureTreeNode();
         final PdfObjectTreeNode kids = factory.getChildNode(structuretree, PdfName.K);
-        loadKids(factory, root, kids, null);
+        loadKids(factory, root, kids, null, contentReader);
         return new DefaultTreeModel(root);
     }
 
-    private Map<Integer, MarkedContentInfo> indexMarkedContentOnPage(PdfDictionary page) {
+    private Map<Integer, MarkedContentInfo> indexMarkedContentOnPage(PdfDictionary page, PdfDocument contentReader) {
         final PdfIndirectReference ref = page.getIndirectReference();
         Map<Integer, MarkedContentInfo> result = this.mciByPage.get(ref);
         if (result != null) {
             return result;
         }
         final MarkedContentInfoGatherer gatherer = new MarkedContentInfoGatherer();
-        gatherer.processPageContent(this.loader.getFile().getPdfDocument().getPage(page));
+        final PdfPage readerPage = getReaderPage(contentReader, ref);
+        if (readerPage != null) {
+            // The object numbers are the same, so the index applies to the shared document as well
+            gatherer.processPageContent(readerPage);
+        } else {
+            final IPdfFile file = this.loader.getFile();
+            final Lock lock = file.getDocumentLock();
+            lock.lock();
+            try {
+                gatherer.processPageContent(file.getPdfDocument().getPage(page));
+            } finally {
+                lock.unlock();
+            }
+        }
         result = gatherer.getMarkedContentIndex();
         this.mciByPage.put(ref, result);
         return result;
     }
 
+    /**
+     * Gets the page of a separate reader, which corresponds to a page of the
+     * shared document.
+     *
+     * @param contentReader the separate reader or {@code null}
+     * @param ref           the reference of the page in the shared document
+     *
+     * @return the page of the reader or {@code null}, if there is no such page
+     */
+    private static PdfPage getReaderPage(PdfDocument contentReader, PdfIndirectReference ref) {
+        if (contentReader == null || ref == null) {
+            return null;
+        }
+        final PdfObject page = contentReader.getPdfObject(ref.getObjNumber());
+        if (!(page instanceof PdfDictionary)) {
+            return null;
+        }
+        return contentReader.getPage((PdfDictionary) page);
+    }
+
     private static void ensureContentStreamsExpanded(PdfObjectTreeNode objNode, TreeNodeFactory factory) {
         final PdfObjectTreeNode pgNode = factory.getChildNode(objNode, PdfName.Pg);
         factory.expandNode(pgNode);
@@ -156,8 +221,8 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
             final PdfObjectTreeNode contentsNode = factory.getChildNode(pgNode, PdfName.Contents);
             factory.expandNode(contentsNode);
             if (contents.isArray()) {
-                for (int i = 0; i < contentsNode.getChildCount(); i++) {
-                    factory.expandNode((PdfObjectTreeNode) contentsNode.getChildAt(i));
+                for (int i = 0; i < ((PdfArray) contents).size(); i++) {
+                    factory.expandNode(factory.getArrayChildNode(contentsNode, i));
                 }
             }
 
@@ -172,14 +237,17 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
         if (mcidObj.isNumber() && mciIndex != null) {
             mci = mciIndex.get(((PdfNumber) mcidObj).intValue());
         }
-        if (mci == null) {
+        PdfObjectTreeNode streamNode = null;
+        if (mci != null) {
+            streamNode = factory.getNode(mci.getStreamRef().getObjNumber());
+        }
+        if (streamNode == null) {
             // can't make it work -> fall back to default node constructor
             return new StructureTreeNode(mcidNode, BULLET_GO_ICON);
         } else {
-            final PdfIndirectReference streamRef = mci.getStreamRef();
             // make the structure tree node jump to the relevant content stream
             return new StructureTreeNode(
-                    factory.getNode(streamRef.getObjNumber()), BULLET_GO_ICON,
+                    streamNode, BULLET_GO_ICON,
                     mci.getExtractedText(), mcidNode.getPdfObject()
             );
         }
@@ -187,27 +255,28 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
 
 
     private void loadKids(TreeNodeFactory factory, StructureTreeNode structureNode,
-            PdfObjectTreeNode objectNode, Map<Integer, MarkedContentInfo> mciIndex) {
+            PdfObjectTreeNode objectNode, Map<Integer, MarkedContentInfo> mciIndex, PdfDocument contentReader) {
         if (objectNode == null) {
             return;
         }
         factory.expandNode(objectNode);
         if (objectNode.isDictionary()) {
-            loadDictionaryKids(factory, structureNode, objectNode, mciIndex);
+            loadDictionaryKids(factory, structureNode, objectNode, mciIndex, contentReader);
         } else if (objectNode.isArray()) {
-            final Enumeration<TreeNode> children = objectNode.children();
-            while (children.hasMoreElements()) {
-                loadKids(factory, structureNode, (PdfObjectTreeNode) children.nextElement(), mciIndex);
+            final int size = ((PdfArray) objectNode.getPdfObject()).size();
+            for (int i = 0; i < size; ++i) {
+                loadKids(factory, structureNode, factory.getArrayChildNode(objectNode, i), mciIndex, contentReader);
             }
         } else if (objectNode.isIndirectReference()) {
-            loadKids(factory, structureNode, (PdfObjectTreeNode) objectNode.getFirstChild(), mciIndex);
+            loadKids(factory, structureNode, (PdfObjectTreeNode) objectNode.getFirstChild(), mciIndex,
+                    contentReader);
         } else {
             structureNode.add(attemptMcidNode(objectNode, factory, mciIndex));
         }
     }
 
     private void loadDictionaryKids(TreeNodeFactory factory, StructureTreeNode structureNode,
-            PdfObjectTreeNode objectNode, Map<Integer, MarkedContentInfo> mciIndex) {
+            PdfObjectTreeNode objectNode, Map<Integer, MarkedContentInfo> mciIndex, PdfDocument contentReader) {
         final PdfName dictType = objectNode.getPdfDictionaryType();
         if (PdfName.MCR.equals(dictType)) {
             final PdfObjectTreeNode mcidNode = factory.getChildNode(objectNode, PdfName.MCID);
@@ -223,18 +292,30 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
         }
         final PdfDictionary dict = (PdfDictionary) objectNode.getPdfObject();
         Map<Integer, MarkedContentInfo> newMciIndex = null;
-        final PdfDictionary page = dict.getAsDictionary(PdfName.Pg);
+        final PdfDictionary page;
+        // Resolving the reference might read from the document
+        final Lock lock = loader.getFile().getDocumentLock();
+        lock.lock();
+        try {
+            page = dict.getAsDictionary(PdfName.Pg);
+        } finally {
+            lock.unlock();
+        }
         if (page != null) {
             final boolean unseen = !mciByPage.containsKey(page.getIndirectReference());
-            newMciIndex = indexMarkedContentOnPage(page);
+            newMciIndex = indexMarkedContentOnPage(page, contentReader);
             if (unseen) {
                 ensureContentStreamsExpanded(objectNode, factory);
             }
         }
         final StructureTreeNode leaf = new StructureTreeNode(objectNode, CHART_ORG_ICON);
         structureNode.add(leaf);
+        final ProgressReporter reporter = progress;
+        if (reporter != null) {
+            reporter.increment();
+        }
         final PdfObjectTreeNode kids = factory.getChildNode(objectNode, PdfName.K);
-        loadKids(factory, leaf, kids, newMciIndex == null ? mciIndex : newMciIndex);
+        loadKids(factory, leaf, kids, newMciIndex == null ? mciIndex : newMciIndex, contentReader);
     }
 
     public void valueChanged(TreeSelectionEvent e) {
@@ -262,6 +343,7 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
             worker.cancel(true);
             worker = null;
         }
+        progress = null;
         loaded = false;
     }
 
@@ -277,17 +359,52 @@ public final class StructureTree extends JTree implements TreeSelectionListener,
     }
 
     private final class TreeUpdateWorker extends SwingWorker<TreeModel, Integer> {
-        TreeUpdateWorker() {
+        private final ProgressReporter reporter;
+
+        private final IPdfFile file;
 
+        TreeUpdateWorker(ProgressReporter reporter, IPdfFile file) {
+            this.reporter = reporter;
+            this.file = file;
         }
 
         @Override
         protected TreeModel doInBackground() {
-            return recalculateTreeModel();
+            reporter.start();
+            final PdfDocument contentReader = openContentReader();
+            try {
+                return recalculateTreeModel(contentReader);
+            } finally {
+                if (contentReader != null) {
+                    contentReader.close();
+                }
+            }
+        }
+
+        /**
+         * Opens a separate reader for parsing the content streams, so that
+         * the document can be browsed meanwhile. A document opened as owner
+         * might have been changed, so its own content is parsed instead.
+         *
+         * @return the reader or {@code null}, if the shared document should
+         *         be used
+         */
+        private PdfDocument openContentReader() {
+            if (file.isOpenedAsOwner()) {
+                return null;
+            }
+            try {
+                return file.openReadOnlyDocument();
+            } catch (IOException e) {
+                LoggerHelper.debug(e.getMessage(), e, StructureTree.class);
+                return null;
+            }
         }
 
         @Override
         protected void done() {
+            // Stopping on the event dispatch thread, so the new model is not touched by a late update
+            reporter.stop();
             try {
                 if (!isCancelled()) {
                     final TreeModel model = this.get();
@@ -44,12 +44,14 @@ package com.itextpdf.rups.view.itext;
 
 import com.itextpdf.kernel.exceptions.PdfException;
 import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.rups.controller.PdfReaderController;
 import com.itextpdf.rups.model.LoggerHelper;
 import com.itextpdf.rups.model.ObjectLoader;
+import com.itextpdf.rups.model.ObjectMetrics;
 import com.itextpdf.rups.model.IRupsEventListener;
 import com.itextpdf.rups.view.Language;
 import com.itextpdf.rups.view.contextmenu.ContextMenuMouseListener;
@@ -69,6 +71,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.swing.AbstractAction;
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
@@ -108,6 +112,17 @@ public final class SyntaxHighlightedStreamPane extends JScrollPane implements IR
 
     private boolean editable = false;
 
+    /**
+     * The lock, which guards the document of the rendered streams.
+     */
+    private Lock documentLock = new ReentrantLock();
+
+    /**
+     * The metrics of the objects of the document, which learn the decoded
+     * lengths of the rendered streams, or {@code null}.
+     */
+    private ObjectMetrics metrics;
+
     static {
         try {
             pdfStreamGetInputStreamMethod = PdfStream.class.getDeclaredMethod("getInputStream");
@@ -148,6 +163,16 @@ public final class SyntaxHighlightedStreamPane extends JScrollPane implements IR
      * @param target the node of which the content stream needs to be rendered
      */
     public void render(PdfObjectTreeNode target) {
+        // Decoding the stream reads from the document
+        documentLock.lock();
+        try {
+            renderStream(target);
+        } finally {
+            documentLock.unlock();
+        }
+    }
+
+    private void renderStream(PdfObjectTreeNode target) {
         manager.discardAllEdits();
         manager.setLimit(0);
         this.target = target;
@@ -242,6 +267,7 @@ public final class SyntaxHighlightedStreamPane extends JScrollPane implements IR
         }
         ((PdfStream) target.getPdfObject()).setData(baos.toByteArray());
         if (controller != null) {
+            controller.markStreamDataModified(target);
             controller.selectNode(target);
         }
         manager.setLimit(MAX_NUMBER_OF_EDITS);
@@ -254,6 +280,7 @@ public final class SyntaxHighlightedStreamPane extends JScrollPane implements IR
 
     @Override
     public void handleCloseDocument() {
+        metrics = null;
         clearPane();
         setEditable(false);
     }
@@ -261,6 +288,8 @@ public final class SyntaxHighlightedStreamPane extends JScrollPane implements IR
     @Override
     public void handleOpenDocument(ObjectLoader loader) {
         clearPane();
+        documentLock = loader.getFile().getDocumentLock();
+        metrics = loader.getObjects().getMetrics();
         setEditable(loader.getFile().isOpenedAsOwner());
     }
 
@@ -299,6 +328,7 @@ public final class SyntaxHighlightedStreamPane extends JScrollPane implements IR
         byte[] bb = null;
         try {
             bb = stream.getBytes();
+            recordDecodedLength(stream, bb.length);
             doc.processContentStream(bb);
         } catch (PdfException | com.itextpdf.io.exceptions.IOException e) {
             LoggerHelper.warn(Language.ERROR_PARSING_PDF_STREAM.getString(), e, getClass());
@@ -309,6 +339,13 @@ public final class SyntaxHighlightedStreamPane extends JScrollPane implements IR
         text.setCaretPosition(0); // set the caret at the start so the panel will show the first line
     }
 
+    private void recordDecodedLength(PdfStream stream, int length) {
+        final PdfIndirectReference ref = stream.getIndirectReference();
+        if (metrics != null && ref != null) {
+            metrics.setDecodedLength(ref.getObjNumber(), length);
+        }
+    }
+
     private static final class JSyntaxPane extends JTextPane {
 
         JSyntaxPane() {
@@ -0,0 +1,342 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.view.itext;
+
+import com.itextpdf.rups.controller.PdfReaderController;
+import com.itextpdf.rups.model.IPdfFile;
+import com.itextpdf.rups.model.IRupsEventListener;
+import com.itextpdf.rups.model.LoggerHelper;
+import com.itextpdf.rups.model.ObjectLoader;
+import com.itextpdf.rups.model.XRefEntry;
+import com.itextpdf.rups.model.XRefIndex;
+import com.itextpdf.rups.model.XRefLayout;
+import com.itextpdf.rups.model.XRefSection;
+import com.itextpdf.rups.view.Language;
+import com.itextpdf.rups.view.models.JTableAutoModel;
+import com.itextpdf.rups.view.models.JTableAutoModelInterface;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+
+/**
+ * A JTable that shows the raw entries of all the cross-reference sections of
+ * a PDF file, as they are stored in the file, including the ones, which are
+ * not effective.
+ *
+ * <p>
+ * The table is virtual: only the positions of the sections are read, when
+ * the table is opened, and the visible entries are read from the file, when
+ * they are painted. Duplicate definitions, entries shadowed by newer
+ * sections, breaks of the free list and gaps in the object numbers are
+ * flagged.
+ * </p>
+ */
+public final class XRefEntriesTable extends JTable implements JTableAutoModelInterface, IRupsEventListener {
+    private static final int SECTION_COLUMN_INDEX = 0;
+    private static final int NUMBER_COLUMN_INDEX = 1;
+    private static final int TYPE_COLUMN_INDEX = 2;
+    private static final int LOCATION_COLUMN_INDEX = 3;
+    private static final int GENERATION_COLUMN_INDEX = 4;
+    private static final int FLAGS_COLUMN_INDEX = 5;
+    private static final int COLUMN_COUNT = 6;
+
+    /**
+     * The renderer that will render an object when selected in the table.
+     */
+    private final PdfReaderController controller;
+    /**
+     * The label, which summarizes the sections.
+     */
+    private final JLabel summary = new JLabel();
+    private IPdfFile file;
+    private XRefLayout layout;
+    private SwingWorker<XRefLayout, Object> worker;
+    /**
+     * The entry, which was read last, as every cell of a row needs it.
+     */
+    private final XRefEntry entry = new XRefEntry();
+    private int entryRow = -1;
+    private boolean entryRead = false;
+
+    /**
+     * Creates a JTable visualizing the raw cross-reference entries.
+     *
+     * @param controller the pdf reader controller
+     */
+    public XRefEntriesTable(PdfReaderController controller) {
+        super();
+        this.controller = controller;
+        setModel(new JTableAutoModel(this));
+    }
+
+    /**
+     * Gets the label, which summarizes the sections of the file.
+     *
+     * @return the summary label
+     */
+    public JLabel getSummary() {
+        return summary;
+    }
+
+    /**
+     * Reads the cross-reference sections in the background, unless they are
+     * already read.
+     */
+    public void openEntries() {
+        if (file == null || layout != null || worker != null) {
+            return;
+        }
+        summary.setText(Language.LOADING.getString());
+        final IPdfFile source = file;
+        worker = new SwingWorker<>() {
+            @Override
+            protected XRefLayout doInBackground() {
+                return XRefLayout.read(source.getContent());
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    showLayout(get());
+                } catch (InterruptedException any) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException any) {
+                    LoggerHelper.error(Language.ERROR_UNEXPECTED_EXCEPTION.getString(), any, getClass());
+                    summary.setText(Language.ERROR_UNEXPECTED_EXCEPTION.getString());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void showLayout(XRefLayout newLayout) {
+        layout = newLayout;
+        entryRow = -1;
+        String text = String.format(Language.XREF_ENTRIES_SUMMARY.getString(), layout.getEntryCount(),
+                layout.getSectionCount(), layout.getUndefinedCount());
+        if (layout.getError() != null) {
+            text += " " + String.format(Language.XREF_ENTRIES_INCOMPLETE.getString(), layout.getError());
+        }
+        summary.setText(text);
+        fireTableDataChanged();
+    }
+
+    /**
+     * @see javax.swing.JTable#getColumnCount()
+     */
+    @Override
+    public int getColumnCount() {
+        return COLUMN_COUNT;
+    }
+
+    /**
+     * @see javax.swing.JTable#getRowCount()
+     */
+    @Override
+    public int getRowCount() {
+        if (layout == null) {
+            return 0;
+        }
+        return layout.getEntryCount();
+    }
+
+    /**
+     * @see javax.swing.JTable#getValueAt(int, int)
+     */
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (!readEntry(rowIndex)) {
+            return columnIndex == FLAGS_COLUMN_INDEX ? Language.XREF_ENTRIES_MALFORMED.getString() : null;
+        }
+        switch (columnIndex) {
+            case SECTION_COLUMN_INDEX:
+                return getSectionDescription(entry.getSection());
+            case NUMBER_COLUMN_INDEX:
+                return entry.getObjectNumber();
+            case TYPE_COLUMN_INDEX:
+                return entry.hasFlag(XRefEntry.MALFORMED) ? null : getTypeDescription(entry.getType());
+            case LOCATION_COLUMN_INDEX:
+                return entry.hasFlag(XRefEntry.MALFORMED) ? null : entry.getLocation();
+            case GENERATION_COLUMN_INDEX:
+                return entry.hasFlag(XRefEntry.MALFORMED) ? null : entry.getGeneration();
+            case FLAGS_COLUMN_INDEX:
+                return getFlagsDescription(entry);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @see javax.swing.JTable#getColumnName(int)
+     */
+    @Override
+    public String getColumnName(int columnIndex) {
+        switch (columnIndex) {
+            case SECTION_COLUMN_INDEX:
+                return Language.XREF_ENTRIES_SECTION.getString();
+            case NUMBER_COLUMN_INDEX:
+                return Language.XREF_NUMBER.getString();
+            case TYPE_COLUMN_INDEX:
+                return Language.XREF_TYPE.getString();
+            case LOCATION_COLUMN_INDEX:
+                return Language.XREF_ENTRIES_LOCATION.getString();
+            case GENERATION_COLUMN_INDEX:
+                return Language.XREF_ENTRIES_GENERATION.getString();
+            case FLAGS_COLUMN_INDEX:
+                return Language.XREF_ENTRIES_FLAGS.getString();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @see javax.swing.JTable#valueChanged(javax.swing.event.ListSelectionEvent)
+     */
+    @Override
+    public void valueChanged(ListSelectionEvent evt) {
+        if (evt != null) {
+            super.valueChanged(evt);
+        }
+        final int row = getSelectedRow();
+        if (controller == null || row < 0 || !readEntry(row)) {
+            return;
+        }
+        // Only the effective entries stand for the objects in the tree
+        final boolean effective = !entry.hasFlag(XRefEntry.MALFORMED | XRefEntry.DUPLICATE | XRefEntry.SHADOWED);
+        if (effective && (entry.getType() == XRefIndex.IN_USE || entry.getType() == XRefIndex.COMPRESSED)) {
+            controller.selectNode(entry.getObjectNumber());
+        }
+    }
+
+    @Override
+    public void handleCloseDocument() {
+        reset(null);
+    }
+
+    @Override
+    public void handleOpenDocument(ObjectLoader loader) {
+        reset(loader.getFile());
+    }
+
+    private void reset(IPdfFile newFile) {
+        if (worker != null) {
+            worker.cancel(true);
+            worker = null;
+        }
+        file = newFile;
+        layout = null;
+        entryRow = -1;
+        summary.setText("");
+        fireTableDataChanged();
+    }
+
+    private boolean readEntry(int row) {
+        if (row != entryRow) {
+            entryRow = row;
+            try {
+                layout.readEntry(row, entry);
+                entryRead = true;
+            } catch (IOException | RuntimeException e) {
+                LoggerHelper.debug(e.getMessage(), e, getClass());
+                entryRead = false;
+            }
+        }
+        return entryRead;
+    }
+
+    private String getSectionDescription(int section) {
+        final XRefSection xrefSection = layout.getSection(section);
+        final Language format = xrefSection.isStream()
+                ? Language.XREF_ENTRIES_STREAM_SECTION
+                : Language.XREF_ENTRIES_TABLE_SECTION;
+        return String.format(format.getString(), section + 1, xrefSection.getOffset());
+    }
+
+    private static String getTypeDescription(int type) {
+        switch (type) {
+            case XRefIndex.FREE:
+                return Language.XREF_ENTRIES_FREE.getString();
+            case XRefIndex.IN_USE:
+                return Language.XREF_ENTRIES_IN_USE.getString();
+            case XRefIndex.COMPRESSED:
+                return Language.XREF_ENTRIES_COMPRESSED.getString();
+            default:
+                return String.valueOf(type);
+        }
+    }
+
+    private static String getFlagsDescription(XRefEntry entry) {
+        final StringBuilder flags = new StringBuilder();
+        appendFlag(flags, entry, XRefEntry.MALFORMED, Language.XREF_ENTRIES_MALFORMED);
+        appendFlag(flags, entry, XRefEntry.DUPLICATE, Language.XREF_ENTRIES_DUPLICATE);
+        appendFlag(flags, entry, XRefEntry.SHADOWED, Language.XREF_ENTRIES_SHADOWED);
+        appendFlag(flags, entry, XRefEntry.FREE_LIST_BREAK, Language.XREF_ENTRIES_FREE_LIST_BREAK);
+        appendFlag(flags, entry, XRefEntry.GAP_BEFORE, Language.XREF_ENTRIES_GAP_BEFORE);
+        return flags.toString();
+    }
+
+    private static void appendFlag(StringBuilder flags, XRefEntry entry, int flag, Language description) {
+        if (entry.hasFlag(flag)) {
+            if (flags.length() > 0) {
+                flags.append(", ");
+            }
+            flags.append(description.getString());
+        }
+    }
+
+    private void fireTableDataChanged() {
+        final TableModel model = getModel();
+        if (model instanceof AbstractTableModel) {
+            ((AbstractTableModel) model).fireTableDataChanged();
+        }
+    }
+}
@@ -42,17 +42,22 @@
  */
 package com.itextpdf.rups.view.itext;
 
-import com.itextpdf.kernel.pdf.PdfNull;
+import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.rups.controller.PdfReaderController;
 import com.itextpdf.rups.model.IndirectObjectFactory;
 import com.itextpdf.rups.model.ObjectLoader;
 import com.itextpdf.rups.model.IRupsEventListener;
+import com.itextpdf.rups.model.ObjectMetrics;
 import com.itextpdf.rups.view.Language;
 import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
 import com.itextpdf.rups.view.models.JTableAutoModel;
 import com.itextpdf.rups.view.models.JTableAutoModelInterface;
 
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.Locale;
 import javax.swing.JTable;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.table.AbstractTableModel;
@@ -61,17 +66,85 @@ import javax.swing.table.TableModel;
 
 /**
  * A JTable that shows the indirect objects of a PDF xref table.
+ *
+ * <p>
+ * The columns are read from the {@link ObjectMetrics} of the document, which
+ * are collected while the objects are scanned, so the rows do not need the
+ * parsed objects. Only the visible rows are asked for their values. A click
+ * on a column header sorts the rows by the column, the order is reversed by
+ * the next click. Sorting and filtering are done on the object numbers by
+ * the metrics, not by a {@link javax.swing.RowSorter}, which would compare
+ * the boxed cell values of every row.
+ * </p>
  */
 public final class XRefTable extends JTable implements JTableAutoModelInterface, IRupsEventListener {
     private static final int NUMBER_COLUMN_INDEX = 0;
-    private static final int OBJECT_COLUMN_INDEX = 1;
+    private static final int GENERATION_COLUMN_INDEX = 1;
+    private static final int OFFSET_COLUMN_INDEX = 2;
+    private static final int OBJECT_STREAM_COLUMN_INDEX = 3;
+    private static final int OBJECT_COLUMN_INDEX = 4;
+    private static final int TYPE_COLUMN_INDEX = 5;
+    private static final int LENGTH_COLUMN_INDEX = 6;
+    private static final int DECODED_LENGTH_COLUMN_INDEX = 7;
+    private static final int COLUMN_COUNT = 8;
 
     private static final int NUMBER_COLUMN_PREFERRED_WIDTH = 5;
 
+    /**
+     * The metric, by which each column is sorted.
+     */
+    private static final ObjectMetrics.Column[] SORT_COLUMNS = {
+            ObjectMetrics.Column.NUMBER,
+            ObjectMetrics.Column.GENERATION,
+            ObjectMetrics.Column.OFFSET,
+            ObjectMetrics.Column.OBJECT_STREAM,
+            ObjectMetrics.Column.TYPE,
+            ObjectMetrics.Column.TYPE,
+            ObjectMetrics.Column.LENGTH,
+            ObjectMetrics.Column.DECODED_LENGTH,
+    };
+
     /**
      * The factory that can produce all the indirect objects.
      */
     private IndirectObjectFactory objects;
+    /**
+     * The metrics of the indirect objects.
+     */
+    private ObjectMetrics metrics;
+    /**
+     * Amount of rows, which the table was notified about. The factory might
+     * already contain more objects, while the document is loading.
+     */
+    private int rowCount = 0;
+    /**
+     * The object numbers of the rows, if the rows are sorted or filtered.
+     * Otherwise, it is {@code null} and the rows are in the order of the
+     * factory.
+     */
+    private int[] view;
+    /**
+     * Amount of the object numbers in the view.
+     */
+    private int viewCount = 0;
+    /**
+     * The metric, by which the rows are sorted, or {@code null}.
+     */
+    private ObjectMetrics.Column sortColumn;
+    /**
+     * Whether the rows are sorted in the ascending order.
+     */
+    private boolean ascending = true;
+    /**
+     * The lower case text, which the type of the shown objects contains, or
+     * {@code null}, if the rows are not filtered.
+     */
+    private String filterText;
+    /**
+     * Whether the selection is changed by the table itself, so the
+     * controller must not be notified.
+     */
+    private boolean updatingView = false;
     /**
      * The renderer that will render an object when selected in the table.
      */
@@ -86,6 +159,15 @@ public final class XRefTable extends JTable implements JTableAutoModelInterface,
         super();
         this.controller = controller;
         setModel(new JTableAutoModel(this));
+        getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                final int column = columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    sortByColumn(convertColumnIndexToModel(column));
+                }
+            }
+        });
     }
 
     /**
@@ -93,7 +175,7 @@ public final class XRefTable extends JTable implements JTableAutoModelInterface,
      */
     @Override
     public int getColumnCount() {
-        return 2;
+        return COLUMN_COUNT;
     }
 
     /**
@@ -104,7 +186,7 @@ public final class XRefTable extends JTable implements JTableAutoModelInterface,
         if (objects == null) {
             return 0;
         }
-        return objects.size();
+        return view == null ? rowCount : viewCount;
     }
 
     /**
@@ -112,11 +194,25 @@ public final class XRefTable extends JTable implements JTableAutoModelInterface,
      */
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
+        final int ref = getObjectReferenceByRow(rowIndex);
         switch (columnIndex) {
             case NUMBER_COLUMN_INDEX:
-                return getObjectReferenceByRow(rowIndex);
+                return ref;
+            case GENERATION_COLUMN_INDEX:
+                return toValue(metrics.getGeneration(ref));
+            case OFFSET_COLUMN_INDEX:
+                final long offset = metrics.getOffset(ref);
+                return offset == ObjectMetrics.UNKNOWN ? null : offset;
+            case OBJECT_STREAM_COLUMN_INDEX:
+                return toValue(metrics.getObjectStream(ref));
             case OBJECT_COLUMN_INDEX:
-                return getObjectDescriptionByRow(rowIndex);
+                return getObjectDescription(ref);
+            case TYPE_COLUMN_INDEX:
+                return getTypeDescription(metrics.getType(ref), metrics.getSubtype(ref));
+            case LENGTH_COLUMN_INDEX:
+                return toValue(metrics.getLength(ref));
+            case DECODED_LENGTH_COLUMN_INDEX:
+                return toValue(metrics.getDecodedLength(ref));
             default:
                 return null;
         }
@@ -130,21 +226,58 @@ public final class XRefTable extends JTable implements JTableAutoModelInterface,
      * @return a reference number
      */
     private int getObjectReferenceByRow(int rowIndex) {
+        if (view != null) {
+            return view[rowIndex];
+        }
         return objects.getRefByIndex(rowIndex);
     }
 
     /**
-     * Gets the object that is shown in a row.
+     * Gets the description of the object that is shown in a row. The
+     * description is made from the metrics, so painting a row never touches
+     * the object itself.
      *
-     * @param rowIndex the row number containing the object
-     * @return a PDF object
+     * @param ref the reference number of the object
+     * @return a description of the object
      */
-    private String getObjectDescriptionByRow(int rowIndex) {
-        final PdfObject object = objects.getObjectByIndex(rowIndex);
-        if (object instanceof PdfNull && !objects.isLoadedByIndex(rowIndex)) {
-            return Language.INDIRECT_OBJECT.getString();
+    private String getObjectDescription(int ref) {
+        return getKindDescription(metrics.getKind(ref), metrics.getType(ref));
+    }
+
+    /**
+     * Describes an object by its kind, the way
+     * {@link PdfObjectTreeNode#getCaption(PdfObject)} would.
+     *
+     * @param kind the kind of the object
+     * @param type the value of /Type or {@code null}
+     * @return a description of the object
+     */
+    private static String getKindDescription(byte kind, PdfName type) {
+        switch (kind) {
+            case PdfObject.ARRAY:
+                return Language.ARRAY.getString();
+            case PdfObject.DICTIONARY:
+                return type == null ? Language.DICTIONARY.getString()
+                        : String.format(Language.DICTIONARY_OF_TYPE.getString(), type);
+            case PdfObject.STREAM:
+                return type == null ? Language.STREAM.getString()
+                        : String.format(Language.STREAM_OF_TYPE.getString(), type);
+            case PdfObject.NULL:
+                return Language.NULL_AS_TEXT.getString();
+            default:
+                return Language.INDIRECT_OBJECT.getString();
         }
-        return PdfObjectTreeNode.getCaption(object);
+    }
+
+    private static String getTypeDescription(PdfName type, PdfName subtype) {
+        if (type == null) {
+            return subtype == null ? null : subtype.toString();
+        }
+        return subtype == null ? type.toString() : type + " " + subtype;
+    }
+
+    private static Integer toValue(int metric) {
+        return metric == ObjectMetrics.UNKNOWN ? null : metric;
     }
 
     /**
@@ -155,25 +288,84 @@ public final class XRefTable extends JTable implements JTableAutoModelInterface,
         switch (columnIndex) {
             case NUMBER_COLUMN_INDEX:
                 return Language.XREF_NUMBER.getString();
+            case GENERATION_COLUMN_INDEX:
+                return Language.XREF_GENERATION.getString();
+            case OFFSET_COLUMN_INDEX:
+                return Language.XREF_OFFSET.getString();
+            case OBJECT_STREAM_COLUMN_INDEX:
+                return Language.XREF_OBJECT_STREAM.getString();
             case OBJECT_COLUMN_INDEX:
                 return Language.XREF_OBJECT.getString();
+            case TYPE_COLUMN_INDEX:
+                return Language.XREF_TYPE.getString();
+            case LENGTH_COLUMN_INDEX:
+                return Language.XREF_LENGTH.getString();
+            case DECODED_LENGTH_COLUMN_INDEX:
+                return Language.XREF_DECODED_LENGTH.getString();
             default:
                 return null;
         }
     }
 
+    /**
+     * Sorts the rows by a column. If the rows are already sorted by the
+     * column, the order is reversed.
+     *
+     * @param columnIndex the index of the column in the model
+     */
+    public void sortByColumn(int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= COLUMN_COUNT) {
+            return;
+        }
+        final ObjectMetrics.Column column = SORT_COLUMNS[columnIndex];
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        updateView();
+    }
+
+    /**
+     * Shows only the objects, whose type contains a text. The type is the
+     * value of the "Type" column or the kind of the object, like "Stream".
+     *
+     * @param text the text, or {@code null} or an empty string to show all
+     *             the objects
+     */
+    public void setFilter(String text) {
+        final String trimmed = text == null ? "" : text.trim();
+        filterText = trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+        updateView();
+    }
+
     /**
      * Selects a row containing information about an indirect object.
      *
      * @param ref the reference number of the indirect object
      */
     public void selectRowByReference(int ref) {
-        final int row = objects.getIndexByRef(ref);
+        final int row = getRowByReference(ref);
+        if (row < 0) {
+            return;
+        }
         setRowSelectionInterval(row, row);
         scrollRectToVisible(getCellRect(row, OBJECT_COLUMN_INDEX, true));
         valueChanged(null);
     }
 
+    private int getRowByReference(int ref) {
+        if (objects == null) {
+            return -1;
+        }
+        if (view == null) {
+            return objects.getIndexByRef(ref);
+        }
+        for (int row = 0; row < viewCount; ++row) {
+            if (view[row] == ref) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
     /**
      * @see javax.swing.JTable#valueChanged(javax.swing.event.ListSelectionEvent)
      */
@@ -182,28 +374,140 @@ public final class XRefTable extends JTable implements JTableAutoModelInterface,
         if (evt != null) {
             super.valueChanged(evt);
         }
-        if (controller != null && objects != null) {
-            controller.selectNode(getObjectReferenceByRow(this.getSelectedRow()));
+        final int row = getSelectedRow();
+        if (controller != null && objects != null && !updatingView && row >= 0) {
+            controller.selectNode(getObjectReferenceByRow(row));
         }
     }
 
     @Override
     public void handleCloseDocument() {
         objects = null;
+        metrics = null;
+        rowCount = 0;
+        view = null;
+        viewCount = 0;
         fireTableDataChanged();
     }
 
     @Override
     public void handleOpenDocument(ObjectLoader loader) {
         objects = loader.getObjects();
+        metrics = objects.getMetrics();
+        rowCount = objects.size();
         final TableColumn col = getColumnModel().getColumn(NUMBER_COLUMN_INDEX);
         col.setPreferredWidth(NUMBER_COLUMN_PREFERRED_WIDTH);
-        fireTableDataChanged();
+        updateView();
+    }
+
+    @Override
+    public void handleObjectsLoaded(ObjectLoader loader) {
+        if (objects == null) {
+            return;
+        }
+        final int oldRowCount = rowCount;
+        rowCount = objects.size();
+        if (view != null) {
+            if (loader.isDone()) {
+                // The metrics of the earlier rows might have been completed as well
+                updateView();
+            } else {
+                appendToView(oldRowCount);
+            }
+        } else if (rowCount > oldRowCount) {
+            final TableModel model = getModel();
+            if (model instanceof AbstractTableModel) {
+                ((AbstractTableModel) model).fireTableRowsInserted(oldRowCount, rowCount - 1);
+            }
+        }
+        // The metrics of the shown rows might have been completed as well
+        repaint();
     }
 
     @Override
     public void handleNewIndirectObject(PdfObject object) {
-        fireTableDataChanged();
+        rowCount = objects.size();
+        updateView();
+    }
+
+    /**
+     * Recomputes the object numbers of the rows from the sort column and the
+     * filter, keeping the selected object selected.
+     */
+    private void updateView() {
+        if (objects == null) {
+            return;
+        }
+        final int selectedRow = getSelectedRow();
+        final int selectedRef = selectedRow < 0 ? -1 : getObjectReferenceByRow(selectedRow);
+        if (sortColumn == null && filterText == null) {
+            view = null;
+            viewCount = 0;
+        } else {
+            final int[] refs = new int[rowCount];
+            for (int i = 0; i < rowCount; ++i) {
+                refs[i] = objects.getRefByIndex(i);
+            }
+            int count = rowCount;
+            if (filterText != null) {
+                count = metrics.filter(refs, count, this::acceptType);
+            }
+            if (sortColumn != null) {
+                metrics.sort(refs, count, sortColumn, ascending);
+            }
+            view = refs;
+            viewCount = count;
+        }
+        updatingView = true;
+        try {
+            fireTableDataChanged();
+            final int row = selectedRef < 0 ? -1 : getRowByReference(selectedRef);
+            if (row >= 0) {
+                setRowSelectionInterval(row, row);
+            }
+        } finally {
+            updatingView = false;
+        }
+    }
+
+    /**
+     * Adds the rows of the objects, which were loaded, while the document is
+     * still loading. Only the new objects are filtered. They are appended
+     * after the sorted rows, the whole view is sorted once, when loading is
+     * done, rather than for every batch.
+     *
+     * @param from the index of the first new object
+     */
+    private void appendToView(int from) {
+        if (rowCount <= from) {
+            return;
+        }
+        final int[] refs = new int[rowCount - from];
+        for (int i = 0; i < refs.length; ++i) {
+            refs[i] = objects.getRefByIndex(from + i);
+        }
+        final int count = filterText == null ? refs.length : metrics.filter(refs, refs.length, this::acceptType);
+        if (count == 0) {
+            return;
+        }
+        if (viewCount + count > view.length) {
+            view = Arrays.copyOf(view, Math.max(viewCount + count, view.length + (view.length >> 1)));
+        }
+        System.arraycopy(refs, 0, view, viewCount, count);
+        final int firstRow = viewCount;
+        viewCount += count;
+        final TableModel model = getModel();
+        if (model instanceof AbstractTableModel) {
+            ((AbstractTableModel) model).fireTableRowsInserted(firstRow, viewCount - 1);
+        }
+    }
+
+    private boolean acceptType(byte kind, PdfName type, PdfName subtype) {
+        final String typeDescription = getTypeDescription(type, subtype);
+        if (typeDescription != null && typeDescription.toLowerCase(Locale.ROOT).contains(filterText)) {
+            return true;
+        }
+        return getKindDescription(kind, null).toLowerCase(Locale.ROOT).contains(filterText);
     }
 
     private void fireTableDataChanged() {
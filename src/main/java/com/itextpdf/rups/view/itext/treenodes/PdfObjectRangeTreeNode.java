@@ -0,0 +1,177 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.view.itext.treenodes;
+
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.rups.view.contextmenu.IPdfContextMenuTarget;
+import com.itextpdf.rups.view.icons.IconTreeNode;
+
+import java.util.List;
+
+/**
+ * A tree node, which groups a range of the entries of a large array or
+ * dictionary. The nodes of the entries are only created, when the range
+ * is expanded.
+ */
+public class PdfObjectRangeTreeNode extends IconTreeNode implements IPdfContextMenuTarget {
+
+    private static final String ARRAY_ICON = "array.png";
+    private static final String DICTIONARY_ICON = "dictionary.png";
+
+    /**
+     * The array or dictionary, which entries are grouped by the node.
+     */
+    private final PdfObject container;
+
+    /**
+     * The keys of the dictionary in the order of the entries, or
+     * {@code null} for an array.
+     */
+    private final List<PdfName> keys;
+
+    /**
+     * The index of the first entry in the range.
+     */
+    private final int from;
+
+    /**
+     * The index after the last entry in the range.
+     */
+    private final int to;
+
+    /**
+     * Creates a tree node for a range of array elements.
+     *
+     * @param array the array, which elements are grouped
+     * @param from  the index of the first element in the range
+     * @param to    the index after the last element in the range
+     */
+    public PdfObjectRangeTreeNode(PdfArray array, int from, int to) {
+        this(ARRAY_ICON, array, null, from, to);
+    }
+
+    /**
+     * Creates a tree node for a range of dictionary entries.
+     *
+     * @param dict the dictionary, which entries are grouped
+     * @param keys the keys of the dictionary in the order of the entries
+     * @param from the index of the first entry in the range
+     * @param to   the index after the last entry in the range
+     */
+    public PdfObjectRangeTreeNode(PdfDictionary dict, List<PdfName> keys, int from, int to) {
+        this(DICTIONARY_ICON, dict, keys, from, to);
+    }
+
+    private PdfObjectRangeTreeNode(String icon, PdfObject container, List<PdfName> keys, int from, int to) {
+        super(icon, "[" + from + ".." + (to - 1) + "]");
+        this.container = container;
+        this.keys = keys;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Getter for the array or dictionary, which entries are grouped.
+     *
+     * @return the array or dictionary
+     */
+    public PdfObject getPdfObject() {
+        return container;
+    }
+
+    /**
+     * Getter for the keys of the dictionary.
+     *
+     * @return the keys in the order of the entries, or {@code null} for an array
+     */
+    public List<PdfName> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Getter for the index of the first entry in the range.
+     *
+     * @return the index of the first entry
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Getter for the index after the last entry in the range.
+     *
+     * @return the index after the last entry
+     */
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * A range always contains entries, even before they are created.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isLeaf() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsInspectObject() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsSave() {
+        return false;
+    }
+}
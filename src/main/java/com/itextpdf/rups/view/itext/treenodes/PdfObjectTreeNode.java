@@ -54,24 +54,53 @@ import com.itextpdf.rups.view.icons.IconFetcher;
 import com.itextpdf.rups.view.icons.IconTreeNode;
 
 import java.util.Enumeration;
+import javax.swing.Icon;
 import javax.swing.tree.TreeNode;
 
 /**
  * Every node in our tree corresponds with a PDF object.
  * This class is the superclass of all tree nodes used.
+ *
+ * <p>
+ * A tree can have a lot of nodes, which are never shown, so the nodes are
+ * kept small: the caption is only created, when the node is painted for the
+ * first time, and the icon is derived from the type of the object instead of
+ * being stored in every node. The caption of a reference is the exception:
+ * it describes the referred object, which may have to be read from the
+ * document, so it is created together with the node.
+ * </p>
  */
 public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTarget {
 
-    private static final String ARRAY_ICON = "array.png";
-    private static final String BOOLEAN_ICON = "boolean.png";
-    private static final String DICTIONARY_ICON = "dictionary.png";
-    private static final String NAME_ICON = "name.png";
-    private static final String NULL_ICON = "null.png";
-    private static final String NUMBER_ICON = "number.png";
-    private static final String REF_ICON = "ref.png";
-    private static final String REF_RECURSIVE_ICON = "ref_recursive.png";
-    private static final String STREAM_ICON = "stream.png";
-    private static final String STRING_ICON = "string.png";
+    /**
+     * The icons of the PDF object types, which are shared by all the nodes.
+     */
+    private enum TypeIcon {
+        ARRAY("array.png"),
+        BOOLEAN("boolean.png"),
+        DICTIONARY("dictionary.png"),
+        NAME("name.png"),
+        NULL("null.png"),
+        NUMBER("number.png"),
+        REF("ref.png"),
+        REF_RECURSIVE("ref_recursive.png"),
+        STREAM("stream.png"),
+        STRING("string.png");
+
+        private final String filename;
+        private Icon icon;
+
+        TypeIcon(String filename) {
+            this.filename = filename;
+        }
+
+        Icon getIcon() {
+            if (icon == null) {
+                icon = IconFetcher.getIcon(filename);
+            }
+            return icon;
+        }
+    }
 
     /**
      * If the object is indirect, the number of the PDF object.
@@ -83,6 +112,17 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
      */
     protected boolean recursive = false;
 
+    /**
+     * Indicates if the children of the node have not been created yet.
+     */
+    protected boolean expandable = false;
+
+    /**
+     * The sorted object numbers of the indirect objects on the path from the
+     * root of the tree to this node, or {@code null} if not known yet.
+     */
+    protected int[] pathNumbers = null;
+
     /**
      * The key if the parent of this node is a dictionary.
      */
@@ -99,44 +139,10 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
      * @param object the PDF object represented by this tree node.
      */
     protected PdfObjectTreeNode(PdfObject object) {
-        super(null, getCaption(object));
+        super(null);
         this.object = object;
-        switch (object.getType()) {
-            case PdfObject.INDIRECT_REFERENCE:
-                if (isRecursive()) {
-                    icon = IconFetcher.getIcon(REF_RECURSIVE_ICON);
-                } else {
-                    icon = IconFetcher.getIcon(REF_ICON);
-                }
-                break;
-            case PdfObject.ARRAY:
-                icon = IconFetcher.getIcon(ARRAY_ICON);
-                break;
-            case PdfObject.DICTIONARY:
-                icon = IconFetcher.getIcon(DICTIONARY_ICON);
-                break;
-            case PdfObject.STREAM:
-                icon = IconFetcher.getIcon(STREAM_ICON);
-                break;
-            case PdfObject.BOOLEAN:
-                icon = IconFetcher.getIcon(BOOLEAN_ICON);
-                break;
-            case PdfObject.NAME:
-                icon = IconFetcher.getIcon(NAME_ICON);
-                break;
-            case PdfObject.LITERAL:
-            case PdfObject.NULL:
-                icon = IconFetcher.getIcon(NULL_ICON);
-                break;
-            case PdfObject.NUMBER:
-                icon = IconFetcher.getIcon(NUMBER_ICON);
-                break;
-            case PdfObject.STRING:
-                icon = IconFetcher.getIcon(STRING_ICON);
-                break;
-            default:
-                throw new IllegalArgumentException("Unexpected object type: " + object.getType());
-        }
+        // Fails early for unsupported objects, as the icon is only needed later
+        getTypeIcon();
     }
 
     /**
@@ -146,7 +152,7 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
      * @param object the PDF object represented by this tree node.
      */
     protected PdfObjectTreeNode(String icon, PdfObject object) {
-        super(icon, getCaption(object));
+        super(icon);
         this.object = object;
     }
 
@@ -158,6 +164,19 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
      * @return a PdfObjectTreeNode
      */
     public static PdfObjectTreeNode getInstance(PdfObject object) {
+        final PdfObjectTreeNode node = createInstance(object);
+        node.createReferenceCaption();
+        return node;
+    }
+
+    /**
+     * Creates a tree node of the class that suits the PDF object.
+     *
+     * @param object the PDF object represented by this tree node.
+     *
+     * @return a PdfObjectTreeNode
+     */
+    private static PdfObjectTreeNode createInstance(PdfObject object) {
         if (object.isDictionary()) {
             if (PdfName.Page.equals(((PdfDictionary) object).get(PdfName.Type, false))) {
                 return new PdfPageTreeNode((PdfDictionary) object);
@@ -192,12 +211,72 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
      * @return a PdfObjectTreeNode
      */
     public static PdfObjectTreeNode getInstance(PdfDictionary dict, PdfName key) {
-        final PdfObjectTreeNode node = getInstance(dict.get(key, false));
-        node.setUserObject(getDictionaryEntryCaption(dict, key));
+        final PdfObjectTreeNode node = createInstance(dict.get(key, false));
+        // The caption is created from the key, when it is needed
         node.key = key;
+        node.createReferenceCaption();
         return node;
     }
 
+    /**
+     * Gets the icon of the node. Unless a specific icon was set, this is the
+     * shared icon of the type of the PDF object.
+     *
+     * @return the icon
+     */
+    @Override
+    public Icon getIcon() {
+        if (icon != null || object == null) {
+            return icon;
+        }
+        return getTypeIcon().getIcon();
+    }
+
+    /**
+     * Gets the caption of the node. The caption is created on the first call,
+     * which usually happens, when the node is painted.
+     *
+     * @return the caption
+     */
+    @Override
+    public Object getUserObject() {
+        Object caption = super.getUserObject();
+        if (caption == null) {
+            caption = createCaption();
+            setUserObject(caption);
+        }
+        return caption;
+    }
+
+    /**
+     * Creates the caption of the node from its key and its PDF object.
+     *
+     * @return the caption
+     */
+    private String createCaption() {
+        return key == null ? getCaption(object) : key + ": " + getCaption(object);
+    }
+
+    /**
+     * Creates the caption of a reference right away, as the caption must not
+     * read the referred object, when the node is painted. The nodes are
+     * created while the document lock is held, but they are painted without
+     * it.
+     */
+    private void createReferenceCaption() {
+        if (object != null && object.isIndirectReference()) {
+            setUserObject(createCaption());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(getUserObject());
+    }
+
     /**
      * Getter for the PDF Object.
      *
@@ -334,6 +413,87 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
         return recursive;
     }
 
+    /**
+     * Set this to true if the node has children, which are created when the
+     * node is expanded.
+     *
+     * @param expandable true if the children of the node have not been created yet
+     */
+    public void setExpandable(boolean expandable) {
+        this.expandable = expandable;
+    }
+
+    /**
+     * Tells you if the children of the node still need to be created.
+     *
+     * @return true if the node can be expanded further.
+     */
+    public boolean isExpandable() {
+        return expandable;
+    }
+
+    /**
+     * Getter for the object numbers of the indirect objects on the path from
+     * the root of the tree to this node.
+     *
+     * @return the sorted object numbers, or {@code null} if not known yet
+     */
+    public int[] getPathNumbers() {
+        return pathNumbers;
+    }
+
+    /**
+     * Setter for the object numbers of the indirect objects on the path from
+     * the root of the tree to this node. These are used to detect recursive
+     * references.
+     *
+     * @param pathNumbers the sorted object numbers, or {@code null} to forget them
+     */
+    public void setPathNumbers(int[] pathNumbers) {
+        this.pathNumbers = pathNumbers;
+    }
+
+    /**
+     * A node, which children have not been created yet, is not a leaf.
+     *
+     * @return true if the node has no children and can not be expanded.
+     */
+    @Override
+    public boolean isLeaf() {
+        return super.isLeaf() && !expandable;
+    }
+
+    /**
+     * Gets the icon for the type of the PDF object.
+     *
+     * @return the icon handle
+     */
+    private TypeIcon getTypeIcon() {
+        switch (object.getType()) {
+            case PdfObject.INDIRECT_REFERENCE:
+                return recursive ? TypeIcon.REF_RECURSIVE : TypeIcon.REF;
+            case PdfObject.ARRAY:
+                return TypeIcon.ARRAY;
+            case PdfObject.DICTIONARY:
+                return TypeIcon.DICTIONARY;
+            case PdfObject.STREAM:
+                return TypeIcon.STREAM;
+            case PdfObject.BOOLEAN:
+                return TypeIcon.BOOLEAN;
+            case PdfObject.NAME:
+                return TypeIcon.NAME;
+            case PdfObject.LITERAL:
+            case PdfObject.NULL:
+                return TypeIcon.NULL;
+            case PdfObject.NUMBER:
+                return TypeIcon.NUMBER;
+            case PdfObject.STRING:
+                return TypeIcon.STRING;
+            default:
+                throw new IllegalArgumentException("Unexpected object type: " + object.getType());
+        }
+    }
+
     /**
      * Creates the caption for a PDF object.
      *
@@ -354,7 +514,7 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
             case PdfObject.ARRAY:
                 return Language.ARRAY.getString();
             case PdfObject.STREAM:
-                type = ((PdfDictionary) object).getAsName(PdfName.Type);
+                type = getDirectType((PdfDictionary) object);
                 if (type == null) {
                     return Language.STREAM.getString();
                 }
@@ -362,7 +522,7 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
             case PdfObject.STRING:
                 return ((PdfString) object).toUnicodeString();
             case PdfObject.DICTIONARY:
-                type = ((PdfDictionary) object).getAsName(PdfName.Type);
+                type = getDirectType((PdfDictionary) object);
                 if (type == null) {
                     return Language.DICTIONARY.getString();
                 }
@@ -372,6 +532,19 @@ public class PdfObjectTreeNode extends IconTreeNode implements IPdfContextMenuTa
         }
     }
 
+    /**
+     * Gets the /Type of a dictionary, if it is a direct name. An indirect
+     * type is not resolved, as that would read from the document.
+     *
+     * @param dict a dictionary
+     *
+     * @return the type or {@code null}
+     */
+    private static PdfName getDirectType(PdfDictionary dict) {
+        final PdfObject type = dict.get(PdfName.Type, false);
+        return type instanceof PdfName ? (PdfName) type : null;
+    }
+
     /**
      * Creates the caption for an object that is a dictionary entry.
      *
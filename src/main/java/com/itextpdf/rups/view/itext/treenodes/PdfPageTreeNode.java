@@ -44,13 +44,22 @@ package com.itextpdf.rups.view.itext.treenodes;
 
 import com.itextpdf.kernel.pdf.PdfDictionary;
 
+import java.util.function.IntFunction;
+
 /**
- * A tree node corresponding with a Page dictionary in a PDF file.
+ * A tree node corresponding with a Page dictionary in a PDF file. Once the
+ * pages are indexed, the node is captioned with its page number and label.
  */
 public class PdfPageTreeNode extends PdfObjectTreeNode {
 
     private static final String PAGE_ICON = "page.png";
 
+    /**
+     * Gets the caption of a page by its object number, or {@code null}, if
+     * the pages were not indexed yet.
+     */
+    private IntFunction<String> pageCaptions;
+
     /**
      * Creates a tree node for a Pages dictionary.
      *
@@ -59,4 +68,31 @@ public class PdfPageTreeNode extends PdfObjectTreeNode {
     public PdfPageTreeNode(PdfDictionary object) {
         super(PAGE_ICON, object);
     }
+
+    /**
+     * Sets the captions of the pages. The caption of this node is created
+     * again, when it is painted next.
+     *
+     * @param pageCaptions gets the caption of a page by its object number,
+     *                     which is {@code null} for objects, that are not a
+     *                     page of the document
+     */
+    public void setPageCaptions(IntFunction<String> pageCaptions) {
+        this.pageCaptions = pageCaptions;
+        setUserObject(null);
+    }
+
+    /**
+     * Gets the caption of the node, which is the page number and label, if
+     * the page is indexed.
+     *
+     * @return the caption
+     */
+    @Override
+    public Object getUserObject() {
+        if (userObject == null && pageCaptions != null) {
+            userObject = pageCaptions.apply(getNumber());
+        }
+        return super.getUserObject();
+    }
 }
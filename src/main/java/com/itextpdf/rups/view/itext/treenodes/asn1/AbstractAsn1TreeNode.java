@@ -248,6 +248,22 @@ public abstract class AbstractAsn1TreeNode
         };
     }
 
+    /**
+     * Creates a copy of the subtree, which starts at this node. The copy has
+     * no parent and shares the underlying ASN.1 objects, but has its own
+     * nodes, so it can be added to a different tree.
+     *
+     * @return The root node of the copy.
+     */
+    public AbstractAsn1TreeNode copyTree() {
+        // clone() copies the fields, but neither the parent nor the children
+        final AbstractAsn1TreeNode copy = (AbstractAsn1TreeNode) clone();
+        for (final AbstractAsn1TreeNode child : this) {
+            copy.add(child.copyTree());
+        }
+        return copy;
+    }
+
     /**
      * Updates the tree node to match the data in the underlying ASN.1 object.
      */
@@ -120,6 +120,27 @@ public class RupsConfigurationTest {
         Assertions.assertFalse(RupsConfiguration.INSTANCE.canOpenDuplicateFiles());
     }
 
+    @Test
+    public void setWriterMemoryLimitTest() {
+        RupsConfiguration.INSTANCE.setWriterMemoryLimit(16);
+        RupsConfiguration.INSTANCE.saveConfiguration();
+        Assertions.assertEquals(16L * 1024 * 1024, RupsConfiguration.INSTANCE.getWriterMemoryLimit());
+    }
+
+    @Test
+    public void setNegativeWriterMemoryLimitTest() {
+        RupsConfiguration.INSTANCE.setWriterMemoryLimit(-1);
+        RupsConfiguration.INSTANCE.saveConfiguration();
+        Assertions.assertEquals(0, RupsConfiguration.INSTANCE.getWriterMemoryLimit());
+    }
+
+    @Test
+    public void setObjectCacheMemoryLimitTest() {
+        RupsConfiguration.INSTANCE.setObjectCacheMemoryLimit(32);
+        RupsConfiguration.INSTANCE.saveConfiguration();
+        Assertions.assertEquals(32L * 1024 * 1024, RupsConfiguration.INSTANCE.getObjectCacheMemoryLimit());
+    }
+
     @Test
     void clearUnsavedChangesTest() {
         RupsConfiguration.INSTANCE.setLookAndFeel(RupsConfiguration.SUPPORTED_LOOK_AND_FEEL.get(0));
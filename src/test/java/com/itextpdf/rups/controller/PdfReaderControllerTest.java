@@ -40,57 +40,39 @@
     For more information, please contact iText Software Corp. at this
     address: sales@itextpdf.com
  */
-package com.itextpdf.rups.view.itext;
+package com.itextpdf.rups.controller;
 
-import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
-import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfName;
-import com.itextpdf.rups.model.TreeNodeFactory;
-import com.itextpdf.rups.view.itext.treenodes.PdfPageTreeNode;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
 
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.List;
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 
-class PageEnumerator implements Enumeration<PdfPageTreeNode> {
+@Tag("UnitTest")
+class PdfReaderControllerTest {
+    @Test
+    void markModifiedFlagsObjectTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfDictionary dictionary = new PdfDictionary();
+        dictionary.put(PdfName.Name, new PdfString("Edited"));
+        dictionary.makeIndirect(doc);
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(dictionary);
+        final PdfObjectTreeNode entry = PdfObjectTreeNode.getInstance(dictionary, PdfName.Name);
+        node.add(entry);
 
-    protected List<PdfPageTreeNode> pages = new ArrayList<>();
-    protected TreeNodeFactory factory;
-    protected int cursor = 0;
-
-    public PageEnumerator(PdfDictionary catalog, TreeNodeFactory factory) {
-        this.factory = factory;
-        expand(
-                (PdfIndirectReference) catalog.get(PdfName.Pages, false), catalog.getAsDictionary(PdfName.Pages)
-        );
-    }
-
-    @Override
-    public boolean hasMoreElements() {
-        return cursor < pages.size();
-    }
-
-    @Override
-    public PdfPageTreeNode nextElement() {
-        final PdfPageTreeNode node = pages.get(cursor);
-        ++cursor;
-        return node;
-    }
-
-    public final void expand(PdfIndirectReference ref, PdfDictionary dict) {
-        if (dict == null) {
-            return;
-        }
-        if (PdfName.Pages.equals(dict.getAsName(PdfName.Type))) {
-            PdfArray kids = dict.getAsArray(PdfName.Kids);
-            if (kids != null) {
-                for (int i = 0; i < kids.size(); i++) {
-                    expand((PdfIndirectReference) kids.get(i, false), kids.getAsDictionary(i));
-                }
-            }
-        } else if (PdfName.Page.equals(dict.getAsName(PdfName.Type))) {
-            pages.add((PdfPageTreeNode) factory.getNode(ref.getObjNumber()));
-        }
+        final PdfReaderController controller = new PdfReaderController(null, null);
+        controller.markModified(entry);
+        // The factory must not release the edited object
+        Assertions.assertTrue(dictionary.isModified());
+        Assertions.assertTrue(dictionary.isReleaseForbidden());
+        Assertions.assertTrue(controller.getModifications().isModified(
+                dictionary.getIndirectReference().getObjNumber()
+        ));
     }
 }
@@ -44,11 +44,18 @@ package com.itextpdf.rups.mock;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.rups.model.IPdfFile;
+import com.itextpdf.rups.model.ModificationTracker;
+import com.itextpdf.rups.model.PdfFileContent;
+import com.itextpdf.rups.model.SpillableOutputStream;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class MockedPdfFile implements IPdfFile {
+    private final Lock documentLock = new ReentrantLock();
+
     @Override
     public File getOriginalFile() {
         return new File("mock.pdf");
@@ -60,13 +67,32 @@ public class MockedPdfFile implements IPdfFile {
     }
 
     @Override
-    public byte[] getOriginalContent() {
+    public Lock getDocumentLock() {
+        return documentLock;
+    }
+
+    @Override
+    public PdfDocument openReadOnlyDocument() {
+        throw new MethodNotMockedException();
+    }
+
+    @Override
+    public PdfFileContent getContent() {
         return null;
     }
 
     @Override
-    public ByteArrayOutputStream getByteArrayOutputStream() {
+    public SpillableOutputStream getWriterOutputStream() {
         return null;
     }
-}
 
+    @Override
+    public SpillableOutputStream writeIncrementalUpdate(ModificationTracker modifications) {
+        throw new MethodNotMockedException();
+    }
+
+    @Override
+    public void saveIncrementallyAndClose(Path target, SpillableOutputStream update) {
+        throw new MethodNotMockedException();
+    }
+}
@@ -99,4 +99,9 @@ public class MockedRupsController implements IRupsController {
     public void saveCurrentFile(File newFile) {
         // noop
     }
+
+    @Override
+    public void saveCurrentFileIncrementally(File newFile) {
+        // noop
+    }
 }
@@ -0,0 +1,118 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.rups.view.itext.treenodes.asn1.AbstractAsn1TreeNode;
+import com.itextpdf.rups.view.itext.treenodes.asn1.Asn1TestUtil;
+import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.ContentInfoCorrector;
+import com.itextpdf.rups.view.itext.treenodes.asn1.correctors.x509.CertificateCorrector;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class Asn1TreeCacheTest {
+    private static final byte[] EMPTY_SEQUENCE = {0x30, 0x00};
+    private static final byte[] SEQUENCE_WITH_NULL = {0x30, 0x02, 0x05, 0x00};
+
+    @Test
+    void equalDataIsDecodedOnceTest() {
+        final Asn1TreeCache cache = new Asn1TreeCache(1024);
+
+        final AbstractAsn1TreeNode first = cache.get(EMPTY_SEQUENCE, ContentInfoCorrector.INSTANCE);
+        final AbstractAsn1TreeNode second = cache.get(EMPTY_SEQUENCE.clone(), ContentInfoCorrector.INSTANCE);
+
+        Assertions.assertNotNull(first);
+        Assertions.assertNotNull(second);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(first.getAsn1Primitive(), second.getAsn1Primitive());
+        Asn1TestUtil.assertNodeMatches(0, "contentInfo", second);
+        Assertions.assertEquals(1, cache.count());
+        Assertions.assertEquals(EMPTY_SEQUENCE.length, cache.size());
+    }
+
+    @Test
+    void correctorIsPartOfTheKeyTest() {
+        final Asn1TreeCache cache = new Asn1TreeCache(1024);
+
+        final AbstractAsn1TreeNode contentInfo = cache.get(EMPTY_SEQUENCE, ContentInfoCorrector.INSTANCE);
+        final AbstractAsn1TreeNode certificate = cache.get(EMPTY_SEQUENCE, CertificateCorrector.INSTANCE);
+
+        Asn1TestUtil.assertNodeMatches(0, "contentInfo", contentInfo);
+        Asn1TestUtil.assertNodeMatches(0, "certificate", certificate);
+        Assertions.assertEquals(2, cache.count());
+    }
+
+    @Test
+    void invalidDataIsNotCachedTest() {
+        final Asn1TreeCache cache = new Asn1TreeCache(1024);
+
+        Assertions.assertNull(cache.get(new byte[] {0x01, 0x00}, ContentInfoCorrector.INSTANCE));
+        Assertions.assertEquals(0, cache.count());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedTest() {
+        final Asn1TreeCache cache = new Asn1TreeCache(EMPTY_SEQUENCE.length + SEQUENCE_WITH_NULL.length);
+
+        cache.get(EMPTY_SEQUENCE, ContentInfoCorrector.INSTANCE);
+        cache.get(SEQUENCE_WITH_NULL, ContentInfoCorrector.INSTANCE);
+        Assertions.assertEquals(2, cache.count());
+        cache.get(EMPTY_SEQUENCE, CertificateCorrector.INSTANCE);
+
+        Assertions.assertEquals(2, cache.count());
+        Assertions.assertEquals(EMPTY_SEQUENCE.length + SEQUENCE_WITH_NULL.length, cache.size());
+    }
+
+    @Test
+    void newestEntryIsKeptTest() {
+        final Asn1TreeCache cache = new Asn1TreeCache(0);
+
+        cache.get(EMPTY_SEQUENCE, ContentInfoCorrector.INSTANCE);
+        Assertions.assertEquals(1, cache.count());
+        cache.get(SEQUENCE_WITH_NULL, ContentInfoCorrector.INSTANCE);
+        Assertions.assertEquals(1, cache.count());
+        Assertions.assertEquals(SEQUENCE_WITH_NULL.length, cache.size());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ByteRangeIndexTest {
+    @Test
+    void rangesAndGapsTest() throws IOException {
+        final StringBuilder file = new StringBuilder("%PDF-1.4\n%âãÏÓ\n");
+        final long[] offsets = new long[4];
+        offsets[1] = XRefTestUtil.appendObject(file, 1, "<< /Type /Catalog /Pages 2 0 R >>");
+        offsets[2] = XRefTestUtil.appendObject(file, 2, "<< /Type /Pages /Kids [] /Count 0 >>");
+        final long unreferenced = XRefTestUtil.appendObject(file, 3, "<< /Old true >>");
+        offsets[3] = file.length();
+        final String data = "endobj in the data\n";
+        file.append("3 0 obj\n<< /Length ").append(data.length()).append(" >>\nstream\n");
+        final long streamData = file.length();
+        file.append(data).append("endstream\nendobj\n");
+        final long objectEnd = file.length() - 1;
+        final long junk = file.length();
+        file.append("JUNK BYTES\n");
+        final long xref = file.length();
+        file.append("xref\n0 4\n").append(XRefTestUtil.entry(0, 65535, 'f'));
+        for (int ref = 1; ref <= 3; ++ref) {
+            file.append(XRefTestUtil.entry(offsets[ref], 0, 'n'));
+        }
+        final long trailer = file.length();
+        file.append("trailer\n<< /Size 4 /Root 1 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+
+        final PdfFileContent content = PdfFileContent.wrap(file.toString().getBytes(StandardCharsets.ISO_8859_1));
+        final ObjectMetrics metrics = new ObjectMetrics(4);
+        for (int ref = 1; ref <= 3; ++ref) {
+            metrics.setLocation(ref, 0, offsets[ref], ObjectMetrics.UNKNOWN);
+        }
+        final ByteRangeIndex index = ByteRangeIndex.build(content, metrics, 3, XRefLayout.read(content));
+        Assertions.assertEquals(file.length(), index.getLength());
+        Assertions.assertNull(index.getError());
+
+        final int header = index.find(0);
+        Assertions.assertEquals(ByteRangeIndex.HEADER, index.getKind(header));
+        Assertions.assertEquals(-1, index.getObjectNumber(header));
+        // The binary comment after the header is neither junk nor a range
+        Assertions.assertEquals(-1, index.find(10));
+
+        final int first = index.find(offsets[1] + 3);
+        Assertions.assertEquals(ByteRangeIndex.OBJECT, index.getKind(first));
+        Assertions.assertEquals(1, index.getObjectNumber(first));
+        Assertions.assertEquals(offsets[1], index.getStart(first));
+        Assertions.assertEquals(-1, index.find(offsets[2] - 1));
+
+        final int old = index.find(unreferenced);
+        Assertions.assertEquals(ByteRangeIndex.UNREFERENCED, index.getKind(old));
+        Assertions.assertEquals(offsets[3], index.getEnd(old));
+
+        // The keyword in the stream data doesn't end the object
+        final int stream = index.find(streamData);
+        Assertions.assertEquals(3, index.getObjectNumber(stream));
+        Assertions.assertEquals(objectEnd, index.getEnd(stream));
+
+        Assertions.assertEquals(ByteRangeIndex.JUNK, index.getKind(index.find(junk)));
+        Assertions.assertEquals(ByteRangeIndex.XREF, index.getKind(index.find(xref)));
+        Assertions.assertEquals(ByteRangeIndex.TRAILER, index.getKind(index.find(trailer)));
+        Assertions.assertEquals(offsets[3] - unreferenced, index.getTotalLength(ByteRangeIndex.UNREFERENCED));
+        Assertions.assertEquals("JUNK BYTES\n".length(), index.getTotalLength(ByteRangeIndex.JUNK));
+    }
+
+    @Test
+    void offsetsFromXRefIndexTest() throws IOException {
+        final StringBuilder file = new StringBuilder("%PDF-1.4\n");
+        final long[] offsets = new long[3];
+        offsets[1] = XRefTestUtil.appendObject(file, 1, "<< /Type /Catalog /Pages 2 0 R >>");
+        offsets[2] = XRefTestUtil.appendObject(file, 2, "<< /Type /Pages /Kids [] /Count 0 >>");
+        final long xref = file.length();
+        file.append("xref\n0 3\n").append(XRefTestUtil.entry(0, 65535, 'f'));
+        for (int ref = 1; ref <= 2; ++ref) {
+            file.append(XRefTestUtil.entry(offsets[ref], 0, 'n'));
+        }
+        file.append("trailer\n<< /Size 3 /Root 1 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        final PdfFileContent content = PdfFileContent.wrap(file.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        // A stopped scan recorded the first object only
+        final ObjectMetrics metrics = new ObjectMetrics(3);
+        metrics.setLocation(1, 0, offsets[1], ObjectMetrics.UNKNOWN);
+        final ByteRangeIndex partial = ByteRangeIndex.build(content, metrics, 2, XRefLayout.read(content));
+        Assertions.assertEquals(ByteRangeIndex.UNREFERENCED, partial.getKind(partial.find(offsets[2])));
+
+        final ByteRangeIndex index = ByteRangeIndex.build(content, XRefLayout.read(content));
+        for (int ref = 1; ref <= 2; ++ref) {
+            final int range = index.find(offsets[ref]);
+            Assertions.assertEquals(ByteRangeIndex.OBJECT, index.getKind(range));
+            Assertions.assertEquals(ref, index.getObjectNumber(range));
+        }
+        Assertions.assertEquals(0, index.getTotalLength(ByteRangeIndex.UNREFERENCED));
+    }
+
+    @Test
+    void brokenSectionIsReportedTest() throws IOException {
+        final StringBuilder file = new StringBuilder("%PDF-1.4\n");
+        XRefTestUtil.appendObject(file, 1, "<< /Type /Catalog >>");
+        final long xref = file.length();
+        file.append("xref\n0 2\nbroken\ntrailer\n<< /Size 2 /Root 1 0 R >>\nstartxref\n").append(xref)
+                .append("\n%%EOF\n");
+        final PdfFileContent content = PdfFileContent.wrap(file.toString().getBytes(StandardCharsets.ISO_8859_1));
+        final XRefLayout layout = XRefLayout.read(content);
+        Assertions.assertNotNull(layout.getError());
+        Assertions.assertEquals(layout.getError(), ByteRangeIndex.build(content, layout).getError());
+    }
+}
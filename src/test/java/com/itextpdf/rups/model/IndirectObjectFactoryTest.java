@@ -0,0 +1,268 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.rups.RupsConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class IndirectObjectFactoryTest {
+    @Test
+    void indexLookupTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        doc.addNewPage();
+        final IndirectObjectFactory factory = createIndirectObjectFactory(doc);
+
+        Assertions.assertTrue(factory.size() > 0);
+        int previousRef = -1;
+        for (int i = 0; i < factory.size(); ++i) {
+            final int ref = factory.getRefByIndex(i);
+            Assertions.assertTrue(ref > previousRef);
+            Assertions.assertEquals(i, factory.getIndexByRef(ref));
+            previousRef = ref;
+        }
+        Assertions.assertEquals(-1, factory.getIndexByRef(previousRef + 100));
+        Assertions.assertFalse(factory.isLoadedByReference(previousRef + 100));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> factory.getRefByIndex(factory.size()));
+    }
+
+    @Test
+    void pagesAreRetainedTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final int pageRef = doc.addNewPage().getPdfObject().getIndirectReference().getObjNumber();
+        final IndirectObjectFactory factory = createIndirectObjectFactory(doc);
+
+        final int idx = factory.getIndexByRef(pageRef);
+        Assertions.assertTrue(factory.isPageByIndex(idx));
+        Assertions.assertTrue(factory.isLoadedByIndex(idx));
+        final PdfObject page = factory.getObjectByReference(pageRef);
+        Assertions.assertTrue(page.isDictionary());
+        Assertions.assertEquals(PdfName.Page, ((PdfDictionary) page).getAsName(PdfName.Type));
+
+        final int catalogRef = doc.getCatalog().getPdfObject().getIndirectReference().getObjNumber();
+        Assertions.assertFalse(factory.isPageByIndex(factory.getIndexByRef(catalogRef)));
+    }
+
+    @Test
+    void addNewIndirectObjectTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final IndirectObjectFactory factory = createIndirectObjectFactory(doc);
+        final int size = factory.size();
+
+        final PdfString object = new PdfString("TEST");
+        factory.addNewIndirectObject(object);
+        final int ref = object.getIndirectReference().getObjNumber();
+
+        Assertions.assertEquals(size + 1, factory.size());
+        Assertions.assertEquals(size, factory.getIndexByRef(ref));
+        Assertions.assertEquals(ref, factory.getRefByIndex(size));
+        Assertions.assertTrue(factory.isLoadedByReference(ref));
+        Assertions.assertSame(object, factory.loadObjectByReference(ref));
+    }
+
+    @Test
+    void metricsAreRecordedTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final int pageRef = doc.addNewPage().getPdfObject().getIndirectReference().getObjNumber();
+        final IndirectObjectFactory factory = createIndirectObjectFactory(doc);
+        final ObjectMetrics metrics = factory.getMetrics();
+
+        Assertions.assertEquals(PdfObject.DICTIONARY, metrics.getKind(pageRef));
+        Assertions.assertEquals(PdfName.Page, metrics.getType(pageRef));
+
+        final PdfString object = new PdfString("TEST");
+        factory.addNewIndirectObject(object);
+        final int ref = object.getIndirectReference().getObjNumber();
+        Assertions.assertEquals(PdfObject.STRING, metrics.getKind(ref));
+        Assertions.assertNull(metrics.getType(ref));
+    }
+
+    @Test
+    void leastRecentlyUsedObjectIsEvictedTest() throws IOException {
+        final int[] refs = new int[2];
+        final PdfDocument doc = openDocumentWithLargeObjects(refs);
+        final IndirectObjectFactory factory = createIndirectObjectFactory(doc, 2048);
+
+        final PdfObject first = factory.loadObjectByReference(refs[0]);
+        Assertions.assertTrue(factory.isLoadedByReference(refs[0]));
+        factory.loadObjectByReference(refs[1]);
+        Assertions.assertFalse(factory.isLoadedByReference(refs[0]));
+        Assertions.assertTrue(factory.isLoadedByReference(refs[1]));
+
+        final PdfObject reloaded = factory.loadObjectByReference(refs[0]);
+        Assertions.assertNotSame(first, reloaded);
+        Assertions.assertEquals(
+                ((PdfDictionary) first).getAsString(PdfName.Data),
+                ((PdfDictionary) reloaded).getAsString(PdfName.Data)
+        );
+        doc.close();
+    }
+
+    @Test
+    void evictionGuardKeepsObjectTest() throws IOException {
+        final int[] refs = new int[2];
+        final PdfDocument doc = openDocumentWithLargeObjects(refs);
+        final IndirectObjectFactory factory = createIndirectObjectFactory(doc, 2048);
+        factory.setEvictionGuard(idx -> false);
+
+        final PdfObject first = factory.loadObjectByReference(refs[0]);
+        factory.loadObjectByReference(refs[1]);
+        Assertions.assertTrue(factory.isLoadedByReference(refs[0]));
+        Assertions.assertSame(first, factory.loadObjectByReference(refs[0]));
+        doc.close();
+    }
+
+    @Test
+    void modifiedObjectIsNotEvictedTest() throws IOException {
+        final int[] refs = new int[2];
+        final PdfDocument doc = openDocumentWithLargeObjects(refs);
+        final IndirectObjectFactory factory = createIndirectObjectFactory(doc, 2048);
+
+        final PdfDictionary first = (PdfDictionary) factory.loadObjectByReference(refs[0]);
+        first.put(PdfName.Name, new PdfName("Modified"));
+        first.setModified();
+        factory.loadObjectByReference(refs[1]);
+        Assertions.assertTrue(factory.isLoadedByReference(refs[0]));
+        Assertions.assertSame(first, factory.getObjectByReference(refs[0]));
+        doc.close();
+    }
+
+    @Test
+    void concurrentLoadingTest() throws IOException, InterruptedException, ExecutionException {
+        final int[] refs = new int[16];
+        final PdfDocument doc = openDocumentWithLargeObjects(refs);
+        final Lock lock = new ReentrantLock();
+        // Only a few objects fit, so the threads keep evicting each other's objects
+        final IndirectObjectFactory factory = new IndirectObjectFactory(doc, 4096, lock);
+        Assertions.assertSame(lock, factory.getDocumentLock());
+        while (factory.storeNextObject()) {
+            // Empty
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; ++i) {
+                        final int k = (i * 7 + offset) % refs.length;
+                        // The object can be released by another thread, unless the lock is held
+                        lock.lock();
+                        try {
+                            final PdfDictionary dict = (PdfDictionary) factory.loadObjectByReference(refs[k]);
+                            final byte[] data = dict.getAsString(PdfName.Data).getValueBytes();
+                            Assertions.assertEquals(1024, data.length);
+                            Assertions.assertEquals('A' + k, data[0]);
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }));
+            }
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 500; ++i) {
+                    Assertions.assertTrue(factory.getIndexByRef(refs[i % refs.length]) >= 0);
+                    factory.isLoadedByReference(refs[i % refs.length]);
+                }
+            }));
+            for (final Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        doc.close();
+    }
+
+    private static PdfDocument openDocumentWithLargeObjects(int[] refs) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final PdfDocument doc = new PdfDocument(new PdfWriter(out))) {
+            doc.addNewPage();
+            final byte[] data = new byte[1024];
+            for (int i = 0; i < refs.length; ++i) {
+                Arrays.fill(data, (byte) ('A' + i));
+                final PdfDictionary dict = new PdfDictionary();
+                dict.put(PdfName.Data, new PdfString(data));
+                dict.makeIndirect(doc);
+                doc.getCatalog().getPdfObject().put(new PdfName("Large" + i), dict);
+                refs[i] = dict.getIndirectReference().getObjNumber();
+            }
+        }
+        return new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    private static IndirectObjectFactory createIndirectObjectFactory(PdfDocument doc) {
+        return createIndirectObjectFactory(doc, RupsConfiguration.INSTANCE.getObjectCacheMemoryLimit());
+    }
+
+    private static IndirectObjectFactory createIndirectObjectFactory(PdfDocument doc, long cacheBudget) {
+        final IndirectObjectFactory factory = new IndirectObjectFactory(doc, cacheBudget);
+        while (factory.storeNextObject()) {
+            // Empty
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class MappedFileSourceTest {
+    private static final Path TEST_FILE_PATH = Paths.get(
+            "./src/test/resources/com/itextpdf/rups/model/pdfFile/regular.pdf"
+    );
+
+    @Test
+    void singleByteReadsTest() throws IOException {
+        final byte[] expected = Files.readAllBytes(TEST_FILE_PATH);
+        final MappedFileSource source = MappedFileSource.map(TEST_FILE_PATH);
+        try {
+            Assertions.assertEquals(expected.length, source.length());
+            for (int i = 0; i < expected.length; ++i) {
+                Assertions.assertEquals(expected[i] & 0xFF, source.get(i));
+            }
+            Assertions.assertEquals(-1, source.get(expected.length));
+            Assertions.assertEquals(-1, source.get(-1));
+        } finally {
+            source.close();
+        }
+    }
+
+    @Test
+    void bulkReadsTest() throws IOException {
+        final byte[] expected = Files.readAllBytes(TEST_FILE_PATH);
+        final MappedFileSource source = MappedFileSource.map(TEST_FILE_PATH);
+        try {
+            final byte[] buffer = new byte[expected.length + 10];
+            Assertions.assertEquals(expected.length, source.get(0, buffer, 10, expected.length));
+            Assertions.assertArrayEquals(expected, Arrays.copyOfRange(buffer, 10, buffer.length));
+
+            // Reading past the end should return only the remaining bytes
+            Assertions.assertEquals(5, source.get(expected.length - 5, buffer, 0, 100));
+            Assertions.assertEquals(-1, source.get(expected.length, buffer, 0, 1));
+        } finally {
+            source.close();
+        }
+    }
+
+    @Test
+    void readAfterCloseTest() throws IOException {
+        final MappedFileSource source = MappedFileSource.map(TEST_FILE_PATH);
+        source.close();
+        // Second close should be a noop
+        source.close();
+        Assertions.assertThrows(IOException.class, () -> source.get(0));
+        Assertions.assertThrows(IOException.class, () -> source.get(0, new byte[1], 0, 1));
+    }
+
+    @Test
+    void closeDuringReadsTest() throws Exception {
+        final byte[] expected = Files.readAllBytes(TEST_FILE_PATH);
+        final MappedFileSource source = MappedFileSource.map(TEST_FILE_PATH);
+        final AtomicBoolean started = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Void>> readers = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                readers.add(executor.submit(() -> {
+                    final byte[] buffer = new byte[64];
+                    // Reads until the source is closed under them
+                    for (long i = 0; ; ++i) {
+                        final int position = (int) (i % expected.length);
+                        Assertions.assertEquals(expected[position] & 0xFF, source.get(position));
+                        source.get(position, buffer, 0, buffer.length);
+                        started.set(true);
+                    }
+                }));
+            }
+            while (!started.get()) {
+                Thread.sleep(1);
+            }
+            source.close();
+            for (final Future<Void> reader : readers) {
+                final ExecutionException e = Assertions.assertThrows(
+                        ExecutionException.class, () -> reader.get(30, TimeUnit.SECONDS)
+                );
+                Assertions.assertInstanceOf(IOException.class, e.getCause());
+            }
+            // The last read in flight has released the mapping
+            Assertions.assertTrue(source.isUnmapped());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
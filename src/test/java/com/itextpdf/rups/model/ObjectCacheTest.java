@@ -0,0 +1,110 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfString;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ObjectCacheTest {
+    private static final PdfObject SMALL = new PdfString("small");
+    private static final long SMALL_SIZE = ObjectCache.ENTRY_OVERHEAD + ObjectCache.estimateSize(SMALL, 0);
+
+    @Test
+    void evictsLeastRecentlyUsedTest() {
+        final List<Integer> evicted = new ArrayList<>();
+        final ObjectCache cache = new ObjectCache(2 * SMALL_SIZE, (idx, object) -> evicted.add(idx));
+
+        cache.put(0, SMALL);
+        cache.put(1, SMALL);
+        Assertions.assertSame(SMALL, cache.get(0));
+        cache.put(2, SMALL);
+
+        Assertions.assertEquals(List.of(1), evicted);
+        Assertions.assertNull(cache.get(1));
+        Assertions.assertEquals(2, cache.count());
+        Assertions.assertEquals(2 * SMALL_SIZE, cache.size());
+    }
+
+    @Test
+    void refusedEntryIsKeptTest() {
+        final ObjectCache cache = new ObjectCache(SMALL_SIZE, (idx, object) -> idx != 0);
+
+        cache.put(0, SMALL);
+        cache.put(1, SMALL);
+        cache.put(2, SMALL);
+
+        Assertions.assertSame(SMALL, cache.get(0));
+        Assertions.assertNull(cache.get(1));
+        Assertions.assertSame(SMALL, cache.get(2));
+    }
+
+    @Test
+    void newestEntryIsNeverEvictedTest() {
+        final ObjectCache cache = new ObjectCache(0, (idx, object) -> true);
+
+        cache.put(0, SMALL);
+        Assertions.assertSame(SMALL, cache.get(0));
+        cache.put(1, SMALL);
+        Assertions.assertNull(cache.get(0));
+        Assertions.assertEquals(1, cache.count());
+    }
+
+    @Test
+    void removeDoesNotEvictTest() {
+        final ObjectCache cache = new ObjectCache(SMALL_SIZE, (idx, object) -> {
+            throw new AssertionError();
+        });
+
+        cache.put(0, SMALL);
+        Assertions.assertSame(SMALL, cache.remove(0));
+        Assertions.assertNull(cache.remove(0));
+        Assertions.assertEquals(0, cache.size());
+    }
+}
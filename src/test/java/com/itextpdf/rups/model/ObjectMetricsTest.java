@@ -0,0 +1,243 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ObjectMetricsTest {
+    @Test
+    void unknownMetricsTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(4);
+        Assertions.assertEquals(ObjectMetrics.UNKNOWN_KIND, metrics.getKind(1));
+        Assertions.assertEquals(ObjectMetrics.UNKNOWN, metrics.getOffset(1));
+        Assertions.assertEquals(ObjectMetrics.UNKNOWN, metrics.getLength(100));
+        Assertions.assertNull(metrics.getType(-1));
+    }
+
+    @Test
+    void recordTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(4);
+        final PdfStream stream = new PdfStream(new byte[] {1, 2, 3});
+        stream.put(PdfName.Length, new PdfNumber(3));
+        stream.put(PdfName.Type, PdfName.XObject);
+        stream.put(PdfName.Subtype, PdfName.Image);
+        metrics.record(1, stream);
+        Assertions.assertEquals(PdfObject.STREAM, metrics.getKind(1));
+        Assertions.assertEquals(PdfName.XObject, metrics.getType(1));
+        Assertions.assertEquals(PdfName.Image, metrics.getSubtype(1));
+        Assertions.assertEquals(3, metrics.getLength(1));
+        Assertions.assertEquals(3, metrics.getDecodedLength(1));
+
+        stream.put(PdfName.Filter, PdfName.FlateDecode);
+        metrics.record(2, stream);
+        Assertions.assertEquals(ObjectMetrics.UNKNOWN, metrics.getDecodedLength(2));
+        metrics.setDecodedLength(2, 10);
+        Assertions.assertEquals(10, metrics.getDecodedLength(2));
+
+        // The store grows with the object numbers
+        metrics.record(40, new PdfDictionary());
+        Assertions.assertEquals(PdfObject.DICTIONARY, metrics.getKind(40));
+        Assertions.assertNull(metrics.getType(40));
+    }
+
+    @Test
+    void allocatedOnDemandTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(1_000_000);
+        Assertions.assertEquals(0, metrics.getCapacity());
+        Assertions.assertEquals(ObjectMetrics.UNKNOWN_KIND, metrics.getKind(500_000));
+
+        metrics.setObject(10, PdfObject.DICTIONARY, null, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        Assertions.assertTrue(metrics.getCapacity() < 1000);
+        // The arrays do not grow beyond the expected amount
+        metrics.setObject(999_999, PdfObject.ARRAY, null, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        Assertions.assertEquals(1_000_000, metrics.getCapacity());
+        Assertions.assertEquals(PdfObject.DICTIONARY, metrics.getKind(10));
+    }
+
+    @Test
+    void mergeTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(8);
+        metrics.setObject(1, PdfObject.DICTIONARY, PdfName.Page, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        final ObjectMetrics part = new ObjectMetrics(4, 8);
+        part.setObject(5, PdfObject.DICTIONARY, PdfName.Annot, PdfName.Link, ObjectMetrics.UNKNOWN,
+                ObjectMetrics.UNKNOWN);
+        part.setObject(6, PdfObject.DICTIONARY, PdfName.Page, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        part.setLocation(6, 2, 1234, ObjectMetrics.UNKNOWN);
+        metrics.merge(part);
+        Assertions.assertEquals(PdfName.Page, metrics.getType(1));
+        Assertions.assertEquals(PdfName.Annot, metrics.getType(5));
+        Assertions.assertEquals(PdfName.Link, metrics.getSubtype(5));
+        Assertions.assertEquals(PdfName.Page, metrics.getType(6));
+        Assertions.assertEquals(2, metrics.getGeneration(6));
+        Assertions.assertEquals(1234, metrics.getOffset(6));
+    }
+
+    @Test
+    void mergeKeepsKnownValuesTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(8);
+        // Recorded from the parsed stream and its decoded data, while the range was scanned
+        metrics.setObject(5, PdfObject.STREAM, PdfName.XObject, PdfName.Image, 100, ObjectMetrics.UNKNOWN);
+        metrics.setDecodedLength(5, 400);
+        metrics.setDecodedLength(6, 50);
+        final ObjectMetrics part = new ObjectMetrics(4, 8);
+        part.setObject(5, PdfObject.STREAM, null, null, 100, ObjectMetrics.UNKNOWN);
+        part.setLocation(5, 0, 1234, ObjectMetrics.UNKNOWN);
+        part.setObject(6, PdfObject.STREAM, PdfName.Metadata, null, 50, ObjectMetrics.UNKNOWN);
+        metrics.merge(part);
+        Assertions.assertEquals(PdfName.XObject, metrics.getType(5));
+        Assertions.assertEquals(PdfName.Image, metrics.getSubtype(5));
+        Assertions.assertEquals(400, metrics.getDecodedLength(5));
+        Assertions.assertEquals(1234, metrics.getOffset(5));
+        // The unknown values are taken from the range
+        Assertions.assertEquals(PdfObject.STREAM, metrics.getKind(6));
+        Assertions.assertEquals(PdfName.Metadata, metrics.getType(6));
+        Assertions.assertEquals(50, metrics.getLength(6));
+        Assertions.assertEquals(50, metrics.getDecodedLength(6));
+    }
+
+    @Test
+    void sortTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(5);
+        metrics.setObject(1, PdfObject.STREAM, null, null, 30, ObjectMetrics.UNKNOWN);
+        metrics.setObject(2, PdfObject.STREAM, null, null, 10, ObjectMetrics.UNKNOWN);
+        metrics.setObject(3, PdfObject.DICTIONARY, null, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        metrics.setObject(4, PdfObject.STREAM, null, null, 10, ObjectMetrics.UNKNOWN);
+        final int[] refs = {1, 2, 3, 4};
+        metrics.sort(refs, refs.length, ObjectMetrics.Column.LENGTH, true);
+        Assertions.assertArrayEquals(new int[] {3, 2, 4, 1}, refs);
+        metrics.sort(refs, refs.length, ObjectMetrics.Column.LENGTH, false);
+        Assertions.assertArrayEquals(new int[] {1, 2, 4, 3}, refs);
+        metrics.sort(refs, refs.length, ObjectMetrics.Column.NUMBER, true);
+        Assertions.assertArrayEquals(new int[] {1, 2, 3, 4}, refs);
+    }
+
+    @Test
+    void sortByTypeTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(5);
+        metrics.setObject(1, PdfObject.DICTIONARY, PdfName.Page, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        metrics.setObject(2, PdfObject.DICTIONARY, PdfName.Annot, PdfName.Widget, ObjectMetrics.UNKNOWN,
+                ObjectMetrics.UNKNOWN);
+        metrics.setObject(3, PdfObject.DICTIONARY, PdfName.Annot, PdfName.Link, ObjectMetrics.UNKNOWN,
+                ObjectMetrics.UNKNOWN);
+        metrics.setObject(4, PdfObject.ARRAY, null, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        final int[] refs = {1, 2, 3, 4};
+        metrics.sort(refs, refs.length, ObjectMetrics.Column.TYPE, true);
+        Assertions.assertArrayEquals(new int[] {4, 3, 2, 1}, refs);
+    }
+
+    @Test
+    void filterTest() {
+        final ObjectMetrics metrics = new ObjectMetrics(5);
+        metrics.setObject(1, PdfObject.DICTIONARY, PdfName.Page, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        metrics.setObject(2, PdfObject.DICTIONARY, PdfName.Annot, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        metrics.setObject(3, PdfObject.DICTIONARY, PdfName.Page, null, ObjectMetrics.UNKNOWN, ObjectMetrics.UNKNOWN);
+        final int[] calls = new int[1];
+        final int[] refs = {1, 2, 3, 4};
+        final int kept = metrics.filter(refs, refs.length, (kind, type, subtype) -> {
+            ++calls[0];
+            return PdfName.Page.equals(type);
+        });
+        Assertions.assertEquals(2, kept);
+        Assertions.assertEquals(1, refs[0]);
+        Assertions.assertEquals(3, refs[1]);
+        // The filter is asked once for every distinct type
+        Assertions.assertEquals(3, calls[0]);
+    }
+
+    @Test
+    void writeAndReadTest() throws IOException {
+        final ObjectMetrics metrics = new ObjectMetrics(1, 4);
+        metrics.setObject(2, PdfObject.STREAM, PdfName.XObject, PdfName.Form, 12, 34);
+        metrics.setLocation(2, 1, 567, ObjectMetrics.UNKNOWN);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            metrics.write(output);
+        }
+        final ObjectMetrics read = new ObjectMetrics(1, 4);
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assertions.assertTrue(read.read(input));
+        }
+        Assertions.assertEquals(PdfObject.STREAM, read.getKind(2));
+        Assertions.assertEquals(PdfName.XObject, read.getType(2));
+        Assertions.assertEquals(PdfName.Form, read.getSubtype(2));
+        Assertions.assertEquals(12, read.getLength(2));
+        Assertions.assertEquals(34, read.getDecodedLength(2));
+        Assertions.assertEquals(1, read.getGeneration(2));
+        Assertions.assertEquals(567, read.getOffset(2));
+        Assertions.assertEquals(ObjectMetrics.UNKNOWN_KIND, read.getKind(3));
+    }
+
+    @Test
+    void sortByKeysIsStableTest() {
+        final Random random = new Random(42);
+        final int count = 1000;
+        final int[] values = new int[count];
+        final long[] keys = new long[count];
+        for (int i = 0; i < count; ++i) {
+            values[i] = i;
+            keys[i] = random.nextInt(10);
+        }
+        ObjectMetrics.sortByKeys(values, keys, count);
+        for (int i = 1; i < count; ++i) {
+            Assertions.assertTrue(keys[i - 1] <= keys[i]);
+            if (keys[i - 1] == keys[i]) {
+                Assertions.assertTrue(values[i - 1] < values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNull;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ObjectSnifferTest {
+    @Test
+    void uncompressedObjectsTest() throws IOException {
+        assertMatchesParsedObjects(createDocument(false), false);
+    }
+
+    @Test
+    void compressedObjectsTest() throws IOException {
+        assertMatchesParsedObjects(createDocument(true), true);
+    }
+
+    @Test
+    void wrongOffsetIsUnknownTest() throws IOException {
+        final byte[] bytes = createDocument(false);
+        final PdfFileContent content = PdfFileContent.wrap(bytes);
+        final XRefIndex xref = XRefParser.parse(content);
+        final XRefIndex shifted = new XRefIndex();
+        shifted.define(1, XRefIndex.IN_USE, xref.getOffset(2), 0);
+        try (final ObjectSniffer sniffer = new ObjectSniffer(content, shifted)) {
+            Assertions.assertEquals(ObjectSniffer.UNKNOWN, sniffer.sniff(1));
+            Assertions.assertEquals(ObjectSniffer.UNKNOWN, sniffer.sniff(2));
+        }
+    }
+
+    private static void assertMatchesParsedObjects(byte[] bytes, boolean expectCompressed) throws IOException {
+        final PdfFileContent content = PdfFileContent.wrap(bytes);
+        final XRefIndex xref = XRefParser.parse(content);
+        final PdfDocument doc = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)));
+        final ObjectMetrics sniffed = new ObjectMetrics(doc.getNumberOfPdfObjects());
+        final ObjectMetrics parsed = new ObjectMetrics(doc.getNumberOfPdfObjects());
+        boolean hasCompressed = false;
+        int pages = 0;
+        try (final ObjectSniffer sniffer = new ObjectSniffer(content, xref)) {
+            for (int ref = 1; ref < doc.getNumberOfPdfObjects(); ++ref) {
+                final int type = sniffer.sniff(ref, sniffed);
+                if (!xref.isInUse(ref)) {
+                    Assertions.assertEquals(ObjectSniffer.UNKNOWN, type);
+                    continue;
+                }
+                hasCompressed |= xref.getType(ref) == XRefIndex.COMPRESSED;
+                Assertions.assertEquals(classify(doc.getPdfObject(ref)), type, "Object " + ref);
+                if (type == ObjectSniffer.PAGE) {
+                    ++pages;
+                }
+                parsed.record(ref, doc.getPdfObject(ref));
+                assertSameMetrics(parsed, sniffed, ref);
+            }
+        } finally {
+            doc.close();
+        }
+        Assertions.assertEquals(expectCompressed, hasCompressed);
+        Assertions.assertEquals(2, pages);
+    }
+
+    private static void assertSameMetrics(ObjectMetrics expected, ObjectMetrics actual, int ref) {
+        final String message = "Object " + ref;
+        Assertions.assertEquals(expected.getKind(ref), actual.getKind(ref), message);
+        Assertions.assertEquals(expected.getGeneration(ref), actual.getGeneration(ref), message);
+        Assertions.assertEquals(expected.getOffset(ref), actual.getOffset(ref), message);
+        Assertions.assertEquals(expected.getObjectStream(ref), actual.getObjectStream(ref), message);
+        Assertions.assertEquals(expected.getType(ref), actual.getType(ref), message);
+        Assertions.assertEquals(expected.getSubtype(ref), actual.getSubtype(ref), message);
+        Assertions.assertEquals(expected.getLength(ref), actual.getLength(ref), message);
+        Assertions.assertEquals(expected.getDecodedLength(ref), actual.getDecodedLength(ref), message);
+    }
+
+    private static int classify(PdfObject object) {
+        if (object.isDictionary() && PdfName.Page.equals(((PdfDictionary) object).get(PdfName.Type, false))) {
+            return ObjectSniffer.PAGE;
+        }
+        return object.isNull() ? ObjectSniffer.NULL : ObjectSniffer.OTHER;
+    }
+
+    private static byte[] createDocument(boolean fullCompression) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final PdfDocument doc = new PdfDocument(
+                new PdfWriter(output, new WriterProperties().setFullCompressionMode(fullCompression))
+        );
+        doc.addNewPage();
+        doc.addNewPage();
+        final PdfDictionary catalog = doc.getCatalog().getPdfObject();
+        final PdfDictionary dict = new PdfDictionary();
+        dict.put(PdfName.Kids, new PdfArray(new float[] {1, 2, 3}));
+        dict.put(PdfName.Type, PdfName.Annot);
+        dict.put(PdfName.Subtype, PdfName.Link);
+        catalog.put(new PdfName("Dictionary"), dict.makeIndirect(doc));
+        // A stream, which claims to be a page, is not a page dictionary
+        final PdfStream stream = new PdfStream("q Q".getBytes(StandardCharsets.ISO_8859_1));
+        stream.put(PdfName.Type, PdfName.Page);
+        catalog.put(new PdfName("Stream"), stream.makeIndirect(doc));
+        catalog.put(new PdfName("Null"), new PdfNull().makeIndirect(doc));
+        doc.close();
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PageLabelNumberingStyle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class PageIndexTest {
+    private static final int PAGE_COUNT = 57;
+
+    @Test
+    void labelledPagesTest() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final PdfDocument created = new PdfDocument(new PdfWriter(output));
+        for (int i = 0; i < PAGE_COUNT; ++i) {
+            created.addNewPage();
+        }
+        created.getPage(1).setPageLabel(PageLabelNumberingStyle.LOWERCASE_ROMAN_NUMERALS, null);
+        created.getPage(5).setPageLabel(PageLabelNumberingStyle.DECIMAL_ARABIC_NUMERALS, "P-", 3);
+        created.getPage(30).setPageLabel(PageLabelNumberingStyle.UPPERCASE_LETTERS, null);
+        created.getPage(40).setPageLabel(null, "Appendix");
+        created.close();
+
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(output.toByteArray())))) {
+            // More than a few pages make the page tree deeper than one level
+            final PageIndex index = PageIndex.build(document, new ReentrantLock());
+            Assertions.assertEquals(PAGE_COUNT, index.size());
+            final String[] labels = document.getPageLabels();
+            for (int i = 0; i < PAGE_COUNT; ++i) {
+                Assertions.assertEquals(
+                        document.getPage(i + 1).getPdfObject().getIndirectReference().getObjNumber(),
+                        index.getObjectNumber(i)
+                );
+                Assertions.assertEquals(labels[i], index.getLabel(i));
+                Assertions.assertEquals(i, index.indexOf(index.getObjectNumber(i)));
+            }
+            final int catalog = document.getCatalog().getPdfObject().getIndirectReference().getObjNumber();
+            Assertions.assertEquals(-1, index.indexOf(catalog));
+            Assertions.assertEquals("iii", index.getLabel(2));
+            Assertions.assertEquals("P-3", index.getLabel(4));
+            Assertions.assertEquals("Appendix", index.getLabel(PAGE_COUNT - 1));
+        }
+    }
+
+    @Test
+    void unlabelledPagesTest() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final PdfDocument created = new PdfDocument(new PdfWriter(output));
+        created.addNewPage();
+        created.addNewPage();
+        created.close();
+
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(output.toByteArray())))) {
+            final PageIndex index = PageIndex.build(document, null);
+            Assertions.assertEquals(2, index.size());
+            Assertions.assertNull(index.getLabel(0));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> index.getObjectNumber(2));
+        }
+    }
+
+    @Test
+    void pagesAreNotParsedTest() throws IOException {
+        pagesAreNotParsed(new WriterProperties());
+    }
+
+    @Test
+    void compressedPagesAreNotParsedTest() throws IOException {
+        // The object streams are parsed as a whole, so this mostly checks the sniffed pages
+        pagesAreNotParsed(new WriterProperties().setFullCompressionMode(true));
+    }
+
+    private static void pagesAreNotParsed(WriterProperties properties) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final PdfDocument created = new PdfDocument(new PdfWriter(output, properties));
+        for (int i = 0; i < PAGE_COUNT; ++i) {
+            created.addNewPage();
+        }
+        created.close();
+        final byte[] bytes = output.toByteArray();
+
+        final Set<Integer> parsed = new HashSet<>();
+        final PdfReader reader = new PdfReader(new ByteArrayInputStream(bytes)) {
+            @Override
+            protected PdfObject readObject(PdfIndirectReference reference) {
+                parsed.add(reference.getObjNumber());
+                return super.readObject(reference);
+            }
+        };
+        try (PdfDocument document = new PdfDocument(reader);
+                PdfDocument expected = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)))) {
+            final PageIndex index = PageIndex.build(document, null, PdfFileContent.wrap(bytes));
+            Assertions.assertEquals(PAGE_COUNT, index.size());
+            for (int i = 0; i < PAGE_COUNT; ++i) {
+                final int page = expected.getPage(i + 1).getPdfObject().getIndirectReference().getObjNumber();
+                Assertions.assertEquals(page, index.getObjectNumber(i));
+                Assertions.assertFalse(parsed.contains(page));
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ParallelObjectScannerTest {
+    private static final Path RESOURCES_DIR_PATH = Paths.get(
+            "./src/test/resources/com/itextpdf/rups/model/pdfFile"
+    );
+
+    @Test
+    void regularFileMatchesSequentialScanTest() throws Exception {
+        assertMatchesSequentialScan("regular.pdf", "");
+    }
+
+    @Test
+    void userProtectedFileMatchesSequentialScanTest() throws Exception {
+        assertMatchesSequentialScan("protected_with_both_passwords.pdf", "password-user");
+    }
+
+    @Test
+    void objectStreamsMatchSequentialScanTest() throws Exception {
+        final PdfFile file = PdfFile.open(new File("compressed.pdf"), createCompressedDocument());
+        try {
+            final XRefIndex xref = XRefParser.parse(file.getContent());
+            final int maximum = file.getPdfDocument().getNumberOfPdfObjects();
+            boolean hasCompressed = false;
+            for (int ref = 0; ref <= maximum; ++ref) {
+                hasCompressed |= xref.getType(ref) == XRefIndex.COMPRESSED;
+            }
+            Assertions.assertTrue(hasCompressed);
+
+            assertMatchesSequentialScan(file, xref);
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    void segmentsCoverWholeRangeTest() throws Exception {
+        final PdfFile file = openTestFile("regular.pdf", "");
+        try {
+            final int maximum = file.getPdfDocument().getNumberOfPdfObjects();
+            final ParallelObjectScanner scanner = new ParallelObjectScanner(file, maximum, 2, 3);
+            final List<ParallelObjectScanner.Segment> segments = new ArrayList<>();
+            Assertions.assertTrue(scanner.scan(segments::add, () -> {}));
+
+            int expectedFrom = 0;
+            for (final ParallelObjectScanner.Segment segment : segments) {
+                Assertions.assertEquals(expectedFrom, segment.from);
+                Assertions.assertTrue(segment.to - segment.from <= 3);
+                expectedFrom = segment.to;
+            }
+            Assertions.assertEquals(maximum + 1, expectedFrom);
+            Assertions.assertEquals(maximum + 1, scanner.getScanned());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    void cancelledScanDeliversNothingTest() throws Exception {
+        final PdfFile file = openTestFile("regular.pdf", "");
+        try {
+            final int maximum = file.getPdfDocument().getNumberOfPdfObjects();
+            final ParallelObjectScanner scanner = new ParallelObjectScanner(file, maximum, 2, 3);
+            scanner.cancel();
+            final List<ParallelObjectScanner.Segment> segments = new ArrayList<>();
+
+            Assertions.assertFalse(scanner.scan(segments::add, () -> {}));
+            Assertions.assertTrue(segments.isEmpty());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    void objectsAheadOfScanAreLoadedOnAccessTest() throws Exception {
+        final PdfFile file = openTestFile("regular.pdf", "");
+        try {
+            final PdfDocument doc = file.getPdfDocument();
+            final int catalogRef = doc.getCatalog().getPdfObject().getIndirectReference().getObjNumber();
+            final IndirectObjectFactory factory = new IndirectObjectFactory(doc);
+            final TreeNodeFactory nodes = new TreeNodeFactory(factory);
+
+            Assertions.assertEquals(-1, factory.getIndexByRef(catalogRef));
+            Assertions.assertNotNull(nodes.getNode(catalogRef));
+            final int idx = factory.getIndexByRef(catalogRef);
+            Assertions.assertTrue(factory.isLoadedByIndex(idx));
+
+            final ParallelObjectScanner scanner =
+                    new ParallelObjectScanner(file, factory.getXRefMaximum(), 2, 2);
+            Assertions.assertTrue(scanner.scan(factory::storeSegment, () -> {}));
+            Assertions.assertEquals(idx, factory.getIndexByRef(catalogRef));
+            for (int i = 0; i < factory.size(); ++i) {
+                Assertions.assertEquals(i, factory.getIndexByRef(factory.getRefByIndex(i)));
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    void closingFileDuringScanTest() throws Exception {
+        final Path path = Files.createTempFile("rups-test-", ".pdf");
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Files.write(path, createCompressedDocument(2000));
+            final PdfFile file = openTestFile(path.toFile(), "");
+            final ParallelObjectScanner scanner = new ParallelObjectScanner(
+                    file, file.getPdfDocument().getNumberOfPdfObjects(), 3, 16, XRefParser.parse(file.getContent())
+            );
+            final Future<Boolean> scan = executor.submit(() -> scanner.scan(segment -> {}, () -> {}));
+            while (scanner.getScanned() == 0 && !scan.isDone()) {
+                Thread.sleep(1);
+            }
+            // Same as closing a tab: the scan is stopped, but not waited for
+            scanner.cancel();
+            file.close();
+            try {
+                // The scan might also have finished before it was cancelled
+                scan.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // Workers, which read after the close, fail, but they do not crash
+                Assertions.assertInstanceOf(IOException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void assertMatchesSequentialScan(String fileName, String password) throws Exception {
+        final PdfFile file = openTestFile(fileName, password);
+        try {
+            // The objects of the classic table are sniffed with its index
+            assertMatchesSequentialScan(file, XRefParser.parse(file.getContent()));
+        } finally {
+            file.close();
+        }
+    }
+
+    private static void assertMatchesSequentialScan(PdfFile file, XRefIndex xref) throws Exception {
+        final IndirectObjectFactory sequential = new IndirectObjectFactory(file.getPdfDocument());
+        while (sequential.storeNextObject()) {
+            // Empty
+        }
+
+        final IndirectObjectFactory parallel = new IndirectObjectFactory(file.getPdfDocument());
+        final ParallelObjectScanner scanner =
+                new ParallelObjectScanner(file, parallel.getXRefMaximum(), 3, 2, xref);
+        Assertions.assertTrue(scanner.scan(parallel::storeSegment, () -> {}));
+
+        Assertions.assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); ++i) {
+            Assertions.assertEquals(sequential.getRefByIndex(i), parallel.getRefByIndex(i));
+            Assertions.assertEquals(sequential.isPageByIndex(i), parallel.isPageByIndex(i));
+            // Pages are not read from the main document during the scan
+            Assertions.assertEquals(
+                    sequential.isLoadedByIndex(i) && !sequential.isPageByIndex(i),
+                    parallel.isLoadedByIndex(i)
+            );
+        }
+    }
+
+    private static byte[] createCompressedDocument() {
+        return createCompressedDocument(5);
+    }
+
+    private static byte[] createCompressedDocument(int pageCount) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final PdfDocument doc = new PdfDocument(
+                new PdfWriter(output, new WriterProperties().setFullCompressionMode(true))
+        );
+        for (int i = 0; i < pageCount; ++i) {
+            doc.addNewPage();
+            new PdfString("TEST" + i).makeIndirect(doc);
+        }
+        doc.close();
+        return output.toByteArray();
+    }
+
+    private static PdfFile openTestFile(String fileName, String password) throws IOException {
+        return openTestFile(RESOURCES_DIR_PATH.resolve(fileName).toFile(), password);
+    }
+
+    private static PdfFile openTestFile(File testFile, String password) throws IOException {
+        final byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        return PdfFile.open(testFile, new IPasswordProvider() {
+            @Override
+            public boolean isInteractive() {
+                return false;
+            }
+
+            @Override
+            public byte[] get(File originalFile) {
+                return passwordBytes;
+            }
+        });
+    }
+}
@@ -0,0 +1,110 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class PdfFileContentTest {
+    private static final byte[] DATA = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void randomAccessTest() throws IOException {
+        final PdfFileContent content = PdfFileContent.wrap(DATA);
+        Assertions.assertEquals(DATA.length, content.length());
+        Assertions.assertEquals('a', content.get(10));
+        Assertions.assertEquals(-1, content.get(DATA.length));
+        Assertions.assertEquals(-1, content.get(-1));
+
+        final byte[] buffer = new byte[8];
+        Assertions.assertEquals(4, content.readFully(12, buffer, 0, buffer.length));
+        Assertions.assertArrayEquals(
+                "cdef".getBytes(StandardCharsets.US_ASCII),
+                Arrays.copyOf(buffer, 4)
+        );
+        Assertions.assertArrayEquals(DATA, content.toByteArray());
+    }
+
+    @Test
+    void sliceTest() throws IOException {
+        final PdfFileContent content = PdfFileContent.wrap(DATA);
+        final PdfFileContent slice = content.slice(4, 8);
+        Assertions.assertEquals(8, slice.length());
+        Assertions.assertEquals('4', slice.get(0));
+        Assertions.assertEquals(-1, slice.get(8));
+        Assertions.assertArrayEquals("456789ab".getBytes(StandardCharsets.US_ASCII), slice.toByteArray());
+        Assertions.assertArrayEquals("67".getBytes(StandardCharsets.US_ASCII), slice.slice(2, 2).toByteArray());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> slice.slice(4, 5));
+
+        final byte[] buffer = new byte[4];
+        Assertions.assertEquals(2, slice.asRandomAccessSource().get(6, buffer, 0, 4));
+        Assertions.assertEquals(8, slice.asRandomAccessSource().length());
+        // Closing a view should not release the shared source
+        slice.asRandomAccessSource().close();
+        slice.close();
+        Assertions.assertEquals('0', content.get(0));
+    }
+
+    @Test
+    void openStreamTest() throws IOException {
+        final PdfFileContent content = PdfFileContent.wrap(DATA).slice(2, 10);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = content.openStream()) {
+            Assertions.assertEquals('2', input.read());
+            Assertions.assertEquals(3, input.skip(3));
+            final byte[] buffer = new byte[3];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        Assertions.assertArrayEquals("6789ab".getBytes(StandardCharsets.US_ASCII), output.toByteArray());
+    }
+}
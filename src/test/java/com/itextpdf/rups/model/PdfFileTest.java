@@ -43,6 +43,10 @@
 package com.itextpdf.rups.model;
 
 import com.itextpdf.kernel.exceptions.BadPasswordException;
+import com.itextpdf.kernel.exceptions.PdfException;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfString;
 import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 
 import java.io.File;
@@ -51,6 +55,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -71,7 +76,7 @@ class PdfFileTest {
          * Should be opened in the read-only mode, as this is the default.
          */
         Assertions.assertFalse(openedFile.isOpenedAsOwner());
-        Assertions.assertNull(openedFile.getByteArrayOutputStream());
+        Assertions.assertNull(openedFile.getWriterOutputStream());
         // Sanity check, that it opened the document properly
         Assertions.assertEquals(
                 "REGULAR",
@@ -86,7 +91,7 @@ class PdfFileTest {
          * Should be opened in the read-only mode, as this is the default.
          */
         Assertions.assertFalse(openedFile.isOpenedAsOwner());
-        Assertions.assertNull(openedFile.getByteArrayOutputStream());
+        Assertions.assertNull(openedFile.getWriterOutputStream());
         // Sanity check, that it opened the document properly
         Assertions.assertEquals(
                 "ONLY OWNER PASSWORD",
@@ -101,7 +106,7 @@ class PdfFileTest {
          * Should be opened in the read-only mode, as this is the default.
          */
         Assertions.assertFalse(openedFile.isOpenedAsOwner());
-        Assertions.assertNull(openedFile.getByteArrayOutputStream());
+        Assertions.assertNull(openedFile.getWriterOutputStream());
         // Sanity check, that it opened the document properly
         Assertions.assertEquals(
                 "ONLY OWNER PASSWORD",
@@ -116,7 +121,7 @@ class PdfFileTest {
          * Should be opened in the read-only mode, as this is the default.
          */
         Assertions.assertFalse(openedFile.isOpenedAsOwner());
-        Assertions.assertNull(openedFile.getByteArrayOutputStream());
+        Assertions.assertNull(openedFile.getWriterOutputStream());
         // Sanity check, that it opened the document properly
         Assertions.assertEquals(
                 "ONLY OWNER PASSWORD",
@@ -155,7 +160,7 @@ class PdfFileTest {
          * Should be opened in the read-only mode, as this is the default.
          */
         Assertions.assertFalse(openedFile.isOpenedAsOwner());
-        Assertions.assertNull(openedFile.getByteArrayOutputStream());
+        Assertions.assertNull(openedFile.getWriterOutputStream());
         // Sanity check, that it opened the document properly
         Assertions.assertEquals(
                 "DIFFERENT USER AND OWNER PASSWORDS",
@@ -170,7 +175,7 @@ class PdfFileTest {
          * Should be opened in the read-only mode, as this is the default.
          */
         Assertions.assertFalse(openedFile.isOpenedAsOwner());
-        Assertions.assertNull(openedFile.getByteArrayOutputStream());
+        Assertions.assertNull(openedFile.getWriterOutputStream());
         // Sanity check, that it opened the document properly
         Assertions.assertEquals(
                 "DIFFERENT USER AND OWNER PASSWORDS",
@@ -188,6 +193,87 @@ class PdfFileTest {
         );
     }
 
+    @Test
+    void saveAndClose_RegularFileTest() throws IOException {
+        final Path target = Files.createTempFile("rups-test-", ".pdf");
+        try {
+            final PdfFile openedFile = openTestFileAsOwner("regular.pdf", "");
+            openedFile.saveAndClose(target);
+            Assertions.assertTrue(openedFile.getPdfDocument().isClosed());
+
+            final PdfFile savedFile = PdfFile.open(target.toFile());
+            try {
+                Assertions.assertEquals(
+                        "REGULAR",
+                        PdfTextExtractor.getTextFromPage(savedFile.getPdfDocument().getFirstPage())
+                );
+            } finally {
+                savedFile.close();
+            }
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    void saveIncrementallyAndClose_RegularFileTest() throws IOException {
+        final Path target = Files.createTempFile("rups-test-", ".pdf");
+        try {
+            final PdfFile openedFile = openTestFileAsOwner("regular.pdf", "");
+            final ModificationTracker modifications = new ModificationTracker();
+            final PdfDictionary catalog = openedFile.getPdfDocument().getCatalog().getPdfObject();
+            final PdfDictionary created = new PdfDictionary();
+            created.put(PdfName.Title, new PdfString("INCREMENTAL"));
+            created.makeIndirect(openedFile.getPdfDocument());
+            catalog.put(new PdfName("RupsTest"), created.getIndirectReference());
+            modifications.markCreated(created.getIndirectReference().getObjNumber());
+            modifications.markModified(catalog.getIndirectReference().getObjNumber());
+            openedFile.saveIncrementallyAndClose(target, modifications);
+
+            // Original content should stay intact, with the update appended
+            final byte[] original = readTestFileBytes("regular.pdf");
+            final byte[] saved = Files.readAllBytes(target);
+            Assertions.assertTrue(saved.length > original.length);
+            Assertions.assertArrayEquals(original, Arrays.copyOf(saved, original.length));
+
+            final PdfFile savedFile = PdfFile.open(target.toFile());
+            try {
+                final PdfDictionary savedCatalog = savedFile.getPdfDocument().getCatalog().getPdfObject();
+                final PdfDictionary savedCreated = savedCatalog.getAsDictionary(new PdfName("RupsTest"));
+                Assertions.assertNotNull(savedCreated);
+                Assertions.assertEquals("INCREMENTAL", savedCreated.getAsString(PdfName.Title).toUnicodeString());
+            } finally {
+                savedFile.close();
+            }
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    void saveIncrementallyAndClose_FailedUpdateKeepsDocumentTest() throws IOException {
+        final Path target = Files.createTempFile("rups-test-", ".pdf");
+        final PdfFile openedFile = openTestFileAsOwner("regular.pdf", "");
+        try {
+            final ModificationTracker modifications = new ModificationTracker();
+            final PdfDictionary catalog = openedFile.getPdfDocument().getCatalog().getPdfObject();
+            catalog.put(new PdfName("RupsTest"), new PdfString("EDITED"));
+            // An existing object cannot be created again with the same number
+            modifications.markCreated(catalog.getIndirectReference().getObjNumber());
+            Assertions.assertThrows(
+                    PdfException.class, () -> openedFile.saveIncrementallyAndClose(target, modifications)
+            );
+
+            Assertions.assertFalse(openedFile.getPdfDocument().isClosed());
+            Assertions.assertEquals("EDITED", openedFile.getPdfDocument().getCatalog().getPdfObject()
+                    .getAsString(new PdfName("RupsTest")).toUnicodeString());
+            Assertions.assertEquals(0, Files.size(target));
+        } finally {
+            openedFile.close();
+            Files.deleteIfExists(target);
+        }
+    }
+
     @Test
     void openAsOwner_OwnerProtectedFileWithoutPasswordTest() {
         /*
@@ -274,7 +360,7 @@ class PdfFileTest {
 
         // These assertions should be valid on any properly opened file
         Assertions.assertEquals(testFile, openedFile.getOriginalFile());
-        Assertions.assertArrayEquals(readTestFileBytes(fileName), openedFile.getOriginalContent());
+        Assertions.assertArrayEquals(readTestFileBytes(fileName), openedFile.getContent().toByteArray());
         Assertions.assertNotNull(openedFile.getPdfDocument());
         return openedFile;
     }
@@ -287,11 +373,11 @@ class PdfFileTest {
 
         // These assertions should be valid on any properly opened file
         Assertions.assertEquals(testFile, openedFile.getOriginalFile());
-        Assertions.assertArrayEquals(readTestFileBytes(fileName), openedFile.getOriginalContent());
+        Assertions.assertArrayEquals(readTestFileBytes(fileName), openedFile.getContent().toByteArray());
         Assertions.assertNotNull(openedFile.getPdfDocument());
         // Should be opened as owner, as we are forcing it here
         Assertions.assertTrue(openedFile.isOpenedAsOwner());
-        Assertions.assertNotNull(openedFile.getByteArrayOutputStream());
+        Assertions.assertNotNull(openedFile.getWriterOutputStream());
         return openedFile;
     }
 
@@ -0,0 +1,139 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ProgressReporterTest {
+    @Test
+    void updatesAreCoalescedTest() throws Exception {
+        final RecordingProgressDialog dialog = new RecordingProgressDialog();
+        final ProgressReporter reporter = new ProgressReporter(dialog);
+        reporter.setMessage("Scanning");
+        reporter.setTotal(10000);
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 2500; ++j) {
+                    reporter.increment();
+                }
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        SwingUtilities.invokeAndWait(reporter::flush);
+
+        Assertions.assertEquals(List.of("Scanning"), dialog.messages);
+        Assertions.assertEquals(List.of(10000), dialog.totals);
+        Assertions.assertEquals(List.of(10000), dialog.values);
+    }
+
+    @Test
+    void unchangedStateIsNotPassedAgainTest() throws Exception {
+        final RecordingProgressDialog dialog = new RecordingProgressDialog();
+        final ProgressReporter reporter = new ProgressReporter(dialog);
+        reporter.setValue(5);
+        SwingUtilities.invokeAndWait(reporter::flush);
+        SwingUtilities.invokeAndWait(reporter::flush);
+        reporter.setValue(7);
+        SwingUtilities.invokeAndWait(reporter::flush);
+
+        Assertions.assertEquals(List.of(5, 7), dialog.values);
+        Assertions.assertEquals(List.of(0), dialog.totals);
+        Assertions.assertTrue(dialog.messages.isEmpty());
+    }
+
+    @Test
+    void stopPassesFinalStateTest() throws Exception {
+        final RecordingProgressDialog dialog = new RecordingProgressDialog();
+        final ProgressReporter reporter = new ProgressReporter(dialog);
+        reporter.start();
+        reporter.setValue(42);
+        reporter.stop();
+        SwingUtilities.invokeAndWait(() -> {
+            // Wait for the final update
+        });
+
+        Assertions.assertFalse(dialog.values.isEmpty());
+        Assertions.assertEquals(42, dialog.values.get(dialog.values.size() - 1));
+    }
+
+    private static final class RecordingProgressDialog implements IProgressDialog {
+        private final List<String> messages = new ArrayList<>();
+        private final List<Integer> totals = new ArrayList<>();
+        private final List<Integer> values = new ArrayList<>();
+
+        @Override
+        public void setMessage(String msg) {
+            messages.add(msg);
+        }
+
+        @Override
+        public void setValue(int value) {
+            values.add(value);
+        }
+
+        @Override
+        public void setTotal(int n) {
+            totals.add(n);
+        }
+
+        @Override
+        public void showErrorDialog(Exception ex) {
+            // noop
+        }
+
+        @Override
+        public void setVisible(boolean visible) {
+            // noop
+        }
+    }
+}
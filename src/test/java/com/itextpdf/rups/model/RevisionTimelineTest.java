@@ -0,0 +1,183 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class RevisionTimelineTest {
+    @Test
+    void appendModeTest() throws IOException {
+        final ByteArrayOutputStream original = new ByteArrayOutputStream();
+        final PdfDocument created = new PdfDocument(new PdfWriter(original));
+        created.addNewPage();
+        created.close();
+        final ByteArrayOutputStream updated = new ByteArrayOutputStream();
+        final PdfDocument doc = new PdfDocument(
+                new PdfReader(new ByteArrayInputStream(original.toByteArray())),
+                new PdfWriter(updated),
+                new StampingProperties().useAppendMode()
+        );
+        doc.addNewPage();
+        doc.close();
+
+        final RevisionTimeline timeline = RevisionTimeline.read(PdfFileContent.wrap(updated.toByteArray()));
+        Assertions.assertNull(timeline.getError());
+        Assertions.assertEquals(0, timeline.getTrailingLength());
+        final List<Revision> revisions = timeline.getRevisions();
+        Assertions.assertEquals(2, revisions.size());
+
+        final Revision first = revisions.get(0);
+        Assertions.assertEquals(1, first.getNumber());
+        Assertions.assertEquals(0, first.getStart());
+        Assertions.assertEquals(original.size(), first.getEnd());
+        Assertions.assertFalse(first.isStream());
+        Assertions.assertTrue(first.getAddedCount() > 0);
+        Assertions.assertEquals(0, first.getChangedCount());
+        Assertions.assertEquals(0, first.getFreedCount());
+
+        final Revision second = revisions.get(1);
+        Assertions.assertEquals(2, second.getNumber());
+        Assertions.assertEquals(original.size(), second.getStart());
+        Assertions.assertEquals(updated.size(), second.getEnd());
+        // The new page is added, the page tree is changed
+        Assertions.assertTrue(second.getAddedCount() > 0);
+        Assertions.assertTrue(second.getChangedCount() > 0);
+        Assertions.assertEquals(0, second.getFreedCount());
+
+        final Path path = Files.createTempFile("rups-test-", ".pdf");
+        try {
+            Files.write(path, updated.toByteArray());
+            final PdfFile revision = PdfFile.openRevision(path.toFile(), first.getEnd());
+            try {
+                Assertions.assertEquals(first.getEnd(), revision.getContent().length());
+                Assertions.assertEquals(1, revision.getPdfDocument().getNumberOfPages());
+            } finally {
+                revision.close();
+            }
+            Assertions.assertThrows(IOException.class, () -> PdfFile.openRevision(path.toFile(), updated.size() + 1));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void changedAndFreedObjectsTest() {
+        final StringBuilder file = new StringBuilder("%PDF-1.4\n");
+        final long[] offsets = new long[6];
+        offsets[1] = XRefTestUtil.appendObject(file, 1, "<< /Type /Catalog /Pages 2 0 R >>");
+        offsets[2] = XRefTestUtil.appendObject(file, 2, "<< /Type /Pages /Kids [] /Count 0 >>");
+        offsets[3] = XRefTestUtil.appendObject(file, 3, "<< /Unused true >>");
+        offsets[4] = XRefTestUtil.appendObject(file, 4, "<< /ModDate (D:20240102030405Z) >>");
+        final long firstXref = file.length();
+        file.append("xref\n0 5\n").append(XRefTestUtil.entry(0, 65535, 'f'));
+        for (int ref = 1; ref <= 4; ++ref) {
+            file.append(XRefTestUtil.entry(offsets[ref], 0, 'n'));
+        }
+        file.append("trailer\n<< /Size 5 /Root 1 0 R /Info 4 0 R >>\nstartxref\n")
+                .append(firstXref).append("\n%%EOF\n");
+        final long firstEnd = file.length();
+        offsets[1] = XRefTestUtil.appendObject(file, 1, "<< /Type /Catalog /Pages 2 0 R /Lang (en) >>");
+        offsets[5] = XRefTestUtil.appendObject(file, 5, "<< /CreationDate (D:20250102030405Z) >>");
+        final long secondXref = file.length();
+        file.append("xref\n0 2\n").append(XRefTestUtil.entry(3, 65535, 'f'))
+                .append(XRefTestUtil.entry(offsets[1], 0, 'n'))
+                .append("3 1\n").append(XRefTestUtil.entry(0, 1, 'f'))
+                .append("5 1\n").append(XRefTestUtil.entry(offsets[5], 0, 'n'))
+                .append("trailer\n<< /Size 6 /Root 1 0 R /Info 5 0 R /Prev ").append(firstXref)
+                .append(" >>\nstartxref\n").append(secondXref).append("\n%%EOF\n");
+
+        final RevisionTimeline timeline = RevisionTimeline.read(
+                PdfFileContent.wrap(file.toString().getBytes(StandardCharsets.ISO_8859_1))
+        );
+        Assertions.assertNull(timeline.getError());
+        final List<Revision> revisions = timeline.getRevisions();
+        Assertions.assertEquals(2, revisions.size());
+
+        final Revision first = revisions.get(0);
+        Assertions.assertEquals(firstXref, first.getXRefOffset());
+        Assertions.assertEquals(firstEnd, first.getEnd());
+        Assertions.assertArrayEquals(new int[] {1, 2, 3, 4}, first.getAdded());
+        Assertions.assertEquals("D:20240102030405Z", first.getDate());
+
+        final Revision second = revisions.get(1);
+        Assertions.assertEquals(secondXref, second.getXRefOffset());
+        Assertions.assertEquals(firstEnd, second.getStart());
+        Assertions.assertEquals(file.length(), second.getEnd());
+        Assertions.assertArrayEquals(new int[] {5}, second.getAdded());
+        Assertions.assertArrayEquals(new int[] {1}, second.getChanged());
+        Assertions.assertArrayEquals(new int[] {3}, second.getFreed());
+        Assertions.assertEquals("D:20250102030405Z", second.getDate());
+    }
+
+    @Test
+    void hybridFileTest() {
+        final RevisionTimeline timeline = RevisionTimeline.read(PdfFileContent.wrap(XRefTestUtil.createHybridFile()));
+        Assertions.assertNull(timeline.getError());
+        final List<Revision> revisions = timeline.getRevisions();
+        Assertions.assertEquals(1, revisions.size());
+
+        final Revision revision = revisions.get(0);
+        Assertions.assertTrue(revision.isHybrid());
+        // The compressed object 4 is added, although the table lists it as free
+        final int[] added = revision.getAdded();
+        Arrays.sort(added);
+        Assertions.assertArrayEquals(new int[] {1, 2, 3, 4, 5}, added);
+        Assertions.assertEquals(0, revision.getFreedCount());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ScanIndexCacheTest {
+    private static final Path REGULAR_PDF = Paths.get(
+            "./src/test/resources/com/itextpdf/rups/model/pdfFile/regular.pdf"
+    );
+
+    private Path folder;
+    private Path pdf;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        folder = Files.createTempDirectory("rups-test-");
+        pdf = folder.resolve("regular.pdf");
+        Files.copy(REGULAR_PDF, pdf, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(folder)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void storedScanIsLoadedTest() throws IOException, InterruptedException {
+        final ScanIndexCache cache = new ScanIndexCache(folder.resolve("cache"));
+        final PdfFile file = PdfFile.open(pdf.toFile());
+        try {
+            final int maximum = file.getPdfDocument().getNumberOfPdfObjects();
+            Assertions.assertNull(cache.load(file, maximum));
+
+            final List<ParallelObjectScanner.Segment> scanned = scan(file, maximum);
+            cache.save(file, maximum, scanned);
+            final List<ParallelObjectScanner.Segment> loaded = cache.load(file, maximum);
+
+            Assertions.assertNotNull(loaded);
+            Assertions.assertEquals(scanned.size(), loaded.size());
+            for (int i = 0; i < scanned.size(); ++i) {
+                Assertions.assertEquals(scanned.get(i).from, loaded.get(i).from);
+                Assertions.assertEquals(scanned.get(i).to, loaded.get(i).to);
+                Assertions.assertEquals(scanned.get(i).present, loaded.get(i).present);
+                Assertions.assertEquals(scanned.get(i).pages, loaded.get(i).pages);
+                Assertions.assertEquals(scanned.get(i).nulls, loaded.get(i).nulls);
+            }
+            Assertions.assertNull(cache.load(file, maximum + 1));
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    void modifiedFileInvalidatesCacheTest() throws IOException, InterruptedException {
+        final ScanIndexCache cache = new ScanIndexCache(folder.resolve("cache"));
+        final PdfFile file = PdfFile.open(pdf.toFile());
+        final int maximum;
+        try {
+            maximum = file.getPdfDocument().getNumberOfPdfObjects();
+            cache.save(file, maximum, scan(file, maximum));
+        } finally {
+            file.close();
+        }
+        Files.setLastModifiedTime(pdf, FileTime.fromMillis(Files.getLastModifiedTime(pdf).toMillis() + 10_000));
+
+        final PdfFile touched = PdfFile.open(pdf.toFile());
+        try {
+            Assertions.assertNull(cache.load(touched, maximum));
+            Assertions.assertEquals(0, countCacheFiles());
+        } finally {
+            touched.close();
+        }
+    }
+
+    @Test
+    void damagedCacheIsRemovedTest() throws IOException, InterruptedException {
+        final ScanIndexCache cache = new ScanIndexCache(folder.resolve("cache"));
+        final PdfFile file = PdfFile.open(pdf.toFile());
+        try {
+            final int maximum = file.getPdfDocument().getNumberOfPdfObjects();
+            cache.save(file, maximum, scan(file, maximum));
+            Assertions.assertEquals(1, countCacheFiles());
+            try (final Stream<Path> files = Files.list(folder.resolve("cache"))) {
+                final Path cacheFile = files.findFirst().orElseThrow(AssertionError::new);
+                final byte[] bytes = Files.readAllBytes(cacheFile);
+                bytes[bytes.length - 1] ^= 1;
+                Files.write(cacheFile, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+
+            Assertions.assertNull(cache.load(file, maximum));
+            Assertions.assertEquals(0, countCacheFiles());
+        } finally {
+            file.close();
+        }
+    }
+
+    private long countCacheFiles() throws IOException {
+        try (final Stream<Path> files = Files.list(folder.resolve("cache"))) {
+            return files.count();
+        }
+    }
+
+    private static List<ParallelObjectScanner.Segment> scan(PdfFile file, int maximum)
+            throws IOException, InterruptedException {
+        final List<ParallelObjectScanner.Segment> segments = new ArrayList<>();
+        Assertions.assertTrue(new ParallelObjectScanner(file, maximum, 2, 3).scan(segments::add, () -> {}));
+        return segments;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class SpillableOutputStreamTest {
+    private static final byte[] DATA = "%PDF-1.7 spillable output".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void keepsDataInMemoryBelowLimitTest() throws IOException {
+        final Path target = Files.createTempFile("rups-test-", ".pdf");
+        final SpillableOutputStream output = new SpillableOutputStream(DATA.length);
+        try {
+            output.write(DATA);
+            output.close();
+            Assertions.assertFalse(output.isSpilled());
+            Assertions.assertEquals(DATA.length, output.size());
+            output.moveTo(target);
+            Assertions.assertArrayEquals(DATA, Files.readAllBytes(target));
+        } finally {
+            output.dispose();
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    void spillsToFileAboveLimitTest() throws IOException {
+        final Path target = Files.createTempFile("rups-test-", ".pdf");
+        final SpillableOutputStream output = new SpillableOutputStream(4);
+        try {
+            output.write(DATA, 0, 3);
+            Assertions.assertFalse(output.isSpilled());
+            output.write(DATA, 3, DATA.length - 3);
+            Assertions.assertTrue(output.isSpilled());
+            output.close();
+            output.moveTo(target);
+            Assertions.assertArrayEquals(DATA, Files.readAllBytes(target));
+            Assertions.assertThrows(IllegalStateException.class, () -> output.moveTo(target));
+        } finally {
+            output.dispose();
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    void targetKeepsPermissionsTest() throws IOException {
+        final Path target = Files.createTempFile("rups-test-", ".pdf");
+        Assumptions.assumeTrue(Files.getFileAttributeView(target, PosixFileAttributeView.class) != null);
+        final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(target, permissions);
+        final SpillableOutputStream output = new SpillableOutputStream(0);
+        try {
+            output.write(DATA);
+            output.close();
+            Assertions.assertTrue(output.isSpilled());
+            output.moveTo(target);
+            Assertions.assertArrayEquals(DATA, Files.readAllBytes(target));
+            Assertions.assertEquals(permissions, Files.getPosixFilePermissions(target));
+        } finally {
+            output.dispose();
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    void moveBeforeCloseTest() throws IOException {
+        final SpillableOutputStream output = new SpillableOutputStream(0);
+        try {
+            output.write(DATA);
+            Assertions.assertThrows(IllegalStateException.class, () -> output.moveTo(Path.of("unused.pdf")));
+        } finally {
+            output.dispose();
+        }
+        Assertions.assertThrows(IOException.class, () -> output.write(1));
+    }
+}
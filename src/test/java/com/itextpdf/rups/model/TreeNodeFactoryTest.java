@@ -49,16 +49,34 @@ import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.rups.view.itext.treenodes.PdfObjectRangeTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.PdfObjectTreeNode;
+import com.itextpdf.rups.view.itext.treenodes.PdfTrailerTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.asn1.Asn1SequenceTreeNode;
 import com.itextpdf.rups.view.itext.treenodes.asn1.Asn1TestUtil;
 import com.itextpdf.rups.view.itext.treenodes.asn1.AbstractAsn1TreeNode;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.swing.SwingUtilities;
 import javax.swing.tree.TreeNode;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
@@ -573,6 +591,366 @@ final class TreeNodeFactoryTest {
         Assertions.assertSame(object, node.getPdfObject());
     }
 
+    @Test
+    void nodesAreCreatedOnDemandTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        doc.addNewPage();
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+        Assertions.assertEquals(0, factory.getNodeCount());
+
+        final int ref = doc.getCatalog().getPdfObject().getIndirectReference().getObjNumber();
+        final PdfObjectTreeNode node = factory.getNode(ref);
+        Assertions.assertNotNull(node);
+        Assertions.assertSame(node, factory.getNode(ref));
+        Assertions.assertEquals(1, factory.getNodeCount());
+    }
+
+    @Test
+    void expandNodeCreatesSingleLevelTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfDictionary inner = new PdfDictionary(Map.of(PdfName.Count, new PdfNumber(1)));
+        final PdfDictionary outer = new PdfDictionary(Map.of(
+                PdfName.Resources, inner,
+                PdfName.Kids, new PdfArray()
+        ));
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(outer);
+        factory.expandNode(node);
+        Assertions.assertEquals(2, node.getChildCount());
+        Assertions.assertFalse(node.isExpandable());
+
+        final PdfObjectTreeNode resources = node.getDictionaryChildNode(PdfName.Resources);
+        Assertions.assertNotNull(resources);
+        Assertions.assertEquals(0, resources.getChildCount());
+        Assertions.assertFalse(resources.isLeaf());
+        final PdfObjectTreeNode kids = node.getDictionaryChildNode(PdfName.Kids);
+        Assertions.assertNotNull(kids);
+        Assertions.assertTrue(kids.isLeaf());
+
+        factory.expandNode(resources);
+        Assertions.assertEquals(1, resources.getChildCount());
+        Assertions.assertFalse(resources.isExpandable());
+        Assertions.assertTrue(((PdfObjectTreeNode) resources.getChildAt(0)).isLeaf());
+    }
+
+    @Test
+    void pageTreeIsExpandedOnDemandTest() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final PdfDocument doc = new PdfDocument(new PdfWriter(out))) {
+            // More pages than fit in a single Pages node
+            for (int i = 0; i < 25; ++i) {
+                doc.addNewPage();
+            }
+        }
+        final PdfDocument doc = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())));
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+        final PdfTrailerTreeNode trailer = new PdfTrailerTreeNode();
+        trailer.setTrailer(doc.getTrailer());
+        factory.expandNode(trailer);
+
+        final PdfObjectTreeNode pages = factory.getChildNode(
+                factory.getChildNode(trailer, PdfName.Root), PdfName.Pages
+        );
+        final PdfObjectTreeNode kids = factory.getChildNode(pages, PdfName.Kids);
+        Assertions.assertTrue(kids.getChildCount() > 1);
+        for (int i = 0; i < kids.getChildCount(); ++i) {
+            // The intermediate Pages nodes are not loaded
+            Assertions.assertEquals(0, kids.getChildAt(i).getChildCount());
+        }
+
+        final PdfDictionary lastPage = doc.getLastPage().getPdfObject();
+        final PdfObjectTreeNode page = factory.getPageNode(trailer, lastPage.getIndirectReference().getObjNumber());
+        Assertions.assertSame(lastPage, page.getPdfObject());
+        Assertions.assertSame(trailer, page.getRoot());
+        int expanded = 0;
+        for (int i = 0; i < kids.getChildCount(); ++i) {
+            expanded += kids.getChildAt(i).getChildCount();
+        }
+        Assertions.assertEquals(1, expanded);
+        doc.close();
+    }
+
+    @Test
+    void pageNodesAreCaptionedTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final int first = doc.addNewPage().getPdfObject().getIndirectReference().getObjNumber();
+        final int second = doc.addNewPage().getPdfObject().getIndirectReference().getObjNumber();
+        final int catalog = doc.getCatalog().getPdfObject().getIndirectReference().getObjNumber();
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+        final PdfObjectTreeNode firstNode = factory.getNode(first);
+        final String uncaptioned = firstNode.toString();
+
+        factory.setPageCaptions(ref -> ref == first ? "Page 1" : ref == second ? "Page 2" : null);
+        // Both the existing nodes and the nodes created later get the caption
+        Assertions.assertEquals("Page 1", firstNode.toString());
+        Assertions.assertEquals("Page 2", factory.getNode(second).toString());
+        Assertions.assertNotEquals(uncaptioned, firstNode.toString());
+        Assertions.assertEquals(
+                PdfObjectTreeNode.getCaption(doc.getCatalog().getPdfObject()),
+                factory.getNode(catalog).toString()
+        );
+        doc.close();
+    }
+
+    @Test
+    void getRangeSizeTest() {
+        Assertions.assertEquals(1, TreeNodeFactory.getRangeSize(0));
+        Assertions.assertEquals(1, TreeNodeFactory.getRangeSize(1000));
+        Assertions.assertEquals(1000, TreeNodeFactory.getRangeSize(1001));
+        Assertions.assertEquals(1000, TreeNodeFactory.getRangeSize(1000000));
+        Assertions.assertEquals(1000000, TreeNodeFactory.getRangeSize(1000001));
+    }
+
+    @Test
+    void largeArrayIsGroupedInRangesTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfArray array = new PdfArray();
+        for (int i = 0; i < 2500; ++i) {
+            array.add(new PdfNumber(i));
+        }
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(array);
+        factory.expandNode(node);
+        Assertions.assertEquals(3, node.getChildCount());
+        final PdfObjectRangeTreeNode last = (PdfObjectRangeTreeNode) node.getChildAt(2);
+        Assertions.assertEquals("[2000..2499]", last.toString());
+        Assertions.assertEquals(0, last.getChildCount());
+        Assertions.assertFalse(last.isLeaf());
+
+        final PdfObjectTreeNode element = factory.getArrayChildNode(node, 2042);
+        Assertions.assertNotNull(element);
+        Assertions.assertEquals(2042, ((PdfNumber) element.getPdfObject()).intValue());
+        Assertions.assertSame(last, element.getParent());
+        Assertions.assertEquals(500, last.getChildCount());
+        Assertions.assertEquals(0, node.getChildAt(0).getChildCount());
+        Assertions.assertNull(factory.getArrayChildNode(node, 2500));
+    }
+
+    @Test
+    void largeDictionaryIsGroupedInRangesTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfDictionary dict = new PdfDictionary();
+        for (int i = 0; i < 1500; ++i) {
+            dict.put(new PdfName("Key" + i), new PdfNumber(i));
+        }
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(dict);
+        factory.expandNode(node);
+        Assertions.assertEquals(2, node.getChildCount());
+
+        final PdfObjectTreeNode entry = factory.getChildNode(node, new PdfName("Key1234"));
+        Assertions.assertNotNull(entry);
+        Assertions.assertEquals(1234, ((PdfNumber) entry.getPdfObject()).intValue());
+        Assertions.assertTrue(entry.getParent() instanceof PdfObjectRangeTreeNode);
+        Assertions.assertNull(factory.getChildNode(node, new PdfName("Missing")));
+    }
+
+    @Test
+    void recursiveReferencesAreMarkedTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfDictionary first = makeIndirect(doc, new PdfDictionary());
+        final PdfDictionary second = makeIndirect(doc, new PdfDictionary());
+        first.put(PdfName.Next, second.getIndirectReference());
+        first.put(PdfName.Parent, first.getIndirectReference());
+        second.put(PdfName.Prev, first.getIndirectReference());
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+
+        final PdfObjectTreeNode node = factory.getNode(first.getIndirectReference().getObjNumber());
+        factory.expandNode(node);
+        final PdfObjectTreeNode parent = node.getDictionaryChildNode(PdfName.Parent);
+        factory.expandNode(parent);
+        Assertions.assertTrue(parent.isRecursive());
+        Assertions.assertEquals(0, parent.getChildCount());
+
+        final PdfObjectTreeNode next = factory.getChildNode(node, PdfName.Next);
+        Assertions.assertNotNull(next);
+        final PdfObjectTreeNode prev = next.getDictionaryChildNode(PdfName.Prev);
+        factory.expandNode(prev);
+        Assertions.assertTrue(prev.isRecursive());
+        Assertions.assertEquals(0, prev.getChildCount());
+        Assertions.assertFalse(next.isRecursive());
+    }
+
+    @Test
+    void asn1DataIsDecodedInBackgroundTest() throws InterruptedException {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfName ts = new PdfName("TS");
+        final PdfDictionary vriLeaf = makeIndirect(doc, new PdfDictionary(Map.of(
+                ts, new PdfStream(new byte[] {0x30, 0x00}),
+                PdfName.Type, PdfName.VRI
+        )));
+        final TreeNodeFactory factory = new TreeNodeFactory(createIndirectObjectFactory(doc));
+        final CountDownLatch decoded = new CountDownLatch(1);
+        final AtomicReference<PdfObjectTreeNode> notified = new AtomicReference<>();
+        factory.setAsn1Listener(node -> {
+            notified.set(node);
+            decoded.countDown();
+        });
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(vriLeaf);
+        factory.expandNode(node);
+        final PdfObjectTreeNode stream = node.getDictionaryChildNode(ts);
+        Assertions.assertNotNull(stream);
+
+        factory.expandNode(stream);
+        Assertions.assertEquals(1, stream.getChildCount());
+        Assertions.assertTrue(decoded.await(10, TimeUnit.SECONDS));
+        Assertions.assertSame(stream, notified.get());
+        Assertions.assertEquals(1, stream.getChildCount());
+        Assertions.assertInstanceOf(Asn1SequenceTreeNode.class, stream.getChildAt(0));
+        Asn1TestUtil.assertNodeMatches(0, "contentInfo", (AbstractAsn1TreeNode) stream.getChildAt(0));
+    }
+
+    @Test
+    void concurrentExpansionTest() throws IOException, InterruptedException, ExecutionException {
+        final PdfName itemsKey = new PdfName("Items");
+        final int[] refs = new int[200];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final PdfDocument doc = new PdfDocument(new PdfWriter(out))) {
+            doc.addNewPage();
+            final PdfArray items = new PdfArray();
+            for (int i = 0; i < refs.length; ++i) {
+                final PdfDictionary item = makeIndirect(doc, new PdfDictionary(Map.of(PdfName.N, new PdfNumber(i))));
+                items.add(item.getIndirectReference());
+                refs[i] = item.getIndirectReference().getObjNumber();
+            }
+            doc.getCatalog().getPdfObject().put(itemsKey, items);
+        }
+        final PdfDocument doc = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())));
+        final Lock lock = new ReentrantLock();
+        // A small cache, so that the objects are evicted and reloaded all the time
+        final IndirectObjectFactory objects = new IndirectObjectFactory(doc, 1024, lock);
+        while (objects.storeNextObject()) {
+            // Empty
+        }
+        final TreeNodeFactory factory = new TreeNodeFactory(objects);
+        final int catalogRef = doc.getCatalog().getPdfObject().getIndirectReference().getObjNumber();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final PdfObjectTreeNode catalog;
+        try {
+            final Future<PdfObjectTreeNode> browsed = executor.submit(() -> {
+                final PdfObjectTreeNode root = factory.getNode(catalogRef);
+                expandAll(factory, root);
+                return root;
+            });
+            final List<Future<?>> analyses = new ArrayList<>();
+            for (int t = 0; t < 3; ++t) {
+                final int offset = t;
+                analyses.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; ++i) {
+                        final int k = (i * 13 + offset) % refs.length;
+                        // The node can be released by another thread, unless the lock is held
+                        lock.lock();
+                        try {
+                            final PdfObjectTreeNode node = factory.getNode(refs[k]);
+                            Assertions.assertNotNull(node);
+                            final PdfDictionary item = (PdfDictionary) node.getPdfObject();
+                            Assertions.assertEquals(k, item.getAsNumber(PdfName.N).intValue());
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> analysis : analyses) {
+                analysis.get();
+            }
+            catalog = browsed.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final PdfObjectTreeNode items = factory.getChildNode(catalog, itemsKey);
+        Assertions.assertNotNull(items);
+        for (int i = 0; i < refs.length; ++i) {
+            final PdfObjectTreeNode reference = factory.getArrayChildNode(items, i);
+            Assertions.assertEquals(1, reference.getChildCount());
+            final PdfObjectTreeNode item = (PdfObjectTreeNode) reference.getFirstChild();
+            Assertions.assertEquals(i, ((PdfDictionary) item.getPdfObject()).getAsNumber(PdfName.N).intValue());
+        }
+        doc.close();
+    }
+
+    @Test
+    void pinnedObjectIsShownOnEventDispatchThreadTest() throws Exception {
+        final int[] refs = new int[16];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final PdfDocument doc = new PdfDocument(new PdfWriter(out))) {
+            doc.addNewPage();
+            final byte[] data = new byte[1024];
+            for (int i = 0; i < refs.length; ++i) {
+                Arrays.fill(data, (byte) ('A' + i));
+                final PdfDictionary item = makeIndirect(doc, new PdfDictionary(Map.of(PdfName.Data, new PdfString(data))));
+                doc.getCatalog().getPdfObject().put(new PdfName("Large" + i), item);
+                refs[i] = item.getIndirectReference().getObjNumber();
+            }
+        }
+        final PdfDocument doc = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())));
+        final Lock lock = new ReentrantLock();
+        // Only a few objects fit, so the workers keep evicting each other's objects
+        final IndirectObjectFactory objects = new IndirectObjectFactory(doc, 4096, lock);
+        while (objects.storeNextObject()) {
+            // Empty
+        }
+        final TreeNodeFactory factory = new TreeNodeFactory(objects);
+
+        // The view shows an object, which is not part of the tree
+        final AtomicReference<PdfObjectTreeNode> shown = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            shown.set(factory.getNode(refs[0]));
+            factory.pin(refs[0]);
+        });
+        final PdfObject pinned = shown.get().getPdfObject();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 3; ++t) {
+                final int offset = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; ++i) {
+                        final int k = 1 + (i * 7 + offset) % (refs.length - 1);
+                        lock.lock();
+                        try {
+                            final PdfDictionary item = (PdfDictionary) factory.getNode(refs[k]).getPdfObject();
+                            Assertions.assertEquals('A' + k, item.getAsString(PdfName.Data).getValueBytes()[0]);
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }));
+            }
+            while (!workers.stream().allMatch(Future::isDone)) {
+                // The view repaints the object, while the workers evict the others
+                SwingUtilities.invokeAndWait(() -> {
+                    lock.lock();
+                    try {
+                        final PdfDictionary item = (PdfDictionary) shown.get().getPdfObject();
+                        Assertions.assertSame(pinned, item);
+                        Assertions.assertNotNull(item.getIndirectReference());
+                        Assertions.assertEquals(1024, item.getAsString(PdfName.Data).getValueBytes().length);
+                        Assertions.assertTrue(objects.isLoadedByReference(refs[0]));
+                    } finally {
+                        lock.unlock();
+                    }
+                });
+            }
+            for (final Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Once the view no longer shows it, the object can be evicted
+        SwingUtilities.invokeAndWait(() -> factory.unpin(refs[0]));
+        for (int k = 1; k < refs.length; ++k) {
+            factory.getNode(refs[k]);
+        }
+        Assertions.assertFalse(objects.isLoadedByReference(refs[0]));
+        doc.close();
+    }
+
     private static void doSigTest(PdfName ft, PdfName type, PdfObject contents, String expectedLeafNodeName) {
         final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
         final PdfDictionary sigDict = createSigDict(doc, type, contents);
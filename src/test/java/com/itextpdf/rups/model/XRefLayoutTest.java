@@ -0,0 +1,235 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class XRefLayoutTest {
+    @Test
+    void flaggedEntriesTest() throws IOException {
+        final XRefLayout layout = XRefLayout.read(PdfFileContent.wrap(createBrokenTable("\r\n")));
+        Assertions.assertNull(layout.getError());
+        Assertions.assertEquals(1, layout.getSectionCount());
+        Assertions.assertFalse(layout.getSection(0).isStream());
+        Assertions.assertEquals(3, layout.getSection(0).getSubsectionCount());
+        Assertions.assertEquals(4, layout.getEntryCount());
+        // Objects 2 and 3 are not defined
+        Assertions.assertEquals(2, layout.getUndefinedCount());
+        assertEntries(layout);
+    }
+
+    @Test
+    void classicTablesTest() throws IOException {
+        final ByteArrayOutputStream original = new ByteArrayOutputStream();
+        final PdfDocument created = new PdfDocument(new PdfWriter(original));
+        created.addNewPage();
+        created.close();
+        final ByteArrayOutputStream updated = new ByteArrayOutputStream();
+        final PdfDocument doc = new PdfDocument(
+                new PdfReader(new ByteArrayInputStream(original.toByteArray())),
+                new PdfWriter(updated),
+                new StampingProperties().useAppendMode()
+        );
+        doc.addNewPage();
+        doc.close();
+
+        final XRefLayout layout = XRefLayout.read(PdfFileContent.wrap(updated.toByteArray()));
+        Assertions.assertNull(layout.getError());
+        Assertions.assertEquals(2, layout.getSectionCount());
+        final XRefIndex index = layout.getIndex();
+        final XRefEntry entry = new XRefEntry();
+        for (int row = 0; row < layout.getEntryCount(); ++row) {
+            layout.readEntry(row, entry);
+            Assertions.assertFalse(layout.getSection(entry.getSection()).isStream());
+            // The entries of the update hide the ones of the original, nothing else is flagged
+            Assertions.assertEquals(0, entry.getFlags() & ~XRefEntry.SHADOWED, "Row " + row);
+            if (!entry.hasFlag(XRefEntry.SHADOWED) && entry.getType() == XRefIndex.IN_USE) {
+                Assertions.assertEquals(index.getOffset(entry.getObjectNumber()), entry.getLocation());
+            }
+        }
+    }
+
+    @Test
+    void irregularEntriesTest() throws IOException {
+        // The entries are only 19 bytes long
+        final XRefLayout layout = XRefLayout.read(PdfFileContent.wrap(createBrokenTable("\n")));
+        Assertions.assertNull(layout.getError());
+        assertEntries(layout);
+    }
+
+    @Test
+    void incrementalStreamTest() throws IOException {
+        final ByteArrayOutputStream original = new ByteArrayOutputStream();
+        final PdfDocument created = new PdfDocument(
+                new PdfWriter(original, new WriterProperties().setFullCompressionMode(true))
+        );
+        created.addNewPage();
+        created.close();
+        final ByteArrayOutputStream updated = new ByteArrayOutputStream();
+        final PdfDocument doc = new PdfDocument(
+                new PdfReader(new ByteArrayInputStream(original.toByteArray())),
+                new PdfWriter(updated),
+                new StampingProperties().useAppendMode()
+        );
+        doc.addNewPage();
+        doc.close();
+
+        final XRefLayout layout = XRefLayout.read(PdfFileContent.wrap(updated.toByteArray()));
+        Assertions.assertNull(layout.getError());
+        Assertions.assertEquals(2, layout.getSectionCount());
+        Assertions.assertTrue(layout.getSection(0).isStream());
+        Assertions.assertTrue(layout.getSection(0).getOffset() > layout.getSection(1).getOffset());
+
+        final XRefIndex index = layout.getIndex();
+        final XRefEntry entry = new XRefEntry();
+        boolean hasShadowed = false;
+        boolean hasCompressed = false;
+        for (int row = 0; row < layout.getEntryCount(); ++row) {
+            layout.readEntry(row, entry);
+            Assertions.assertFalse(entry.hasFlag(XRefEntry.MALFORMED), "Row " + row);
+            hasShadowed |= entry.hasFlag(XRefEntry.SHADOWED);
+            if (entry.hasFlag(XRefEntry.SHADOWED) || entry.hasFlag(XRefEntry.DUPLICATE)) {
+                continue;
+            }
+            final int ref = entry.getObjectNumber();
+            Assertions.assertEquals(index.getType(ref), entry.getType(), "Object " + ref);
+            if (entry.getType() == XRefIndex.IN_USE) {
+                Assertions.assertEquals(index.getOffset(ref), entry.getLocation());
+            } else if (entry.getType() == XRefIndex.COMPRESSED) {
+                hasCompressed = true;
+                Assertions.assertEquals(index.getObjectStreamNumber(ref), entry.getLocation());
+            }
+        }
+        Assertions.assertTrue(hasShadowed);
+        Assertions.assertTrue(hasCompressed);
+    }
+
+    @Test
+    void hybridFileTest() throws IOException {
+        final XRefLayout layout = XRefLayout.read(PdfFileContent.wrap(XRefTestUtil.createHybridFile()));
+        Assertions.assertNull(layout.getError());
+        Assertions.assertEquals(2, layout.getSectionCount());
+        Assertions.assertFalse(layout.getSection(0).isStream());
+        Assertions.assertTrue(layout.getSection(1).isSupplement());
+        Assertions.assertEquals(7, layout.getEntryCount());
+
+        final XRefEntry entry = new XRefEntry();
+        layout.readEntry(0, entry);
+        Assertions.assertEquals(0, entry.getFlags());
+        // The free entry of the table is overridden by the stream
+        layout.readEntry(4, entry);
+        Assertions.assertEquals(4, entry.getObjectNumber());
+        Assertions.assertEquals(XRefIndex.FREE, entry.getType());
+        Assertions.assertEquals(XRefEntry.SHADOWED, entry.getFlags());
+        layout.readEntry(6, entry);
+        Assertions.assertEquals(1, entry.getSection());
+        Assertions.assertEquals(4, entry.getObjectNumber());
+        Assertions.assertEquals(XRefIndex.COMPRESSED, entry.getType());
+        Assertions.assertEquals(3, entry.getLocation());
+        Assertions.assertEquals(0, entry.getFlags());
+    }
+
+    @Test
+    void missingStartXrefTest() {
+        final XRefLayout layout = XRefLayout.read(
+                PdfFileContent.wrap("%PDF-1.7\n%%EOF".getBytes(StandardCharsets.ISO_8859_1))
+        );
+        Assertions.assertNotNull(layout.getError());
+        Assertions.assertEquals(0, layout.getSectionCount());
+        Assertions.assertEquals(0, layout.getEntryCount());
+    }
+
+    private static void assertEntries(XRefLayout layout) throws IOException {
+        final XRefEntry entry = new XRefEntry();
+        layout.readEntry(0, entry);
+        assertEntry(entry, 0, XRefIndex.FREE, 0, 65535, 0);
+        layout.readEntry(1, entry);
+        assertEntry(entry, 1, XRefIndex.IN_USE, 9, 0, 0);
+        layout.readEntry(2, entry);
+        assertEntry(entry, 4, XRefIndex.FREE, 0, 1, XRefEntry.FREE_LIST_BREAK | XRefEntry.GAP_BEFORE);
+        layout.readEntry(3, entry);
+        assertEntry(entry, 1, XRefIndex.IN_USE, 9, 0, XRefEntry.DUPLICATE);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> layout.readEntry(4, entry));
+    }
+
+    private static void assertEntry(XRefEntry entry, int ref, int type, long location, int generation, int flags) {
+        Assertions.assertEquals(0, entry.getSection());
+        Assertions.assertEquals(ref, entry.getObjectNumber());
+        Assertions.assertEquals(type, entry.getType());
+        Assertions.assertEquals(location, entry.getLocation());
+        Assertions.assertEquals(generation, entry.getGeneration());
+        Assertions.assertEquals(flags, entry.getFlags());
+    }
+
+    /**
+     * Creates a file, whose table skips the objects 2 and 3, defines the
+     * object 1 twice and has the free object 4 outside of the free list.
+     */
+    private static byte[] createBrokenTable(String eol) {
+        final String objects = "%PDF-1.4\n1 0 obj\n<< /Type /Catalog >>\nendobj\n";
+        final String table = "xref\n"
+                + "0 2\n"
+                + "0000000000 65535 f" + eol
+                + "0000000009 00000 n" + eol
+                + "4 1\n"
+                + "0000000000 00001 f" + eol
+                + "1 1\n"
+                + "0000000009 00000 n" + eol
+                + "trailer\n<< /Size 5 /Root 1 0 R >>\n"
+                + "startxref\n" + objects.length() + "\n%%EOF\n";
+        return (objects + table).getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class XRefParserTest {
+    @Test
+    void classicTableTest() throws IOException {
+        assertMatchesFullScan(createDocument(false));
+    }
+
+    @Test
+    void crossReferenceStreamTest() throws IOException {
+        final byte[] bytes = createDocument(true);
+        final XRefIndex index = assertMatchesFullScan(bytes);
+
+        boolean hasCompressed = false;
+        for (int ref = 0; ref < index.size(); ++ref) {
+            if (index.getType(ref) == XRefIndex.COMPRESSED) {
+                hasCompressed = true;
+                Assertions.assertTrue(index.isInUse(index.getObjectStreamNumber(ref)));
+                Assertions.assertTrue(index.getIndexInObjectStream(ref) >= 0);
+                Assertions.assertEquals(0, index.getGeneration(ref));
+            }
+        }
+        Assertions.assertTrue(hasCompressed);
+    }
+
+    @Test
+    void incrementalUpdateTest() throws IOException {
+        final ByteArrayOutputStream updated = new ByteArrayOutputStream();
+        final PdfDocument doc = new PdfDocument(
+                new PdfReader(new ByteArrayInputStream(createDocument(false))),
+                new PdfWriter(updated),
+                new StampingProperties().useAppendMode()
+        );
+        doc.addNewPage();
+        doc.close();
+
+        assertMatchesFullScan(updated.toByteArray());
+    }
+
+    @Test
+    void hybridFileTest() throws IOException {
+        // iText keeps the free entry of the table, so this can't be compared with its scan
+        final XRefIndex index = XRefParser.parse(PdfFileContent.wrap(XRefTestUtil.createHybridFile()));
+        Assertions.assertEquals(6, index.size());
+        Assertions.assertEquals(XRefIndex.IN_USE, index.getType(1));
+        Assertions.assertEquals(XRefIndex.IN_USE, index.getType(2));
+        Assertions.assertEquals(XRefIndex.IN_USE, index.getType(5));
+
+        Assertions.assertEquals(XRefIndex.COMPRESSED, index.getType(4));
+        Assertions.assertEquals(3, index.getObjectStreamNumber(4));
+        Assertions.assertEquals(0, index.getIndexInObjectStream(4));
+        Assertions.assertEquals(XRefIndex.IN_USE, index.getType(3));
+        Assertions.assertEquals(XRefIndex.FREE, index.getType(0));
+    }
+
+    @Test
+    void regularFileTest() throws IOException {
+        assertMatchesFullScan(Files.readAllBytes(
+                Paths.get("./src/test/resources/com/itextpdf/rups/model/pdfFile/regular.pdf")
+        ));
+    }
+
+    @Test
+    void offsetsPointToObjectsTest() throws IOException {
+        final byte[] bytes = createDocument(false);
+        final XRefIndex index = XRefParser.parse(PdfFileContent.wrap(bytes));
+        for (int ref = 1; ref < index.size(); ++ref) {
+            if (index.getType(ref) == XRefIndex.IN_USE) {
+                final String header = ref + " " + index.getGeneration(ref) + " obj";
+                Assertions.assertEquals(header, new String(
+                        bytes, (int) index.getOffset(ref), header.length(), StandardCharsets.ISO_8859_1
+                ));
+            }
+        }
+    }
+
+    @Test
+    void missingStartXrefTest() {
+        final PdfFileContent content = PdfFileContent.wrap("%PDF-1.7\n%%EOF".getBytes(StandardCharsets.ISO_8859_1));
+        Assertions.assertThrows(IOException.class, () -> XRefParser.parse(content));
+    }
+
+    private static XRefIndex assertMatchesFullScan(byte[] bytes) throws IOException {
+        final XRefIndex index = XRefParser.parse(PdfFileContent.wrap(bytes));
+        final PdfDocument doc = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)));
+        try {
+            final IndirectObjectFactory scanned = new IndirectObjectFactory(doc);
+            while (scanned.storeNextObject()) {
+                // Empty
+            }
+            final IndirectObjectFactory indexed = new IndirectObjectFactory(doc);
+            indexed.storeFromXRef(index);
+
+            Assertions.assertEquals(scanned.size(), indexed.size());
+            for (int i = 0; i < scanned.size(); ++i) {
+                Assertions.assertEquals(scanned.getRefByIndex(i), indexed.getRefByIndex(i));
+                Assertions.assertFalse(indexed.isLoadedByIndex(i));
+            }
+            final int ref = indexed.getRefByIndex(0);
+            Assertions.assertNotNull(indexed.loadObjectByReference(ref));
+            Assertions.assertTrue(indexed.isLoadedByReference(ref));
+        } finally {
+            doc.close();
+        }
+        return index;
+    }
+
+    private static byte[] createDocument(boolean fullCompression) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final PdfDocument doc = new PdfDocument(
+                new PdfWriter(output, new WriterProperties().setFullCompressionMode(fullCompression))
+        );
+        doc.addNewPage();
+        doc.addNewPage();
+        new PdfString("TEST").makeIndirect(doc);
+        doc.close();
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for handcrafting the objects and the cross-reference sections of
+ * PDF files in tests.
+ */
+public final class XRefTestUtil {
+    private XRefTestUtil() {
+        // static class
+    }
+
+    /**
+     * Appends an indirect object with generation 0.
+     *
+     * @param file       the file to append to
+     * @param ref        the object number
+     * @param dictionary the body of the object
+     *
+     * @return the offset of the object
+     */
+    public static long appendObject(StringBuilder file, int ref, String dictionary) {
+        final long offset = file.length();
+        file.append(ref).append(" 0 obj\n").append(dictionary).append("\nendobj\n");
+        return offset;
+    }
+
+    /**
+     * Formats a 20-byte entry of a cross-reference table.
+     *
+     * @param location   the offset or the next free object number
+     * @param generation the generation number
+     * @param type       {@code 'n'} or {@code 'f'}
+     *
+     * @return the entry
+     */
+    public static String entry(long location, int generation, char type) {
+        return String.format("%010d %05d %c \n", location, generation, type);
+    }
+
+    /**
+     * Creates a hybrid file. Its table lists the compressed object 4 as free
+     * and refers to a cross-reference stream, which puts the object in the
+     * object stream 3.
+     *
+     * @return the content of the file
+     */
+    public static byte[] createHybridFile() {
+        final StringBuilder file = new StringBuilder("%PDF-1.5\n");
+        final long[] offsets = new long[6];
+        offsets[1] = appendObject(file, 1, "<< /Type /Catalog /Pages 2 0 R >>");
+        offsets[2] = appendObject(file, 2, "<< /Type /Pages /Kids [] /Count 0 >>");
+        final String objects = "4 0 << /Hybrid true >>";
+        offsets[3] = appendObject(file, 3, "<< /Type /ObjStm /N 1 /First 4 /Length " + objects.length()
+                + " >>\nstream\n" + objects + "\nendstream");
+        offsets[5] = appendObject(file, 5, "<< /Type /XRef /Size 6 /W [1 2 1] /Index [4 1] /Length 4 >>"
+                + "\nstream\n\u0002\u0000\u0003\u0000\nendstream");
+        final long xref = file.length();
+        file.append("xref\n0 6\n").append(entry(0, 65535, 'f'));
+        for (int ref = 1; ref < 4; ++ref) {
+            file.append(entry(offsets[ref], 0, 'n'));
+        }
+        file.append(entry(0, 1, 'f')).append(entry(offsets[5], 0, 'n'))
+                .append("trailer\n<< /Size 6 /Root 1 0 R /XRefStm ").append(offsets[5])
+                .append(" >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        return file.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2025 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    APRYSE GROUP. APRYSE GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.rups.view.itext.treenodes;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.rups.view.Language;
+import com.itextpdf.rups.view.icons.IconFetcher;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class PdfObjectTreeNodeTest {
+    @Test
+    void captionIsCreatedOnDemandTest() {
+        final CaptionProbe node = new CaptionProbe(new PdfString("caption"));
+        Assertions.assertNull(node.getStoredCaption());
+        Assertions.assertEquals("caption", node.toString());
+        Assertions.assertEquals("caption", node.getStoredCaption());
+    }
+
+    @Test
+    void dictionaryEntryCaptionTest() {
+        final PdfDictionary dict = new PdfDictionary(Map.of(
+                PdfName.Count, new PdfNumber(3),
+                PdfName.Kids, new PdfDictionary()
+        ));
+        Assertions.assertEquals(
+                PdfObjectTreeNode.getDictionaryEntryCaption(dict, PdfName.Count),
+                PdfObjectTreeNode.getInstance(dict, PdfName.Count).toString()
+        );
+        Assertions.assertEquals("/Kids: Dictionary", PdfObjectTreeNode.getInstance(dict, PdfName.Kids).toString());
+    }
+
+    @Test
+    void setCaptionIsKeptTest() {
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(new PdfNumber(1));
+        node.setUserObject("Page 1");
+        Assertions.assertEquals("Page 1", node.toString());
+    }
+
+    @Test
+    void iconsAreSharedTest() {
+        final PdfObjectTreeNode first = PdfObjectTreeNode.getInstance(new PdfNumber(1));
+        final PdfObjectTreeNode second = PdfObjectTreeNode.getInstance(new PdfNumber(2));
+        Assertions.assertNotNull(first.getIcon());
+        Assertions.assertSame(first.getIcon(), second.getIcon());
+        Assertions.assertSame(IconFetcher.getIcon("number.png"), first.getIcon());
+    }
+
+    @Test
+    void recursiveReferenceIconTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfIndirectReference ref = new PdfDictionary().makeIndirect(doc).getIndirectReference();
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(ref);
+        Assertions.assertSame(IconFetcher.getIcon("ref.png"), node.getIcon());
+        node.setRecursive(true);
+        Assertions.assertSame(IconFetcher.getIcon("ref_recursive.png"), node.getIcon());
+    }
+
+    @Test
+    void pageNodeKeepsItsIconTest() {
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(new PdfDictionary(Map.of(
+                PdfName.Type, PdfName.Page
+        )));
+        Assertions.assertInstanceOf(PdfPageTreeNode.class, node);
+        Assertions.assertSame(IconFetcher.getIcon("page.png"), node.getIcon());
+    }
+
+    @Test
+    void referenceCaptionIsCreatedWithTheNodeTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfDictionary dict = new PdfDictionary(Map.of(PdfName.Type, PdfName.Font));
+        final PdfIndirectReference ref = dict.makeIndirect(doc).getIndirectReference();
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(ref);
+        final PdfObjectTreeNode entry = PdfObjectTreeNode.getInstance(
+                new PdfDictionary(Map.of(PdfName.Font, ref)), PdfName.Font
+        );
+        // The referred object is not read again, when the nodes are painted
+        dict.put(PdfName.Type, PdfName.Page);
+        final String caption = ref + " -> " + String.format(Language.DICTIONARY_OF_TYPE.getString(), PdfName.Font);
+        Assertions.assertEquals(caption, node.toString());
+        Assertions.assertEquals("/Font: " + caption, entry.toString());
+    }
+
+    @Test
+    void indirectTypeIsNotResolvedTest() {
+        final PdfDocument doc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        final PdfObject type = new PdfName("Font").makeIndirect(doc).getIndirectReference();
+        final PdfObjectTreeNode node = PdfObjectTreeNode.getInstance(new PdfDictionary(Map.of(PdfName.Type, type)));
+        Assertions.assertEquals(Language.DICTIONARY.getString(), node.toString());
+    }
+
+    @Test
+    void nodeFieldsTest() {
+        // Every instance field adds to each of the many nodes of a tree
+        final List<String> fields = new ArrayList<>();
+        for (Class<?> c = PdfObjectTreeNode.class; c != Object.class; c = c.getSuperclass()) {
+            for (final Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.add(field.getName());
+                }
+            }
+        }
+        Assertions.assertEquals(List.of(
+                "number", "recursive", "expandable", "pathNumbers", "key", "object",
+                "icon", "textColor",
+                "parent", "children", "userObject", "allowsChildren"
+        ), fields);
+    }
+
+    private static final class CaptionProbe extends PdfObjectTreeNode {
+        CaptionProbe(PdfObject object) {
+            super(object);
+        }
+
+        Object getStoredCaption() {
+            return userObject;
+        }
+    }
+}
@@ -100,6 +100,32 @@ final class AbstractAsn1TreeNodeTest {
         Assertions.assertThrows(NoSuchElementException.class, it::next);
     }
 
+    @Test
+    void copyTree() {
+        final AbstractAsn1TreeNode node = Asn1TreeNodeFactory.fromPrimitive(
+                new DERSequence(new ASN1Encodable[] {
+                        DERNull.INSTANCE,
+                        new DERTaggedObject(true, 1, ASN1Boolean.getInstance(false))
+                })
+        );
+        node.setRfcFieldName("root");
+        node.getChildAt(1).setValueExplanation("NOT-CRITICAL");
+        final AbstractAsn1TreeNode parent = Asn1TreeNodeFactory.fromPrimitive(DERNull.INSTANCE);
+        parent.add(node);
+
+        final AbstractAsn1TreeNode copy = node.copyTree();
+        Assertions.assertNotSame(node, copy);
+        Assertions.assertNull(copy.getParent());
+        Assertions.assertSame(parent, node.getParent());
+        Assertions.assertSame(node.getAsn1Primitive(), copy.getAsn1Primitive());
+        Asn1TestUtil.assertNodeMatches(2, "root", copy);
+        Assertions.assertNotSame(node.getChildAt(0), copy.getChildAt(0));
+        Assertions.assertSame(copy, copy.getChildAt(0).getParent());
+        Asn1TestUtil.assertNodeMatches(0, "NULL: NULL", copy.getChildAt(0));
+        Asn1TestUtil.assertNodeMatches(0, "[1] EXPLICIT BOOLEAN: FALSE (NOT-CRITICAL)", copy.getChildAt(1));
+        Assertions.assertEquals(2, node.getChildCount());
+    }
+
     @Test
     void iPdfContextMenuTargetImplementation() {
         final AbstractAsn1TreeNode node = Asn1TreeNodeFactory.fromPrimitive(DERNull.INSTANCE);